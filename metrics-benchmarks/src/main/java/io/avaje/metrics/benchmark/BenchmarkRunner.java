@@ -0,0 +1,55 @@
+package io.avaje.metrics.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks at 1, 2, 4 ... N threads with the GC profiler enabled.
+ * <p>
+ * Each run reports ops/s (thrpt), ns/op (avgt) and bytes/op ({@code gc.alloc.rate.norm}).
+ * <pre>{@code
+ *
+ *   java -jar metrics-benchmarks/target/benchmarks.jar [include-regex] [maxThreads]
+ *
+ *   # for example, just the timers up to 64 threads
+ *   java -jar metrics-benchmarks/target/benchmarks.jar Timer 64
+ *
+ * }</pre>
+ * The maximum number of threads defaults to the number of available processors. Results
+ * are also written as JSON to {@code jmh-threads-<n>.json}.
+ */
+public final class BenchmarkRunner {
+
+  public static void main(String[] args) throws RunnerException {
+    String include = args.length > 0 ? args[0] : "io.avaje.metrics.benchmark.*";
+    int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    for (int threads : threadCounts(maxThreads)) {
+      ChainedOptionsBuilder options = new OptionsBuilder()
+        .include(include)
+        .threads(threads)
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON)
+        .result("jmh-threads-" + threads + ".json");
+      new Runner(options.build()).run();
+    }
+  }
+
+  /**
+   * Return the thread counts 1, 2, 4 ... up to and including maxThreads.
+   */
+  static List<Integer> threadCounts(int maxThreads) {
+    List<Integer> counts = new ArrayList<>();
+    for (int threads = 1; threads < maxThreads; threads *= 2) {
+      counts.add(threads);
+    }
+    counts.add(Math.max(1, maxThreads));
+    return counts;
+  }
+}
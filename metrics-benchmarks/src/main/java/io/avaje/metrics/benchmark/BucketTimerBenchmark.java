@@ -0,0 +1,69 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Timer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording cost of a bucket timer with events spread over the buckets.
+ * <p>
+ * The per event cost should stay flat as the number of buckets grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BucketTimerBenchmark {
+
+  private static final int DURATIONS = 1024;
+  private static final long STEP_MICROS = 250;
+
+  @Param({"3", "8", "16", "32", "64"})
+  public int buckets;
+
+  private Timer timer;
+  private long[] durations;
+
+  @Setup
+  public void setup() {
+    long[] ranges = new long[buckets];
+    for (int i = 0; i < buckets; i++) {
+      ranges[i] = (i + 1) * STEP_MICROS;
+    }
+    MetricRegistry registry = Metrics.createRegistry();
+    timer = registry.timerBuilder("bench.bucket")
+      .bucketRanges(TimeUnit.MICROSECONDS, ranges)
+      .build();
+
+    // durations spread over all the buckets including the last open ended one
+    Random random = new Random(42);
+    durations = new long[DURATIONS];
+    for (int i = 0; i < DURATIONS; i++) {
+      durations[i] = TimeUnit.MICROSECONDS.toNanos(random.nextInt((buckets + 1) * (int) STEP_MICROS));
+    }
+  }
+
+  @Benchmark
+  public void addEventDuration(ThreadIndex index) {
+    timer.addEventDuration(true, durations[index.next() & (DURATIONS - 1)]);
+  }
+
+  /**
+   * Per thread cursor used to spread the recorded durations over the buckets.
+   */
+  @State(Scope.Thread)
+  public static class ThreadIndex {
+
+    private int position;
+
+    int next() {
+      return position++;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of DELTA collection of a registry holding 100k timers where the given percentage of the
+ * timers were updated since the prior collection, with and without incremental collection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionBenchmark {
+
+  private static final int SERIES = 100_000;
+
+  @Param({"1", "10", "100"})
+  public int activePercent;
+
+  @Param({"true", "false"})
+  public boolean incremental;
+
+  private Timer[] active;
+
+  private MetricRegistry registry;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    registry = Metrics.createRegistry().seriesLimits(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    if (incremental) {
+      registry.incrementalCollection();
+    }
+    final int step = 100 / activePercent;
+    active = new Timer[SERIES / step];
+    for (int i = 0; i < SERIES; i++) {
+      final Timer timer = registry.timer("bench.collect", Tags.of("id:" + i));
+      if (i % step == 0) {
+        active[i / step] = timer;
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void update() {
+    for (Timer timer : active) {
+      timer.addEventDuration(true, 1_000);
+    }
+  }
+
+  @Benchmark
+  public List<Metric.Statistics> collectDelta() {
+    return registry.collectMetrics(CollectionMode.DELTA);
+  }
+}
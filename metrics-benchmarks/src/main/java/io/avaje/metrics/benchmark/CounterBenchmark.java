@@ -0,0 +1,41 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording cost of counters and meters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+
+  private Counter counter;
+  private Meter meter;
+
+  @Setup
+  public void setup() {
+    MetricRegistry registry = Metrics.createRegistry();
+    counter = registry.counter("bench.counter");
+    meter = registry.meter("bench.meter");
+  }
+
+  @Benchmark
+  public void counterInc() {
+    counter.inc();
+  }
+
+  @Benchmark
+  public void meterAddEvent() {
+    meter.addEvent(1024);
+  }
+}
@@ -0,0 +1,71 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of creating new tagged timers while another thread continuously collects a registry
+ * holding 50k series.
+ * <p>
+ * Each measurement is a batch of timer creations into a freshly populated registry (such that the
+ * registry does not grow without bound) and the score is the time per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, batchSize = CreationBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = CreationBenchmark.BATCH)
+@Fork(1)
+public class CreationBenchmark {
+
+  static final int BATCH = 1_000;
+  private static final int SERIES = 50_000;
+
+  @Param({"true", "false"})
+  public boolean collecting;
+
+  private MetricRegistry registry;
+  private Thread collector;
+  private volatile boolean running;
+  private int next;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    // series limits raised such that every creation is a new series rather than overflow
+    registry = Metrics.createRegistry().seriesLimits(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    for (int i = 0; i < SERIES; i++) {
+      registry.timer("bench.series", Tags.of("id", Integer.toString(i))).addEventDuration(true, 1_000);
+    }
+    next = 0;
+    if (collecting) {
+      running = true;
+      collector = new Thread(() -> {
+        while (running) {
+          registry.collectMetrics(CollectionMode.CUMULATIVE);
+        }
+      }, "bench-collector");
+      collector.setDaemon(true);
+      collector.start();
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws InterruptedException {
+    running = false;
+    if (collector != null) {
+      collector.join();
+      collector = null;
+    }
+  }
+
+  @Benchmark
+  public Timer createTimer() {
+    return registry.timer("bench.created", Tags.of("id", Integer.toString(next++)));
+  }
+}
@@ -0,0 +1,49 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Timer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording cost of metrics disabled via {@code metrics.disable=true} compared to an empty
+ * baseline. With the disabled metrics held in static final fields each benchmark is expected to
+ * be indistinguishable from the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dmetrics.disable=true")
+public class DisabledBenchmark {
+
+  private static final MetricRegistry registry = Metrics.createRegistry();
+  private static final Timer timer = registry.timer("bench.disabled.timer");
+  private static final Counter counter = registry.counter("bench.disabled.counter");
+
+  @Benchmark
+  public void baseline() {
+    // empty
+  }
+
+  @Benchmark
+  public void counterInc() {
+    counter.inc();
+  }
+
+  @Benchmark
+  public void timerAdd() {
+    timer.add(timer.startNanos());
+  }
+
+  @Benchmark
+  public void timerEvent() {
+    try (Timer.Event event = timer.startEvent()) {
+      event.end();
+    }
+  }
+}
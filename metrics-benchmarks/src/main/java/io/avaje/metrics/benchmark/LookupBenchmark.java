@@ -0,0 +1,103 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import io.avaje.metrics.TimerGroup;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving existing timers by name, by name and tags, via a TimerGroup by name or
+ * index and via a MetricFamily by label values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+  private static final String[] NAMES = {"findById", "findList", "insert", "update"};
+  private static final String[] ROUTES = {"/customers", "/customers/{id}", "/orders", "/orders/{id}"};
+  private static final String[] STATUS = {"200", "404"};
+
+  private MetricRegistry registry;
+  private TimerGroup timerGroup;
+  private TimerGroup indexedGroup;
+  private MetricFamily<Timer> timerFamily;
+  private Tags tags;
+
+  @Setup
+  public void setup() {
+    registry = Metrics.createRegistry();
+    timerGroup = registry.timerGroup("bench.group");
+    tags = Tags.of("route:/customers/{id}", "status:200");
+    for (String name : NAMES) {
+      timerGroup.timer(name);
+    }
+    indexedGroup = registry.timerGroup("bench.indexed", NAMES);
+    registry.timer("bench.tagged", tags);
+    registry.timer("bench.plain");
+    timerFamily = registry.timerFamily("bench.family", "route", "status");
+    for (String route : ROUTES) {
+      for (String status : STATUS) {
+        timerFamily.with(route, status);
+      }
+    }
+  }
+
+  @Benchmark
+  public Timer timerFamilyWith(ThreadIndex index) {
+    int next = index.next();
+    return timerFamily.with(ROUTES[next & 3], STATUS[(next >>> 2) & 1]);
+  }
+
+  @Benchmark
+  public Timer registryTimerNewTagsPerRoute(ThreadIndex index) {
+    int next = index.next();
+    return registry.timer("bench.family", Tags.of("route:" + ROUTES[next & 3], "status:" + STATUS[(next >>> 2) & 1]));
+  }
+
+  @Benchmark
+  public Timer timerGroupTimer(ThreadIndex index) {
+    return timerGroup.timer(NAMES[index.next() & 3]);
+  }
+
+  @Benchmark
+  public Timer timerGroupIndex(ThreadIndex index) {
+    return indexedGroup.timer(index.next() & 3);
+  }
+
+  @Benchmark
+  public Timer registryTimerWithTags() {
+    return registry.timer("bench.tagged", tags);
+  }
+
+  @Benchmark
+  public Timer registryTimerNewTags() {
+    return registry.timer("bench.tagged", Tags.of("route:/customers/{id}", "status:200"));
+  }
+
+  @Benchmark
+  public Timer registryTimer() {
+    return registry.timer("bench.plain");
+  }
+
+  /**
+   * Per thread cursor used to cycle through the group names.
+   */
+  @State(Scope.Thread)
+  public static class ThreadIndex {
+
+    private int position;
+
+    int next() {
+      return position++;
+    }
+  }
+}
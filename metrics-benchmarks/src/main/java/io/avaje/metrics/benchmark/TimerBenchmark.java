@@ -0,0 +1,94 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording cost of a plain (non bucket) timer and a histogram timer reporting percentiles.
+ * <p>
+ * Run with {@code -prof gc} to check the allocation free paths (startNanos, reusable events and
+ * the context taking time methods) report 0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark {
+
+  private Timer timer;
+  private Timer histogramTimer;
+
+  @Setup
+  public void setup() {
+    MetricRegistry registry = Metrics.createRegistry();
+    timer = registry.timer("bench.timer");
+    histogramTimer = registry.timerBuilder("bench.histogram").percentiles(0.5, 0.99).build();
+  }
+
+  @Benchmark
+  public void timeRunnable(Blackhole bh) {
+    timer.time(() -> bh.consume(1));
+  }
+
+  @Benchmark
+  public Object timeSupplier() {
+    return timer.time(() -> Boolean.TRUE);
+  }
+
+  @Benchmark
+  public void addStartNanos() {
+    timer.add(System.nanoTime());
+  }
+
+  @Benchmark
+  public void startNanosAdd() {
+    timer.add(timer.startNanos());
+  }
+
+  @Benchmark
+  public void timeAccept(Blackhole bh) {
+    timer.timeAccept(bh, TimerBenchmark::consume);
+  }
+
+  @Benchmark
+  public Object timeApply() {
+    return timer.timeApply(this, TimerBenchmark::result);
+  }
+
+  @Benchmark
+  public void startEvent() {
+    timer.startEvent().end();
+  }
+
+  @Benchmark
+  public void reusableEvent(Blackhole bh) {
+    try (Timer.Event event = timer.startReusableEvent()) {
+      bh.consume(event);
+    }
+  }
+
+  private static void consume(Blackhole bh) {
+    bh.consume(1);
+  }
+
+  private static Object result(TimerBenchmark benchmark) {
+    return Boolean.TRUE;
+  }
+
+  @Benchmark
+  public void addEventDuration() {
+    timer.addEventDuration(true, 1_000_000L);
+  }
+
+  @Benchmark
+  public void histogramAddEventDuration() {
+    histogramTimer.addEventDuration(true, 1_000_000L);
+  }
+}
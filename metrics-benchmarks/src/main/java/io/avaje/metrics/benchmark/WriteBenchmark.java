@@ -0,0 +1,56 @@
+package io.avaje.metrics.benchmark;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import io.avaje.metrics.core.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing CUMULATIVE metrics of a registry holding the given number of timers as JSON,
+ * streaming from the metrics to the writer compared with collecting the statistics first.
+ * Run with {@code -prof gc} to compare the allocation per write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+
+  @Param({"1000", "10000"})
+  public int series;
+
+  private MetricRegistry registry;
+
+  private StringBuilder buffer;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    registry = Metrics.createRegistry();
+    for (int i = 0; i < series; i++) {
+      Timer timer = registry.timer("bench.write", Tags.of("id:" + i));
+      timer.addEventDuration(true, 1_000_000);
+    }
+    buffer = new StringBuilder(series * 128);
+  }
+
+  @Benchmark
+  public int streaming() {
+    buffer.setLength(0);
+    registry.collectAsJson(CollectionMode.CUMULATIVE).write(buffer);
+    return buffer.length();
+  }
+
+  @Benchmark
+  public int collectStatistics() {
+    buffer.setLength(0);
+    JsonWriter.writeTo(buffer, registry.collectMetrics(CollectionMode.CUMULATIVE));
+    return buffer.length();
+  }
+}
@@ -2,6 +2,7 @@ package io.avaje.metrics.ebean.insight;
 
 import io.avaje.metrics.CollectionMode;
 import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricReader;
 import io.avaje.metrics.MetricRegistry;
 import io.avaje.metrics.Metrics;
 import io.avaje.metrics.MetricsProvider;
@@ -45,6 +46,7 @@ public final class EbeanInsightProvider implements MetricsProvider {
   }
 
   private final MetricRegistry registry;
+  private final MetricReader insightReader;
   private final InsightClient insightClient;
   private final Predicate<Metric.Statistics> insightFilter;
   private final Predicate<Metric.Statistics> exportFilter;
@@ -62,6 +64,7 @@ public final class EbeanInsightProvider implements MetricsProvider {
     boolean exportDatabaseMetrics) {
 
     this.registry = Objects.requireNonNull(registry, "registry");
+    this.insightReader = registry.reader("ebean.insight");
     Objects.requireNonNull(databases, "databases");
     if (databases.isEmpty()) {
       throw new IllegalArgumentException("at least one database is required");
@@ -94,17 +97,17 @@ public final class EbeanInsightProvider implements MetricsProvider {
   @Override
   public List<Metric.Statistics> provide(CollectionMode mode) {
     if (mode == CollectionMode.CUMULATIVE && this.mode == Mode.DELTA_ON_CUMULATIVE) {
-      // Max values are reset by either collection mode, so capture the Insight
-      // delta before collecting the cumulative export projection.
-      Snapshot insightSnapshot = collect(DELTA);
-      Snapshot exportSnapshot = collect(mode);
+      // Insight reads registry deltas with its own reader such that the cumulative
+      // export (and any other DELTA reader) is unaffected by the Insight collection.
+      Snapshot insightSnapshot = collect(insightReader.collectMetrics(DELTA), DELTA);
+      Snapshot exportSnapshot = collect(registry.collectMetrics(mode), mode);
       sendToInsight(insightSnapshot);
       return exportSnapshot.exportProjection.stream()
         .filter(exportFilter)
         .collect(Collectors.toList());
     }
 
-    Snapshot snapshot = collect(mode);
+    Snapshot snapshot = collect(registry.collectMetrics(mode), mode);
     if (mode == DELTA) {
       sendToInsight(snapshot);
     }
@@ -113,8 +116,7 @@ public final class EbeanInsightProvider implements MetricsProvider {
       .collect(Collectors.toList());
   }
 
-  private Snapshot collect(CollectionMode mode) {
-    List<Metric.Statistics> registryMetrics = registry.collectMetrics(mode);
+  private Snapshot collect(List<Metric.Statistics> registryMetrics, CollectionMode mode) {
     List<Metric.Statistics> insightProjection = new ArrayList<>(registryMetrics);
     List<Metric.Statistics> exportProjection = new ArrayList<>(registryMetrics);
     List<ServerMetrics> databaseSnapshots = new ArrayList<>(databaseSuppliers.size());
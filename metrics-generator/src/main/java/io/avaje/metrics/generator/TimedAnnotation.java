@@ -0,0 +1,129 @@
+package io.avaje.metrics.generator;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of a {@code @Timed} annotation read by name such that the processor does not
+ * depend on the annotation classes.
+ */
+final class TimedAnnotation {
+
+  static final String TIMED = "io.avaje.metrics.annotation.Timed";
+  static final String NOT_TIMED = "io.avaje.metrics.annotation.NotTimed";
+
+  /**
+   * The values used for a method of a class without a class level {@code @Timed}.
+   */
+  static final TimedAnnotation NONE = new TimedAnnotation("", "", Collections.emptyList(), Collections.emptyList(), "DEFAULT");
+
+  private final String prefix;
+  private final String name;
+  private final List<String> tags;
+  private final List<Integer> buckets;
+  private final String span;
+
+  private TimedAnnotation(String prefix, String name, List<String> tags, List<Integer> buckets, String span) {
+    this.prefix = prefix;
+    this.name = name;
+    this.tags = tags;
+    this.buckets = buckets;
+    this.span = span;
+  }
+
+  /**
+   * Return true if the element has the annotation of the given type.
+   */
+  static boolean has(Element element, String annotationType) {
+    return find(element, annotationType) != null;
+  }
+
+  /**
+   * Return the {@code @Timed} values of the element or null if it is not annotated.
+   */
+  static TimedAnnotation read(Element element, Elements elements) {
+    final AnnotationMirror mirror = find(element, TIMED);
+    if (mirror == null) {
+      return null;
+    }
+    String prefix = "";
+    String name = "";
+    List<String> tags = new ArrayList<>();
+    List<Integer> buckets = new ArrayList<>();
+    String span = "DEFAULT";
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+      final Object value = entry.getValue().getValue();
+      switch (entry.getKey().getSimpleName().toString()) {
+        case "prefix":
+          prefix = (String) value;
+          break;
+        case "name":
+          name = (String) value;
+          break;
+        case "tags":
+          for (AnnotationValue tag : values(value)) {
+            tags.add((String) tag.getValue());
+          }
+          break;
+        case "buckets":
+          for (AnnotationValue bucket : values(value)) {
+            buckets.add((Integer) bucket.getValue());
+          }
+          break;
+        case "span":
+          span = ((VariableElement) value).getSimpleName().toString();
+          break;
+        default:
+          break;
+      }
+    }
+    return new TimedAnnotation(prefix, name, tags, buckets, span);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<? extends AnnotationValue> values(Object value) {
+    return (List<? extends AnnotationValue>) value;
+  }
+
+  private static AnnotationMirror find(Element element, String annotationType) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      final Element type = mirror.getAnnotationType().asElement();
+      if (((TypeElement) type).getQualifiedName().contentEquals(annotationType)) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  String prefix() {
+    return prefix;
+  }
+
+  String name() {
+    return name;
+  }
+
+  List<String> tags() {
+    return tags;
+  }
+
+  List<Integer> buckets() {
+    return buckets;
+  }
+
+  /**
+   * Return the span mode name (DEFAULT, CHILD, ROOT or OFF).
+   */
+  String span() {
+    return span;
+  }
+}
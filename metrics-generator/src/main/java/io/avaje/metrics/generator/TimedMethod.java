@@ -0,0 +1,77 @@
+package io.avaje.metrics.generator;
+
+import javax.lang.model.element.ExecutableElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A method of the generated subclass with the settings of its timer.
+ */
+final class TimedMethod {
+
+  private final ExecutableElement method;
+  private final String field;
+  private final String metricName;
+  private final List<String> tags;
+  private final List<Integer> buckets;
+  private final String span;
+
+  /**
+   * Create combining the class level and method level {@code @Timed} values.
+   *
+   * @param field      the unique name of the static timer field
+   * @param methodName the method part of the metric name
+   */
+  TimedMethod(ExecutableElement method, String field, String className, String methodName, TimedAnnotation classTimed, TimedAnnotation methodTimed) {
+    this.method = method;
+    this.field = field;
+    final String prefix = !methodTimed.prefix().isEmpty() ? methodTimed.prefix()
+      : !classTimed.prefix().isEmpty() ? classTimed.prefix() : "app";
+    this.metricName = prefix + "." + className + "." + methodName;
+    this.tags = new ArrayList<>(classTimed.tags());
+    this.tags.addAll(methodTimed.tags());
+    this.buckets = !methodTimed.buckets().isEmpty() ? methodTimed.buckets() : classTimed.buckets();
+    this.span = !"DEFAULT".equals(methodTimed.span()) ? methodTimed.span() : classTimed.span();
+  }
+
+  ExecutableElement method() {
+    return method;
+  }
+
+  String field() {
+    return field;
+  }
+
+  String metricName() {
+    return metricName;
+  }
+
+  List<String> tags() {
+    return tags;
+  }
+
+  List<Integer> buckets() {
+    return buckets;
+  }
+
+  /**
+   * Return true if the timer creates spans in which case events are used to time the method.
+   */
+  boolean traced() {
+    return "CHILD".equals(span) || "ROOT".equals(span);
+  }
+
+  /**
+   * Return the TimerBuilder method that builds the timer.
+   */
+  String buildMethod() {
+    switch (span) {
+      case "CHILD":
+        return "buildTraced";
+      case "ROOT":
+        return "buildRootTraced";
+      default:
+        return "build";
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package io.avaje.metrics.generator;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.ModuleElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Class>$Timed} subclass for each class with {@code @Timed} on the class
+ * or its methods.
+ * <p>
+ * The subclass holds a {@code static final} Timer per timed method and overrides the method to
+ * time the call to super. Use the generated subclass in place of the class (for example when
+ * wiring dependencies) to have the methods timed without bytecode enhancement.
+ * <p>
+ * With {@code @Timed} on the class its public methods are timed. With {@code @Timed} on a
+ * method that method is timed and must be overridable (not private, static or final).
+ * {@code @NotTimed} excludes the class or method.
+ * <p>
+ * The subclass is annotated with {@code @javax.annotation.processing.Generated} when the class is
+ * in the unnamed module or a module that reads {@code java.compiler}.
+ */
+@SupportedAnnotationTypes(TimedAnnotation.TIMED)
+public final class TimedProcessor extends AbstractProcessor {
+
+  private static final String GENERATED = "javax.annotation.processing.Generated";
+  private static final String JAVA_COMPILER = "java.compiler";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+    final TypeElement timed = processingEnv.getElementUtils().getTypeElement(TimedAnnotation.TIMED);
+    if (timed == null) {
+      return false;
+    }
+    final Set<TypeElement> types = new LinkedHashSet<>();
+    for (Element element : round.getElementsAnnotatedWith(timed)) {
+      if (element.getKind() == ElementKind.METHOD) {
+        element = element.getEnclosingElement();
+      }
+      if (element.getKind() != ElementKind.CLASS) {
+        error(element, "@Timed is only supported on classes and their methods");
+      } else {
+        types.add((TypeElement) element);
+      }
+    }
+    for (TypeElement type : types) {
+      if (!TimedAnnotation.has(type, TimedAnnotation.NOT_TIMED) && validType(type)) {
+        generate(type);
+      }
+    }
+    return false;
+  }
+
+  private boolean validType(TypeElement type) {
+    final Set<Modifier> modifiers = type.getModifiers();
+    if (modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+      error(type, "@Timed class must not be final, abstract or private to generate a timed subclass");
+      return false;
+    }
+    if (type.getNestingKind() != NestingKind.TOP_LEVEL
+      && (type.getNestingKind() != NestingKind.MEMBER || !modifiers.contains(Modifier.STATIC))) {
+      error(type, "@Timed class must be a top level or static nested class to generate a timed subclass");
+      return false;
+    }
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (!constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        return true;
+      }
+    }
+    error(type, "@Timed class must have a non-private constructor to generate a timed subclass");
+    return false;
+  }
+
+  private void generate(TypeElement type) {
+    final TimedAnnotation read = TimedAnnotation.read(type, processingEnv.getElementUtils());
+    final TimedAnnotation classTimed = read == null ? TimedAnnotation.NONE : read;
+    final String className = classTimed.name().isEmpty() ? type.getSimpleName().toString() : classTimed.name();
+
+    final List<TimedMethod> methods = new ArrayList<>();
+    final Map<String, Integer> names = new HashMap<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      final TimedAnnotation methodTimed = timed(method, read != null);
+      if (methodTimed != null) {
+        final String methodName = methodTimed.name().isEmpty() ? method.getSimpleName().toString() : methodTimed.name();
+        // overloaded methods without a name get a numbered suffix
+        final int count = names.merge(methodName, 1, Integer::sum);
+        final String unique = count == 1 ? methodName : methodName + "_" + count;
+        final String field = "TIMER_" + unique.replaceAll("[^A-Za-z0-9_]", "_");
+        methods.add(new TimedMethod(method, field, className, unique, classTimed, methodTimed));
+      }
+    }
+    final TimedWriter writer = new TimedWriter(type, methods, generatedAvailable(type));
+    try (Writer out = processingEnv.getFiler().createSourceFile(writer.qualifiedName(), type).openWriter()) {
+      out.write(writer.source());
+    } catch (IOException e) {
+      error(type, "Failed to write timed subclass " + writer.qualifiedName() + " " + e);
+    }
+  }
+
+  /**
+   * Return true if {@code @Generated} from the java.compiler module can be used by the type.
+   */
+  private boolean generatedAvailable(TypeElement type) {
+    final Elements elements = processingEnv.getElementUtils();
+    if (elements.getTypeElement(GENERATED) == null) {
+      return false;
+    }
+    final ModuleElement module = elements.getModuleOf(type);
+    return module == null || module.isUnnamed() || reads(module);
+  }
+
+  /**
+   * Return true if the module reads java.compiler directly or via a transitive dependency.
+   */
+  private static boolean reads(ModuleElement module) {
+    final Set<String> visited = new HashSet<>();
+    for (ModuleElement.RequiresDirective requires : ElementFilter.requiresIn(module.getDirectives())) {
+      final ModuleElement dependency = requires.getDependency();
+      if (dependency.getQualifiedName().contentEquals(JAVA_COMPILER) || transitivelyReads(dependency, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean transitivelyReads(ModuleElement module, Set<String> visited) {
+    if (!visited.add(module.getQualifiedName().toString())) {
+      return false;
+    }
+    for (ModuleElement.RequiresDirective requires : ElementFilter.requiresIn(module.getDirectives())) {
+      if (requires.isTransitive()
+        && (requires.getDependency().getQualifiedName().contentEquals(JAVA_COMPILER)
+        || transitivelyReads(requires.getDependency(), visited))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return the method level values when the method is timed or null when it is not.
+   */
+  private TimedAnnotation timed(ExecutableElement method, boolean classTimed) {
+    if (TimedAnnotation.has(method, TimedAnnotation.NOT_TIMED)) {
+      return null;
+    }
+    final Set<Modifier> modifiers = method.getModifiers();
+    final boolean overridable = !modifiers.contains(Modifier.PRIVATE)
+      && !modifiers.contains(Modifier.STATIC)
+      && !modifiers.contains(Modifier.FINAL)
+      && !modifiers.contains(Modifier.ABSTRACT);
+
+    final TimedAnnotation methodTimed = TimedAnnotation.read(method, processingEnv.getElementUtils());
+    if (methodTimed != null) {
+      if (!overridable) {
+        error(method, "@Timed method must not be private, static, final or abstract to be timed by a generated subclass");
+        return null;
+      }
+      return methodTimed;
+    }
+    if (!classTimed || !modifiers.contains(Modifier.PUBLIC)) {
+      return null;
+    }
+    if (modifiers.contains(Modifier.FINAL) && !modifiers.contains(Modifier.STATIC)) {
+      warning(method, "public final method of @Timed class is not timed by the generated subclass, remove final or add @NotTimed");
+    }
+    return overridable ? TimedAnnotation.NONE : null;
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private void warning(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+  }
+}
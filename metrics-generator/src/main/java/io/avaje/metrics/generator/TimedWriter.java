@@ -0,0 +1,310 @@
+package io.avaje.metrics.generator;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.TypeVisitor;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.SimpleTypeVisitor9;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the source of the timed subclass.
+ * <p>
+ * Types are written fully qualified such that no imports are needed.
+ */
+final class TimedWriter {
+
+  private final TypeElement type;
+  private final List<TimedMethod> methods;
+  private final boolean generated;
+  private final String packageName;
+  private final String simpleName;
+  private final StringBuilder source = new StringBuilder(2048);
+
+  TimedWriter(TypeElement type, List<TimedMethod> methods, boolean generated) {
+    this.type = type;
+    this.methods = methods;
+    this.generated = generated;
+    this.packageName = packageOf(type).getQualifiedName().toString();
+    this.simpleName = generatedName(type);
+  }
+
+  private static PackageElement packageOf(Element element) {
+    while (element.getKind() != ElementKind.PACKAGE) {
+      element = element.getEnclosingElement();
+    }
+    return (PackageElement) element;
+  }
+
+  /**
+   * Return the simple name of the generated class, Outer$Inner$Timed for a nested class.
+   */
+  private static String generatedName(TypeElement type) {
+    String name = type.getSimpleName().toString();
+    Element enclosing = type.getEnclosingElement();
+    while (enclosing.getKind() != ElementKind.PACKAGE) {
+      name = enclosing.getSimpleName() + "$" + name;
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return name + "$Timed";
+  }
+
+  String qualifiedName() {
+    return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+  }
+
+  String source() {
+    if (!packageName.isEmpty()) {
+      append("package ").append(packageName).append(";\n\n");
+    }
+    append("/**\n");
+    append(" * Timed subclass of {@link ").append(type.getQualifiedName()).append("}.\n");
+    append(" */\n");
+    if (generated) {
+      append("@javax.annotation.processing.Generated(\"avaje-metrics-generator\")\n");
+    }
+    if (type.getModifiers().contains(Modifier.PUBLIC)) {
+      append("public ");
+    }
+    append("final class ").append(simpleName).append(typeParameters(type.getTypeParameters()));
+    append(" extends ").append(type.getQualifiedName()).append(typeArguments(type.getTypeParameters())).append(" {\n");
+    for (TimedMethod method : methods) {
+      writeField(method);
+    }
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (!constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        writeConstructor(constructor);
+      }
+    }
+    for (TimedMethod method : methods) {
+      writeMethod(method);
+    }
+    append("}\n");
+    return source.toString();
+  }
+
+  private void writeField(TimedMethod method) {
+    append("\n  private static final io.avaje.metrics.Timer ").append(method.field());
+    append(" = io.avaje.metrics.Metrics.timerBuilder(").append(quote(method.metricName())).append(")");
+    if (!method.tags().isEmpty()) {
+      append("\n    .tags(io.avaje.metrics.Tags.of(");
+      append(method.tags().stream().map(TimedWriter::quote).collect(Collectors.joining(", "))).append("))");
+    }
+    if (!method.buckets().isEmpty()) {
+      append("\n    .bucketRanges(");
+      append(method.buckets().stream().map(String::valueOf).collect(Collectors.joining(", "))).append(")");
+    }
+    append("\n    .").append(method.buildMethod()).append("();\n");
+  }
+
+  private void writeConstructor(ExecutableElement constructor) {
+    append("\n  ").append(access(constructor)).append(typeParameters(constructor.getTypeParameters()));
+    append(simpleName).append("(").append(parameters(constructor)).append(")").append(throwsClause(constructor)).append(" {\n");
+    append("    super(").append(arguments(constructor)).append(");\n");
+    append("  }\n");
+  }
+
+  private void writeMethod(TimedMethod timed) {
+    final ExecutableElement method = timed.method();
+    final boolean returns = method.getReturnType().getKind() != TypeKind.VOID;
+    final String timer = timed.field();
+    final String call = "super." + method.getSimpleName() + "(" + arguments(method) + ");\n";
+    final String event = local(method, "event");
+    final String start = local(method, "start");
+    final String result = local(method, "result");
+    final String error = local(method, "e");
+
+    append("\n  @Override\n");
+    append("  ").append(access(method)).append(typeParameters(method.getTypeParameters()));
+    append(typeName(method.getReturnType())).append(" ").append(method.getSimpleName());
+    append("(").append(parameters(method)).append(")").append(throwsClause(method)).append(" {\n");
+    if (timed.traced()) {
+      append("    final io.avaje.metrics.Timer.Event ").append(event).append(" = ").append(timer).append(".startEvent();\n");
+    } else {
+      append("    final long ").append(start).append(" = ").append(timer).append(".startNanos();\n");
+    }
+    append("    try {\n");
+    if (returns) {
+      append("      final ").append(typeName(method.getReturnType())).append(" ").append(result).append(" = ").append(call);
+    } else {
+      append("      ").append(call);
+    }
+    append(timed.traced() ? "      " + event + ".end();\n" : "      " + timer + ".add(" + start + ");\n");
+    if (returns) {
+      append("      return ").append(result).append(";\n");
+    }
+    append("    } catch (Throwable ").append(error).append(") {\n");
+    append(timed.traced() ? "      " + event + ".endWithError(" + error + ");\n" : "      " + timer + ".addErr(" + start + ", " + error + ");\n");
+    append("      throw ").append(error).append(";\n");
+    append("    }\n");
+    append("  }\n");
+  }
+
+  /**
+   * Return the name of a local variable that does not clash with the parameters of the method.
+   */
+  private static String local(ExecutableElement method, String name) {
+    String local = "$" + name;
+    while (hasParameter(method, local)) {
+      local = "$" + local;
+    }
+    return local;
+  }
+
+  private static boolean hasParameter(ExecutableElement method, String name) {
+    for (VariableElement parameter : method.getParameters()) {
+      if (parameter.getSimpleName().contentEquals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return the source name of the type without type-use annotations such as jspecify
+   * {@code @Nullable}, which are not legal in the position of a fully qualified name.
+   */
+  static String typeName(TypeMirror type) {
+    return type.accept(TYPE_NAME, null);
+  }
+
+  private static final TypeVisitor<String, Void> TYPE_NAME = new SimpleTypeVisitor9<>() {
+
+    @Override
+    protected String defaultAction(TypeMirror type, Void unused) {
+      return type.toString();
+    }
+
+    @Override
+    public String visitPrimitive(PrimitiveType type, Void unused) {
+      return type.getKind().name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String visitArray(ArrayType type, Void unused) {
+      return typeName(type.getComponentType()) + "[]";
+    }
+
+    @Override
+    public String visitDeclared(DeclaredType type, Void unused) {
+      final TypeElement element = (TypeElement) type.asElement();
+      final TypeMirror enclosing = type.getEnclosingType();
+      final String name = enclosing.getKind() == TypeKind.DECLARED && !((DeclaredType) enclosing).getTypeArguments().isEmpty()
+        ? typeName(enclosing) + "." + element.getSimpleName()
+        : element.getQualifiedName().toString();
+      if (type.getTypeArguments().isEmpty()) {
+        return name;
+      }
+      return type.getTypeArguments().stream()
+        .map(TimedWriter::typeName)
+        .collect(Collectors.joining(", ", name + "<", ">"));
+    }
+
+    @Override
+    public String visitTypeVariable(TypeVariable type, Void unused) {
+      return type.asElement().getSimpleName().toString();
+    }
+
+    @Override
+    public String visitWildcard(WildcardType type, Void unused) {
+      if (type.getExtendsBound() != null) {
+        return "? extends " + typeName(type.getExtendsBound());
+      }
+      if (type.getSuperBound() != null) {
+        return "? super " + typeName(type.getSuperBound());
+      }
+      return "?";
+    }
+
+    @Override
+    public String visitIntersection(IntersectionType type, Void unused) {
+      return type.getBounds().stream().map(TimedWriter::typeName).collect(Collectors.joining(" & "));
+    }
+  };
+
+  private static String access(Element element) {
+    final var modifiers = element.getModifiers();
+    if (modifiers.contains(Modifier.PUBLIC)) {
+      return "public ";
+    }
+    return modifiers.contains(Modifier.PROTECTED) ? "protected " : "";
+  }
+
+  private static String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+    if (typeParameters.isEmpty()) {
+      return "";
+    }
+    final List<String> declared = new ArrayList<>();
+    for (TypeParameterElement typeParameter : typeParameters) {
+      final String bounds = typeParameter.getBounds().stream()
+        .map(TimedWriter::typeName)
+        .filter(bound -> !"java.lang.Object".equals(bound))
+        .collect(Collectors.joining(" & "));
+      declared.add(bounds.isEmpty() ? typeParameter.getSimpleName().toString() : typeParameter.getSimpleName() + " extends " + bounds);
+    }
+    return "<" + String.join(", ", declared) + "> ";
+  }
+
+  private static String typeArguments(List<? extends TypeParameterElement> typeParameters) {
+    if (typeParameters.isEmpty()) {
+      return "";
+    }
+    return typeParameters.stream()
+      .map(typeParameter -> typeParameter.getSimpleName().toString())
+      .collect(Collectors.joining(", ", "<", ">"));
+  }
+
+  private static String parameters(ExecutableElement executable) {
+    final List<? extends VariableElement> parameters = executable.getParameters();
+    final List<String> declared = new ArrayList<>();
+    for (int i = 0; i < parameters.size(); i++) {
+      final VariableElement parameter = parameters.get(i);
+      final TypeMirror parameterType = parameter.asType();
+      final String typeName = executable.isVarArgs() && i == parameters.size() - 1
+        ? typeName(((ArrayType) parameterType).getComponentType()) + "..."
+        : typeName(parameterType);
+      declared.add(typeName + " " + parameter.getSimpleName());
+    }
+    return String.join(", ", declared);
+  }
+
+  private static String arguments(ExecutableElement executable) {
+    return executable.getParameters().stream()
+      .map(parameter -> parameter.getSimpleName().toString())
+      .collect(Collectors.joining(", "));
+  }
+
+  private static String throwsClause(ExecutableElement executable) {
+    if (executable.getThrownTypes().isEmpty()) {
+      return "";
+    }
+    return executable.getThrownTypes().stream()
+      .map(TimedWriter::typeName)
+      .collect(Collectors.joining(", ", " throws ", ""));
+  }
+
+  private static String quote(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private StringBuilder append(Object value) {
+    return source.append(value);
+  }
+}
@@ -0,0 +1,8 @@
+module io.avaje.metrics.generator {
+
+  requires java.compiler;
+  // the generated subclasses use io.avaje.metrics, the processor itself does not
+  requires static io.avaje.metrics;
+
+  provides javax.annotation.processing.Processor with io.avaje.metrics.generator.TimedProcessor;
+}
@@ -0,0 +1,83 @@
+package io.avaje.metrics.generator;
+
+import io.avaje.metrics.annotation.NotTimed;
+import io.avaje.metrics.annotation.Timed;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@Timed(prefix = "app.billing", tags = "component:billing")
+public class BillingService {
+
+  private final String region;
+
+  public BillingService(String region) {
+    this.region = region;
+  }
+
+  @Timed(name = "sync", tags = "operation:sync", buckets = {100, 200, 500})
+  public void syncInvoices() {
+  }
+
+  public String find(String id) throws IOException {
+    if (id.isEmpty()) {
+      throw new IOException("empty id");
+    }
+    return region + ":" + id;
+  }
+
+  public String find(int id) {
+    return region + ":" + id;
+  }
+
+  public int total(int... amounts) {
+    int total = 0;
+    for (int amount : amounts) {
+      total += amount;
+    }
+    return total;
+  }
+
+  @Timed(span = Timed.SpanMode.CHILD)
+  protected String traced() {
+    return "traced";
+  }
+
+  // parameters named as the locals of the generated method
+  public String clash(long start, String result, String event, int e) {
+    return result + start + event + e;
+  }
+
+  @Timed(span = Timed.SpanMode.CHILD)
+  protected void tracedClash(Object event, RuntimeException e) {
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  public @Nullable String lookup(List<@Nullable String> values, Map<String, ? extends @Nullable Number> weights, String @Nullable [] extra) {
+    return values.isEmpty() ? null : values.get(0);
+  }
+
+  @NotTimed
+  public void helper() {
+  }
+
+  void packagePrivate() {
+  }
+
+  // not overridable so not timed, with a compiler warning
+  public final String region() {
+    return region;
+  }
+
+  public static class Nested {
+
+    @Timed
+    public <T extends Comparable<T>> T max(T first, T second) {
+      return first.compareTo(second) >= 0 ? first : second;
+    }
+  }
+}
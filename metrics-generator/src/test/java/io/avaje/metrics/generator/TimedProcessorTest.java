@@ -0,0 +1,90 @@
+package io.avaje.metrics.generator;
+
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimedProcessorTest {
+
+  private final BillingService service = new BillingService$Timed("nz");
+
+  @Test
+  void timedMethods_expectTimersRecorded() throws IOException {
+    service.syncInvoices();
+    assertThat(service.find("a")).isEqualTo("nz:a");
+    assertThat(service.find(1)).isEqualTo("nz:1");
+    assertThat(service.total(1, 2, 3)).isEqualTo(6);
+    assertThat(service.traced()).isEqualTo("traced");
+    service.helper();
+    service.packagePrivate();
+    assertThat(service.region()).isEqualTo("nz");
+
+    List<Metric.Statistics> stats = Metrics.collectMetrics();
+    assertThat(count(stats, "app.billing.BillingService.sync")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.find")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.find_2")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.total")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.traced")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.helper")).isZero();
+    assertThat(count(stats, "app.billing.BillingService.packagePrivate")).isZero();
+    assertThat(count(stats, "app.billing.BillingService.region")).isZero();
+  }
+
+  @Test
+  void exception_expectErrorRecordedAndRethrown() {
+    assertThatThrownBy(() -> service.find("")).isInstanceOf(IOException.class);
+    List<Metric.Statistics> stats = Metrics.collectMetrics();
+    assertThat(count(stats, "app.billing.BillingService.find.error")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.find")).isZero();
+  }
+
+  @Test
+  void parametersNamedAsLocals_expectTimed() {
+    assertThat(service.clash(1, "r", "e", 2)).isEqualTo("r1e2");
+    assertThatThrownBy(() -> service.tracedClash("event", new IllegalStateException()))
+      .isInstanceOf(IllegalStateException.class);
+    List<Metric.Statistics> stats = Metrics.collectMetrics();
+    assertThat(count(stats, "app.billing.BillingService.clash")).isEqualTo(1);
+    assertThat(count(stats, "app.billing.BillingService.tracedClash.error")).isEqualTo(1);
+  }
+
+  @Test
+  void typeUseAnnotations_expectTimed() {
+    assertThat(service.lookup(Arrays.asList("a", null), Map.of("a", 1), null)).isEqualTo("a");
+    assertThat(service.lookup(List.of(), Map.of(), new String[0])).isNull();
+    assertThat(count(Metrics.collectMetrics(), "app.billing.BillingService.lookup")).isEqualTo(2);
+  }
+
+  @Test
+  void nested_expectTimedSubclass() {
+    BillingService.Nested nested = new BillingService$Nested$Timed();
+    assertThat(nested.max("a", "b")).isEqualTo("b");
+    assertThat(count(Metrics.collectMetrics(), "app.Nested.max")).isEqualTo(1);
+  }
+
+  @Test
+  void timerFields_expectStaticFinal() throws NoSuchFieldException {
+    Field field = BillingService$Timed.class.getDeclaredField("TIMER_sync");
+    assertThat(Modifier.isStatic(field.getModifiers())).isTrue();
+    assertThat(Modifier.isFinal(field.getModifiers())).isTrue();
+    assertThat(field.getType()).isEqualTo(Timer.class);
+  }
+
+  private static long count(List<Metric.Statistics> stats, String name) {
+    return stats.stream()
+      .filter(stat -> stat.name().equals(name))
+      .mapToLong(stat -> ((Timer.Stats) stat).count())
+      .sum();
+  }
+}
@@ -1,6 +1,7 @@
 package io.avaje.metrics.graphite;
 
 import io.avaje.applog.AppLog;
+import io.avaje.metrics.Metric;
 
 import java.io.IOException;
 import java.util.List;
@@ -31,12 +32,30 @@ final class DGraphiteReporter implements GraphiteReporter {
     } catch (IOException e) {
       log.log(WARNING, "Error reporting metrics", e);
     } finally {
-      try {
-        sender.close();
-      } catch (Throwable e) {
-        log.log(ERROR, "Error closing graphite sender", e);
-      }
-      log.log(DEBUG, "metrics reported in {0}ms", System.currentTimeMillis() - start);
+      close(start);
+    }
+  }
+
+  @Override
+  public void report(List<Metric.Statistics> snapshot) {
+    long start = System.currentTimeMillis();
+    try {
+      sender.connect();
+      sender.send(snapshot);
+      sender.flush();
+    } catch (IOException e) {
+      log.log(WARNING, "Error reporting metrics", e);
+    } finally {
+      close(start);
+    }
+  }
+
+  private void close(long start) {
+    try {
+      sender.close();
+    } catch (Throwable e) {
+      log.log(ERROR, "Error closing graphite sender", e);
     }
+    log.log(DEBUG, "metrics reported in {0}ms", System.currentTimeMillis() - start);
   }
 }
@@ -22,7 +22,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 final class DGraphiteSender implements GraphiteSender {
 
   private static final System.Logger log = AppLog.getLogger(GraphiteReporter.class);
-  private static final String LABEL_PREFIX = "label:";
+  private static final String LABEL_KEY = "label";
   private static final String APP_COMPONENT_NAME = "app.component";
   private static final String APP_PREFIX = "app.";
 
@@ -149,9 +149,10 @@ final class DGraphiteSender implements GraphiteSender {
 
   private static String createGraphiteName(Metric.ID id) {
     var name = id.name();
-    for (String tag : id.tags().array()) {
-      if (tag != null && tag.startsWith(LABEL_PREFIX) && tag.length() > LABEL_PREFIX.length()) {
-        var label = tag.substring(LABEL_PREFIX.length());
+    var tags = id.tags();
+    for (int i = 0; i < tags.size(); i++) {
+      var label = tags.value(i);
+      if (LABEL_KEY.equals(tags.key(i)) && !label.isEmpty()) {
         if (APP_COMPONENT_NAME.equals(name)) {
           return APP_PREFIX + label;
         }
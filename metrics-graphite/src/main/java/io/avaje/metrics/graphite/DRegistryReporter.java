@@ -1,17 +1,18 @@
 package io.avaje.metrics.graphite;
 
+import io.avaje.metrics.MetricReader;
 import io.avaje.metrics.MetricRegistry;
 
 final class DRegistryReporter implements GraphiteSender.Reporter {
 
-  private final MetricRegistry registry;
+  private final MetricReader reader;
 
   DRegistryReporter(MetricRegistry registry) {
-    this.registry = registry;
+    this.reader = registry.reader("graphite");
   }
 
   @Override
   public void report(GraphiteSender sender) {
-    sender.send(registry.collectMetrics());
+    sender.send(reader.collectMetrics());
   }
 }
@@ -1,11 +1,13 @@
 package io.avaje.metrics.graphite;
 
+import io.avaje.metrics.Metric;
 import io.avaje.metrics.MetricRegistry;
 import io.avaje.metrics.MetricSupplier;
 import io.ebean.Database;
 import io.ebean.meta.ServerMetrics;
 
 import javax.net.SocketFactory;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -56,6 +58,15 @@ public interface GraphiteReporter {
    */
   void report();
 
+  /**
+   * Send the supplied metric snapshot to the graphite server once.
+   * <p>
+   * The snapshot is not collected or modified by the reporter. The registry, supplier and
+   * database reporters are not run, such that this can be used as a {@link io.avaje.metrics.MetricsPipeline}
+   * sink. An error reporting the metrics is captured and logged.
+   */
+  void report(List<Metric.Statistics> snapshot);
+
   /**
    * Build the GraphiteReporter.
    */
@@ -25,7 +25,7 @@ final class DOtelMetricProducer implements OtelMetricProducer {
     long timedThresholdMicros,
     LongSupplier epochNanosSource) {
 
-    this(MetricsProvider.forRegistry(registry), scopeInfo, timedThresholdMicros, epochNanosSource);
+    this(MetricsProvider.forReader(registry.reader("otel.producer")), scopeInfo, timedThresholdMicros, epochNanosSource);
   }
 
   DOtelMetricProducer(
@@ -44,7 +44,7 @@ final class DOtelMetricProducerBuilder implements OtelMetricProducer.Builder {
   public OtelMetricProducer build() {
     var effectiveProvider = metricsProvider != null
       ? metricsProvider
-      : MetricsProvider.forRegistry(registry != null ? registry : Metrics.registry());
+      : MetricsProvider.forReader((registry != null ? registry : Metrics.registry()).reader("otel.producer"));
     var scopeInfo = InstrumentationScopeInfo.create(scopeName);
     return new DOtelMetricProducer(
       effectiveProvider,
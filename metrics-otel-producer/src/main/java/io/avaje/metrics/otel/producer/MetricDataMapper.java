@@ -16,7 +16,11 @@ import io.opentelemetry.sdk.metrics.data.GaugeData;
 import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.SumData;
+import io.opentelemetry.sdk.metrics.data.ValueAtQuantile;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableValueAtQuantile;
 import io.opentelemetry.sdk.resources.Resource;
 
 import java.util.ArrayList;
@@ -31,7 +35,7 @@ final class MetricDataMapper {
 
   private final InstrumentationScopeInfo scopeInfo;
   private final long timedThresholdMicros;
-  private final ConcurrentHashMap<String, Attributes> attributeCache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Tags, Attributes> attributeCache = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, DerivedMetricNames> derivedNameCache = new ConcurrentHashMap<>();
 
   MetricDataMapper(InstrumentationScopeInfo scopeInfo, long timedThresholdMicros) {
@@ -117,6 +121,27 @@ final class MetricDataMapper {
       metrics.add(longSumMetric(names.count(), COUNT_UNIT, stats.count(), true, attributes));
       metrics.add(longSumMetric(names.total(), unit, stats.total(), true, attributes));
       metrics.add(longGaugeMetric(names.max(), unit, stats.max(), attributes));
+      var histogram = stats.histogram();
+      if (histogram != null) {
+        metrics.add(summaryMetric(stats.name(), unit, stats, histogram, attributes));
+      }
+    }
+
+    private MetricData summaryMetric(String name, String unit, Meter.Stats stats, Meter.Histogram histogram, Attributes attributes) {
+      var quantiles = histogram.quantiles();
+      var percentiles = histogram.percentiles();
+      var values = new ArrayList<ValueAtQuantile>(quantiles.length);
+      for (int i = 0; i < quantiles.length; i++) {
+        values.add(ImmutableValueAtQuantile.create(quantiles[i], percentiles[i]));
+      }
+      return ImmutableMetricData.createDoubleSummary(
+        resource,
+        scopeInfo,
+        name,
+        DESCRIPTION,
+        unit,
+        ImmutableSummaryData.create(
+          List.of(ImmutableSummaryPointData.create(startEpochNanos, epochNanos, attributes, stats.count(), stats.total(), values))));
     }
 
     private MetricData longSumMetric(String name, String unit, long value, boolean monotonic, Attributes attributes) {
@@ -160,22 +185,16 @@ final class MetricDataMapper {
   }
 
   private Attributes attributes(Tags tags) {
-    var cacheKey = tags.cacheKey();
-    if (cacheKey.isEmpty()) {
+    if (tags.isEmpty()) {
       return Attributes.empty();
     }
-    return attributeCache.computeIfAbsent(cacheKey, key -> buildAttributes(tags));
+    return attributeCache.computeIfAbsent(tags, MetricDataMapper::buildAttributes);
   }
 
-  private Attributes buildAttributes(Tags tags) {
+  private static Attributes buildAttributes(Tags tags) {
     AttributesBuilder builder = Attributes.builder();
-    for (String tag : tags.array()) {
-      if (tag != null) {
-        int colon = tag.indexOf(':');
-        if (colon > 0) {
-          builder.put(tag.substring(0, colon), tag.substring(colon + 1));
-        }
-      }
+    for (int i = 0; i < tags.size(); i++) {
+      builder.put(tags.key(i), tags.value(i));
     }
     return builder.build();
   }
@@ -145,7 +145,7 @@ class OtelMetricProducerTest {
     assertThat(onlyLongGaugePoint(third.get("app.service.method.max")).getValue()).isEqualTo(5_000L);
     assertThat(onlyLongSumPoint(third.get("app.service.method.error.count")).getValue()).isEqualTo(2);
     assertThat(onlyLongSumPoint(third.get("app.service.method.error.total")).getValue()).isEqualTo(9_000L);
-    assertThat(onlyLongGaugePoint(third.get("app.service.method.error.max")).getValue()).isEqualTo(2_000L);
+    assertThat(onlyLongGaugePoint(third.get("app.service.method.error.max")).getValue()).isEqualTo(7_000L);
   }
 
   @Test
@@ -167,7 +167,28 @@ class OtelMetricProducerTest {
 
     assertThat(onlyLongSumPoint(metrics.get("app.fast.method.count")).getValue()).isEqualTo(2);
     assertThat(onlyLongSumPoint(metrics.get("app.fast.method.total")).getValue()).isEqualTo(10_000L);
-    assertThat(onlyLongGaugePoint(metrics.get("app.fast.method.max")).getValue()).isEqualTo(1_000L);
+    assertThat(onlyLongGaugePoint(metrics.get("app.fast.method.max")).getValue()).isEqualTo(9_000L);
+  }
+
+  @Test
+  void timerWithPercentiles_mapsSummary() {
+    var epochNanosSource = new MutableEpochNanosSource(epochNanos(Instant.parse("2026-01-01T00:00:00Z")));
+    var registry = Metrics.createRegistry();
+    var producer = new DOtelMetricProducer(registry, InstrumentationScopeInfo.create("test.scope"), 0, epochNanosSource);
+    Timer timer = registry.timerBuilder("app.service.percentiles").percentiles(0.5, 0.99).build();
+
+    timer.addEventDuration(true, 10_000L);
+    timer.addEventDuration(true, 20_000L);
+    epochNanosSource.advanceSeconds(5);
+    Map<String, MetricData> metrics = byName(producer.produce(Resource.empty()));
+
+    MetricData summary = metrics.get("app.service.percentiles");
+    assertThat(summary.getUnit()).isEqualTo("us");
+    var point = summary.getSummaryData().getPoints().iterator().next();
+    assertThat(point.getCount()).isEqualTo(2);
+    assertThat(point.getSum()).isEqualTo(30);
+    assertThat(point.getValues()).extracting(v -> v.getQuantile()).containsExactly(0.5, 0.99);
+    assertThat(point.getValues()).extracting(v -> v.getValue()).containsExactly(10.0, 20.0);
   }
 
   @Test
@@ -68,7 +68,7 @@ final class DOtelBuilder implements OtelReporter.Builder {
     MetricRegistry effectiveRegistry = registry != null ? registry : Metrics.registry();
     MetricsProvider effectiveProvider = metricsProvider != null
       ? metricsProvider
-      : MetricsProvider.forRegistry(effectiveRegistry);
+      : MetricsProvider.forReader(effectiveRegistry.reader("otel.reporter"));
     Meter otelMeter = resolveMeter();
     OtelVisitor visitor = new OtelVisitor(otelMeter, timedThresholdMicros);
     return new DOtelReporter(effectiveProvider, visitor, schedule, scheduleTimeUnit);
@@ -94,7 +94,7 @@ public interface OtelReporter extends AutoCloseable {
 
     /**
      * Specify the provider used to obtain metrics for scheduled and manual reporting.
-     * Defaults to collecting from the configured registry.
+     * Defaults to collecting from the configured registry using a reader named {@code otel.reporter}.
      */
     Builder metricsProvider(MetricsProvider metricsProvider);
 
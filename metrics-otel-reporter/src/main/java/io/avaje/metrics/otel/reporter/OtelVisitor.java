@@ -44,7 +44,7 @@ final class OtelVisitor implements Metric.Visitor {
   private final ConcurrentHashMap<String, String> meterValueUnitCache = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, String> gaugeLongUnitCache = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, String> gaugeDoubleUnitCache = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, Attributes> attributeCache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Tags, Attributes> attributeCache = new ConcurrentHashMap<>();
 
   OtelVisitor(io.opentelemetry.api.metrics.Meter otelMeter, long timedThresholdMicros) {
     this.otelMeter = otelMeter;
@@ -147,22 +147,16 @@ final class OtelVisitor implements Metric.Visitor {
   }
 
   private Attributes attributes(Tags tags) {
-    String cacheKey = tags.cacheKey();
-    if (cacheKey.isEmpty()) {
+    if (tags.isEmpty()) {
       return Attributes.empty();
     }
-    return attributeCache.computeIfAbsent(cacheKey, key -> buildAttributes(tags));
+    return attributeCache.computeIfAbsent(tags, OtelVisitor::buildAttributes);
   }
 
   static Attributes buildAttributes(Tags tags) {
     AttributesBuilder builder = Attributes.builder();
-    for (String tag : tags.array()) {
-      if (tag != null) {
-        int colon = tag.indexOf(':');
-        if (colon > 0) {
-          builder.put(tag.substring(0, colon), tag.substring(colon + 1));
-        }
-      }
+    for (int i = 0; i < tags.size(); i++) {
+      builder.put(tags.key(i), tags.value(i));
     }
     return builder.build();
   }
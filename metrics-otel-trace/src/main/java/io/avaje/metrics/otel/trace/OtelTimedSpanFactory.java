@@ -1,21 +1,33 @@
 package io.avaje.metrics.otel.trace;
 
 import io.avaje.metrics.Metric;
+import io.avaje.metrics.Tags;
 import io.avaje.metrics.spi.SpiTimedSpanFactory;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.Context;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
 /**
  * OTEL span support for traced timers.
+ * <p>
+ * Spans are either started with each event or, for timers with a span threshold, created when a
+ * slow event ends with explicit start and end timestamps.
  */
 public final class OtelTimedSpanFactory implements SpiTimedSpanFactory {
 
   static final String SCOPE_NAME = "io.avaje.metrics";
   static final String ATTR_METRIC_NAME = "avaje.metrics.name";
   static final String ATTR_BUCKET_RANGE = "avaje.metrics.bucket";
+  private static final Tracer NOOP_TRACER = TracerProvider.noop().get(SCOPE_NAME);
 
   @Override
   public @Nullable Prepared prepare(Metric.ID id, @Nullable String bucketRange) {
@@ -28,10 +40,10 @@ public final class OtelTimedSpanFactory implements SpiTimedSpanFactory {
   }
 
   private String spanName(Metric.ID id) {
-    for (String tag : id.tags().array()) {
-      int colon = tag.indexOf(':');
-      if (colon > 0 && "label".equals(tag.substring(0, colon))) {
-        return tag.substring(colon + 1);
+    Tags tags = id.tags();
+    for (int i = 0; i < tags.size(); i++) {
+      if ("label".equals(tags.key(i))) {
+        return tags.value(i);
       }
     }
     return id.name();
@@ -40,19 +52,16 @@ public final class OtelTimedSpanFactory implements SpiTimedSpanFactory {
   private Attributes attributes(Metric.ID id, @Nullable String bucketRange) {
     AttributesBuilder builder = Attributes.builder();
     builder.put(ATTR_METRIC_NAME, id.name());
-    appendTags(builder, id.tags().array());
+    appendTags(builder, id.tags());
     if (bucketRange != null) {
       builder.put(ATTR_BUCKET_RANGE, bucketRange);
     }
     return builder.build();
   }
 
-  private void appendTags(AttributesBuilder builder, String[] tags) {
-    for (String tag : tags) {
-      int colon = tag.indexOf(':');
-      if (colon > 0) {
-        builder.put(tag.substring(0, colon), tag.substring(colon + 1));
-      }
+  private void appendTags(AttributesBuilder builder, Tags tags) {
+    for (int i = 0; i < tags.size(); i++) {
+      builder.put(tags.key(i), tags.value(i));
     }
   }
 
@@ -61,6 +70,7 @@ public final class OtelTimedSpanFactory implements SpiTimedSpanFactory {
     private final String spanName;
     private final Attributes attributes;
     private final SpanMode spanMode;
+    private volatile @Nullable Tracer tracer;
 
     private PreparedSpan(String spanName, Attributes attributes, SpanMode spanMode) {
       this.spanName = spanName;
@@ -70,19 +80,62 @@ public final class OtelTimedSpanFactory implements SpiTimedSpanFactory {
 
     @Override
     public @Nullable OtelSpan start() {
-      var currentSpan = Span.current();
-      if (spanMode == SpanMode.CHILD && !currentSpan.isRecording()) {
-        return null;
-      }
-      if (spanMode == SpanMode.ROOT && !currentSpan.isRecording() && currentSpan.getSpanContext().isValid()) {
+      if (!createSpan(Span.current())) {
         return null;
       }
-      var span = GlobalOpenTelemetry.get()
-        .getTracer(SCOPE_NAME)
+      var span = tracer()
         .spanBuilder(spanName)
         .setAllAttributes(attributes)
         .startSpan();
       return spanMode == SpanMode.ROOT ? new OtelSpan(span, span.makeCurrent()) : new OtelSpan(span);
     }
+
+    @Override
+    public void ended(long durationNanos, boolean success, @Nullable Throwable error) {
+      final Context parent = Context.current();
+      if (!createSpan(Span.fromContext(parent))) {
+        return;
+      }
+      final Instant now = Instant.now();
+      final long endEpochNanos = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+      var span = tracer()
+        .spanBuilder(spanName)
+        .setParent(parent)
+        .setAllAttributes(attributes)
+        .setStartTimestamp(endEpochNanos - durationNanos, TimeUnit.NANOSECONDS)
+        .startSpan();
+      if (!success) {
+        if (error != null) {
+          span.recordException(error);
+        }
+        span.setStatus(StatusCode.ERROR);
+      }
+      span.end(endEpochNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Return the tracer resolved from the global OpenTelemetry on first use. The noop tracer
+     * is not held such that a global OpenTelemetry set after the timer is used is picked up.
+     */
+    private Tracer tracer() {
+      Tracer current = tracer;
+      if (current == null) {
+        current = GlobalOpenTelemetry.getTracer(SCOPE_NAME);
+        if (current != NOOP_TRACER) {
+          tracer = current;
+        }
+      }
+      return current;
+    }
+
+    /**
+     * Return true if a span is created given the current span and span mode.
+     */
+    private boolean createSpan(Span currentSpan) {
+      if (spanMode == SpanMode.CHILD && !currentSpan.isRecording()) {
+        return false;
+      }
+      return spanMode != SpanMode.ROOT || currentSpan.isRecording() || !currentSpan.getSpanContext().isValid();
+    }
   }
 }
@@ -5,6 +5,7 @@ import io.avaje.metrics.MetricRegistry;
 import io.avaje.metrics.Metrics;
 import io.avaje.metrics.Tags;
 import io.avaje.metrics.Timer;
+import io.avaje.metrics.spi.SpiTimedSpanFactory.SpanMode;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.Span;
@@ -24,9 +25,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class OtelTimedSpanFactoryTest {
 
@@ -275,4 +278,120 @@ class OtelTimedSpanFactoryTest {
     assertThat(spans).hasSize(2);
     assertThat(spans.stream().anyMatch(it -> it.getName().equals("app.service.method"))).isTrue();
   }
+
+  @Test
+  void spanThreshold_onlySlowEventsCreateSpans() {
+    MetricRegistry registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("app.service.method")
+      .spanThreshold(10, TimeUnit.MILLISECONDS)
+      .buildTraced();
+
+    var parent = openTelemetry.getTracer("test").spanBuilder("parent").startSpan();
+    try (Scope ignored = parent.makeCurrent()) {
+      timer.addEventDuration(true, TimeUnit.MILLISECONDS.toNanos(1));
+      assertThat(exporter.getFinishedSpanItems()).isEmpty();
+      timer.addEventDuration(true, TimeUnit.MILLISECONDS.toNanos(50));
+    } finally {
+      parent.end();
+    }
+
+    List<SpanData> spans = exporter.getFinishedSpanItems();
+    assertThat(spans).hasSize(2);
+    SpanData span = spans.stream()
+      .filter(it -> it.getName().equals("app.service.method"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(span.getParentSpanId()).isEqualTo(parent.getSpanContext().getSpanId());
+    assertThat(span.getStatus().getStatusCode()).isNotEqualTo(StatusCode.ERROR);
+    assertThat(span.getEndEpochNanos() - span.getStartEpochNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+  }
+
+  @Test
+  void spanThreshold_slowEventWithError_recordsThrowable() {
+    MetricRegistry registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("app.service.method")
+      .spanThreshold(1, TimeUnit.MILLISECONDS)
+      .buildTraced();
+
+    var parent = openTelemetry.getTracer("test").spanBuilder("parent").startSpan();
+    try (Scope ignored = parent.makeCurrent()) {
+      Timer.Event event = timer.startEvent();
+      sleep(5);
+      event.endWithError(new IllegalStateException("boom"));
+    } finally {
+      parent.end();
+    }
+
+    List<SpanData> spans = exporter.getFinishedSpanItems();
+    assertThat(spans).hasSize(2);
+    SpanData span = spans.stream()
+      .filter(it -> it.getName().equals("app.service.method"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    assertThat(span.getEndEpochNanos() - span.getStartEpochNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    assertThat(span.getEvents()).singleElement()
+      .satisfies(event -> assertThat(event.getName()).isEqualTo("exception"));
+  }
+
+  @Test
+  void preparedSpan_startedBeforeGlobalTelemetry_usesLaterGlobalTelemetry() {
+    var factory = new OtelTimedSpanFactory();
+    GlobalOpenTelemetry.resetForTest();
+    var prepared = factory.prepare(Metric.ID.of("app.service.method"), null, SpanMode.ROOT);
+    prepared.start().end();
+
+    GlobalOpenTelemetry.resetForTest();
+    GlobalOpenTelemetry.set(openTelemetry);
+    prepared.start().end();
+    prepared.start().end();
+
+    assertThat(exporter.getFinishedSpanItems()).hasSize(2);
+  }
+
+  @Test
+  void spanThreshold_slowTimedRunnableWithError_recordsThrowable() {
+    MetricRegistry registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("app.service.method")
+      .spanThreshold(1, TimeUnit.MILLISECONDS)
+      .buildTraced();
+
+    var parent = openTelemetry.getTracer("test").spanBuilder("parent").startSpan();
+    try (Scope ignored = parent.makeCurrent()) {
+      assertThatThrownBy(() -> timer.time(() -> {
+        sleep(5);
+        throw new IllegalStateException("boom");
+      })).isInstanceOf(IllegalStateException.class);
+    } finally {
+      parent.end();
+    }
+
+    SpanData span = exporter.getFinishedSpanItems().stream()
+      .filter(it -> it.getName().equals("app.service.method"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    assertThat(span.getEvents()).singleElement().satisfies(event ->
+      assertThat(event.getAttributes().get(AttributeKey.stringKey("exception.message"))).isEqualTo("boom"));
+  }
+
+  @Test
+  void spanThreshold_withoutRecordingParent_isNoop() {
+    MetricRegistry registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("app.service.method")
+      .spanThreshold(1, TimeUnit.MILLISECONDS)
+      .buildTraced();
+
+    timer.addEventDuration(true, TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertThat(exporter.getFinishedSpanItems()).isEmpty();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 }
@@ -558,7 +558,7 @@ public final class MetricsOpenTelemetry {
     private SdkMeterProvider meterProvider(Resource resource) {
       var effectiveProvider = metricsProvider != null
         ? metricsProvider
-        : MetricsProvider.forRegistry(registry != null ? registry : Metrics.registry());
+        : MetricsProvider.forReader((registry != null ? registry : Metrics.registry()).reader("otel.producer"));
 
       var producer = OtelMetricProducer.builder()
         .scopeName(DEFAULT_SCOPE)
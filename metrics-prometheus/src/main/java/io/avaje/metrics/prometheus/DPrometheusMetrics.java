@@ -1,21 +1,18 @@
 package io.avaje.metrics.prometheus;
 
-import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.MetricReader;
 import io.avaje.metrics.MetricRegistry;
 
 import static java.util.Objects.requireNonNull;
 
 final class DPrometheusMetrics implements PrometheusMetrics {
 
-  private final MetricRegistry registry;
-  private final long timedThresholdMicros;
-  private final boolean includeMax;
-  private final PrometheusNameCache nameCache = new PrometheusNameCache();
+  private final MetricReader reader;
+  private final PrometheusWriter writer;
 
   DPrometheusMetrics(MetricRegistry registry, long timedThresholdMicros, boolean includeMax) {
-    this.registry = requireNonNull(registry, "registry");
-    this.timedThresholdMicros = timedThresholdMicros;
-    this.includeMax = includeMax;
+    this.reader = requireNonNull(registry, "registry").reader("prometheus");
+    this.writer = new PrometheusWriter(timedThresholdMicros, includeMax, new PrometheusNameCache());
   }
 
   @Override
@@ -28,7 +25,8 @@ final class DPrometheusMetrics implements PrometheusMetrics {
   @Override
   public synchronized void write(Appendable appendable) {
     requireNonNull(appendable, "appendable");
-    var statistics = registry.collectMetrics(CollectionMode.CUMULATIVE);
-    new PrometheusWriter(appendable, timedThresholdMicros, includeMax, nameCache).write(statistics);
+    writer.start(appendable);
+    reader.collectMetrics(writer);
+    writer.finish();
   }
 }
@@ -8,10 +8,11 @@ final class PrometheusNameCache {
 
   private final ConcurrentHashMap<String, String> counterNames = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, String> gaugeNames = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, String> labelBlocks = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, String> labelBlocksWithExtra = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Tags, String> labelBlocks = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Tags, ConcurrentHashMap<String, ConcurrentHashMap<String, String>>> labelBlocksWithExtra = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, MeterNames> meterNames = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, TimerNames> timerNames = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, String> bucketUpperBounds = new ConcurrentHashMap<>();
 
   String counter(String rawName) {
     return counterNames.computeIfAbsent(rawName, name -> PrometheusNaming.counterName(PrometheusNaming.metricName(name)));
@@ -25,12 +26,14 @@ final class PrometheusNameCache {
     if (tags.isEmpty()) {
       return "";
     }
-    return labelBlocks.computeIfAbsent(tags.cacheKey(), key -> buildLabels(tags, null, null));
+    return labelBlocks.computeIfAbsent(tags, key -> buildLabels(tags, null, null));
   }
 
   String labels(Tags tags, String extraLabelName, String extraLabelValue) {
-    var key = tags.cacheKey() + '\n' + extraLabelName + '\n' + extraLabelValue;
-    return labelBlocksWithExtra.computeIfAbsent(key, ignore -> buildLabels(tags, extraLabelName, extraLabelValue));
+    return labelBlocksWithExtra
+      .computeIfAbsent(tags, key -> new ConcurrentHashMap<>())
+      .computeIfAbsent(extraLabelName, key -> new ConcurrentHashMap<>())
+      .computeIfAbsent(extraLabelValue, key -> buildLabels(tags, extraLabelName, extraLabelValue));
   }
 
   MeterNames meter(String rawName) {
@@ -41,26 +44,34 @@ final class PrometheusNameCache {
     return timerNames.computeIfAbsent(rawName, TimerNames::new);
   }
 
+  /**
+   * Return the {@code le} label value in seconds for the bucket range in millis (e.g. {@code 100-200}).
+   */
+  String bucketUpperBound(String bucketRange) {
+    return bucketUpperBounds.computeIfAbsent(bucketRange, PrometheusNameCache::upperBound);
+  }
+
+  private static String upperBound(String bucketRange) {
+    var dash = bucketRange.indexOf('-');
+    if (dash > 0) {
+      return Double.toString(Double.parseDouble(bucketRange.substring(dash + 1)) / 1_000D);
+    }
+    return "+Inf";
+  }
+
   private static String buildLabels(Tags tags, String extraLabelName, String extraLabelValue) {
-    var rawTags = tags.array();
+    var size = tags.size();
     var hasExtraLabel = extraLabelName != null;
-    if (rawTags.length == 0 && !hasExtraLabel) {
+    if (size == 0 && !hasExtraLabel) {
       return "";
     }
-    var labels = new StringBuilder(tags.cacheKey().length() + 16);
-    for (var tag : rawTags) {
-      if (tag == null) {
-        continue;
-      }
-      var colon = tag.indexOf(':');
-      if (colon <= 0) {
-        continue;
-      }
-      var labelName = PrometheusNaming.labelName(tag.substring(0, colon));
+    var labels = new StringBuilder(size * 24 + 16);
+    for (int i = 0; i < size; i++) {
+      var labelName = PrometheusNaming.labelName(tags.key(i));
       if (labelName.equals(extraLabelName)) {
         labelName = "tag_" + labelName;
       }
-      appendLabel(labels, labelName, tag.substring(colon + 1));
+      appendLabel(labels, labelName, tags.value(i));
     }
     if (hasExtraLabel) {
       appendLabel(labels, extraLabelName, extraLabelValue);
@@ -97,9 +108,11 @@ final class PrometheusNameCache {
     private final String count;
     private final String total;
     private final String max;
+    private final String quantile;
 
     private MeterNames(String rawName) {
       var baseName = PrometheusNaming.metricName(rawName);
+      this.quantile = baseName;
       this.count = PrometheusNaming.counterName(baseName + "_count");
       this.total = PrometheusNaming.counterName(baseName);
       this.max = baseName + "_max";
@@ -116,6 +129,10 @@ final class PrometheusNameCache {
     String max() {
       return max;
     }
+
+    String quantile() {
+      return quantile;
+    }
   }
 
   static final class TimerNames {
@@ -1,80 +1,106 @@
 package io.avaje.metrics.prometheus;
 
-import io.avaje.metrics.Counter;
-import io.avaje.metrics.GaugeDouble;
-import io.avaje.metrics.GaugeLong;
+import io.avaje.metrics.CollectionMode;
 import io.avaje.metrics.Meter;
 import io.avaje.metrics.Metric;
 import io.avaje.metrics.Tags;
-import io.avaje.metrics.Timer;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
-final class PrometheusWriter implements Metric.Visitor {
-
-  private static final double MICROS_TO_SECONDS = 1_000_000D;
-  private static final double MILLIS_TO_SECONDS = 1_000D;
+/**
+ * Writes the metrics in Prometheus text format as they are collected.
+ * <p>
+ * The writer is reused across scrapes (by a single thread at a time) such that names, labels and
+ * bucket bounds come from the name cache and numbers are appended without creating strings.
+ * The buckets of a bucket timer are buffered until the next histogram or the end of the scrape.
+ */
+final class PrometheusWriter implements Metric.Sink {
+
+  private static final long MICROS_PER_SECOND = 1_000_000L;
+  private static final long MAX_PLAIN_MICROS = 10_000_000L * MICROS_PER_SECOND;
   private static final String COUNTER = "counter";
   private static final String GAUGE = "gauge";
   private static final String HISTOGRAM = "histogram";
   private static final String SUMMARY = "summary";
   private static final String LE_LABEL = "le";
+  private static final String QUANTILE_LABEL = "quantile";
 
-  private final Appendable out;
   private final long timedThresholdMicros;
   private final boolean includeMax;
   private final PrometheusNameCache nameCache;
   private final Set<String> typedMetrics = new HashSet<>();
-  private final Map<MetricKey, Histogram> histograms = new LinkedHashMap<>();
+  private final char[] digits = new char[20];
+  private final Histogram histogram = new Histogram();
+  private Appendable out;
 
-  PrometheusWriter(Appendable out, long timedThresholdMicros, boolean includeMax, PrometheusNameCache nameCache) {
-    this.out = out;
+  PrometheusWriter(long timedThresholdMicros, boolean includeMax, PrometheusNameCache nameCache) {
     this.timedThresholdMicros = timedThresholdMicros;
     this.includeMax = includeMax;
     this.nameCache = nameCache;
   }
 
-  void write(List<Metric.Statistics> statistics) {
+  /**
+   * Start writing a scrape to the given output.
+   */
+  void start(Appendable out) {
+    this.out = out;
+    typedMetrics.clear();
+    histogram.clear();
+  }
+
+  /**
+   * Complete the scrape writing any buffered histogram.
+   */
+  void finish() {
     try {
-      for (var statistic : statistics) {
-        statistic.visit(this);
-      }
-      writeHistograms();
+      writeHistogram();
     } catch (IOException e) {
       throw writeFailure(e);
     }
   }
 
   @Override
-  public void visit(Timer.Stats timed) {
+  public CollectionMode collectionMode() {
+    return CollectionMode.CUMULATIVE;
+  }
+
+  @Override
+  public void timer(Metric.ID id, String bucketRange, long count, long total, long max, Meter.Histogram quantiles) {
     try {
-      if (timed.bucketRange() != null) {
-        histogramFor(timed).add(timed);
+      if (bucketRange != null) {
+        if (!histogram.matches(id)) {
+          writeHistogram();
+          histogram.start(id);
+        }
+        histogram.add(nameCache.bucketUpperBound(bucketRange), count, total, max);
         return;
       }
-      writeTimer(timed);
+      writeTimer(id, count, total, max, quantiles);
     } catch (IOException e) {
       throw writeFailure(e);
     }
   }
 
   @Override
-  public void visit(Meter.Stats stats) {
+  public void meter(Metric.ID id, String unit, long count, long total, long max, Meter.Histogram quantiles) {
     try {
-      var names = nameCache.meter(stats.name());
+      var names = nameCache.meter(id.name());
+      var tags = id.tags();
       writeType(names.count(), COUNTER);
-      writeSample(names.count(), stats.id().tags(), stats.count());
+      writeSample(names.count(), tags, count);
       writeType(names.total(), COUNTER);
-      writeSample(names.total(), stats.id().tags(), stats.total());
+      writeSample(names.total(), tags, total);
       if (includeMax) {
-        writeGauge(names.max(), stats.id().tags(), stats.max());
+        writeType(names.max(), GAUGE);
+        writeSample(names.max(), tags, max);
+      }
+      if (quantiles != null) {
+        writeType(names.quantile(), GAUGE);
+        writeQuantiles(names.quantile(), tags, quantiles, false);
       }
     } catch (IOException e) {
       throw writeFailure(e);
@@ -82,72 +108,103 @@ final class PrometheusWriter implements Metric.Visitor {
   }
 
   @Override
-  public void visit(Counter.Stats counter) {
+  public void counter(Metric.ID id, String unit, long count) {
     try {
-      var name = nameCache.counter(counter.name());
+      var name = nameCache.counter(id.name());
       writeType(name, COUNTER);
-      writeSample(name, counter.id().tags(), counter.count());
+      writeSample(name, id.tags(), count);
     } catch (IOException e) {
       throw writeFailure(e);
     }
   }
 
   @Override
-  public void visit(GaugeDouble.Stats gauge) {
+  public void gauge(Metric.ID id, String unit, long value) {
     try {
-      writeGauge(nameCache.gauge(gauge.name()), gauge.id().tags(), Double.toString(gauge.value()));
+      var name = nameCache.gauge(id.name());
+      writeType(name, GAUGE);
+      writeSample(name, id.tags(), value);
     } catch (IOException e) {
       throw writeFailure(e);
     }
   }
 
   @Override
-  public void visit(GaugeLong.Stats gauge) {
+  public void gauge(Metric.ID id, String unit, double value) {
     try {
-      writeGauge(nameCache.gauge(gauge.name()), gauge.id().tags(), gauge.value());
+      var name = nameCache.gauge(id.name());
+      writeType(name, GAUGE);
+      out.append(name);
+      appendLabels(id.tags());
+      out.append(' ').append(Double.toString(value)).append('\n');
     } catch (IOException e) {
       throw writeFailure(e);
     }
   }
 
-  private void writeTimer(Timer.Stats timed) throws IOException {
-    if (belowThreshold(timed.total())) {
+  private void writeTimer(Metric.ID id, long count, long total, long max, Meter.Histogram quantiles) throws IOException {
+    if (belowThreshold(total)) {
       return;
     }
-    var names = nameCache.timer(timed.name());
+    var names = nameCache.timer(id.name());
+    var tags = id.tags();
     writeType(names.base(), SUMMARY);
-    writeSample(names.count(), timed.id().tags(), timed.count());
-    writeSample(names.sum(), timed.id().tags(), seconds(timed.total()));
+    if (quantiles != null) {
+      writeQuantiles(names.base(), tags, quantiles, true);
+    }
+    writeSample(names.count(), tags, count);
+    writeSeconds(names.sum(), tags, total);
     if (includeMax) {
-      writeGauge(names.max(), timed.id().tags(), Double.toString(seconds(timed.max())));
+      writeType(names.max(), GAUGE);
+      writeSeconds(names.max(), tags, max);
     }
   }
 
-  private void writeHistograms() throws IOException {
-    for (var histogram : histograms.values()) {
-      if (belowThreshold(histogram.total())) {
-        continue;
+  private void writeHistogram() throws IOException {
+    if (histogram.isEmpty()) {
+      return;
+    }
+    if (!belowThreshold(histogram.total)) {
+      var names = nameCache.timer(histogram.name);
+      var tags = histogram.tags;
+      writeType(names.base(), HISTOGRAM);
+      long cumulativeCount = 0;
+      for (int i = 0; i < histogram.size; i++) {
+        cumulativeCount += histogram.counts[i];
+        out.append(names.bucket());
+        out.append(nameCache.labels(tags, LE_LABEL, histogram.upperBounds[i]));
+        out.append(' ');
+        appendLong(cumulativeCount);
+        out.append('\n');
+      }
+      writeSample(names.count(), tags, histogram.count);
+      writeSeconds(names.sum(), tags, histogram.total);
+      if (includeMax) {
+        writeType(names.max(), GAUGE);
+        writeSeconds(names.max(), tags, histogram.max);
       }
-      histogram.writeTo(this);
     }
+    histogram.clear();
   }
 
   private boolean belowThreshold(long total) {
     return timedThresholdMicros > 0 && total < timedThresholdMicros;
   }
 
-  private Histogram histogramFor(Timer.Stats timed) {
-    var key = new MetricKey(timed.name(), timed.id().tags());
-    return histograms.computeIfAbsent(key, Histogram::new);
-  }
-
-  private void writeGauge(String name, Tags tags, long value) throws IOException {
-    writeGauge(name, tags, Long.toString(value));
-  }
-
-  private void writeGauge(String name, Tags tags, String value) throws IOException {
-    writeType(name, GAUGE);
-    writeSample(name, tags, value);
+  private void writeQuantiles(String name, Tags tags, Meter.Histogram histogram, boolean micros) throws IOException {
+    var quantiles = histogram.quantiles();
+    var percentiles = histogram.percentiles();
+    for (int i = 0; i < quantiles.length; i++) {
+      out.append(name);
+      out.append(nameCache.labels(tags, QUANTILE_LABEL, Double.toString(quantiles[i])));
+      out.append(' ');
+      if (micros) {
+        appendSeconds(percentiles[i]);
+      } else {
+        appendLong(percentiles[i]);
+      }
+      out.append('\n');
+    }
   }
 
   private void writeType(String name, String type) throws IOException {
@@ -157,154 +214,142 @@ final class PrometheusWriter implements Metric.Visitor {
   }
 
   private void writeSample(String name, Tags tags, long value) throws IOException {
-    writeSample(name, tags, Long.toString(value));
-  }
-
-  private void writeSample(String name, Tags tags, double value) throws IOException {
-    writeSample(name, tags, Double.toString(value));
-  }
-
-  private void writeSample(String name, Tags tags, String value) throws IOException {
     out.append(name);
     appendLabels(tags);
-    out.append(' ').append(value).append('\n');
+    out.append(' ');
+    appendLong(value);
+    out.append('\n');
   }
 
-  private void writeSample(String name, Tags tags, String extraLabelName, String extraLabelValue, String value)
-    throws IOException {
-
+  private void writeSeconds(String name, Tags tags, long micros) throws IOException {
     out.append(name);
-    appendLabels(tags, extraLabelName, extraLabelValue);
-    out.append(' ').append(value).append('\n');
+    appendLabels(tags);
+    out.append(' ');
+    appendSeconds(micros);
+    out.append('\n');
   }
 
   private void appendLabels(Tags tags) throws IOException {
     out.append(nameCache.labels(tags));
   }
 
-  private void appendLabels(Tags tags, String extraLabelName, String extraLabelValue) throws IOException {
-    out.append(nameCache.labels(tags, extraLabelName, extraLabelValue));
-  }
-
-  private static double seconds(long micros) {
-    return micros / MICROS_TO_SECONDS;
-  }
-
-  private static String bucketUpperBound(String bucketRange) {
-    var dash = bucketRange.indexOf('-');
-    if (dash > 0) {
-      return secondsFromMillis(bucketRange.substring(dash + 1));
+  /**
+   * Append the digits of the value without creating a String.
+   */
+  private void appendLong(long value) throws IOException {
+    if (value < 0) {
+      out.append(Long.toString(value));
+      return;
+    }
+    int pos = fill(value, digits.length);
+    for (int i = pos; i < digits.length; i++) {
+      out.append(digits[i]);
     }
-    return "+Inf";
   }
 
-  private static String secondsFromMillis(String value) {
-    return Double.toString(Long.parseLong(value) / MILLIS_TO_SECONDS);
+  /**
+   * Append the micros as seconds in the same format as {@link Double#toString(double)}.
+   * <p>
+   * That is plain decimal form for values from 10<sup>-3</sup> up to 10<sup>7</sup> seconds and
+   * otherwise computerized scientific notation like {@code 2.5E-4}.
+   */
+  private void appendSeconds(long micros) throws IOException {
+    if (micros < 0 || micros >= MAX_PLAIN_MICROS) {
+      out.append(Double.toString(micros / (double) MICROS_PER_SECOND));
+    } else if (micros == 0) {
+      out.append("0.0");
+    } else if (micros < 1_000) {
+      // 1 to 3 significant digits with exponent -6 to -4
+      int pos = fill(micros, digits.length);
+      out.append(digits[pos]).append('.');
+      appendFraction(pos + 1);
+      out.append("E-").append((char) ('0' + (6 - (digits.length - pos - 1))));
+    } else {
+      appendLong(micros / MICROS_PER_SECOND);
+      out.append('.');
+      int pos = fill(micros % MICROS_PER_SECOND + MICROS_PER_SECOND, digits.length);
+      appendFraction(pos + 1);
+    }
   }
 
-  private static UncheckedIOException writeFailure(IOException e) {
-    return new UncheckedIOException("Error writing Prometheus metrics", e);
+  private int fill(long value, int end) {
+    int pos = end;
+    do {
+      digits[--pos] = (char) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    return pos;
   }
 
-  private static final class MetricKey {
-
-    private final String name;
-    private final Tags tags;
-    private final String key;
-
-    private MetricKey(String name, Tags tags) {
-      this.name = name;
-      this.tags = tags;
-      this.key = name + '\n' + tags.cacheKey();
+  /**
+   * Append the fraction digits from start without trailing zeros, with at least one digit.
+   */
+  private void appendFraction(int start) throws IOException {
+    int end = digits.length;
+    while (end > start && digits[end - 1] == '0') {
+      end--;
     }
-
-    private String name() {
-      return name;
+    if (end == start) {
+      out.append('0');
+      return;
     }
-
-    private Tags tags() {
-      return tags;
-    }
-
-    @Override
-    public boolean equals(Object object) {
-      if (this == object) {
-        return true;
-      }
-      if (!(object instanceof MetricKey)) {
-        return false;
-      }
-      return key.equals(((MetricKey) object).key);
+    for (int i = start; i < end; i++) {
+      out.append(digits[i]);
     }
+  }
 
-    @Override
-    public int hashCode() {
-      return key.hashCode();
-    }
+  private static UncheckedIOException writeFailure(IOException e) {
+    return new UncheckedIOException("Error writing Prometheus metrics", e);
   }
 
+  /**
+   * The buckets of the bucket timer currently being collected.
+   */
   private static final class Histogram {
 
-    private final MetricKey key;
-    private final List<Bucket> buckets = new ArrayList<>();
+    private String name;
+    private Tags tags;
+    private String[] upperBounds = new String[16];
+    private long[] counts = new long[16];
+    private int size;
     private long total;
     private long count;
     private long max;
 
-    private Histogram(MetricKey key) {
-      this.key = key;
+    private boolean isEmpty() {
+      return name == null;
     }
 
-    private void add(Timer.Stats stats) {
-      buckets.add(new Bucket(bucketUpperBound(stats.bucketRange()), stats.count()));
-      total += stats.total();
-      count += stats.count();
-      if (stats.max() > max) {
-        max = stats.max();
-      }
+    private boolean matches(Metric.ID id) {
+      return name != null && name.equals(id.name()) && tags.equals(id.tags());
     }
 
-    private long total() {
-      return total;
+    private void start(Metric.ID id) {
+      name = id.name();
+      tags = id.tags();
     }
 
-    private void writeTo(PrometheusWriter writer) throws IOException {
-      var names = writer.nameCache.timer(key.name());
-      writer.writeType(names.base(), HISTOGRAM);
-      long cumulativeCount = 0;
-      for (var bucket : buckets) {
-        cumulativeCount += bucket.count();
-        writer.writeSample(
-          names.bucket(),
-          key.tags(),
-          LE_LABEL,
-          bucket.upperBound(),
-          Long.toString(cumulativeCount));
+    private void add(String upperBound, long bucketCount, long bucketTotal, long bucketMax) {
+      if (size == counts.length) {
+        upperBounds = Arrays.copyOf(upperBounds, size * 2);
+        counts = Arrays.copyOf(counts, size * 2);
       }
-      writer.writeSample(names.count(), key.tags(), count);
-      writer.writeSample(names.sum(), key.tags(), seconds(total));
-      if (writer.includeMax) {
-        writer.writeGauge(names.max(), key.tags(), Double.toString(seconds(max)));
+      upperBounds[size] = upperBound;
+      counts[size++] = bucketCount;
+      total += bucketTotal;
+      count += bucketCount;
+      if (bucketMax > max) {
+        max = bucketMax;
       }
     }
-  }
-
-  private static final class Bucket {
-
-    private final String upperBound;
-    private final long count;
-
-    private Bucket(String upperBound, long count) {
-      this.upperBound = upperBound;
-      this.count = count;
-    }
-
-    private String upperBound() {
-      return upperBound;
-    }
 
-    private long count() {
-      return count;
+    private void clear() {
+      name = null;
+      tags = null;
+      size = 0;
+      total = 0;
+      count = 0;
+      max = 0;
     }
   }
 }
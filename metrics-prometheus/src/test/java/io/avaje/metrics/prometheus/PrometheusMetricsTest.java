@@ -141,6 +141,39 @@ class PrometheusMetricsTest {
       "app_bytes_sent_max 2048\n");
   }
 
+  @Test
+  void timerWithPercentiles_writesSummaryQuantiles() {
+    var registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("app.service.percentiles").percentiles(0.5, 0.99).build();
+    var prometheus = PrometheusMetrics.builder()
+      .registry(registry)
+      .build();
+
+    timer.addEventDuration(true, TimeUnit.MICROSECONDS.toNanos(10));
+    timer.addEventDuration(true, TimeUnit.MICROSECONDS.toNanos(12));
+
+    assertThat(prometheus.scrape()).contains(
+      "# TYPE app_service_percentiles_seconds summary\n",
+      "app_service_percentiles_seconds{quantile=\"0.5\"} 1.0E-5\n",
+      "app_service_percentiles_seconds{quantile=\"0.99\"} 1.2E-5\n",
+      "app_service_percentiles_seconds_count 2\n");
+  }
+
+  @Test
+  void meterWithPercentiles_writesQuantileGauges() {
+    var registry = Metrics.createRegistry();
+    Meter meter = registry.meterBuilder("app.bytes.percentiles").percentiles(0.5).build();
+    var prometheus = PrometheusMetrics.builder()
+      .registry(registry)
+      .build();
+
+    meter.addEvent(8);
+
+    assertThat(prometheus.scrape()).contains(
+      "# TYPE app_bytes_percentiles gauge\n",
+      "app_bytes_percentiles{quantile=\"0.5\"} 8\n");
+  }
+
   @Test
   void meter_omitsMaxByDefault() {
     var registry = Metrics.createRegistry();
@@ -182,6 +215,24 @@ class PrometheusMetricsTest {
       "http_server_request_seconds_sum{method=\"GET\"} 0.45\n");
   }
 
+  @Test
+  void bucketTimer_withSubMillisRanges() {
+    var registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("cache.get")
+      .bucketRanges(TimeUnit.MICROSECONDS, 250, 1500)
+      .build();
+    var prometheus = PrometheusMetrics.builder()
+      .registry(registry)
+      .build();
+
+    timer.addEventDuration(true, TimeUnit.MICROSECONDS.toNanos(100));
+    timer.addEventDuration(true, TimeUnit.MICROSECONDS.toNanos(1000));
+
+    assertThat(prometheus.scrape()).contains(
+      "cache_get_seconds_bucket{le=\"2.5E-4\"} 1\n",
+      "cache_get_seconds_bucket{le=\"0.0015\"} 2\n");
+  }
+
   @Test
   void bucketTimer_prefixesTagWhenLeLabelExists() {
     var registry = Metrics.createRegistry();
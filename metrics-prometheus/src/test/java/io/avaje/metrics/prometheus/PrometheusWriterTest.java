@@ -0,0 +1,49 @@
+package io.avaje.metrics.prometheus;
+
+import io.avaje.metrics.Metric;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrometheusWriterTest {
+
+  private final PrometheusWriter writer = new PrometheusWriter(0, false, new PrometheusNameCache());
+
+  @Test
+  void seconds_matchDoubleToString() {
+    long[] micros = {0, 1, 7, 10, 250, 999, 1_000, 1_500, 10_000, 450_000, 1_000_000, 1_234_567,
+      60_000_001, 9_999_999_999_999L, 10_000_000_000_000L, 123_456_789_012_345L};
+    for (long value : micros) {
+      assertThat(writeTimer(value)).isEqualTo("t_seconds_sum " + Double.toString(value / 1_000_000D) + "\n");
+    }
+  }
+
+  @Test
+  void bucketTimers_writtenWhenNextHistogramStarts() {
+    var out = new StringBuilder();
+    writer.start(out);
+    writer.timer(Metric.ID.of("a"), "0-100", 1, 10, 10, null);
+    writer.timer(Metric.ID.of("a"), "100", 2, 200_000, 150_000, null);
+    writer.timer(Metric.ID.of("b"), "0-100", 1, 10, 10, null);
+    writer.finish();
+
+    assertThat(out.toString()).isEqualTo(
+      "# TYPE a_seconds histogram\n" +
+      "a_seconds_bucket{le=\"0.1\"} 1\n" +
+      "a_seconds_bucket{le=\"+Inf\"} 3\n" +
+      "a_seconds_count 3\n" +
+      "a_seconds_sum 0.20001\n" +
+      "# TYPE b_seconds histogram\n" +
+      "b_seconds_bucket{le=\"0.1\"} 1\n" +
+      "b_seconds_count 1\n" +
+      "b_seconds_sum 1.0E-5\n");
+  }
+
+  private String writeTimer(long totalMicros) {
+    var out = new StringBuilder();
+    writer.start(out);
+    writer.timer(Metric.ID.of("t"), null, 1, totalMicros, totalMicros, null);
+    writer.finish();
+    return out.substring(out.indexOf("t_seconds_sum"), out.length());
+  }
+}
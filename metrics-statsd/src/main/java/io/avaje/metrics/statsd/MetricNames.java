@@ -1,13 +1,18 @@
 package io.avaje.metrics.statsd;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 final class MetricNames {
 
+  private final String name;
   private final String count;
   private final String total;
   private final String mean;
   private final String max;
+  private final ConcurrentHashMap<String, String> percentiles = new ConcurrentHashMap<>();
 
-  private MetricNames(String count, String total, String mean, String max) {
+  private MetricNames(String name, String count, String total, String mean, String max) {
+    this.name = name;
     this.count = count;
     this.total = total;
     this.mean = mean;
@@ -15,7 +20,7 @@ final class MetricNames {
   }
 
   static MetricNames of(String name) {
-    return new MetricNames(name + ".count", name + ".total", name + ".mean", name + ".max");
+    return new MetricNames(name, name + ".count", name + ".total", name + ".mean", name + ".max");
   }
 
   String count() {
@@ -33,4 +38,11 @@ final class MetricNames {
   String max() {
     return max;
   }
+
+  /**
+   * Return the name for the percentile (e.g. {@code name.p99}).
+   */
+  String percentile(String percentileName) {
+    return percentiles.computeIfAbsent(percentileName, p -> name + "." + p);
+  }
 }
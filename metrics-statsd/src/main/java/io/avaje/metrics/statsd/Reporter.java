@@ -82,6 +82,14 @@ final class Reporter implements Runnable, AutoCloseable, StatsdReporter {
         client.gaugeWithTimestamp(names.total(), stats.total(), epochSecs, tags);
         client.gaugeWithTimestamp(names.mean(), stats.mean(), epochSecs, tags);
         client.gaugeWithTimestamp(names.max(), stats.max(), epochSecs, tags);
+        var histogram = stats.histogram();
+        if (histogram != null) {
+          var percentileNames = histogram.percentileNames();
+          var percentiles = histogram.percentiles();
+          for (int i = 0; i < percentileNames.length; i++) {
+            client.gaugeWithTimestamp(names.percentile(percentileNames[i]), percentiles[i], epochSecs, tags);
+          }
+        }
       }
     }
 
@@ -100,7 +100,7 @@ final class StatsdBuilder implements StatsdReporter.Builder {
       registry = Metrics.registry();
     }
     if (metricsProvider == null) {
-      metricsProvider = MetricsProvider.forRegistry(registry);
+      metricsProvider = MetricsProvider.forReader(registry.reader("statsd"));
     }
     if (client == null) {
       client = new NonBlockingStatsDClientBuilder()
@@ -103,7 +103,7 @@ public interface StatsdReporter extends AutoCloseable {
 
     /**
      * Specify the provider used to obtain metrics for scheduled reporting.
-     * Defaults to collecting from the configured registry.
+     * Defaults to collecting from the configured registry using a reader named {@code statsd}.
      */
     Builder metricsProvider(MetricsProvider metricsProvider);
 
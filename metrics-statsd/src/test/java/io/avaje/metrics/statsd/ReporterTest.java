@@ -99,6 +99,38 @@ class ReporterTest {
     assertThat(calls).allSatisfy(call -> assertThat(call.metricName()).isEqualTo("app.snapshot"));
   }
 
+  @Test
+  void visitTimer_withPercentiles_sendsPercentileGauges() {
+    var registry = Metrics.createRegistry();
+    registry.timerBuilder("db.query").percentiles(0.5, 0.99).build().time(() -> {});
+
+    var calls = new ArrayList<MetricCall>();
+    var reporter = new Reporter(MetricsProvider.forRegistry(registry), recordingClient(calls), 0, 60, TimeUnit.SECONDS, List.of());
+
+    reporter.run();
+
+    assertThat(calls).extracting(MetricCall::metricName)
+      .containsExactly("db.query.count", "db.query.total", "db.query.mean", "db.query.max", "db.query.p50", "db.query.p99");
+  }
+
+  @Test
+  void visitMeter_withPercentiles_sendsPercentileValues() {
+    var registry = Metrics.createRegistry();
+    var meter = registry.meterBuilder("queue.size").percentiles(0.5).build();
+    for (int i = 1; i <= 10; i++) {
+      meter.addEvent(i);
+    }
+
+    var calls = new ArrayList<MetricCall>();
+    var reporter = new Reporter(MetricsProvider.forRegistry(registry), recordingClient(calls), 0, 60, TimeUnit.SECONDS, List.of());
+
+    reporter.run();
+
+    assertThat(calls).extracting(MetricCall::metricName)
+      .containsExactly("queue.size.count", "queue.size.total", "queue.size.mean", "queue.size.max", "queue.size.p50");
+    assertThat(calls.get(4).value()).isEqualTo(5L);
+  }
+
   private StatsDClient recordingClient(List<MetricCall> calls) {
     return (StatsDClient) Proxy.newProxyInstance(
       StatsDClient.class.getClassLoader(),
@@ -107,7 +139,7 @@ class ReporterTest {
         switch (method.getName()) {
           case "countWithTimestamp":
           case "gaugeWithTimestamp":
-            calls.add(new MetricCall((String) args[0], (String[]) args[3]));
+            calls.add(new MetricCall((String) args[0], args[1], (String[]) args[3]));
             return null;
           case "close":
           case "stop":
@@ -121,10 +153,12 @@ class ReporterTest {
   private static final class MetricCall {
 
     private final String metricName;
+    private final Object value;
     private final String[] tags;
 
-    private MetricCall(String metricName, String[] tags) {
+    private MetricCall(String metricName, Object value, String[] tags) {
       this.metricName = metricName;
+      this.value = value;
       this.tags = tags;
     }
 
@@ -132,6 +166,10 @@ class ReporterTest {
       return metricName;
     }
 
+    private Object value() {
+      return value;
+    }
+
     private String[] tags() {
       return tags;
     }
@@ -28,4 +28,11 @@ public interface CounterBuilder {
    * Create and register the counter.
    */
   Counter build();
+
+  /**
+   * Create a family of counters with the given label names.
+   */
+  default MetricFamily<Counter> family(String... labelNames) {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -0,0 +1,325 @@
+package io.avaje.metrics;
+
+import io.avaje.applog.AppLog;
+import io.avaje.metrics.core.DMetricsScheduler;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
+
+final class DMetricsPipeline implements MetricsPipeline, Runnable {
+
+  private static final System.Logger log = AppLog.getLogger(MetricsPipeline.class);
+
+  private static final AtomicInteger pipelineCount = new AtomicInteger();
+  private static final long CLOSE_WAIT_MILLIS = 5_000;
+
+  static final class DBuilder implements Builder {
+
+    private @Nullable MetricsProvider provider;
+    private int delay = 60;
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+    private final List<SinkConfig> sinks = new ArrayList<>();
+
+    @Override
+    public DBuilder provider(MetricsProvider provider) {
+      this.provider = requireNonNull(provider, "provider");
+      return this;
+    }
+
+    @Override
+    public DBuilder schedule(int delay, TimeUnit timeUnit) {
+      this.delay = delay;
+      this.timeUnit = requireNonNull(timeUnit, "timeUnit");
+      return this;
+    }
+
+    @Override
+    public DBuilder sink(String name, Consumer<List<Metric.Statistics>> sink) {
+      sinks.add(new SinkConfig(requireNonNull(name, "name"), 2, 0, requireNonNull(sink, "sink")));
+      return this;
+    }
+
+    @Override
+    public DBuilder sink(String name, int queueCapacity, long timeout, TimeUnit timeUnit, Consumer<List<Metric.Statistics>> sink) {
+      if (queueCapacity < 1) {
+        throw new IllegalArgumentException("queueCapacity must be at least 1");
+      }
+      if (timeout <= 0) {
+        throw new IllegalArgumentException("timeout must be positive");
+      }
+      sinks.add(new SinkConfig(requireNonNull(name, "name"), queueCapacity, timeUnit.toNanos(timeout), requireNonNull(sink, "sink")));
+      return this;
+    }
+
+    @Override
+    public DMetricsPipeline build() {
+      if (sinks.isEmpty()) {
+        throw new IllegalStateException("At least one sink is required");
+      }
+      if (provider != null) {
+        return new DMetricsPipeline(provider, null, delay, timeUnit, sinks);
+      }
+      var reader = Metrics.registry().reader("pipeline-" + pipelineCount.incrementAndGet());
+      return new DMetricsPipeline(MetricsProvider.forReader(reader), reader, delay, timeUnit, sinks);
+    }
+  }
+
+  private static final class SinkConfig {
+
+    private final String name;
+    private final int queueCapacity;
+    private final long timeoutNanos;
+    private final Consumer<List<Metric.Statistics>> sink;
+
+    private SinkConfig(String name, int queueCapacity, long timeoutNanos, Consumer<List<Metric.Statistics>> sink) {
+      this.name = name;
+      this.queueCapacity = queueCapacity;
+      this.timeoutNanos = timeoutNanos;
+      this.sink = sink;
+    }
+  }
+
+  private final MetricsProvider provider;
+  private final @Nullable MetricReader reader;
+  private final ScheduledTask scheduledTask;
+  private final List<SinkWorker> workers = new ArrayList<>();
+  private boolean workersStarted;
+  private boolean started;
+
+  private DMetricsPipeline(MetricsProvider provider, @Nullable MetricReader reader, int delay, TimeUnit timeUnit, List<SinkConfig> sinks) {
+    this.provider = provider;
+    this.reader = reader;
+    this.scheduledTask = ScheduledTask.builder()
+      .schedule(delay, delay, timeUnit)
+      .task(this)
+      .build();
+    long defaultTimeoutNanos = timeUnit.toNanos(delay);
+    for (SinkConfig sink : sinks) {
+      long timeoutNanos = sink.timeoutNanos > 0 ? sink.timeoutNanos : defaultTimeoutNanos;
+      workers.add(new SinkWorker(sink.name, sink.queueCapacity, timeoutNanos, sink.sink));
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    startWorkers();
+    scheduledTask.start();
+    started = true;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (started) {
+      scheduledTask.cancel(true);
+    }
+    for (SinkWorker worker : workers) {
+      worker.close();
+    }
+    awaitWorkers();
+    if (reader != null) {
+      reader.close();
+    }
+  }
+
+  /**
+   * Wait a bounded time for the interrupted sink workers to finish their current delivery.
+   */
+  private void awaitWorkers() {
+    final long deadline = System.currentTimeMillis() + CLOSE_WAIT_MILLIS;
+    try {
+      for (SinkWorker worker : workers) {
+        if (worker.thread == Thread.currentThread()) {
+          continue;
+        }
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining > 0) {
+          worker.thread.join(remaining);
+        }
+        if (worker.thread.isAlive()) {
+          log.log(WARNING, "Metrics sink {0} did not stop within {1}ms of close", worker.name, CLOSE_WAIT_MILLIS);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    collect();
+  }
+
+  @Override
+  public void collect() {
+    startWorkers();
+    List<Metric.Statistics> snapshot;
+    try {
+      snapshot = Collections.unmodifiableList(provider.provide());
+    } catch (Exception e) {
+      log.log(WARNING, "Error collecting metrics for pipeline", e);
+      return;
+    }
+    for (SinkWorker worker : workers) {
+      worker.offer(snapshot);
+    }
+  }
+
+  @Override
+  public List<SinkStats> sinkStats() {
+    return Collections.unmodifiableList(workers);
+  }
+
+  private synchronized void startWorkers() {
+    if (!workersStarted) {
+      workersStarted = true;
+      for (SinkWorker worker : workers) {
+        worker.thread.start();
+      }
+    }
+  }
+
+  /**
+   * Delivers the snapshots queued for a sink on its own thread.
+   */
+  private final class SinkWorker implements SinkStats, Runnable {
+
+    private final String name;
+    private final long timeoutNanos;
+    private final Consumer<List<Metric.Statistics>> sink;
+    private final ArrayBlockingQueue<List<Metric.Statistics>> queue;
+    private final Thread thread;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long delivery;
+    private boolean interrupted;
+    private volatile boolean closed;
+
+    private SinkWorker(String name, int queueCapacity, long timeoutNanos, Consumer<List<Metric.Statistics>> sink) {
+      this.name = name;
+      this.timeoutNanos = timeoutNanos;
+      this.sink = sink;
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      this.thread = new DScheduledTask.DaemonThreadFactory("metricsPipeline-" + name).newThread(this);
+    }
+
+    /**
+     * Queue the snapshot dropping the oldest queued snapshot when the queue is full.
+     */
+    private void offer(List<Metric.Statistics> snapshot) {
+      while (!queue.offer(snapshot)) {
+        if (queue.poll() != null) {
+          dropped.incrementAndGet();
+          log.log(DEBUG, "dropped metrics snapshot for slow sink {0}", name);
+        }
+      }
+    }
+
+    private void close() {
+      closed = true;
+      thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+      long sequence = 0;
+      while (!closed) {
+        List<Metric.Statistics> snapshot;
+        try {
+          snapshot = queue.take();
+        } catch (InterruptedException e) {
+          continue;
+        }
+        deliver(++sequence, snapshot);
+      }
+    }
+
+    private void deliver(long sequence, List<Metric.Statistics> snapshot) {
+      synchronized (this) {
+        delivery = sequence;
+        interrupted = false;
+      }
+      ScheduledFuture<?> timeout = DMetricsScheduler.ticker()
+        .schedule(() -> interruptIfActive(sequence), timeoutNanos, TimeUnit.NANOSECONDS);
+      try {
+        sink.accept(snapshot);
+        if (endDelivery()) {
+          delivered.incrementAndGet();
+        }
+      } catch (Exception e) {
+        if (endDelivery()) {
+          failed.incrementAndGet();
+          log.log(WARNING, "Error reporting metrics to sink " + name, e);
+        }
+      } finally {
+        timeout.cancel(false);
+        synchronized (this) {
+          delivery = 0;
+          // clear an interrupt that was not observed by the sink
+          Thread.interrupted();
+        }
+      }
+    }
+
+    /**
+     * End the delivery returning true if it was not interrupted by the timeout, such that each
+     * delivery is counted as exactly one of delivered, failed or timed out.
+     */
+    private synchronized boolean endDelivery() {
+      delivery = 0;
+      return !interrupted;
+    }
+
+    private synchronized void interruptIfActive(long sequence) {
+      if (delivery == sequence) {
+        interrupted = true;
+        timedOut.incrementAndGet();
+        log.log(WARNING, "Interrupting metrics delivery to sink {0} exceeding timeout", name);
+        thread.interrupt();
+      }
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public int queued() {
+      return queue.size();
+    }
+
+    @Override
+    public long delivered() {
+      return delivered.get();
+    }
+
+    @Override
+    public long dropped() {
+      return dropped.get();
+    }
+
+    @Override
+    public long timedOut() {
+      return timedOut.get();
+    }
+
+    @Override
+    public long failed() {
+      return failed.get();
+    }
+  }
+}
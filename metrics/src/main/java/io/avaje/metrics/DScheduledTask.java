@@ -1,12 +1,17 @@
 package io.avaje.metrics;
 
 import io.avaje.applog.AppLog;
+import io.avaje.metrics.core.DMetricsScheduler;
 
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static java.lang.System.Logger.Level.DEBUG;
 import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.WARNING;
 
 final class DScheduledTask implements ScheduledTask {
 
@@ -16,6 +21,8 @@ final class DScheduledTask implements ScheduledTask {
     private int initial = 60;
     private int delay = 60;
     private TimeUnit timeUnit = TimeUnit.SECONDS;
+    private boolean aligned;
+    private long jitterMillis;
 
     private Runnable task;
 
@@ -33,34 +40,105 @@ final class DScheduledTask implements ScheduledTask {
       return this;
     }
 
+    @Override
+    public DBuilder alignToWallClock() {
+      this.aligned = true;
+      return this;
+    }
+
+    @Override
+    public DBuilder jitter(long jitter, TimeUnit timeUnit) {
+      if (jitter < 0) {
+        throw new IllegalArgumentException("jitter must not be negative");
+      }
+      this.jitterMillis = timeUnit.toMillis(jitter);
+      return this;
+    }
+
     @Override
     public DScheduledTask build() {
       Objects.requireNonNull(task, "task is required");
-      return new DScheduledTask(task, initial, delay, timeUnit);
+      return new DScheduledTask(task, initial, delay, timeUnit, aligned, jitterMillis);
     }
   }
 
 
   private final ReentrantLock activeLock = new ReentrantLock();
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong overruns = new AtomicLong();
   private final Runnable task;
+  private final String description;
   private final int initial;
   private final int delay;
   private final TimeUnit timeUnit;
+  private final boolean aligned;
+  private final long jitterMillis;
 
-  private final ScheduledExecutorService executor;
-  private ScheduledFuture<?> backgroundTask;
+  private volatile ScheduledFuture<?> backgroundTask;
+  private volatile Thread activeThread;
+  private volatile boolean cancelled;
+  private boolean overrunning;
 
   DScheduledTask(Runnable task, int initial, int delay, TimeUnit timeUnit) {
+    this(task, initial, delay, timeUnit, false, 0);
+  }
+
+  DScheduledTask(Runnable task, int initial, int delay, TimeUnit timeUnit, boolean aligned, long jitterMillis) {
     this.task = task;
+    this.description = description(task);
     this.initial = initial;
     this.delay = delay;
     this.timeUnit = timeUnit;
-    this.executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("schTask"));
+    this.aligned = aligned;
+    this.jitterMillis = jitterMillis;
   }
 
   @Override
   public void start() {
-    this.backgroundTask = executor.scheduleWithFixedDelay(this::runTask, initial, delay, timeUnit);
+    final ScheduledThreadPoolExecutor ticker = DMetricsScheduler.ticker();
+    if (aligned) {
+      long periodMillis = timeUnit.toMillis(delay);
+      long initialMillis = alignedInitialDelay(System.currentTimeMillis(), periodMillis, jitterOffset());
+      this.backgroundTask = ticker.scheduleAtFixedRate(this::tick, initialMillis, periodMillis, TimeUnit.MILLISECONDS);
+    } else {
+      this.backgroundTask = ticker.schedule(this::tick, initial, timeUnit);
+    }
+  }
+
+  /**
+   * Unless aligned schedule the next tick the delay after the prior run completed (fixed delay).
+   */
+  private void scheduleNext() {
+    if (aligned || cancelled) {
+      return;
+    }
+    this.backgroundTask = DMetricsScheduler.ticker().schedule(this::tick, delay, timeUnit);
+    if (cancelled) {
+      // cancelled concurrently and may have missed the new tick
+      backgroundTask.cancel(false);
+    }
+  }
+
+  /**
+   * Return the delay until the next multiple of the period (since the epoch) plus the offset.
+   */
+  static long alignedInitialDelay(long nowMillis, long periodMillis, long offsetMillis) {
+    long next = (nowMillis / periodMillis + 1) * periodMillis + offsetMillis % periodMillis;
+    long initialDelay = next - nowMillis;
+    return initialDelay > periodMillis ? initialDelay - periodMillis : initialDelay;
+  }
+
+  /**
+   * Return the class name of the task without the lambda suffix.
+   */
+  static String description(Runnable task) {
+    final String name = task.getClass().getName();
+    final int lambda = name.indexOf("$$Lambda");
+    return lambda > 0 ? name.substring(0, lambda) : name;
+  }
+
+  private long jitterOffset() {
+    return jitterMillis == 0 ? 0 : ThreadLocalRandom.current().nextLong(jitterMillis);
   }
 
   @Override
@@ -68,7 +146,22 @@ final class DScheduledTask implements ScheduledTask {
     if (backgroundTask == null) {
       return false;
     }
-    return this.backgroundTask.cancel(mayInterruptIfRunning);
+    final boolean first = !this.cancelled;
+    this.cancelled = true;
+    // a task that is not aligned has no pending tick while it runs
+    boolean cancelled = this.backgroundTask.cancel(false) || (!aligned && first);
+    if (mayInterruptIfRunning) {
+      final Thread thread = activeThread;
+      if (thread != null) {
+        thread.interrupt();
+      }
+    }
+    return cancelled;
+  }
+
+  @Override
+  public long overruns() {
+    return overruns.get();
   }
 
   /**
@@ -86,18 +179,54 @@ final class DScheduledTask implements ScheduledTask {
     }
   }
 
+  /**
+   * Run the task on the runner unless it is still running from the prior tick.
+   * <p>
+   * Only the first tick skipped while the task runs logs a warning, the count of skipped ticks
+   * is given by {@link #overruns()}. Only aligned ticks can overrun as the next tick of a task
+   * that is not aligned is scheduled when it completes. Ticks run on the single ticker thread.
+   */
+  private void tick() {
+    if (!running.compareAndSet(false, true)) {
+      overruns.incrementAndGet();
+      if (!overrunning) {
+        overrunning = true;
+        log.log(WARNING, "scheduled task {0} with delay {1} {2} still running at next tick, skipping ticks until it completes", description, delay, timeUnit);
+      }
+      return;
+    }
+    if (overrunning) {
+      overrunning = false;
+      log.log(DEBUG, "scheduled task {0} completed after skipping ticks, total overruns {1}", description, overruns.get());
+    }
+    try {
+      DMetricsScheduler.runner().execute(this::runTask);
+    } catch (RejectedExecutionException e) {
+      running.set(false);
+      scheduleNext();
+    }
+  }
+
   private void runTask() {
+    if (cancelled) {
+      running.set(false);
+      return;
+    }
     activeLock.lock();
+    activeThread = Thread.currentThread();
     try {
       task.run();
     } catch (Throwable e) {
       log.log(ERROR, "Error stopping task", e);
     } finally {
+      activeThread = null;
       activeLock.unlock();
+      running.set(false);
+      scheduleNext();
     }
   }
 
-  private static final class DaemonThreadFactory implements ThreadFactory {
+  static final class DaemonThreadFactory implements ThreadFactory {
 
     private final String name;
 
@@ -1,5 +1,6 @@
 package io.avaje.metrics;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.DoubleSupplier;
 import java.util.function.LongSupplier;
 
@@ -27,6 +28,24 @@ public interface GaugeBuilder {
    */
   GaugeBuilder unit(String unit);
 
+  /**
+   * Refresh the value of the supplier on a background thread with collection reading the last
+   * cached value, for suppliers that can be slow such as a JMX call or a remote pool status.
+   * <p>
+   * A refresh starts when the cached value is older than the TTL. A refresh taking longer than
+   * the timeout is interrupted and a new refresh does not start until the supplier returns. The
+   * age of the cached value is reported by a gauge with the suffix {@code .age} (milliseconds),
+   * and refreshes that fail or time out are counted by counters with the suffixes
+   * {@code .refresh.failed} and {@code .refresh.timeout}.
+   *
+   * @param ttl      The time after which the cached value is refreshed
+   * @param timeout  The time after which a refresh is interrupted and counted as timed out
+   * @param timeUnit The time unit of the ttl and timeout
+   */
+  default GaugeBuilder async(long ttl, long timeout, TimeUnit timeUnit) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Create and register a long-valued gauge.
    */
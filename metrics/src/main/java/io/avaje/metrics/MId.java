@@ -1,17 +1,17 @@
 package io.avaje.metrics;
 
-import java.util.Objects;
-
 import static java.util.Objects.requireNonNull;
 
 final class MId implements Metric.ID {
 
   private final String name;
   private final Tags tags;
+  private final int hash;
 
   MId(String name, Tags tags) {
     this.name = name;
     this.tags = tags;
+    this.hash = 31 * name.hashCode() + tags.hashCode();
   }
 
   @Override
@@ -50,12 +50,12 @@ final class MId implements Metric.ID {
     if (this == object) return true;
     if (!(object instanceof MId)) return false;
     MId key = (MId) object;
-    return Objects.equals(name, key.name) && Objects.equals(tags, key.tags);
+    return hash == key.hash && name.equals(key.name) && tags.equals(key.tags);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(name, tags);
+    return hash;
   }
 
   @Override
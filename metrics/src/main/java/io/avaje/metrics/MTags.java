@@ -1,5 +1,7 @@
 package io.avaje.metrics;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -7,12 +9,17 @@ final class MTags implements Tags {
 
     static Tags EMPTY = new MTags(new String[]{});
 
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private final String[] rawTags;
-    private final String raw;
+    private final int hash;
+    private @Nullable String raw;
+    private volatile @Nullable Parsed parsed;
 
     MTags(String[] rawTags) {
         this.rawTags = Objects.requireNonNull(rawTags);
-        this.raw = rawTags.length == 0 ? "" : Arrays.toString(rawTags);
+        this.hash = Arrays.hashCode(rawTags);
     }
 
     @Override
@@ -27,7 +34,41 @@ final class MTags implements Tags {
 
     @Override
     public String cacheKey() {
-        return raw;
+        String key = raw;
+        if (key == null) {
+            key = rawTags.length == 0 ? "" : Arrays.toString(rawTags);
+            raw = key;
+        }
+        return key;
+    }
+
+    @Override
+    public int size() {
+        return parsed().keys.length;
+    }
+
+    @Override
+    public String key(int index) {
+        return parsed().keys[index];
+    }
+
+    @Override
+    public String value(int index) {
+        return parsed().values[index];
+    }
+
+    @Override
+    public long fingerprint() {
+        return parsed().fingerprint;
+    }
+
+    private Parsed parsed() {
+        Parsed current = parsed;
+        if (current == null) {
+            current = new Parsed(rawTags);
+            parsed = current;
+        }
+        return current;
     }
 
     @Override
@@ -46,16 +87,75 @@ final class MTags implements Tags {
         if (this == object) return true;
         if (!(object instanceof MTags)) return false;
         MTags dTags = (MTags) object;
-        return Objects.deepEquals(rawTags, dTags.rawTags);
+        return hash == dTags.hash && Arrays.equals(rawTags, dTags.rawTags);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(rawTags);
+        return hash;
     }
 
     @Override
     public String toString() {
-        return raw;
+        return cacheKey();
+    }
+
+    /**
+     * The tags parsed into interned keys and values stably sorted by key.
+     */
+    private static final class Parsed {
+
+        private final String[] keys;
+        private final String[] values;
+        private final long fingerprint;
+
+        Parsed(String[] rawTags) {
+            int count = 0;
+            for (String tag : rawTags) {
+                if (tag != null && tag.indexOf(':') > 0) {
+                    count++;
+                }
+            }
+            this.keys = new String[count];
+            this.values = new String[count];
+            int size = 0;
+            for (String tag : rawTags) {
+                int colon = tag == null ? -1 : tag.indexOf(':');
+                if (colon > 0) {
+                    String key = tag.substring(0, colon).intern();
+                    String value = tag.substring(colon + 1);
+                    // insertion sort as there are typically few tags, stable for duplicate keys
+                    int pos = size++;
+                    while (pos > 0 && keys[pos - 1].compareTo(key) > 0) {
+                        keys[pos] = keys[pos - 1];
+                        values[pos] = values[pos - 1];
+                        pos--;
+                    }
+                    keys[pos] = key;
+                    values[pos] = value;
+                }
+            }
+            this.fingerprint = fingerprint(keys, values);
+        }
+
+        private static long fingerprint(String[] keys, String[] values) {
+            long hash = FNV_OFFSET;
+            for (int i = 0; i < keys.length; i++) {
+                hash = fnv(hash, keys[i]);
+                hash = fnv(hash, values[i]);
+            }
+            return hash;
+        }
+
+        /**
+         * FNV-1a of the length then chars such that values containing separators do not collide.
+         */
+        private static long fnv(long hash, String value) {
+            hash = (hash ^ value.length()) * FNV_PRIME;
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+            }
+            return hash;
+        }
     }
 }
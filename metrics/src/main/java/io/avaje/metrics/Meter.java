@@ -1,5 +1,7 @@
 package io.avaje.metrics;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * Metric that collects long values (e.g. total bytes sent).
  * <p>
@@ -50,6 +52,39 @@ public interface Meter extends Metric {
    */
   long mean();
 
+  /**
+   * Return the moving rates of events or null when rates are not enabled for this meter.
+   *
+   * @see MeterBuilder#rates()
+   */
+  default @Nullable Rates rates() {
+    return null;
+  }
+
+  /**
+   * Exponentially weighted moving rates of events per second over 1, 5 and 15 minutes.
+   * <p>
+   * The rates are updated every 5 seconds by a shared ticker from the count of events such that
+   * recording an event has no additional cost.
+   */
+  interface Rates {
+
+    /**
+     * Return the events per second over the last minute.
+     */
+    double oneMinuteRate();
+
+    /**
+     * Return the events per second over the last 5 minutes.
+     */
+    double fiveMinuteRate();
+
+    /**
+     * Return the events per second over the last 15 minutes.
+     */
+    double fifteenMinuteRate();
+  }
+
   /**
    * Statistics collected by Meter or Timer.
    */
@@ -75,5 +110,46 @@ public interface Meter extends Metric {
      */
     long mean();
 
+    /**
+     * Return the histogram for these statistics or null when the metric is not histogram backed.
+     */
+    default @Nullable Histogram histogram() {
+      return null;
+    }
+  }
+
+  /**
+   * Percentiles and bucket counts of the values collected by a histogram backed Meter or Timer.
+   * <p>
+   * Values are recorded into log-linear buckets such that a percentile value is within 6.25%
+   * of the actual value. Each percentile value is the (inclusive) upper bound of the bucket
+   * that the percentile falls into.
+   */
+  interface Histogram {
+
+    /**
+     * Return the quantiles that percentiles are reported for (e.g. 0.5, 0.99).
+     */
+    double[] quantiles();
+
+    /**
+     * Return the names of the percentiles matching the quantiles (e.g. p50, p99).
+     */
+    String[] percentileNames();
+
+    /**
+     * Return the percentile values matching the quantiles.
+     */
+    long[] percentiles();
+
+    /**
+     * Return the inclusive upper bound of each non-empty bucket in ascending order.
+     */
+    long[] bucketBounds();
+
+    /**
+     * Return the count of values in each non-empty bucket (matching the bucket bounds).
+     */
+    long[] bucketCounts();
   }
 }
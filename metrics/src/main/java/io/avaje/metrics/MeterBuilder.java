@@ -24,8 +24,45 @@ public interface MeterBuilder {
    */
   MeterBuilder unit(String unit);
 
+  /**
+   * Record the values into a histogram and report the given percentiles.
+   *
+   * <pre>{@code
+   * registry.meterBuilder("app.bytes.sent")
+   *   .percentiles(0.5, 0.95, 0.99)
+   *   .build();
+   * }</pre>
+   *
+   * @param quantiles The quantiles to report, each greater than 0 and at most 1
+   */
+  default MeterBuilder percentiles(double... quantiles) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Track exponentially weighted moving rates over 1, 5 and 15 minutes available via {@link Meter#rates()}.
+   */
+  default MeterBuilder rates() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Track the moving rates and also register them as gauges named with suffixes
+   * {@code .rate1m}, {@code .rate5m} and {@code .rate15m} reporting events per second.
+   */
+  default MeterBuilder rateGauges() {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Create and register the meter.
    */
   Meter build();
+
+  /**
+   * Create a family of meters with the given label names.
+   */
+  default MetricFamily<Meter> family(String... labelNames) {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -1,5 +1,7 @@
 package io.avaje.metrics;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.Collection;
 import java.util.function.Function;
 
@@ -43,6 +45,16 @@ public interface Metric {
    */
   void collect(Visitor collector);
 
+  /**
+   * Collect the statistics into the sink as primitive values without creating statistics objects.
+   * <p>
+   * The default implementation collects via {@link #collect(Visitor)} passing the values of each
+   * statistics object to the sink.
+   */
+  default void collect(Sink sink) {
+    collect(Sink.visitor(sink));
+  }
+
   /**
    * Reset the statistics resetting any internal counters etc.
    * <p>
@@ -186,4 +198,70 @@ public interface Metric {
       }
     }
   }
+
+  /**
+   * Receives the collected values of metrics as primitives.
+   * <p>
+   * This is the streaming alternative to collecting a list of statistics where an exporter writes
+   * each value as it is collected. The sink can be reused across collections.
+   *
+   * <pre>{@code
+   *
+   *   registry.collectMetrics(sink);
+   *
+   * }</pre>
+   */
+  interface Sink {
+
+    /**
+     * Return a visitor that passes the values of each statistics object to the sink.
+     */
+    static Visitor visitor(Sink sink) {
+      return new SinkVisitor(sink);
+    }
+
+    /**
+     * Return the naming convention to use when reporting metrics.
+     */
+    default Function<String, String> namingConvention() {
+      return NamingMatch.INSTANCE;
+    }
+
+    /**
+     * Return the collection mode to use when gathering metric values.
+     */
+    default CollectionMode collectionMode() {
+      return CollectionMode.DELTA;
+    }
+
+    /**
+     * Timer values with total and max in microseconds.
+     *
+     * @param bucketRange The bucket range of a bucket timer or null
+     * @param histogram   The percentiles when the timer is histogram backed or null
+     */
+    void timer(ID id, @Nullable String bucketRange, long count, long total, long max, Meter.@Nullable Histogram histogram);
+
+    /**
+     * Meter values.
+     *
+     * @param histogram The percentiles when the meter is histogram backed or null
+     */
+    void meter(ID id, String unit, long count, long total, long max, Meter.@Nullable Histogram histogram);
+
+    /**
+     * Counter value.
+     */
+    void counter(ID id, String unit, long count);
+
+    /**
+     * Gauge long value.
+     */
+    void gauge(ID id, String unit, long value);
+
+    /**
+     * Gauge double value.
+     */
+    void gauge(ID id, String unit, double value);
+  }
 }
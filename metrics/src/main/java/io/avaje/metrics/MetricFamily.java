@@ -0,0 +1,58 @@
+package io.avaje.metrics;
+
+/**
+ * A family of metrics sharing a name and label names where each child metric is for specific
+ * label values.
+ * <p>
+ * Resolving a child by its label values does not create Tags or Metric.ID instances once the child
+ * exists, making this the preferred way to resolve tagged metrics per request. Each child is a
+ * normal registered metric with tags of {@code labelName:labelValue} (plus any tags given to the
+ * builder) and is collected as any other metric.
+ *
+ * <pre>{@code
+ *
+ *   MetricFamily<Timer> requests = registry.timerFamily("http.server", "route", "status");
+ *   ...
+ *   requests.with(route, status).add(startNanos);
+ *
+ * }</pre>
+ *
+ * @param <M> The type of metric
+ * @see TimerBuilder#family(String...)
+ * @see CounterBuilder#family(String...)
+ * @see MeterBuilder#family(String...)
+ */
+public interface MetricFamily<M extends Metric> {
+
+  /**
+   * Return the metric name shared by the children.
+   */
+  String name();
+
+  /**
+   * Return the label names.
+   */
+  String[] labelNames();
+
+  /**
+   * Return the child for the given label value of a single label family.
+   */
+  M with(String value);
+
+  /**
+   * Return the child for the given label values of a two label family.
+   */
+  M with(String value0, String value1);
+
+  /**
+   * Return the child for the given label values of a three label family.
+   */
+  M with(String value0, String value1, String value2);
+
+  /**
+   * Return the child for the given label values (in label name order).
+   *
+   * @throws IllegalArgumentException when the number of values does not match the label names
+   */
+  M with(String... values);
+}
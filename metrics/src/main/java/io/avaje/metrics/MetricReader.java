@@ -0,0 +1,51 @@
+package io.avaje.metrics;
+
+import java.util.List;
+
+/**
+ * A named reader of a {@link MetricRegistry} with its own DELTA cursors.
+ * <p>
+ * Each reporter that collects from a shared registry should use its own reader such that any
+ * number of DELTA and CUMULATIVE consumers read the registry independently rather than taking
+ * each other's deltas. A reader that is no longer used should be closed such that it does not
+ * hold back the expiry of idle series.
+ *
+ * <pre>{@code
+ *
+ *   MetricReader statsd = registry.reader("statsd");
+ *   List<Metric.Statistics> delta = statsd.collectMetrics();
+ *
+ * }</pre>
+ */
+public interface MetricReader extends AutoCloseable {
+
+  /**
+   * Return the name of the reader.
+   */
+  String name();
+
+  /**
+   * Collect the metrics using {@link CollectionMode#DELTA} since the prior DELTA collection of this reader.
+   */
+  List<Metric.Statistics> collectMetrics();
+
+  /**
+   * Collect the metrics using the given collection mode.
+   */
+  List<Metric.Statistics> collectMetrics(CollectionMode mode);
+
+  /**
+   * Collect the metrics streaming the values into the sink using the collection mode of the sink.
+   */
+  void collectMetrics(Metric.Sink sink);
+
+  /**
+   * Release the reader such that series expiry no longer waits for it to collect.
+   * <p>
+   * The per reader state of the metrics is cleared and the reader number reused by later readers.
+   * Collecting from a closed reader throws IllegalStateException and obtaining a reader with the
+   * same name from the registry returns a new reader.
+   */
+  @Override
+  void close();
+}
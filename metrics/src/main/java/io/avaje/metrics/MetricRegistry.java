@@ -1,12 +1,19 @@
 package io.avaje.metrics;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.DoubleSupplier;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
 
 /**
  * The SPI for the underlying implementation that is plugged in via service locator.
+ * <p>
+ * Methods added since the first release have default implementations that delegate to the
+ * other methods or throw {@link UnsupportedOperationException}, such that other implementations
+ * continue to compile.
  */
 public interface MetricRegistry extends JvmMetrics {
 
@@ -75,11 +82,72 @@ public interface MetricRegistry extends JvmMetrics {
    */
   TimerGroup timerGroup(String baseName);
 
+  /**
+   * Return the TimerGroup using the given base metric name with timers for the given names that
+   * are also resolved by index via {@link TimerGroup#timer(int)}.
+   */
+  default TimerGroup timerGroup(String baseName, String... names) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Return the TimerGroup using the given base metric name with timers for the constants of the
+   * enum (by name) that are also resolved by ordinal via {@link TimerGroup#timer(Enum)}.
+   */
+  default <E extends Enum<E>> TimerGroup timerGroup(String baseName, Class<E> operations) {
+    final E[] constants = operations.getEnumConstants();
+    final String[] names = new String[constants.length];
+    for (E constant : constants) {
+      names[constant.ordinal()] = constant.name();
+    }
+    return timerGroup(baseName, names);
+  }
+
+  /**
+   * Return a family of counters with the given name and label names.
+   */
+  default MetricFamily<Counter> counterFamily(String name, String... labelNames) {
+    return counterBuilder(name).family(labelNames);
+  }
+
+  /**
+   * Return a family of meters with the given name and label names.
+   */
+  default MetricFamily<Meter> meterFamily(String name, String... labelNames) {
+    return meterBuilder(name).family(labelNames);
+  }
+
+  /**
+   * Return a family of timers with the given name and label names.
+   *
+   * <pre>{@code
+   *
+   *   MetricFamily<Timer> requests = registry.timerFamily("http.server", "route", "status");
+   *   ...
+   *   requests.with(route, status).add(startNanos);
+   *
+   * }</pre>
+   */
+  default MetricFamily<Timer> timerFamily(String name, String... labelNames) {
+    return timerBuilder(name).family(labelNames);
+  }
+
   /**
    * Register a metric that was created externally with the registry.
    */
   void register(Metric metric);
 
+  /**
+   * Remove the metric with the given id returning the removed metric or null if not registered.
+   * <p>
+   * The removed metric is no longer collected so the caller can collect it one last time to
+   * report any pending values. Timer groups and metric families resolve the metric again on next
+   * use while a reference held elsewhere continues to be updated but is no longer collected.
+   */
+  default @Nullable Metric remove(Metric.ID id) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Add an external metric supplier.
    */
@@ -97,6 +165,84 @@ public interface MetricRegistry extends JvmMetrics {
    */
   MetricRegistry namingUnderscore();
 
+  /**
+   * Set the maximum number of series (tag combinations) per metric name and in total.
+   * <p>
+   * Once a limit is reached, requests for timers, counters and meters with new tags are given a
+   * single series tagged {@code overflow:true} for that name rather than creating a new metric.
+   * When the total limit is reached for a metric name not yet registered the overflow series is
+   * shared across names (named {@code metrics.overflow.timer} etc). The number of distinct dropped
+   * series is counted by the {@code metrics.series.dropped} counter.
+   * <p>
+   * The limits are approximate in that concurrent creation can exceed them slightly. The defaults
+   * are 10,000 series per name and 100,000 in total.
+   *
+   * @param maxSeriesPerName The maximum number of series for a single metric name
+   * @param maxSeries        The maximum number of series in total
+   */
+  default MetricRegistry seriesLimits(int maxSeriesPerName, int maxSeries) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Remove timers, counters and meters that have had no updates for the given number of
+   * consecutive collections of every reader that has collected.
+   * <p>
+   * Expiry applies to metrics obtained via the registry after this is set (including those of
+   * timer groups and metric families) and not to gauges or metrics that are registered. Prior to
+   * removal the metric is collected such that pending values are reported, and each other reader
+   * collects it once more on its next collection. An expired metric that is held elsewhere (for
+   * example in a static field) is registered again on its next update such that the update is
+   * collected. Expiry is off by default.
+   *
+   * @param collections The number of idle collections after which a metric is removed, 0 to disable
+   */
+  default MetricRegistry expireAfter(int collections) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Use incremental DELTA collection that visits only the timers, counters and meters updated
+   * since the prior collection along with gauges.
+   * <p>
+   * The first update of a metric after it was collected adds it to a queue of touched metrics
+   * which DELTA collection drains. This makes collection cost proportional to the number of
+   * active series rather than all series at the cost of a flag read on each update.
+   * CUMULATIVE collection continues to visit every metric.
+   */
+  default MetricRegistry incrementalCollection() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Set the rolling window over which the max of timers and meters is reported.
+   * <p>
+   * The window is a ring of the given number of sub-windows each of the given duration. The max
+   * reported to each reader is the max of the sub-windows since its prior collection, at most the
+   * whole window, such that readers with different intervals each get the max of their own
+   * interval to the granularity of a sub-window. The default is 6 sub-windows of 10 seconds. Set
+   * the window to cover the longest report interval and sub-windows shorter than the shortest.
+   *
+   * @param windows  The number of sub-windows
+   * @param window   The duration of each sub-window
+   * @param timeUnit The time unit of the window duration
+   */
+  default MetricRegistry maxWindow(int windows, long window, TimeUnit timeUnit) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Return the named reader with its own DELTA cursors, creating it on first use.
+   * <p>
+   * The collect methods of the registry itself use a default reader. Metric suppliers added via
+   * {@link #addSupplier(MetricSupplier)} are collected by mode only and are not per reader.
+   * With {@link #incrementalCollection()} only the default reader collects touched metrics
+   * incrementally. Close the reader when it is no longer used.
+   */
+  default MetricReader reader(String name) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Collect all the metrics using {@link CollectionMode#DELTA}.
    */
@@ -107,6 +253,18 @@ public interface MetricRegistry extends JvmMetrics {
    */
   List<Metric.Statistics> collectMetrics(CollectionMode mode);
 
+  /**
+   * Collect all the metrics streaming the values into the sink without creating statistics objects.
+   * <p>
+   * The collection mode of the sink is used along with the naming convention of this registry.
+   */
+  default void collectMetrics(Metric.Sink sink) {
+    final Metric.Visitor visitor = Metric.Sink.visitor(sink);
+    for (Metric.Statistics statistics : collectMetrics(sink.collectionMode())) {
+      statistics.visit(visitor);
+    }
+  }
+
   /**
    * Collect the metrics for writing as JSON using {@link CollectionMode#DELTA}
    * (typically to a supplied Appender).
@@ -190,6 +190,35 @@ public class Metrics {
     return timerGroup(cls.getName());
   }
 
+  /**
+   * Return the TimerGroup with timers for the constants of the enum resolved by ordinal using
+   * the default registry.
+   */
+  public static <E extends Enum<E>> TimerGroup timerGroup(String baseName, Class<E> operations) {
+    return defaultRegistry.timerGroup(baseName, operations);
+  }
+
+  /**
+   * Return a family of counters with the given name and label names using the default registry.
+   */
+  public static MetricFamily<Counter> counterFamily(String name, String... labelNames) {
+    return defaultRegistry.counterFamily(name, labelNames);
+  }
+
+  /**
+   * Return a family of meters with the given name and label names using the default registry.
+   */
+  public static MetricFamily<Meter> meterFamily(String name, String... labelNames) {
+    return defaultRegistry.meterFamily(name, labelNames);
+  }
+
+  /**
+   * Return a family of timers with the given name and label names using the default registry.
+   */
+  public static MetricFamily<Timer> timerFamily(String name, String... labelNames) {
+    return defaultRegistry.timerFamily(name, labelNames);
+  }
+
   /**
    * Return a builder used to configure and register a gauge with the default registry.
    */
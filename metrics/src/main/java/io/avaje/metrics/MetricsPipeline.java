@@ -0,0 +1,136 @@
+package io.avaje.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects one snapshot of the metrics per tick and fans it out to the registered sinks.
+ * <p>
+ * Rather than each reporter collecting on its own schedule (running every {@link MetricSupplier}
+ * once per reporter), the pipeline collects once and hands the same snapshot to each sink. Each
+ * sink is delivered to by its own worker thread with a bounded queue and a timeout such that a
+ * slow or unavailable backend does not delay the other sinks.
+ *
+ * <pre>{@code
+ *
+ *   MetricsPipeline pipeline = MetricsPipeline.builder()
+ *       .schedule(60, TimeUnit.SECONDS)
+ *       .sink("statsd", statsdReporter::report)
+ *       .sink("graphite", 2, 10, TimeUnit.SECONDS, graphiteReporter::report)
+ *       .build();
+ *
+ *   pipeline.start();
+ *
+ * }</pre>
+ */
+public interface MetricsPipeline extends AutoCloseable {
+
+  /**
+   * Return the builder for a MetricsPipeline.
+   */
+  static Builder builder() {
+    return new DMetricsPipeline.DBuilder();
+  }
+
+  /**
+   * Start collecting on the configured schedule.
+   */
+  void start();
+
+  /**
+   * Collect one snapshot now and queue it to each sink.
+   */
+  void collect();
+
+  /**
+   * Return the delivery statistics of each sink.
+   */
+  List<SinkStats> sinkStats();
+
+  /**
+   * Stop collecting, stop the sink workers and close the reader owned by the pipeline.
+   * <p>
+   * The sink workers are interrupted and close waits up to 5 seconds in total for them to finish
+   * a delivery in progress. A sink that ignores the interrupt is left to finish on its own
+   * daemon thread.
+   */
+  @Override
+  void close();
+
+  /**
+   * Delivery statistics of a sink.
+   */
+  interface SinkStats {
+
+    /**
+     * Return the name of the sink.
+     */
+    String name();
+
+    /**
+     * Return the number of snapshots currently queued for the sink.
+     */
+    int queued();
+
+    /**
+     * Return the number of snapshots successfully delivered to the sink.
+     */
+    long delivered();
+
+    /**
+     * Return the number of snapshots dropped because the queue of the sink was full.
+     */
+    long dropped();
+
+    /**
+     * Return the number of deliveries that were interrupted for exceeding the timeout.
+     */
+    long timedOut();
+
+    /**
+     * Return the number of deliveries where the sink threw an exception.
+     */
+    long failed();
+  }
+
+  /**
+   * The builder for a MetricsPipeline.
+   */
+  interface Builder {
+
+    /**
+     * Specify the provider of the snapshots.
+     * <p>
+     * Defaults to DELTA collection from a reader of the default registry owned by the pipeline,
+     * named {@code "pipeline-"} with a sequence number, that is closed when the pipeline is closed.
+     */
+    Builder provider(MetricsProvider provider);
+
+    /**
+     * Specify the schedule to collect the snapshots. Defaults to every 60 seconds.
+     */
+    Builder schedule(int delay, TimeUnit timeUnit);
+
+    /**
+     * Add a sink with a queue capacity of 2 and a timeout equal to the schedule.
+     */
+    Builder sink(String name, Consumer<List<Metric.Statistics>> sink);
+
+    /**
+     * Add a sink.
+     *
+     * @param name          The name of the sink used for the worker thread and statistics
+     * @param queueCapacity The maximum number of snapshots queued for the sink, when full the oldest is dropped
+     * @param timeout       The time after which a delivery to the sink is interrupted
+     * @param timeUnit      The time unit of the timeout
+     * @param sink          The sink the snapshots are delivered to
+     */
+    Builder sink(String name, int queueCapacity, long timeout, TimeUnit timeUnit, Consumer<List<Metric.Statistics>> sink);
+
+    /**
+     * Build the pipeline.
+     */
+    MetricsPipeline build();
+  }
+}
@@ -33,4 +33,12 @@ public interface MetricsProvider {
     requireNonNull(registry, "registry");
     return registry::collectMetrics;
   }
+
+  /**
+   * Create a provider that collects from the given reader (with its own DELTA cursors).
+   */
+  static MetricsProvider forReader(MetricReader reader) {
+    requireNonNull(reader, "reader");
+    return reader::collectMetrics;
+  }
 }
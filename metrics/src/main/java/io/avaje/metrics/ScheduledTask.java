@@ -6,8 +6,11 @@ import java.util.concurrent.TimeUnit;
  * A ScheduledTask that can run periodically, be cancelled, and
  * also aware of when its running (for use with Lambda).
  * <p>
- * The ScheduledTask will use a Daemon thread and expect to just
- * stop on JVM shutdown.
+ * All scheduled tasks share a single daemon thread for the timing of the ticks, with the
+ * tasks running on virtual threads when available (Java 21+) or otherwise on pooled daemon
+ * threads. They expect to just stop on JVM shutdown. A task runs with a fixed delay after the
+ * completion of its prior run, unless aligned to the wall clock where a tick that occurs while
+ * the task is still running from the prior tick is skipped and counted as an overrun.
  */
 public interface ScheduledTask {
 
@@ -45,6 +48,13 @@ public interface ScheduledTask {
    */
   void waitIfRunning(long timeout, TimeUnit timeUnit);
 
+  /**
+   * Return the number of ticks skipped because the task was still running from the prior tick.
+   */
+  default long overruns() {
+    return 0;
+  }
+
   /**
    * The builder for a ScheduledTask.
    */
@@ -53,7 +63,7 @@ public interface ScheduledTask {
     /**
      * Specify the schedule to run the task.
      * @param initial The initial delay
-     * @param delay The delay between task execution
+     * @param delay The delay from the completion of one task execution to the start of the next
      * @param timeUnit The timeunit of the scheduled delay
      */
     Builder schedule(int initial, int delay, TimeUnit timeUnit);
@@ -63,6 +73,23 @@ public interface ScheduledTask {
      */
     Builder task(Runnable task);
 
+    /**
+     * Align the ticks to the wall clock such that the task runs at multiples of the delay since
+     * the epoch (for example on each whole minute with a delay of 60 seconds) and the initial
+     * delay is ignored.
+     * <p>
+     * The ticks are then at a fixed rate, a tick while the task still runs is skipped.
+     * <p>
+     * This lines up the collections of tasks with the same delay across reporters and across JVMs.
+     */
+    Builder alignToWallClock();
+
+    /**
+     * With {@link #alignToWallClock()} offset the aligned ticks by a random amount up to the given
+     * jitter (chosen once when the task starts) to spread the load of many JVMs reporting at once.
+     */
+    Builder jitter(long jitter, TimeUnit timeUnit);
+
     /**
      * Build the scheduled task.
      */
@@ -0,0 +1,50 @@
+package io.avaje.metrics;
+
+import java.util.function.Function;
+
+/**
+ * Visitor that passes the values of each statistics object to a sink.
+ */
+final class SinkVisitor implements Metric.Visitor {
+
+  private final Metric.Sink sink;
+
+  SinkVisitor(Metric.Sink sink) {
+    this.sink = sink;
+  }
+
+  @Override
+  public Function<String, String> namingConvention() {
+    return sink.namingConvention();
+  }
+
+  @Override
+  public CollectionMode collectionMode() {
+    return sink.collectionMode();
+  }
+
+  @Override
+  public void visit(Timer.Stats timed) {
+    sink.timer(timed.id(), timed.bucketRange(), timed.count(), timed.total(), timed.max(), timed.histogram());
+  }
+
+  @Override
+  public void visit(Meter.Stats meter) {
+    sink.meter(meter.id(), meter.unit(), meter.count(), meter.total(), meter.max(), meter.histogram());
+  }
+
+  @Override
+  public void visit(Counter.Stats counter) {
+    sink.counter(counter.id(), counter.unit(), counter.count());
+  }
+
+  @Override
+  public void visit(GaugeDouble.Stats gauge) {
+    sink.gauge(gauge.id(), gauge.unit(), gauge.value());
+  }
+
+  @Override
+  public void visit(GaugeLong.Stats gauge) {
+    sink.gauge(gauge.id(), gauge.unit(), gauge.value());
+  }
+}
@@ -45,6 +45,31 @@ public interface Tags {
      */
     String[] array();
 
+    /**
+     * Return the number of {@code key:value} tags.
+     * <p>
+     * Together with {@link #key(int)} and {@link #value(int)} this is the parsed form of the
+     * tags sorted by key, parsed once per Tags instance such that exporters do not need to parse
+     * the raw {@code key:value} strings. Raw entries without a key are not included.
+     */
+    int size();
+
+    /**
+     * Return the key of the tag at the given index (in key order).
+     */
+    String key(int index);
+
+    /**
+     * Return the value of the tag at the given index (in key order).
+     */
+    String value(int index);
+
+    /**
+     * Return a 64-bit fingerprint of the keys and values that does not depend on the order the
+     * tags were given in.
+     */
+    long fingerprint();
+
     /**
      * Return an ordered string representation suitable as a cache key.
      */
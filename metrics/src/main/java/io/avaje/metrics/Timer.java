@@ -2,6 +2,8 @@ package io.avaje.metrics;
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -79,6 +81,66 @@ public interface Timer extends Metric {
    */
   <T> T time(Supplier<T> event);
 
+  /**
+   * Times the execution of the event passing it the given context.
+   * <p>
+   * Passing the context allows the event to be a non-capturing lambda or method reference
+   * which avoids allocating a lambda instance per call.
+   *
+   * <pre>{@code
+   *
+   *   timer.timeAccept(order, Order::submit);
+   *
+   * }</pre>
+   */
+  default <C> void timeAccept(C context, Consumer<? super C> event) {
+    final Event timedEvent = startEvent();
+    try {
+      event.accept(context);
+      timedEvent.end();
+    } catch (RuntimeException | Error e) {
+      timedEvent.endWithError(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Times the execution of the event passing it the given context and returning the result.
+   * <p>
+   * Passing the context allows the event to be a non-capturing lambda or method reference
+   * which avoids allocating a lambda instance per call.
+   */
+  default <C, T> T timeApply(C context, Function<? super C, ? extends T> event) {
+    final Event timedEvent = startEvent();
+    try {
+      final T result = event.apply(context);
+      timedEvent.end();
+      return result;
+    } catch (RuntimeException | Error e) {
+      timedEvent.endWithError(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Return a start token (the current {@link System#nanoTime()}) to later pass to
+   * {@link #add(long)} or {@link #addErr(long)}.
+   * <p>
+   * This is the lowest overhead way to time an event and does not allocate. Note that spans
+   * are not created for traced timers using this approach.
+   *
+   * <pre>{@code
+   *
+   *   long start = timer.startNanos();
+   *   ...
+   *   timer.add(start);
+   *
+   * }</pre>
+   */
+  default long startNanos() {
+    return System.nanoTime();
+  }
+
   /**
    * Start an event.
    * <p>
@@ -93,6 +155,30 @@ public interface Timer extends Metric {
    */
   Event startEvent();
 
+  /**
+   * Start an event using an event instance that is reused by the current thread.
+   * <p>
+   * The event must be closed (typically via try-with-resources) which records it as successful
+   * unless it was already ended via {@link Event#endWithError()} or {@link Event#end(boolean)}.
+   * Closing returns the instance for reuse so it must not be used after it is closed. Nested
+   * events on the same thread each get their own instance.
+   *
+   * <pre>{@code
+   *
+   *   try (Timer.Event event = timer.startReusableEvent()) {
+   *     ...
+   *   } catch (MyException e) {
+   *     ...
+   *   }
+   *
+   * }</pre>
+   * <p>
+   * Unlike {@link #startEvent()} this does not allocate an event per call.
+   */
+  default Event startReusableEvent() {
+    return startEvent();
+  }
+
   /**
    * Add an event based on a startNanos (determined by {@link System#nanoTime()}).
    * <p>
@@ -116,6 +202,15 @@ public interface Timer extends Metric {
    */
   void addErr(long startNanos);
 
+  /**
+   * Add an error event duration along with the error that caused it.
+   * <p>
+   * A traced timer with a span threshold records the error on the span of a slow event.
+   */
+  default void addErr(long startNanos, Throwable error) {
+    addErr(startNanos);
+  }
+
   /**
    * Add an event duration in nanoseconds noting if it was a success or failure result.
    * <p>
@@ -131,6 +226,16 @@ public interface Timer extends Metric {
    */
   @Nullable String bucketRange();
 
+  /**
+   * Return the moving rates of events (success and error) or null when rates are not enabled
+   * for this timer.
+   *
+   * @see TimerBuilder#rates()
+   */
+  default Meter.@Nullable Rates rates() {
+    return null;
+  }
+
   /**
    * Statistics collected by Timer.
    */
@@ -169,9 +274,14 @@ public interface Timer extends Metric {
    * </code>
    * </pre>
    *
+   * <p>
+   * Events are {@link AutoCloseable} where close ends the event as successful if it has not
+   * already been ended.
+   *
    * @see Timer#startEvent()
+   * @see Timer#startReusableEvent()
    */
-  interface Event {
+  interface Event extends AutoCloseable {
 
     /**
      * This timed event ended with successful execution.
@@ -195,5 +305,13 @@ public interface Timer extends Metric {
      * End specifying whether the event was successful or in error.
      */
     void end(boolean withSuccess);
+
+    /**
+     * End the event as successful if it has not already been ended.
+     */
+    @Override
+    default void close() {
+      end();
+    }
   }
 }
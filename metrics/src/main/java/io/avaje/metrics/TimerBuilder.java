@@ -1,5 +1,7 @@
 package io.avaje.metrics;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Builder used to configure and register a timer.
  *
@@ -24,6 +26,79 @@ public interface TimerBuilder {
    */
   TimerBuilder bucketRanges(int... bucketRangesMillis);
 
+  /**
+   * Set the bucket ranges to use for the timer in the given time unit.
+   * <p>
+   * Use this for sub millisecond ranges, for example
+   * {@code bucketRanges(TimeUnit.MICROSECONDS, 250, 500, 1000)}. The ranges must be positive
+   * and in ascending order.
+   */
+  default TimerBuilder bucketRanges(TimeUnit unit, long... bucketRanges) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Record the durations into a histogram and report the given percentiles.
+   * <p>
+   * This is an alternative to bucket ranges and the two can not be combined.
+   *
+   * <pre>{@code
+   * registry.timerBuilder("app.http.request")
+   *   .percentiles(0.5, 0.95, 0.99)
+   *   .build();
+   * }</pre>
+   *
+   * @param quantiles The quantiles to report, each greater than 0 and at most 1
+   */
+  default TimerBuilder percentiles(double... quantiles) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Set the rolling window over which the max of this timer is reported, overriding the
+   * window of the registry.
+   *
+   * @param windows  The number of sub-windows
+   * @param window   The duration of each sub-window
+   * @param timeUnit The time unit of the window duration
+   * @see MetricRegistry#maxWindow(int, long, TimeUnit)
+   */
+  default TimerBuilder maxWindow(int windows, long window, TimeUnit timeUnit) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Track exponentially weighted moving rates over 1, 5 and 15 minutes available via {@link Timer#rates()}.
+   */
+  default TimerBuilder rates() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Track the moving rates and also register them as gauges named with suffixes
+   * {@code .rate1m}, {@code .rate5m} and {@code .rate15m} reporting events per second.
+   */
+  default TimerBuilder rateGauges() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Defer the spans of a traced timer to the end of each event creating a span only for events
+   * slower than the threshold.
+   * <p>
+   * Only the start time is recorded when an event starts. When a slow event ends a span is
+   * created with explicit start and end timestamps under the current context, such that the cost
+   * of tracing follows the number of slow events rather than all events. These spans do not
+   * become the current span while the event runs so spans of nested timers are not their
+   * children. Spans are also created for slow events added via {@link Timer#add(long)} and
+   * {@link Timer#addErr(long)}.
+   * <p>
+   * This applies to {@link #buildTraced()} and {@link #buildRootTraced()}.
+   */
+  default TimerBuilder spanThreshold(long threshold, TimeUnit timeUnit) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Create and register the timer.
    */
@@ -44,4 +119,22 @@ public interface TimerBuilder {
    * they do not create a new root span.
    */
   Timer buildRootTraced();
+
+  /**
+   * Create a family of timers with the given label names.
+   * <p>
+   * The children of the family are created with the settings of this builder plus tags for
+   * the label names and values.
+   *
+   * <pre>{@code
+   * MetricFamily<Timer> requests = registry.timerBuilder("http.server")
+   *   .percentiles(0.5, 0.99)
+   *   .family("route", "status");
+   *
+   * requests.with("/customers", "200").add(startNanos);
+   * }</pre>
+   */
+  default MetricFamily<Timer> family(String... labelNames) {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -4,6 +4,13 @@ package io.avaje.metrics;
  * A group of timers that share a common base name.
  * <p>
  * This is intended to be used when the full metric name is determined at runtime.
+ * <p>
+ * When the group is created with a known set of names, such as the constants of an enum, the
+ * timers are also resolved by the index of the name which is an array index rather than a lookup
+ * by name. Other names are still resolved by name with a bounded number of them cached.
+ *
+ * @see MetricRegistry#timerGroup(String, String...)
+ * @see MetricRegistry#timerGroup(String, Class)
  */
 public interface TimerGroup {
 
@@ -42,4 +49,41 @@ public interface TimerGroup {
    * duration rather than the start nanoseconds.
    */
   void addEventDuration(String name, boolean success, long durationNanos);
+
+  /**
+   * Return the Timer for the index of the name in the names the group was created with.
+   *
+   * @throws IndexOutOfBoundsException if the group was not created with a name at the index
+   */
+  Timer timer(int index);
+
+  /**
+   * Return the Timer for the enum constant using its ordinal as the index.
+   * <p>
+   * The group must be created with the enum type of the constant.
+   */
+  default Timer timer(Enum<?> operation) {
+    return timer(operation.ordinal());
+  }
+
+  /**
+   * Start the event for the name at the given index.
+   */
+  default Timer.Event start(int index) {
+    return timer(index).startEvent();
+  }
+
+  /**
+   * Add an event based on a startNanos for the name at the given index.
+   */
+  default void addEventSince(int index, boolean success, long startNanos) {
+    timer(index).addEventSince(success, startNanos);
+  }
+
+  /**
+   * Add an event duration in nanoseconds for the name at the given index.
+   */
+  default void addEventDuration(int index, boolean success, long durationNanos) {
+    timer(index).addEventDuration(success, durationNanos);
+  }
 }
@@ -3,6 +3,8 @@ package io.avaje.metrics.core;
 import io.avaje.metrics.Metric;
 import org.jspecify.annotations.Nullable;
 
+import java.util.function.Function;
+
 import static java.util.Objects.requireNonNull;
 
 abstract class BaseReportName {
@@ -20,13 +22,13 @@ abstract class BaseReportName {
     this.unit = normalizeUnit(unit);
   }
 
-  final Metric.ID reportId(Metric.Visitor collector) {
+  final Metric.ID reportId(Function<String, String> namingConvention) {
     final var id = reportId;
-    return id != null ? id : useNamingConvention(collector);
+    return id != null ? id : useNamingConvention(namingConvention);
   }
 
-  final Metric.ID useNamingConvention(Metric.Visitor collector) {
-    final Metric.ID tmp = id.withName(collector.namingConvention().apply(id.name()));
+  final Metric.ID useNamingConvention(Function<String, String> namingConvention) {
+    final Metric.ID tmp = id.withName(namingConvention.apply(id.name()));
     this.reportId = tmp;
     return tmp;
   }
@@ -4,25 +4,44 @@ import io.avaje.metrics.Metric;
 import io.avaje.metrics.Timer;
 import io.avaje.metrics.spi.SpiMetricBuilder;
 
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
 final class BucketTimerFactory implements SpiMetricBuilder.Factory<Timer> {
 
   @Override
   public Timer createMetric(Metric.ID id, String unitIgnore, int[] bucketRanges) {
-    int rangeBottom = 0;
-    Timer[] buckets = new Timer[bucketRanges.length + 1];
+    long[] bucketRangesNanos = new long[bucketRanges.length];
     for (int i = 0; i < bucketRanges.length; i++) {
-      int rangeTop = bucketRanges[i];
+      bucketRangesNanos[i] = TimeUnit.MILLISECONDS.toNanos(bucketRanges[i]);
+    }
+    return createBucketMetric(id, unitIgnore, bucketRangesNanos);
+  }
+
+  @Override
+  public Timer createBucketMetric(Metric.ID id, String unitIgnore, long[] bucketRangesNanos) {
+    long rangeBottom = 0;
+    Timer[] buckets = new Timer[bucketRangesNanos.length + 1];
+    for (int i = 0; i < bucketRangesNanos.length; i++) {
+      long rangeTop = bucketRangesNanos[i];
       buckets[i] = createTimedMetric(id, rangeBottom, rangeTop);
       // move the range bottom up to the last rangeTop
       rangeBottom = rangeTop;
     }
-    buckets[bucketRanges.length] = createTimedMetric(id, rangeBottom, 0);
-    return new DBucketTimer(id, bucketRanges, buckets);
+    buckets[bucketRangesNanos.length] = createTimedMetric(id, rangeBottom, 0);
+    return new DBucketTimer(id, bucketRangesNanos, buckets);
   }
 
-  private static Timer createTimedMetric(Metric.ID id, int rangeBottom, int rangeTop) {
-    String suffix = (rangeTop == 0) ? String.valueOf(rangeBottom) : rangeBottom + "-" + rangeTop;
+  private static Timer createTimedMetric(Metric.ID id, long rangeBottom, long rangeTop) {
+    String suffix = (rangeTop == 0) ? millis(rangeBottom) : millis(rangeBottom) + "-" + millis(rangeTop);
     return new DTimer(id, suffix);
   }
 
+  /**
+   * Return the nanos as millis (with a decimal fraction for sub millisecond ranges).
+   */
+  static String millis(long nanos) {
+    return BigDecimal.valueOf(nanos, 6).stripTrailingZeros().toPlainString();
+  }
+
 }
@@ -1,5 +1,6 @@
 package io.avaje.metrics.core;
 
+import io.avaje.metrics.Meter;
 import io.avaje.metrics.Timer;
 import io.avaje.metrics.spi.SpiSpan;
 import io.avaje.metrics.spi.SpiTimedSpanFactory.Prepared;
@@ -7,31 +8,91 @@ import io.avaje.metrics.spi.SpiTimedSpanFactory;
 import io.avaje.metrics.spi.SpiTimedSpanFactory.SpanMode;
 import org.jspecify.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * Default implementation of BucketTimedMetric.
+ * <p>
+ * The bucket ranges are held in nanoseconds. The bucket for an event is found via a lookup index
+ * by the highest set bit of the duration which gives the (usually single) candidate bucket with
+ * a binary search only when multiple ranges fall within the same power of 2. Errors are collected
+ * separately from the buckets.
  */
-final class DBucketTimer implements Timer, TraceableTimer {
+final class DBucketTimer implements Timer, TraceableTimer, TouchTracked, ReaderTracked, MaxWindowed, RatesTracked {
 
   private static final String UNIT = "us";
 
   private final ID id;
-  final int[] bucketRanges;
+  final long[] bucketRanges;
   final Timer[] buckets;
-  private final int lastBucketIndex;
+  private final int[] lookup;
+  private final ValueCounter errorCounter;
   private final @Nullable Prepared preparedSpan;
+  private final @Nullable Prepared deferredSpan;
+  private final long spanThresholdNanos;
+  private volatile TouchTracked.@Nullable Touch touch;
+  private volatile @Nullable ValueRates rates;
 
-  DBucketTimer(ID id, int[] bucketRanges, Timer[] buckets) {
-    this(id, bucketRanges, buckets, null);
+  DBucketTimer(ID id, long[] bucketRangesNanos, Timer[] buckets) {
+    this(id, bucketRangesNanos, buckets, lookup(bucketRangesNanos), new ValueCounter(id.suffix(".error")), null, null, 0);
   }
 
-  private DBucketTimer(ID id, int[] bucketRanges, Timer[] buckets, @Nullable Prepared preparedSpan) {
+  private DBucketTimer(ID id, long[] bucketRanges, Timer[] buckets, int[] lookup, ValueCounter errorCounter,
+                       @Nullable Prepared preparedSpan, @Nullable Prepared deferredSpan, long spanThresholdNanos) {
     this.id = id;
     this.bucketRanges = bucketRanges;
     this.buckets = buckets;
-    this.lastBucketIndex = bucketRanges.length;
+    this.lookup = lookup;
+    this.errorCounter = errorCounter;
     this.preparedSpan = preparedSpan;
+    this.deferredSpan = deferredSpan;
+    this.spanThresholdNanos = spanThresholdNanos;
+  }
+
+  /**
+   * Return the lookup index where entry {@code b} is the number of ranges at or below the
+   * smallest duration with {@code b} significant bits and entry {@code b + 1} the number at or
+   * below the largest such duration.
+   */
+  static int[] lookup(long[] bucketRanges) {
+    final int[] lookup = new int[65];
+    for (int bits = 0; bits < 64; bits++) {
+      final long min = bits == 0 ? 0 : 1L << (bits - 1);
+      lookup[bits] = countAtOrBelow(bucketRanges, min);
+    }
+    lookup[64] = bucketRanges.length;
+    return lookup;
+  }
+
+  private static int countAtOrBelow(long[] bucketRanges, long value) {
+    int count = 0;
+    while (count < bucketRanges.length && bucketRanges[count] <= value) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Return the index of the bucket for the given duration in nanos.
+   */
+  int bucketIndex(long durationNanos) {
+    final long duration = Math.max(durationNanos, 0);
+    final int bits = 64 - Long.numberOfLeadingZeros(duration);
+    int low = lookup[bits];
+    int high = lookup[bits + 1];
+    // binary search for the first range above the duration when several share the power of 2
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (bucketRanges[mid] <= duration) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
   }
 
   @Override
@@ -61,7 +122,7 @@ final class DBucketTimer implements Timer, TraceableTimer {
         event.run();
         add(start);
       } catch (RuntimeException | Error e) {
-        addErr(start);
+        addEventDuration(false, System.nanoTime() - start, e);
         throw e;
       }
     }
@@ -86,7 +147,55 @@ final class DBucketTimer implements Timer, TraceableTimer {
         add(start);
         return result;
       } catch (RuntimeException | Error e) {
-        addErr(start);
+        addEventDuration(false, System.nanoTime() - start, e);
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public <C> void timeAccept(C context, Consumer<? super C> event) {
+    if (preparedSpan != null) {
+      Timer.Event timedEvent = startEvent();
+      try {
+        event.accept(context);
+        timedEvent.end();
+      } catch (RuntimeException | Error e) {
+        timedEvent.endWithError(e);
+        throw e;
+      }
+    } else {
+      long start = System.nanoTime();
+      try {
+        event.accept(context);
+        add(start);
+      } catch (RuntimeException | Error e) {
+        addEventDuration(false, System.nanoTime() - start, e);
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public <C, T> T timeApply(C context, Function<? super C, ? extends T> event) {
+    if (preparedSpan != null) {
+      Timer.Event timedEvent = startEvent();
+      try {
+        final T result = event.apply(context);
+        timedEvent.end();
+        return result;
+      } catch (RuntimeException | Error e) {
+        timedEvent.endWithError(e);
+        throw e;
+      }
+    } else {
+      long start = System.nanoTime();
+      try {
+        final T result = event.apply(context);
+        add(start);
+        return result;
+      } catch (RuntimeException | Error e) {
+        addEventDuration(false, System.nanoTime() - start, e);
         throw e;
       }
     }
@@ -97,26 +206,29 @@ final class DBucketTimer implements Timer, TraceableTimer {
     return new Event(this, startSpan());
   }
 
+  @Override
+  public Timer.Event startReusableEvent() {
+    return DReusableTimerEvent.start(this, startSpan());
+  }
+
   /**
    * Add the event into the appropriate bucket.
    */
   @Override
   public void addEventDuration(boolean success, long durationNanos) {
+    addEventDuration(success, durationNanos, null);
+  }
+
+  @Override
+  public void addEventDuration(boolean success, long durationNanos, @Nullable Throwable error) {
     if (!success) {
-      // always add errors to the first bucket
-      buckets[0].addEventDuration(false, durationNanos);
+      errorCounter.add(TimeUnit.NANOSECONDS.toMicros(durationNanos));
     } else {
-      // convert to millis to find which bucket the event goes into
-      long durationMillis = durationNanos / 1000000L;
-      for (int i = 0; i < lastBucketIndex; i++) {
-        if (durationMillis < bucketRanges[i]) {
-          // found the bucket to put the event into
-          buckets[i].addEventDuration(true, durationNanos);
-          return;
-        }
-      }
-      // add it to the last bucket
-      buckets[lastBucketIndex].addEventDuration(true, durationNanos);
+      buckets[bucketIndex(durationNanos)].addEventDuration(true, durationNanos);
+    }
+    touch();
+    if (deferredSpan != null && durationNanos > spanThresholdNanos) {
+      deferredSpan.ended(durationNanos, success, error);
     }
   }
 
@@ -136,6 +248,11 @@ final class DBucketTimer implements Timer, TraceableTimer {
     addEventSince(false, startNanos);
   }
 
+  @Override
+  public void addErr(long startNanos, Throwable error) {
+    addEventDuration(false, System.nanoTime() - startNanos, error);
+  }
+
   @Override
   public ID id() {
     return id;
@@ -153,9 +270,15 @@ final class DBucketTimer implements Timer, TraceableTimer {
 
   @Override
   public void collect(Visitor collector) {
+    collect(new DVisitorSink(collector));
+  }
+
+  @Override
+  public void collect(Sink sink) {
     for (Timer bucket : buckets) {
-      bucket.collect(collector);
+      bucket.collect(sink);
     }
+    errorCounter.collectTimed(sink);
   }
 
   @Override
@@ -163,18 +286,78 @@ final class DBucketTimer implements Timer, TraceableTimer {
     for (Timer bucket : buckets) {
       bucket.reset();
     }
+    errorCounter.reset();
   }
 
   @Override
-  public Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode) {
-    if (this.preparedSpan != null || timedSpanFactory == null) {
+  public Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode, long spanThresholdNanos) {
+    if (this.preparedSpan != null || this.deferredSpan != null || timedSpanFactory == null) {
       return this;
     }
     var prepared = timedSpanFactory.prepare(id, null, spanMode);
     if (prepared == null) {
       return this;
     }
-    return new DBucketTimer(id, bucketRanges, buckets, prepared);
+    return spanThresholdNanos > 0
+      ? new DBucketTimer(id, bucketRanges, buckets, lookup, errorCounter, null, prepared, spanThresholdNanos)
+      : new DBucketTimer(id, bucketRanges, buckets, lookup, errorCounter, prepared, null, 0);
+  }
+
+  @Override
+  public void release(int reader) {
+    for (Timer bucket : buckets) {
+      if (bucket instanceof ReaderTracked) {
+        ((ReaderTracked) bucket).release(reader);
+      }
+    }
+    errorCounter.release(reader);
+  }
+
+  @Override
+  public void touchedBy(TouchTracked.@Nullable Touch touch) {
+    this.touch = touch;
+  }
+
+  @Override
+  public synchronized Meter.Rates trackRates() {
+    ValueRates current = rates;
+    if (current == null) {
+      current = DRateTicker.INSTANCE.register(new ValueRates(this::countSinceReset));
+      rates = current;
+    }
+    return current;
+  }
+
+  @Override
+  public Meter.@Nullable Rates rates() {
+    return rates;
+  }
+
+  private long countSinceReset() {
+    long count = errorCounter.countSinceReset();
+    for (Timer bucket : buckets) {
+      if (bucket instanceof DTimer) {
+        count += ((DTimer) bucket).countSinceReset();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void maxWindow(int windows, long windowNanos) {
+    for (Timer bucket : buckets) {
+      if (bucket instanceof MaxWindowed) {
+        ((MaxWindowed) bucket).maxWindow(windows, windowNanos);
+      }
+    }
+    errorCounter.maxWindow(windows, windowNanos);
+  }
+
+  private void touch() {
+    final TouchTracked.Touch touch = this.touch;
+    if (touch != null) {
+      touch.mark();
+    }
   }
 
   private @Nullable SpiSpan startSpan() {
@@ -186,6 +369,7 @@ final class DBucketTimer implements Timer, TraceableTimer {
     private final DBucketTimer metric;
     private final @Nullable SpiSpan span;
     private final long startNanos;
+    private boolean ended;
 
     Event(DBucketTimer metric, @Nullable SpiSpan span) {
       this.metric = metric;
@@ -207,7 +391,11 @@ final class DBucketTimer implements Timer, TraceableTimer {
     }
 
     private void end(boolean withSuccess, @Nullable Throwable error) {
-      metric.addEventDuration(withSuccess, duration());
+      if (ended) {
+        return;
+      }
+      ended = true;
+      metric.addEventDuration(withSuccess, duration(), error);
       if (span != null) {
         if (withSuccess) {
           span.end();
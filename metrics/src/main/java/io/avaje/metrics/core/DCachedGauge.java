@@ -0,0 +1,178 @@
+package io.avaje.metrics.core;
+
+import io.avaje.applog.AppLog;
+import io.avaje.metrics.Counter;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Refreshes the value of a gauge supplier on a background thread such that collection reads the
+ * last cached value rather than calling the supplier.
+ * <p>
+ * A refresh starts when a read finds the value older than the TTL and runs on the shared
+ * {@link DMetricsScheduler#runner()}. A refresh that exceeds the timeout is interrupted by the
+ * {@link DMetricsScheduler#ticker()} and counted, and a new refresh does not start until the
+ * prior one has returned, such that a hung supplier holds at most one background thread.
+ */
+abstract class DCachedGauge {
+
+  private static final System.Logger log = AppLog.getLogger("io.avaje.metrics");
+
+  static Longs ofLongs(String name, LongSupplier supplier, long ttlNanos, long timeoutNanos, Counter failures, Counter timeouts) {
+    return new Longs(name, supplier, ttlNanos, timeoutNanos, failures, timeouts, System::nanoTime);
+  }
+
+  static Doubles ofDoubles(String name, DoubleSupplier supplier, long ttlNanos, long timeoutNanos, Counter failures, Counter timeouts) {
+    return new Doubles(name, supplier, ttlNanos, timeoutNanos, failures, timeouts, System::nanoTime);
+  }
+
+  private final String name;
+  private final long ttlNanos;
+  private final long timeoutNanos;
+  private final Counter failures;
+  private final Counter timeouts;
+  private final LongSupplier nanoTime;
+  private final long createdNanos;
+  private volatile long refreshedNanos;
+  private volatile boolean refreshed;
+  private boolean running;
+  private boolean timedOut;
+  private long sequence;
+  private @Nullable Future<?> future;
+  private @Nullable Future<?> timeout;
+
+  DCachedGauge(String name, long ttlNanos, long timeoutNanos, Counter failures, Counter timeouts, LongSupplier nanoTime) {
+    this.name = name;
+    this.ttlNanos = ttlNanos;
+    this.timeoutNanos = timeoutNanos;
+    this.failures = failures;
+    this.timeouts = timeouts;
+    this.nanoTime = nanoTime;
+    this.createdNanos = nanoTime.getAsLong();
+  }
+
+  /**
+   * Read the supplier storing the value.
+   */
+  abstract void load();
+
+  /**
+   * Start a refresh when the value is older than the TTL scheduling its timeout.
+   */
+  final void refreshIfDue() {
+    final long now = nanoTime.getAsLong();
+    synchronized (this) {
+      if (running || refreshed && now - refreshedNanos < ttlNanos) {
+        return;
+      }
+      running = true;
+      timedOut = false;
+      final long refresh = ++sequence;
+      try {
+        future = DMetricsScheduler.runner().submit(this::refresh);
+        timeout = DMetricsScheduler.ticker().schedule(() -> timeout(refresh), timeoutNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        running = false;
+      }
+    }
+  }
+
+  /**
+   * Interrupt the refresh if it is still running when the timeout expires.
+   */
+  private synchronized void timeout(long refresh) {
+    if (running && sequence == refresh && !timedOut) {
+      timedOut = true;
+      timeouts.inc();
+      log.log(WARNING, "Refresh of gauge {0} exceeded timeout, interrupting", name);
+      if (future != null) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private void refresh() {
+    try {
+      load();
+      refreshedNanos = nanoTime.getAsLong();
+      refreshed = true;
+    } catch (Throwable e) {
+      if (!timedOut()) {
+        failures.inc();
+        log.log(WARNING, "Error refreshing gauge " + name, e);
+      }
+    } finally {
+      synchronized (this) {
+        running = false;
+        future = null;
+        if (timeout != null) {
+          timeout.cancel(false);
+          timeout = null;
+        }
+      }
+    }
+  }
+
+  private synchronized boolean timedOut() {
+    return timedOut;
+  }
+
+  /**
+   * Return the age of the cached value in milliseconds (since creation when not yet refreshed).
+   */
+  final long ageMillis() {
+    final long since = refreshed ? refreshedNanos : createdNanos;
+    return TimeUnit.NANOSECONDS.toMillis(nanoTime.getAsLong() - since);
+  }
+
+  static final class Longs extends DCachedGauge implements LongSupplier {
+
+    private final LongSupplier supplier;
+    private volatile long value;
+
+    Longs(String name, LongSupplier supplier, long ttlNanos, long timeoutNanos, Counter failures, Counter timeouts, LongSupplier nanoTime) {
+      super(name, ttlNanos, timeoutNanos, failures, timeouts, nanoTime);
+      this.supplier = supplier;
+    }
+
+    @Override
+    void load() {
+      value = supplier.getAsLong();
+    }
+
+    @Override
+    public long getAsLong() {
+      refreshIfDue();
+      return value;
+    }
+  }
+
+  static final class Doubles extends DCachedGauge implements DoubleSupplier {
+
+    private final DoubleSupplier supplier;
+    private volatile double value;
+
+    Doubles(String name, DoubleSupplier supplier, long ttlNanos, long timeoutNanos, Counter failures, Counter timeouts, LongSupplier nanoTime) {
+      super(name, ttlNanos, timeoutNanos, failures, timeouts, nanoTime);
+      this.supplier = supplier;
+    }
+
+    @Override
+    void load() {
+      value = supplier.getAsDouble();
+    }
+
+    @Override
+    public double getAsDouble() {
+      refreshIfDue();
+      return value;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sink used by the registry to collect metrics into a target sink using the registry naming
+ * convention.
+ * <p>
+ * The values collected since {@link #start()} are counted for series expiry. The reader
+ * identifies the DELTA cursors used by the metrics.
+ */
+final class DCollector implements Metric.Sink {
+
+  private final Metric.Sink sink;
+  private final Function<String, String> namingConvention;
+  private final CollectionMode collectionMode;
+  private final int reader;
+  private boolean collected;
+  private long count;
+
+  DCollector(Metric.Sink sink, Function<String, String> namingConvention, int reader) {
+    this.sink = sink;
+    this.namingConvention = namingConvention;
+    this.collectionMode = sink.collectionMode();
+    this.reader = reader;
+  }
+
+  /**
+   * Return the reader of the sink, 0 being the default reader.
+   */
+  static int reader(Metric.Sink sink) {
+    return sink instanceof DCollector ? ((DCollector) sink).reader : 0;
+  }
+
+  /**
+   * Return the reader collecting, 0 being the default reader.
+   */
+  int reader() {
+    return reader;
+  }
+
+  /**
+   * Start collection of a metric.
+   */
+  void start() {
+    collected = false;
+    count = 0;
+  }
+
+  /**
+   * Return true if the metric collected any values since start.
+   */
+  boolean collected() {
+    return collected;
+  }
+
+  /**
+   * Return the count (of events) collected since start.
+   */
+  long count() {
+    return count;
+  }
+
+  @Override
+  public Function<String, String> namingConvention() {
+    return namingConvention;
+  }
+
+  @Override
+  public CollectionMode collectionMode() {
+    return collectionMode;
+  }
+
+  @Override
+  public void timer(Metric.ID id, @Nullable String bucketRange, long count, long total, long max, Meter.@Nullable Histogram histogram) {
+    this.collected = true;
+    this.count += count;
+    sink.timer(id, bucketRange, count, total, max, histogram);
+  }
+
+  @Override
+  public void meter(Metric.ID id, String unit, long count, long total, long max, Meter.@Nullable Histogram histogram) {
+    this.collected = true;
+    this.count += count;
+    sink.meter(id, unit, count, total, max, histogram);
+  }
+
+  @Override
+  public void counter(Metric.ID id, String unit, long count) {
+    this.collected = true;
+    this.count += count;
+    sink.counter(id, unit, count);
+  }
+
+  @Override
+  public void gauge(Metric.ID id, String unit, long value) {
+    this.collected = true;
+    sink.gauge(id, unit, value);
+  }
+
+  @Override
+  public void gauge(Metric.ID id, String unit, double value) {
+    this.collected = true;
+    sink.gauge(id, unit, value);
+  }
+
+  /**
+   * Pass the values of the statistics (from metric suppliers) to the target sink.
+   */
+  void addAll(List<Metric.Statistics> statistics) {
+    if (statistics.isEmpty()) {
+      return;
+    }
+    final Metric.Visitor visitor = Metric.Sink.visitor(sink);
+    for (Metric.Statistics stats : statistics) {
+      stats.visit(visitor);
+    }
+  }
+}
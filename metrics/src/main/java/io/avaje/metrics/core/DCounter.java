@@ -1,21 +1,20 @@
 package io.avaje.metrics.core;
 
-import io.avaje.metrics.CollectionMode;
 import io.avaje.metrics.Counter;
-import io.avaje.metrics.stats.CounterStats;
-
-import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Count events that occur.
  * <p>
  * For example, this is used to count the error events and warning events logged
  * via log4j or logback.
+ * <p>
+ * Increments write to a single accumulator with the DELTA derived at collection time.
  */
-final class DCounter extends BaseReportName implements Counter {
+final class DCounter extends BaseReportName implements Counter, TouchTracked, ReaderTracked {
 
-  private final LongAdder cumulativeCount = new LongAdder();
-  private final LongAdder deltaCount = new LongAdder();
+  private final ValueAdder count = new ValueAdder();
+  private volatile TouchTracked.@Nullable Touch touch;
 
   DCounter(ID id, String unit) {
     super(id, unit);
@@ -23,7 +22,7 @@ final class DCounter extends BaseReportName implements Counter {
 
   @Override
   public String toString() {
-    return id + ":" + cumulativeCount;
+    return id + ":" + count;
   }
 
   /**
@@ -31,24 +30,25 @@ final class DCounter extends BaseReportName implements Counter {
    */
   @Override
   public void reset() {
-    cumulativeCount.reset();
-    deltaCount.reset();
+    count.reset();
   }
 
   @Override
   public void collect(Visitor collector) {
-    final long sum = (collector.collectionMode() == CollectionMode.CUMULATIVE)
-      ? cumulativeCount.sum()
-      : deltaCount.sumThenReset();
+    collect(new DVisitorSink(collector));
+  }
+
+  @Override
+  public void collect(Sink sink) {
+    final long sum = count.get(sink.collectionMode(), DCollector.reader(sink));
     if (sum != 0) {
-      final ID reportId = reportId(collector);
-      collector.visit(new CounterStats(reportId, unit, sum));
+      sink.counter(reportId(sink.namingConvention()), unit, sum);
     }
   }
 
   @Override
   public long count() {
-    return deltaCount.sum();
+    return count.deltaValue();
   }
 
   @Override
@@ -71,8 +71,8 @@ final class DCounter extends BaseReportName implements Counter {
    */
   @Override
   public void inc() {
-    cumulativeCount.increment();
-    deltaCount.increment();
+    count.increment();
+    touch();
   }
 
   /**
@@ -80,20 +80,37 @@ final class DCounter extends BaseReportName implements Counter {
    */
   @Override
   public void inc(long numberOfEventsOccurred) {
-    cumulativeCount.add(numberOfEventsOccurred);
-    deltaCount.add(numberOfEventsOccurred);
+    count.add(numberOfEventsOccurred);
+    touch();
   }
 
   @Override
   public void dec() {
-    cumulativeCount.decrement();
-    deltaCount.decrement();
+    count.decrement();
+    touch();
   }
 
   @Override
   public void dec(long value) {
-    cumulativeCount.add(-value);
-    deltaCount.add(-value);
+    count.add(-value);
+    touch();
+  }
+
+  @Override
+  public void release(int reader) {
+    count.release(reader);
+  }
+
+  @Override
+  public void touchedBy(TouchTracked.@Nullable Touch touch) {
+    this.touch = touch;
+  }
+
+  private void touch() {
+    final TouchTracked.Touch touch = this.touch;
+    if (touch != null) {
+      touch.mark();
+    }
   }
 
 }
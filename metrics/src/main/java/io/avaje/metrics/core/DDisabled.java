@@ -0,0 +1,293 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The metrics used when collection is disabled via {@code metrics.disable=true}.
+ * <p>
+ * Each type has a single final implementation with empty bodies that is not registered, such that
+ * with one implementation seen at a call site the JIT inlines the calls away. Each instance only
+ * holds the requested ID. Disabled timers do not read {@link System#nanoTime()}.
+ */
+final class DDisabled {
+
+  static final DisabledEvent EVENT = new DisabledEvent();
+
+  private DDisabled() {
+  }
+
+  /**
+   * Return a disabled metric of the given type with the requested ID.
+   */
+  static <T extends Metric> T of(Metric.ID id, Class<T> type) {
+    if (type == Timer.class) {
+      return type.cast(new DisabledTimer(id));
+    }
+    if (type == Counter.class) {
+      return type.cast(new DisabledCounter(id));
+    }
+    return type.cast(new DisabledMeter(id));
+  }
+
+  /**
+   * Return a family that gives the one disabled metric of the given type for any label values.
+   * <p>
+   * That metric has the family name and tags, the label values are not held.
+   */
+  static <M extends Metric> MetricFamily<M> family(String name, Tags tags, String[] labelNames, Class<M> type) {
+    return new DisabledFamily<>(name, DMetricFamily.labelNames(labelNames), of(Metric.ID.of(name, tags), type));
+  }
+
+  private abstract static class Base implements Metric {
+
+    private final ID id;
+
+    Base(ID id) {
+      this.id = id;
+    }
+
+    @Override
+    public final ID id() {
+      return id;
+    }
+
+    @Override
+    public final String name() {
+      return id.name();
+    }
+
+    @Override
+    public final void collect(Visitor collector) {
+      // disabled
+    }
+
+    @Override
+    public final void collect(Sink sink) {
+      // disabled
+    }
+
+    @Override
+    public final void reset() {
+      // disabled
+    }
+  }
+
+  static final class DisabledTimer extends Base implements Timer {
+
+    private DisabledTimer(ID id) {
+      super(id);
+    }
+
+    @Override
+    public void time(Runnable event) {
+      event.run();
+    }
+
+    @Override
+    public <T> T time(Supplier<T> event) {
+      return event.get();
+    }
+
+    @Override
+    public <C> void timeAccept(C context, Consumer<? super C> event) {
+      event.accept(context);
+    }
+
+    @Override
+    public <C, T> T timeApply(C context, Function<? super C, ? extends T> event) {
+      return event.apply(context);
+    }
+
+    @Override
+    public long startNanos() {
+      return 0;
+    }
+
+    @Override
+    public Event startEvent() {
+      return EVENT;
+    }
+
+    @Override
+    public Event startReusableEvent() {
+      return EVENT;
+    }
+
+    @Override
+    public void addEventSince(boolean success, long startNanos) {
+      // disabled
+    }
+
+    @Override
+    public void add(long startNanos) {
+      // disabled
+    }
+
+    @Override
+    public void addErr(long startNanos) {
+      // disabled
+    }
+
+    @Override
+    public void addEventDuration(boolean success, long durationNanos) {
+      // disabled
+    }
+
+    @Override
+    public @Nullable String bucketRange() {
+      return null;
+    }
+  }
+
+  static final class DisabledEvent implements Timer.Event {
+
+    private DisabledEvent() {
+    }
+
+    @Override
+    public void end() {
+      // disabled
+    }
+
+    @Override
+    public void endWithError() {
+      // disabled
+    }
+
+    @Override
+    public void endWithError(Throwable error) {
+      // disabled
+    }
+
+    @Override
+    public void end(boolean withSuccess) {
+      // disabled
+    }
+
+    @Override
+    public void close() {
+      // disabled
+    }
+  }
+
+  static final class DisabledCounter extends Base implements Counter {
+
+    private DisabledCounter(ID id) {
+      super(id);
+    }
+
+    @Override
+    public void inc() {
+      // disabled
+    }
+
+    @Override
+    public void inc(long value) {
+      // disabled
+    }
+
+    @Override
+    public void dec() {
+      // disabled
+    }
+
+    @Override
+    public void dec(long value) {
+      // disabled
+    }
+
+    @Override
+    public long count() {
+      return 0;
+    }
+  }
+
+  static final class DisabledMeter extends Base implements Meter {
+
+    private DisabledMeter(ID id) {
+      super(id);
+    }
+
+    @Override
+    public void addEvent(long value) {
+      // disabled
+    }
+
+    @Override
+    public long count() {
+      return 0;
+    }
+
+    @Override
+    public long total() {
+      return 0;
+    }
+
+    @Override
+    public long max() {
+      return 0;
+    }
+
+    @Override
+    public long mean() {
+      return 0;
+    }
+  }
+
+  static final class DisabledFamily<M extends Metric> implements MetricFamily<M> {
+
+    private final String name;
+    private final String[] labelNames;
+    private final M metric;
+
+    DisabledFamily(String name, String[] labelNames, M metric) {
+      this.name = name;
+      this.labelNames = labelNames;
+      this.metric = metric;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public String[] labelNames() {
+      return labelNames.clone();
+    }
+
+    @Override
+    public M with(String value) {
+      DMetricFamily.requireArity(name, labelNames, 1);
+      return metric;
+    }
+
+    @Override
+    public M with(String value0, String value1) {
+      DMetricFamily.requireArity(name, labelNames, 2);
+      return metric;
+    }
+
+    @Override
+    public M with(String value0, String value1, String value2) {
+      DMetricFamily.requireArity(name, labelNames, 3);
+      return metric;
+    }
+
+    @Override
+    public M with(String... values) {
+      DMetricFamily.requireArity(name, labelNames, values.length);
+      return metric;
+    }
+  }
+}
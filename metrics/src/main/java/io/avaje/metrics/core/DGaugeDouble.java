@@ -1,7 +1,6 @@
 package io.avaje.metrics.core;
 
 import io.avaje.metrics.GaugeDouble;
-import io.avaje.metrics.stats.GaugeDoubleStats;
 
 import java.util.function.DoubleSupplier;
 
@@ -47,10 +46,14 @@ final class DGaugeDouble extends BaseReportName implements GaugeDouble {
 
   @Override
   public void collect(Visitor collector) {
+    collect(new DVisitorSink(collector));
+  }
+
+  @Override
+  public void collect(Sink sink) {
     final double value = gauge.getAsDouble();
     if (Double.compare(value, 0.0d) != 0) {
-      final ID reportId = reportId(collector);
-      collector.visit(new GaugeDoubleStats(reportId, unit, value));
+      sink.gauge(reportId(sink.namingConvention()), unit, value);
     }
   }
 
@@ -1,11 +1,10 @@
 package io.avaje.metrics.core;
 
 import io.avaje.metrics.GaugeLong;
-import io.avaje.metrics.stats.GaugeLongStats;
 
 import java.util.function.LongSupplier;
 
-abstract class DGaugeLong extends BaseReportName implements GaugeLong {
+abstract class DGaugeLong extends BaseReportName implements GaugeLong, ReaderTracked {
 
   static DGaugeLong of(ID id, LongSupplier supplier) {
     return of(id, "", supplier);
@@ -75,6 +74,16 @@ abstract class DGaugeLong extends BaseReportName implements GaugeLong {
     // No need to do anything
   }
 
+  @Override
+  public final void collect(Visitor collector) {
+    collect(new DVisitorSink(collector));
+  }
+
+  @Override
+  public void release(int reader) {
+    // no state per reader
+  }
+
   static final class All extends DGaugeLong {
 
     All(ID id, String unit, LongSupplier supplier) {
@@ -82,43 +91,55 @@ abstract class DGaugeLong extends BaseReportName implements GaugeLong {
     }
 
     @Override
-    public void collect(Visitor collector) {
-      final ID reportId = reportId(collector);
-      collector.visit(new GaugeLongStats(reportId, unit, supplier.getAsLong()));
+    public void collect(Sink sink) {
+      sink.gauge(reportId(sink.namingConvention()), unit, supplier.getAsLong());
     }
   }
 
   static final class ChangesOnly extends DGaugeLong {
-    private long lastReported;
+    private final ValueCursors lastReported = new ValueCursors();
 
     ChangesOnly(ID id, String unit, LongSupplier supplier) {
       super(id, unit, supplier);
     }
 
     @Override
-    public void collect(Visitor collector) {
+    public synchronized void collect(Sink sink) {
       long value = supplier.getAsLong();
-      boolean collect = (value != 0 && value != lastReported);
+      int reader = DCollector.reader(sink);
+      boolean collect = (value != 0 && value != lastReported.get(reader));
       if (collect) {
-        lastReported = value;
-        final ID reportId = reportId(collector);
-        collector.visit(new GaugeLongStats(reportId, unit, value));
+        lastReported.set(reader, value);
+        sink.gauge(reportId(sink.namingConvention()), unit, value);
       }
     }
+
+    @Override
+    public synchronized void release(int reader) {
+      lastReported.clear(reader);
+    }
   }
 
   static final class Once extends DGaugeLong {
 
+    private final ValueCursors reported = new ValueCursors();
+
     Once(ID id, String unit, LongSupplier supplier) {
       super(id, unit, supplier);
     }
 
     @Override
-    public void collect(Visitor collector) {
-      if (reportId == null) {
-        final ID reportId = reportId(collector);
-        collector.visit(new GaugeLongStats(reportId, unit, supplier.getAsLong()));
+    public synchronized void collect(Sink sink) {
+      int reader = DCollector.reader(sink);
+      if (reported.get(reader) == 0) {
+        reported.set(reader, 1);
+        sink.gauge(reportId(sink.namingConvention()), unit, supplier.getAsLong());
       }
     }
+
+    @Override
+    public synchronized void release(int reader) {
+      reported.clear(reader);
+    }
   }
 }
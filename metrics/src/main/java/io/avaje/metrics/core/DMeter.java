@@ -1,21 +1,29 @@
 package io.avaje.metrics.core;
 
 import io.avaje.metrics.Meter;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Measure events that occur with a long value. This long value could be bytes
  * or rows processed or time. Typically, you would use Timer for time based
  * events though.
  */
-final class DMeter extends BaseReportName implements Meter {
+final class DMeter extends BaseReportName implements Meter, TouchTracked, ReaderTracked, MaxWindowed, RatesTracked {
 
   private final ValueCounter values;
+  private volatile TouchTracked.@Nullable Touch touch;
+  private volatile @Nullable ValueRates rates;
 
   DMeter(ID id, String unit) {
     super(id, unit);
     this.values = new ValueCounter(id);
   }
 
+  DMeter(ID id, String unit, double[] quantiles) {
+    super(id, unit);
+    this.values = new ValueCounter(id, new ValueHistogram(quantiles));
+  }
+
   @Override
   public String toString() {
     return id + ":" + values;
@@ -23,10 +31,12 @@ final class DMeter extends BaseReportName implements Meter {
 
   @Override
   public void collect(Visitor collector) {
-    final Stats stats = values.collect(collector, unit);
-    if (stats != null) {
-      collector.visit(stats);
-    }
+    collect(new DVisitorSink(collector));
+  }
+
+  @Override
+  public void collect(Sink sink) {
+    values.collect(sink, unit);
   }
 
   @Override
@@ -55,6 +65,44 @@ final class DMeter extends BaseReportName implements Meter {
       throw new IllegalArgumentException("Meter value must be non-negative: " + value);
     }
     values.add(value);
+    touch();
+  }
+
+  @Override
+  public void release(int reader) {
+    values.release(reader);
+  }
+
+  @Override
+  public void touchedBy(TouchTracked.@Nullable Touch touch) {
+    this.touch = touch;
+  }
+
+  @Override
+  public synchronized Meter.Rates trackRates() {
+    ValueRates current = rates;
+    if (current == null) {
+      current = DRateTicker.INSTANCE.register(new ValueRates(values::countSinceReset));
+      rates = current;
+    }
+    return current;
+  }
+
+  @Override
+  public Meter.@Nullable Rates rates() {
+    return rates;
+  }
+
+  @Override
+  public void maxWindow(int windows, long windowNanos) {
+    values.maxWindow(windows, windowNanos);
+  }
+
+  private void touch() {
+    final TouchTracked.Touch touch = this.touch;
+    if (touch != null) {
+      touch.mark();
+    }
   }
 
   @Override
@@ -0,0 +1,180 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.Tags;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Family of metrics with children held in a trie of label values.
+ * <p>
+ * Each level of the trie is a map keyed by the label value at that position with the last level
+ * holding the child metric. Resolving an existing child is a map get per label with no allocation.
+ * Children are created (on first use) via the registry such that they are normal registered metrics.
+ * When metrics have been removed from the registry a child is checked to still be registered when
+ * it is next resolved, and only a removed child is resolved again.
+ * <p>
+ * Once a series limit is reached, label values without a child resolve to the overflow series of
+ * the family without creating the tags, until a removal or change of the limits frees a slot.
+ * The label values of the overflow are not held.
+ */
+final class DMetricFamily<M extends Metric> implements MetricFamily<M> {
+
+  private final String name;
+  private final String[] labelNames;
+  private final Tags tags;
+  private final DefaultMetricProvider registry;
+  private final Function<Tags, M> create;
+  private final ConcurrentHashMap<String, Object> root = new ConcurrentHashMap<>();
+  private volatile @Nullable DRegisteredMetric<M> overflow;
+
+  DMetricFamily(String name, String[] labelNames, Tags tags, DefaultMetricProvider registry, Function<Tags, M> create) {
+    this.name = name;
+    this.labelNames = labelNames(labelNames);
+    this.tags = tags;
+    this.registry = registry;
+    this.create = create;
+  }
+
+  static String[] labelNames(String[] labelNames) {
+    if (labelNames.length == 0) {
+      throw new IllegalArgumentException("At least one label name is required");
+    }
+    for (String labelName : labelNames) {
+      requireNonNull(labelName, "labelName");
+    }
+    return labelNames.clone();
+  }
+
+  @Override
+  public String toString() {
+    return name + ' ' + Arrays.toString(labelNames);
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public String[] labelNames() {
+    return labelNames.clone();
+  }
+
+  @Override
+  public M with(String value) {
+    requireArity(name, labelNames, 1);
+    final M child = metric(root.get(value));
+    if (child != null) {
+      return child;
+    }
+    final M overflowed = overflow();
+    return overflowed != null ? overflowed : create(value);
+  }
+
+  @Override
+  public M with(String value0, String value1) {
+    requireArity(name, labelNames, 2);
+    final Object node = root.get(value0);
+    if (node != null) {
+      final M child = metric(level(node).get(value1));
+      if (child != null) {
+        return child;
+      }
+    }
+    final M overflowed = overflow();
+    return overflowed != null ? overflowed : create(value0, value1);
+  }
+
+  @Override
+  public M with(String value0, String value1, String value2) {
+    requireArity(name, labelNames, 3);
+    final Object node0 = root.get(value0);
+    if (node0 != null) {
+      final Object node1 = level(node0).get(value1);
+      if (node1 != null) {
+        final M child = metric(level(node1).get(value2));
+        if (child != null) {
+          return child;
+        }
+      }
+    }
+    final M overflowed = overflow();
+    return overflowed != null ? overflowed : create(value0, value1, value2);
+  }
+
+  @Override
+  public M with(String... values) {
+    requireArity(name, labelNames, values.length);
+    Object node = root;
+    for (String value : values) {
+      node = level(node).get(value);
+      if (node == null) {
+        break;
+      }
+    }
+    final M child = metric(node);
+    if (child != null) {
+      return child;
+    }
+    final M overflowed = overflow();
+    return overflowed != null ? overflowed : create(values);
+  }
+
+  static void requireArity(String name, String[] labelNames, int count) {
+    if (count != labelNames.length) {
+      throw new IllegalArgumentException(
+        "Metric " + name + " has labels " + Arrays.toString(labelNames) + " but " + count + " values were given");
+    }
+  }
+
+  /**
+   * Return the overflow series given to a prior new child unless metrics have since been removed.
+   */
+  private @Nullable M overflow() {
+    final DRegisteredMetric<M> child = overflow;
+    return child == null ? null : child.registered(registry);
+  }
+
+  private M create(String... values) {
+    final int removed = registry.removals();
+    final String[] entries = new String[values.length];
+    for (int i = 0; i < values.length; i++) {
+      entries[i] = labelNames[i] + ':' + requireNonNull(values[i], "value");
+    }
+    final Tags childTags = Tags.of(tags.append(entries));
+    final M metric = create.apply(childTags);
+    if (!metric.id().tags().equals(childTags)) {
+      // series limit reached and given the overflow series, do not hold these values
+      overflow = new DRegisteredMetric<>(metric, removed, true);
+      return metric;
+    }
+    ConcurrentHashMap<String, Object> level = root;
+    for (int i = 0; i < values.length - 1; i++) {
+      level = level(level.computeIfAbsent(values[i], key -> new ConcurrentHashMap<String, Object>()));
+    }
+    // the registry returns the registered metric, a removal since is detected by the removals
+    level.put(values[values.length - 1], new DRegisteredMetric<>(metric, removed, false));
+    return metric;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConcurrentHashMap<String, Object> level(Object node) {
+    return (ConcurrentHashMap<String, Object>) node;
+  }
+
+  /**
+   * Return the metric of the child or null when there is no child or it has been removed from
+   * the registry.
+   */
+  @SuppressWarnings("unchecked")
+  private @Nullable M metric(@Nullable Object node) {
+    return node == null ? null : ((DRegisteredMetric<M>) node).registered(registry);
+  }
+}
@@ -0,0 +1,73 @@
+package io.avaje.metrics.core;
+
+import io.avaje.applog.AppLog;
+import io.avaje.metrics.ScheduledTask;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+import static java.lang.System.Logger.Level.DEBUG;
+
+/**
+ * The scheduler shared by all the scheduled tasks, pipelines and cached gauges.
+ * <p>
+ * A single daemon thread performs the timing of the ticks and the tasks run on virtual threads
+ * when available (Java 21+) or otherwise on a cached pool of daemon threads. Virtual threads can
+ * be turned off via the system property {@code metrics.scheduler.virtual=false}.
+ * <p>
+ * Public for use by the scheduled tasks and pipelines of the api package, the core package is
+ * not exported by the module.
+ */
+public final class DMetricsScheduler {
+
+  private static final System.Logger log = AppLog.getLogger(ScheduledTask.class);
+
+  private static final ScheduledThreadPoolExecutor ticker = initTicker();
+  private static final ExecutorService runner = initRunner();
+
+  private DMetricsScheduler() {
+  }
+
+  /**
+   * Return the executor timing the ticks (that should not run the tasks).
+   */
+  public static ScheduledThreadPoolExecutor ticker() {
+    return ticker;
+  }
+
+  /**
+   * Return the executor running the tasks.
+   */
+  public static ExecutorService runner() {
+    return runner;
+  }
+
+  private static ScheduledThreadPoolExecutor initTicker() {
+    var executor = new ScheduledThreadPoolExecutor(1, daemon("metricsScheduler"));
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+
+  private static ExecutorService initRunner() {
+    if (!"false".equalsIgnoreCase(System.getProperty("metrics.scheduler.virtual"))) {
+      try {
+        var executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        log.log(DEBUG, "running scheduled tasks on virtual threads");
+        return executor;
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // virtual threads not available
+      }
+    }
+    return Executors.newCachedThreadPool(daemon("metricsTask"));
+  }
+
+  private static ThreadFactory daemon(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
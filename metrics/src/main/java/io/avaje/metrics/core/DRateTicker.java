@@ -0,0 +1,59 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.ScheduledTask;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticks all the moving rates every 5 seconds on a single shared scheduled task.
+ * <p>
+ * The rates are weakly referenced such that rates of metrics that are no longer used are dropped.
+ */
+final class DRateTicker {
+
+  static final DRateTicker INSTANCE = new DRateTicker();
+
+  private final Queue<WeakReference<ValueRates>> rates = new ConcurrentLinkedQueue<>();
+  private volatile boolean started;
+
+  private DRateTicker() {
+  }
+
+  /**
+   * Register the rates to be ticked.
+   */
+  ValueRates register(ValueRates valueRates) {
+    rates.add(new WeakReference<>(valueRates));
+    if (!started) {
+      start();
+    }
+    return valueRates;
+  }
+
+  private synchronized void start() {
+    if (!started) {
+      ScheduledTask.builder()
+        .schedule(ValueRates.TICK_SECONDS, ValueRates.TICK_SECONDS, TimeUnit.SECONDS)
+        .task(this::tick)
+        .build()
+        .start();
+      started = true;
+    }
+  }
+
+  void tick() {
+    final Iterator<WeakReference<ValueRates>> it = rates.iterator();
+    while (it.hasNext()) {
+      final ValueRates valueRates = it.next().get();
+      if (valueRates == null) {
+        it.remove();
+      } else {
+        valueRates.tick();
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Metric;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A metric held by a family or timer group with the registry removals when it was last known to
+ * be registered.
+ * <p>
+ * The metric is checked to still be registered only when metrics have since been removed, such
+ * that only a removed metric is resolved again. An overflow series is resolved again after any
+ * removal as the removal may have freed a slot under the series limit.
+ */
+final class DRegisteredMetric<M extends Metric> {
+
+  private final M metric;
+  private final boolean overflow;
+  private volatile int checked;
+
+  DRegisteredMetric(M metric, int checked, boolean overflow) {
+    this.metric = metric;
+    this.checked = checked;
+    this.overflow = overflow;
+  }
+
+  /**
+   * Return the metric or null when it should be resolved again via the registry.
+   */
+  @Nullable M registered(DefaultMetricProvider registry) {
+    final int removed = registry.removals();
+    if (checked != removed) {
+      if (overflow || !registry.registered(metric)) {
+        return null;
+      }
+      checked = removed;
+    }
+    return metric;
+  }
+}
@@ -0,0 +1,126 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Timer;
+import io.avaje.metrics.spi.SpiSpan;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A timed event that is reused by the thread that closes it.
+ * <p>
+ * Each thread holds a small pool of events. Starting an event takes one from the pool (creating
+ * one when the pool is empty, such as for nested events) and closing the event returns it to the
+ * pool of the closing thread. An event that is ended but not closed is not returned to the pool
+ * and is simply garbage collected.
+ * </p>
+ */
+final class DReusableTimerEvent implements Timer.Event {
+
+  private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+
+  private @Nullable Timer metric;
+  private @Nullable SpiSpan span;
+  private long startNanos;
+  private boolean ended;
+
+  /**
+   * Start an event for the given timer using an event from the current thread's pool.
+   */
+  static Timer.Event start(Timer metric, @Nullable SpiSpan span) {
+    return POOL.get().acquire().init(metric, span);
+  }
+
+  private DReusableTimerEvent init(Timer metric, @Nullable SpiSpan span) {
+    this.metric = metric;
+    this.span = span;
+    this.ended = false;
+    this.startNanos = System.nanoTime();
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return metric + " reusable event";
+  }
+
+  @Override
+  public void end(boolean withSuccess) {
+    end(withSuccess, null);
+  }
+
+  private void end(boolean withSuccess, @Nullable Throwable error) {
+    final Timer timer = metric;
+    if (ended || timer == null) {
+      return;
+    }
+    ended = true;
+    final long durationNanos = System.nanoTime() - startNanos;
+    if (timer instanceof TraceableTimer) {
+      ((TraceableTimer) timer).addEventDuration(withSuccess, durationNanos, error);
+    } else {
+      timer.addEventDuration(withSuccess, durationNanos);
+    }
+    final SpiSpan currentSpan = span;
+    if (currentSpan != null) {
+      if (withSuccess) {
+        currentSpan.end();
+      } else if (error != null) {
+        currentSpan.endWithError(error);
+      } else {
+        currentSpan.endWithError();
+      }
+    }
+  }
+
+  @Override
+  public void end() {
+    end(true);
+  }
+
+  @Override
+  public void endWithError() {
+    end(false);
+  }
+
+  @Override
+  public void endWithError(Throwable error) {
+    end(false, error);
+  }
+
+  /**
+   * End the event as successful if not already ended and return it to the pool.
+   */
+  @Override
+  public void close() {
+    if (metric == null) {
+      return;
+    }
+    end(true);
+    metric = null;
+    span = null;
+    POOL.get().release(this);
+  }
+
+  /**
+   * Per thread pool of events.
+   */
+  private static final class Pool {
+
+    private static final int MAX_SIZE = 8;
+
+    private final DReusableTimerEvent[] free = new DReusableTimerEvent[MAX_SIZE];
+    private int size;
+
+    DReusableTimerEvent acquire() {
+      if (size == 0) {
+        return new DReusableTimerEvent();
+      }
+      return free[--size];
+    }
+
+    void release(DReusableTimerEvent event) {
+      if (size < MAX_SIZE) {
+        free[size++] = event;
+      }
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the number of collections per reader since series created on demand last had updates.
+ * <p>
+ * With DELTA collection a series is idle when it collected no statistics. With CUMULATIVE
+ * collection a series is idle when the count collected is unchanged from the prior collection.
+ * Each reader numbers its own collections and a series records the collection of each reader it
+ * was last active such that series that are not visited by a collection (collecting touched
+ * metrics only) are found by a periodic {@link #sweep(int, Consumer)}.
+ * </p>
+ * <p>
+ * A series expires when it has been idle for the expiry number of collections of every reader.
+ * The expired series is then retired such that each of the other readers collects it once more
+ * to report any values recorded since its own last collection.
+ * </p>
+ */
+final class DSeriesExpiry {
+
+  private final ConcurrentHashMap<Metric, Idle> tracked = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Metric, Set<Integer>> retired = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Integer, AtomicInteger> sequences = new ConcurrentHashMap<>();
+  private final int collections;
+
+  DSeriesExpiry(int collections) {
+    this.collections = collections;
+  }
+
+  int collections() {
+    return collections;
+  }
+
+  /**
+   * Return the sequence number of the next collection of the reader.
+   */
+  int nextCollection(int reader) {
+    return sequences.computeIfAbsent(reader, key -> new AtomicInteger()).incrementAndGet();
+  }
+
+  /**
+   * Track the metric such that it can expire.
+   */
+  void track(Metric metric) {
+    final Idle idle = new Idle();
+    for (Map.Entry<Integer, AtomicInteger> entry : sequences.entrySet()) {
+      idle.seen(entry.getKey(), entry.getValue().get());
+    }
+    tracked.put(metric, idle);
+  }
+
+  /**
+   * Stop tracking the metric as it has been removed.
+   */
+  void removed(Metric metric) {
+    tracked.remove(metric);
+  }
+
+  /**
+   * Stop waiting for the released reader to collect.
+   */
+  void release(int reader) {
+    sequences.remove(reader);
+    for (Idle idle : tracked.values()) {
+      idle.release(reader);
+    }
+    for (Map.Entry<Metric, Set<Integer>> entry : retired.entrySet()) {
+      final Set<Integer> readers = entry.getValue();
+      if (readers.remove(reader) && readers.isEmpty()) {
+        retired.remove(entry.getKey(), readers);
+      }
+    }
+  }
+
+  /**
+   * Return true if the tracked metric visited by the collection of the reader has now been idle
+   * for the expiry number of collections of every reader.
+   *
+   * @param collected True if the metric collected any values
+   * @param count     The count of events collected
+   */
+  boolean expired(Metric metric, int reader, int collection, CollectionMode mode, boolean collected, long count) {
+    final Idle idle = tracked.get(metric);
+    if (idle == null) {
+      return false;
+    }
+    idle.visited(reader, collection, mode, collected, count);
+    return idleForAll(idle);
+  }
+
+  private boolean idleForAll(Idle idle) {
+    for (Map.Entry<Integer, AtomicInteger> entry : sequences.entrySet()) {
+      if (idle.idle(entry.getKey(), entry.getValue().get()) < collections) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Every expiry number of collections of the reader pass the metrics that have been idle for
+   * the expiry number of collections of every reader to the consumer.
+   */
+  void sweep(int collection, Consumer<Metric> expire) {
+    if (collection % collections != 0) {
+      return;
+    }
+    for (Map.Entry<Metric, Idle> entry : tracked.entrySet()) {
+      if (idleForAll(entry.getValue())) {
+        expire.accept(entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Retire the metric removed by the collection of the reader such that the other readers
+   * collect it once more.
+   */
+  void retire(Metric metric, int reader) {
+    final Set<Integer> readers = ConcurrentHashMap.newKeySet();
+    readers.addAll(sequences.keySet());
+    readers.remove(reader);
+    if (!readers.isEmpty()) {
+      retired.put(metric, readers);
+    }
+  }
+
+  /**
+   * Pass the retired metrics the reader has not yet collected to the consumer.
+   */
+  void drain(int reader, Consumer<Metric> collect) {
+    if (retired.isEmpty()) {
+      return;
+    }
+    for (Map.Entry<Metric, Set<Integer>> entry : retired.entrySet()) {
+      final Set<Integer> readers = entry.getValue();
+      if (readers.remove(reader)) {
+        collect.accept(entry.getKey());
+        if (readers.isEmpty()) {
+          retired.remove(entry.getKey(), readers);
+        }
+      }
+    }
+  }
+
+  /**
+   * The collection of each reader at which the series was last active.
+   */
+  private static final class Idle {
+
+    private int[] lastActive = {0};
+    private long[] lastCount = {0};
+
+    synchronized void seen(int reader, int collection) {
+      grow(reader);
+      lastActive[reader] = collection;
+    }
+
+    synchronized void release(int reader) {
+      if (reader < lastActive.length) {
+        lastActive[reader] = 0;
+        lastCount[reader] = 0;
+      }
+    }
+
+    private void grow(int reader) {
+      if (reader >= lastActive.length) {
+        lastActive = Arrays.copyOf(lastActive, reader + 1);
+        lastCount = Arrays.copyOf(lastCount, reader + 1);
+      }
+    }
+
+    /**
+     * Return the number of collections of the reader the series has been idle. A reader that
+     * started collecting after the series was tracked counts from its first collection.
+     */
+    synchronized int idle(int reader, int collection) {
+      return collection - (reader < lastActive.length ? lastActive[reader] : 0);
+    }
+
+    synchronized void visited(int reader, int collection, CollectionMode mode, boolean collected, long count) {
+      grow(reader);
+      final boolean active = mode == CollectionMode.DELTA ? collected : count != lastCount[reader];
+      if (mode == CollectionMode.CUMULATIVE) {
+        lastCount[reader] = count;
+      }
+      if (active) {
+        lastActive[reader] = Math.max(lastActive[reader], collection);
+      }
+    }
+  }
+}
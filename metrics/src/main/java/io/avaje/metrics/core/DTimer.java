@@ -1,5 +1,6 @@
 package io.avaje.metrics.core;
 
+import io.avaje.metrics.Meter;
 import io.avaje.metrics.Timer;
 import io.avaje.metrics.spi.SpiSpan;
 import io.avaje.metrics.spi.SpiTimedSpanFactory.Prepared;
@@ -8,6 +9,8 @@ import io.avaje.metrics.spi.SpiTimedSpanFactory.SpanMode;
 import org.jspecify.annotations.Nullable;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -15,8 +18,11 @@ import java.util.function.Supplier;
  * <p>
  * The major difference compared with ValueMetric is that it is specifically oriented towards
  * collecting time duration and provides separate statistics for success and error completion.
+ * <p>
+ * A traced timer either starts a span with each event or, with a span threshold, defers the span
+ * to the end of the event creating it only for events slower than the threshold.
  */
-final class DTimer implements Timer, TraceableTimer {
+final class DTimer implements Timer, TraceableTimer, TouchTracked, ReaderTracked, MaxWindowed, RatesTracked {
 
   private static final String UNIT = "us";
 
@@ -25,22 +31,33 @@ final class DTimer implements Timer, TraceableTimer {
   private final ValueCounter successCounter;
   private final ValueCounter errorCounter;
   private final @Nullable Prepared preparedSpan;
+  private final @Nullable Prepared deferredSpan;
+  private final long spanThresholdNanos;
+  private volatile TouchTracked.@Nullable Touch touch;
+  private volatile @Nullable ValueRates rates;
 
   DTimer(ID id) {
-    this(id, null, new ValueCounter(id), new ValueCounter(id.suffix(".error")), null);
+    this(id, null, new ValueCounter(id), new ValueCounter(id.suffix(".error")), null, null, 0);
+  }
+
+  DTimer(ID id, double[] quantiles) {
+    this(id, null, new ValueCounter(id, new ValueHistogram(quantiles)), new ValueCounter(id.suffix(".error")), null, null, 0);
   }
 
   DTimer(ID id, String bucketRange) {
-    this(id, bucketRange, new ValueCounter(id, bucketRange), new ValueCounter(id.suffix(".error")), null);
+    this(id, bucketRange, new ValueCounter(id, bucketRange), new ValueCounter(id.suffix(".error")), null, null, 0);
   }
 
   private DTimer(ID id, @Nullable String bucketRange, ValueCounter successCounter,
-                 ValueCounter errorCounter, @Nullable Prepared preparedSpan) {
+                 ValueCounter errorCounter, @Nullable Prepared preparedSpan,
+                 @Nullable Prepared deferredSpan, long spanThresholdNanos) {
     this.id = id;
     this.bucketRange = bucketRange;
     this.successCounter = successCounter;
     this.errorCounter = errorCounter;
     this.preparedSpan = preparedSpan;
+    this.deferredSpan = deferredSpan;
+    this.spanThresholdNanos = spanThresholdNanos;
   }
 
   @Override
@@ -65,14 +82,13 @@ final class DTimer implements Timer, TraceableTimer {
 
   @Override
   public void collect(Visitor collector) {
-    final Stats successStats = successCounter.collectTimed(collector);
-    if (successStats != null) {
-      collector.visit(successStats);
-    }
-    final Stats errorStats = errorCounter.collectTimed(collector);
-    if (errorStats != null) {
-      collector.visit(errorStats);
-    }
+    collect(new DVisitorSink(collector));
+  }
+
+  @Override
+  public void collect(Sink sink) {
+    successCounter.collectTimed(sink);
+    errorCounter.collectTimed(sink);
   }
 
   @Override
@@ -106,7 +122,7 @@ final class DTimer implements Timer, TraceableTimer {
         event.run();
         add(start);
       } catch (RuntimeException | Error e) {
-        addErr(start);
+        addEventDuration(false, System.nanoTime() - start, e);
         throw e;
       }
     }
@@ -131,7 +147,55 @@ final class DTimer implements Timer, TraceableTimer {
         add(start);
         return result;
       } catch (RuntimeException | Error e) {
-        addErr(start);
+        addEventDuration(false, System.nanoTime() - start, e);
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public <C> void timeAccept(C context, Consumer<? super C> event) {
+    if (preparedSpan != null) {
+      Event timedEvent = startEvent();
+      try {
+        event.accept(context);
+        timedEvent.end();
+      } catch (RuntimeException | Error e) {
+        timedEvent.endWithError(e);
+        throw e;
+      }
+    } else {
+      long start = System.nanoTime();
+      try {
+        event.accept(context);
+        add(start);
+      } catch (RuntimeException | Error e) {
+        addEventDuration(false, System.nanoTime() - start, e);
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public <C, T> T timeApply(C context, Function<? super C, ? extends T> event) {
+    if (preparedSpan != null) {
+      Event timedEvent = startEvent();
+      try {
+        final T result = event.apply(context);
+        timedEvent.end();
+        return result;
+      } catch (RuntimeException | Error e) {
+        timedEvent.endWithError(e);
+        throw e;
+      }
+    } else {
+      long start = System.nanoTime();
+      try {
+        final T result = event.apply(context);
+        add(start);
+        return result;
+      } catch (RuntimeException | Error e) {
+        addEventDuration(false, System.nanoTime() - start, e);
         throw e;
       }
     }
@@ -148,6 +212,11 @@ final class DTimer implements Timer, TraceableTimer {
     return new DTimerEvent(this, startSpan());
   }
 
+  @Override
+  public Event startReusableEvent() {
+    return DReusableTimerEvent.start(this, startSpan());
+  }
+
   /**
    * Add an event duration in nanoseconds noting if it was a success or failure result.
    * <p>
@@ -155,11 +224,20 @@ final class DTimer implements Timer, TraceableTimer {
    */
   @Override
   public void addEventDuration(boolean success, long durationNanos) {
+    addEventDuration(success, durationNanos, null);
+  }
+
+  @Override
+  public void addEventDuration(boolean success, long durationNanos, @Nullable Throwable error) {
     if (success) {
       successCounter.add(TimeUnit.NANOSECONDS.toMicros(durationNanos));
     } else {
       errorCounter.add(TimeUnit.NANOSECONDS.toMicros(durationNanos));
     }
+    touch();
+    if (deferredSpan != null && durationNanos > spanThresholdNanos) {
+      deferredSpan.ended(durationNanos, success, error);
+    }
   }
 
   /**
@@ -172,24 +250,87 @@ final class DTimer implements Timer, TraceableTimer {
 
   @Override
   public void add(long startNanos) {
+    if (deferredSpan != null) {
+      addEventSince(true, startNanos);
+      return;
+    }
     successCounter.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    touch();
   }
 
   @Override
   public void addErr(long startNanos) {
+    if (deferredSpan != null) {
+      addEventSince(false, startNanos);
+      return;
+    }
     errorCounter.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    touch();
+  }
+
+  @Override
+  public void addErr(long startNanos, Throwable error) {
+    addEventDuration(false, System.nanoTime() - startNanos, error);
   }
 
   @Override
-  public Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode) {
-    if (this.preparedSpan != null || timedSpanFactory == null) {
+  public Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode, long spanThresholdNanos) {
+    if (this.preparedSpan != null || this.deferredSpan != null || timedSpanFactory == null) {
       return this;
     }
     var prepared = timedSpanFactory.prepare(id, bucketRange, spanMode);
     if (prepared == null) {
       return this;
     }
-    return new DTimer(id, bucketRange, successCounter, errorCounter, prepared);
+    return spanThresholdNanos > 0
+      ? new DTimer(id, bucketRange, successCounter, errorCounter, null, prepared, spanThresholdNanos)
+      : new DTimer(id, bucketRange, successCounter, errorCounter, prepared, null, 0);
+  }
+
+  @Override
+  public void release(int reader) {
+    successCounter.release(reader);
+    errorCounter.release(reader);
+  }
+
+  @Override
+  public void touchedBy(TouchTracked.@Nullable Touch touch) {
+    this.touch = touch;
+  }
+
+  @Override
+  public synchronized Meter.Rates trackRates() {
+    ValueRates current = rates;
+    if (current == null) {
+      current = DRateTicker.INSTANCE.register(new ValueRates(this::countSinceReset));
+      rates = current;
+    }
+    return current;
+  }
+
+  @Override
+  public Meter.@Nullable Rates rates() {
+    return rates;
+  }
+
+  /**
+   * Return the count of success and error events since reset.
+   */
+  long countSinceReset() {
+    return successCounter.countSinceReset() + errorCounter.countSinceReset();
+  }
+
+  @Override
+  public void maxWindow(int windows, long windowNanos) {
+    successCounter.maxWindow(windows, windowNanos);
+    errorCounter.maxWindow(windows, windowNanos);
+  }
+
+  private void touch() {
+    final TouchTracked.Touch touch = this.touch;
+    if (touch != null) {
+      touch.mark();
+    }
   }
 
   private @Nullable SpiSpan startSpan() {
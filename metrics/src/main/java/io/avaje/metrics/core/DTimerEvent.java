@@ -17,6 +17,7 @@ final class DTimerEvent implements Timer.Event {
   private final DTimer metric;
   private final @Nullable SpiSpan span;
   private final long startNanos;
+  private boolean ended;
 
   /**
    * Create a TimedMetricEvent.
@@ -41,7 +42,11 @@ final class DTimerEvent implements Timer.Event {
   }
 
   private void end(boolean withSuccess, @Nullable Throwable error) {
-    metric.addEventDuration(withSuccess, duration());
+    if (ended) {
+      return;
+    }
+    ended = true;
+    metric.addEventDuration(withSuccess, duration(), error);
     if (span != null) {
       if (withSuccess) {
         span.end();
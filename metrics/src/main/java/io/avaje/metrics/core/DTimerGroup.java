@@ -1,10 +1,12 @@
 package io.avaje.metrics.core;
 
-import io.avaje.metrics.MetricRegistry;
 import io.avaje.metrics.Timer;
 import io.avaje.metrics.TimerGroup;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Used when many TimedMetrics share a common base name (group, type etc) and
@@ -13,16 +15,34 @@ import java.util.concurrent.ConcurrentHashMap;
  * For example a TimedMetricGroup might be used for a web service end point and
  * the TimedMetrics only differ by the operation name - the operation name is
  * specific and the rest (group, type etc) is common to all the metrics.
+ * <p>
+ * The timers of the known names are held in an array by index. Other names are cached up to
+ * {@link #MAX_CACHED} after which they are resolved via the registry on each call. When metrics
+ * have been removed from the registry a timer is checked to still be registered when it is next
+ * used, and only a removed timer is resolved again.
  */
 final class DTimerGroup implements TimerGroup {
 
-  private final ConcurrentHashMap<String, Timer> cache = new ConcurrentHashMap<>();
-  private final DMetricNameCache metricNameCache;
-  private final MetricRegistry registry;
+  static final int MAX_CACHED = 1_000;
+
+  private final ConcurrentHashMap<String, DRegisteredMetric<Timer>> cache = new ConcurrentHashMap<>();
+  private final String baseName;
+  private final String[] names;
+  private final AtomicReferenceArray<DRegisteredMetric<Timer>> timers;
+  private final DefaultMetricProvider registry;
+
+  DTimerGroup(String baseName, DefaultMetricProvider registry) {
+    this(baseName, new String[0], registry);
+  }
 
-  DTimerGroup(String baseName, MetricRegistry registry) {
-    this.metricNameCache = new DMetricNameCache(baseName);
+  DTimerGroup(String baseName, String[] names, DefaultMetricProvider registry) {
+    this.baseName = baseName;
+    this.names = names.clone();
     this.registry = registry;
+    this.timers = new AtomicReferenceArray<>(names.length);
+    for (int i = 0; i < names.length; i++) {
+      resolve(i);
+    }
   }
 
   /**
@@ -52,22 +72,53 @@ final class DTimerGroup implements TimerGroup {
     timer(name).addEventDuration(success, durationNanos);
   }
 
+  /**
+   * Return the timer of the known name at the index.
+   */
+  @Override
+  public Timer timer(int index) {
+    final Timer timer = timers.get(index).registered(registry);
+    return timer != null ? timer : resolve(index);
+  }
+
+  /**
+   * Resolve the timer of the known name at the index.
+   */
+  private Timer resolve(int index) {
+    final String name = requireNonNull(names[index], "name");
+    final int removed = registry.removals();
+    final Timer timer = registry.timer(baseName + "." + name);
+    final DRegisteredMetric<Timer> entry = entry(timer, removed);
+    timers.set(index, entry);
+    cache.put(name, entry);
+    return timer;
+  }
+
   /**
    * Return the TimedMetric for the specific name.
    */
   @Override
   public Timer timer(String name) {
-    // try local cache first to try and avoid the name parse
-    Timer found = cache.get(name);
-    if (found != null) {
-      return found;
+    final DRegisteredMetric<Timer> cached = cache.get(name);
+    if (cached != null) {
+      final Timer timer = cached.registered(registry);
+      if (timer != null) {
+        return timer;
+      }
+    } else if (cache.size() >= names.length + MAX_CACHED) {
+      // bounded, resolve without caching the name or timer
+      return registry.timer(baseName + "." + name);
     }
-    // parse name and find/create using MetricManager
-    final String metricName = metricNameCache.get(name);
-    // this is safe in that it is single threaded on construction/put
-    final Timer timer = registry.timer(metricName);
-    final Timer existing = cache.putIfAbsent(name, timer);
-    return (existing != null) ? existing : timer;
+    final int removed = registry.removals();
+    final Timer timer = registry.timer(baseName + "." + name);
+    cache.put(name, entry(timer, removed));
+    return timer;
   }
 
+  /**
+   * Return the entry of the resolved timer, the overflow series of a series limit has tags.
+   */
+  private static DRegisteredMetric<Timer> entry(Timer timer, int removed) {
+    return new DRegisteredMetric<>(timer, removed, !timer.id().tags().isEmpty());
+  }
 }
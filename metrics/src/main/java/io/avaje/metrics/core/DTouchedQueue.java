@@ -0,0 +1,92 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Metric;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Queue of the metrics updated since they were last collected.
+ * <p>
+ * Each tracked metric holds a Touch that adds itself to the queue on the first update after the
+ * metric was last collected. Further updates of a touched metric only read the touched flag.
+ * <p>
+ * A metric marks the Touch after writing the value. A value written before the drain clears the
+ * touched flag is then collected by that drain, and a value written after it touches the metric
+ * again, such that no update is left uncollected.
+ */
+final class DTouchedQueue {
+
+  private final ConcurrentLinkedQueue<Touch> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Return a Touch for the metric that is not yet touched.
+   */
+  Touch touch(Metric metric) {
+    return new Touch(this, metric);
+  }
+
+  /**
+   * Collect the metrics that are touched clearing the touched flag of each prior to collection
+   * such that an update during collection touches the metric again.
+   * <p>
+   * Metrics touched again during the drain are left for the next collection.
+   */
+  void drain(Consumer<Metric> collect) {
+    int remaining = size.get();
+    while (remaining-- > 0) {
+      final Touch touch = queue.poll();
+      if (touch == null) {
+        return;
+      }
+      size.decrementAndGet();
+      touch.touched = 0;
+      collect.accept(touch.metric);
+    }
+  }
+
+  private void add(Touch touch) {
+    size.incrementAndGet();
+    queue.add(touch);
+  }
+
+  /**
+   * The touched flag of a metric.
+   */
+  static final class Touch implements TouchTracked.Touch {
+
+    private static final VarHandle TOUCHED;
+
+    static {
+      try {
+        TOUCHED = MethodHandles.lookup().findVarHandle(Touch.class, "touched", int.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final DTouchedQueue queue;
+    private final Metric metric;
+    private volatile int touched;
+
+    private Touch(DTouchedQueue queue, Metric metric) {
+      this.queue = queue;
+      this.metric = metric;
+    }
+
+    /**
+     * Mark the metric as updated adding it to the queue if not already touched. Called after
+     * the value is written.
+     */
+    @Override
+    public void mark() {
+      if (touched == 0 && TOUCHED.compareAndSet(this, 0, 1)) {
+        queue.add(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.stats.CounterStats;
+import io.avaje.metrics.stats.GaugeDoubleStats;
+import io.avaje.metrics.stats.GaugeLongStats;
+import io.avaje.metrics.stats.MeterStats;
+import io.avaje.metrics.stats.TimerStats;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Sink that creates the statistics objects for the values and passes them to a visitor.
+ */
+final class DVisitorSink implements Metric.Sink {
+
+  private final Metric.Visitor visitor;
+
+  DVisitorSink(Metric.Visitor visitor) {
+    this.visitor = visitor;
+  }
+
+  @Override
+  public Function<String, String> namingConvention() {
+    return visitor.namingConvention();
+  }
+
+  @Override
+  public CollectionMode collectionMode() {
+    return visitor.collectionMode();
+  }
+
+  @Override
+  public void timer(Metric.ID id, @Nullable String bucketRange, long count, long total, long max, Meter.@Nullable Histogram histogram) {
+    visitor.visit(new TimerStats(id, bucketRange, count, total, max, histogram));
+  }
+
+  @Override
+  public void meter(Metric.ID id, String unit, long count, long total, long max, Meter.@Nullable Histogram histogram) {
+    visitor.visit(new MeterStats(id, unit, count, total, max, histogram));
+  }
+
+  @Override
+  public void counter(Metric.ID id, String unit, long count) {
+    visitor.visit(new CounterStats(id, unit, count));
+  }
+
+  @Override
+  public void gauge(Metric.ID id, String unit, long value) {
+    visitor.visit(new GaugeLongStats(id, unit, value));
+  }
+
+  @Override
+  public void gauge(Metric.ID id, String unit, double value) {
+    visitor.visit(new GaugeDoubleStats(id, unit, value));
+  }
+}
@@ -9,10 +9,16 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.DoubleSupplier;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
@@ -27,28 +33,54 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
   private static final String COUNT_UNIT = "{event}";
   private static final String DEFAULT_UNIT = "";
   private static final String TIMER_UNIT = "us";
+  private static final String RATE_UNIT = "{event}/s";
+  private static final int[] NO_BUCKET_RANGES = new int[0];
+  private static final Tags OVERFLOW_TAGS = Tags.of("overflow:true");
+  private static final String OVERFLOW_NAME = "metrics.overflow.";
+  private static final String DROPPED_NAME = "metrics.series.dropped";
 
-  private final ConcurrentHashMap<Metric.ID, Metric> metricsCache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, ConcurrentHashMap<Tags, Metric>> metricsCache = new ConcurrentHashMap<>();
   private final SpiMetricBuilder.Factory<Timer> bucketTimerFactory;
   private final SpiMetricBuilder.Factory<Timer> timerFactory;
   private final @Nullable SpiTimedSpanFactory timedSpanFactory;
   private final SpiMetricBuilder.Factory<Counter> counterFactory;
   private final SpiMetricBuilder.Factory<Meter> meterFactory;
-  private final List<MetricSupplier> suppliers = new ArrayList<>();
-  private final Object monitor = new Object();
+  private final List<MetricSupplier> suppliers = new CopyOnWriteArrayList<>();
+  private final AtomicInteger seriesCount = new AtomicInteger();
+  private final AtomicInteger removals = new AtomicInteger();
+  private final Counter droppedSeries;
+  private final boolean disabled;
+  private volatile boolean droppedRegistered;
+  private int maxSeriesPerName = 10_000;
+  private int maxSeries = 100_000;
+  private @Nullable DSeriesExpiry expiry;
+  private int maxWindows;
+  private long maxWindowNanos;
+  private volatile @Nullable DTouchedQueue touched;
+  private final Set<Metric> untracked = ConcurrentHashMap.newKeySet();
+  private final ConcurrentHashMap<Metric, List<Metric>> rateGaugesByOwner = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Metric.ID, Metric> rejected = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, DReader> readers = new ConcurrentHashMap<>();
+  private final BitSet readerNumbers = new BitSet();
   private Tags globalTags;
   private boolean withDetails;
   private boolean reportChangesOnly;
   private Function<String, String> namingConvention = NamingMatch.INSTANCE;
 
   public DefaultMetricProvider() {
-    SpiMetricBuilder builder = initBuilder();
+    this(isDisableCollection());
+  }
+
+  DefaultMetricProvider(boolean disabled) {
+    SpiMetricBuilder builder = new DSpiMetricBuilder();
     this.bucketTimerFactory = builder.bucket();
     this.timerFactory = builder.timer();
     this.timedSpanFactory = initTimedSpanFactory();
     this.meterFactory = builder.meter();
     this.counterFactory = builder.counter();
     this.globalTags = initGlobalTags();
+    this.droppedSeries = droppedSeries(counterFactory);
+    this.disabled = disabled;
   }
 
   DefaultMetricProvider(DefaultMetricProvider parent) {
@@ -60,16 +92,19 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     this.namingConvention = parent.namingConvention;
     this.withDetails = parent.withDetails;
     this.reportChangesOnly = parent.reportChangesOnly;
+    this.maxSeriesPerName = parent.maxSeriesPerName;
+    this.maxSeries = parent.maxSeries;
+    this.expiry = parent.expiry == null ? null : new DSeriesExpiry(parent.expiry.collections());
+    this.maxWindows = parent.maxWindows;
+    this.maxWindowNanos = parent.maxWindowNanos;
+    this.touched = parent.touched == null ? null : new DTouchedQueue();
     this.globalTags = initGlobalTags();
+    this.droppedSeries = droppedSeries(counterFactory);
+    this.disabled = parent.disabled;
   }
 
-  static SpiMetricBuilder initBuilder() {
-    if (isDisableCollection()) {
-      return ServiceLoader.load(SpiMetricBuilder.class)
-        .findFirst()
-        .orElseThrow(() -> new IllegalStateException("Missing metrics-noop dependency"));
-    }
-    return new DSpiMetricBuilder();
+  private static Counter droppedSeries(SpiMetricBuilder.Factory<Counter> counterFactory) {
+    return counterFactory.createMetric(Metric.ID.of(DROPPED_NAME), COUNT_UNIT, NO_BUCKET_RANGES);
   }
 
   static @Nullable SpiTimedSpanFactory initTimedSpanFactory() {
@@ -89,7 +124,7 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
 
   /**
    * Return true if metric collection should be disabled.
-   * This has the effect that NOOP metric implementations are used.
+   * This has the effect that the {@link DDisabled} metrics are used and not registered.
    */
   private static boolean isDisableCollection() {
     String disable = System.getProperty("metrics.disable", System.getenv("METRICS_DISABLE"));
@@ -98,11 +133,27 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
 
   @Override
   public String toString() {
-    return String.valueOf(metricsCache.values());
+    return String.valueOf(metrics());
   }
 
   Collection<Metric> metrics() {
-    return metricsCache.values();
+    final List<Metric> metrics = new ArrayList<>();
+    for (ConcurrentHashMap<Tags, Metric> byTags : metricsCache.values()) {
+      metrics.addAll(byTags.values());
+    }
+    return metrics;
+  }
+
+  /**
+   * Return the metric by name then tags without creating a Metric.ID.
+   */
+  private @Nullable Metric lookup(String name, Tags tags) {
+    final ConcurrentHashMap<Tags, Metric> byTags = metricsCache.get(name);
+    return byTags == null ? null : byTags.get(tags);
+  }
+
+  private ConcurrentHashMap<Tags, Metric> byTags(String name) {
+    return metricsCache.computeIfAbsent(name, key -> new ConcurrentHashMap<>(4));
   }
 
   @Override
@@ -122,6 +173,159 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     return this;
   }
 
+  @Override
+  public MetricRegistry seriesLimits(int maxSeriesPerName, int maxSeries) {
+    if (maxSeriesPerName < 1 || maxSeries < 1) {
+      throw new IllegalArgumentException("Series limits must be positive");
+    }
+    this.maxSeriesPerName = maxSeriesPerName;
+    this.maxSeries = maxSeries;
+    rejected.clear();
+    // a family resolves its cached overflow series again as the limits may now have room
+    removals.incrementAndGet();
+    return this;
+  }
+
+  @Override
+  public MetricRegistry expireAfter(int collections) {
+    if (collections < 0) {
+      throw new IllegalArgumentException("Expire after collections must not be negative");
+    }
+    this.expiry = collections == 0 ? null : new DSeriesExpiry(collections);
+    return this;
+  }
+
+  @Override
+  public MetricRegistry incrementalCollection() {
+    if (touched == null) {
+      touched = new DTouchedQueue();
+      for (Metric metric : metrics()) {
+        added(metric, true);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public MetricRegistry maxWindow(int windows, long window, TimeUnit timeUnit) {
+    final long windowNanos = maxWindowNanos(windows, window, timeUnit);
+    this.maxWindows = windows;
+    this.maxWindowNanos = windowNanos;
+    for (Metric metric : metrics()) {
+      withMaxWindow(metric, windows, windowNanos);
+    }
+    return this;
+  }
+
+  private static long maxWindowNanos(int windows, long window, TimeUnit timeUnit) {
+    if (windows < 1 || window < 1) {
+      throw new IllegalArgumentException("Max window must have positive windows and duration");
+    }
+    return requireNonNull(timeUnit, "timeUnit").toNanos(window);
+  }
+
+  private static <T> T withMaxWindow(T metric, int windows, long windowNanos) {
+    if (windows > 0 && metric instanceof MaxWindowed) {
+      ((MaxWindowed) metric).maxWindow(windows, windowNanos);
+    }
+    return metric;
+  }
+
+  /**
+   * Track the moving rates of the meter or timer, registering them as gauges when requested
+   * which are removed along with the meter or timer.
+   */
+  private <T extends Metric> T withRates(T metric, boolean rates, boolean rateGauges) {
+    if ((rates || rateGauges) && metric instanceof RatesTracked) {
+      final Meter.Rates tracked = ((RatesTracked) metric).trackRates();
+      if (rateGauges) {
+        final Metric.ID id = metric.id();
+        rateGaugesByOwner.put(metric, List.of(
+          gaugeDouble(id.name() + ".rate1m", id.tags(), RATE_UNIT, tracked::oneMinuteRate),
+          gaugeDouble(id.name() + ".rate5m", id.tags(), RATE_UNIT, tracked::fiveMinuteRate),
+          gaugeDouble(id.name() + ".rate15m", id.tags(), RATE_UNIT, tracked::fifteenMinuteRate)));
+      }
+    }
+    return metric;
+  }
+
+  /**
+   * With incremental collection track updates of the added metric or otherwise collect it
+   * with every collection.
+   */
+  private void added(Metric metric, boolean markTouched) {
+    final DTouchedQueue touched = this.touched;
+    if (touched != null) {
+      if (metric instanceof TouchTracked) {
+        final DTouchedQueue.Touch touch = touched.touch(metric);
+        ((TouchTracked) metric).touchedBy(touch);
+        if (markTouched) {
+          touch.mark();
+        }
+      } else {
+        untracked.add(metric);
+      }
+    }
+  }
+
+  /**
+   * Return the number of metrics removed which changes when a cached metric may no longer
+   * be registered.
+   */
+  int removals() {
+    return removals.get();
+  }
+
+  /**
+   * Return true if the metric is registered, false when it has been removed or replaced.
+   */
+  boolean registered(Metric metric) {
+    final Metric.ID id = metric.id();
+    return lookup(id.name(), id.tags()) == metric;
+  }
+
+  @Override
+  public @Nullable Metric remove(Metric.ID id) {
+    final ConcurrentHashMap<Tags, Metric> byTags = metricsCache.get(id.name());
+    final Metric metric = byTags == null ? null : byTags.remove(id.tags());
+    if (metric != null) {
+      removed(metric);
+    }
+    return metric;
+  }
+
+  private void removed(Metric metric) {
+    if (metric.id().tags() == OVERFLOW_TAGS) {
+      rejected.clear();
+    }
+    seriesCount.decrementAndGet();
+    untracked.remove(metric);
+    removals.incrementAndGet();
+    final DSeriesExpiry expiry = this.expiry;
+    if (expiry != null) {
+      expiry.removed(metric);
+    }
+    final List<Metric> rateGauges = rateGaugesByOwner.remove(metric);
+    if (rateGauges != null) {
+      for (Metric gauge : rateGauges) {
+        unregister(gauge);
+      }
+    }
+  }
+
+  /**
+   * Remove the metric unless it has been removed or replaced, returning true if removed.
+   */
+  private boolean unregister(Metric metric) {
+    final Metric.ID id = metric.id();
+    final ConcurrentHashMap<Tags, Metric> byTags = metricsCache.get(id.name());
+    if (byTags != null && byTags.remove(id.tags(), metric)) {
+      removed(metric);
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public JvmMetrics withGlobalTags(Tags globalTags) {
     this.globalTags = globalTags;
@@ -219,15 +423,20 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     return new DTimerGroup(baseName, this);
   }
 
+  @Override
+  public TimerGroup timerGroup(String baseName, String... names) {
+    return new DTimerGroup(baseName, names, this);
+  }
+
   @Override
   public Timer timer(String name) {
-    return timerBuilder(name).build();
+    return timer(name, Tags.EMPTY);
   }
 
   @Override
   public Timer timer(String name, Tags tags) {
     Timer timer = get(name, tags, Timer.class);
-    return timer != null ? timer : timer(name, tags, null);
+    return timer != null ? timer : timer(name, tags, null, null);
   }
 
   @Override
@@ -259,7 +468,7 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
   @Override
   public Meter meter(String name, Tags tags) {
     Meter meter = get(name, tags, Meter.class);
-    return meter != null ? meter : meter(name, tags, DEFAULT_UNIT);
+    return meter != null ? meter : meter(name, tags, DEFAULT_UNIT, null);
   }
 
   @Override
@@ -283,13 +492,20 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
   }
 
   private <T extends Metric> T replace(T metric, Class<T> type) {
-    synchronized (monitor) {
-      var existing = metricsCache.get(metric.id());
+    if (disabled) {
+      return metric;
+    }
+    final Metric.ID id = metric.id();
+    byTags(id.name()).compute(id.tags(), (tags, existing) -> {
       if (existing != null) {
-        validateMetric(metric.id(), existing, type, metric.unit());
+        validateMetric(id.name(), existing, type, metric.unit());
+        untracked.remove(existing);
+      } else {
+        seriesCount.incrementAndGet();
       }
-      metricsCache.put(metric.id(), metric);
-    }
+      added(metric, false);
+      return metric;
+    });
     return metric;
   }
 
@@ -304,135 +520,246 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
   }
 
   private Counter counter(String name, Tags tags, String unit) {
-    return metric(Metric.ID.of(name, tags), unit, counterFactory, Counter.class, null);
+    return metric(name, tags, unit, counterFactory, Counter.class, null, null);
   }
 
-  private Meter meter(String name, Tags tags, String unit) {
-    return metric(Metric.ID.of(name, tags), unit, meterFactory, Meter.class, null);
+  private Meter meter(String name, Tags tags, String unit, @Nullable double[] quantiles) {
+    return metric(name, tags, unit, meterFactory, Meter.class, null, quantiles);
   }
 
-  private Timer timer(String name, Tags tags, @Nullable int[] bucketRanges) {
+  private Timer timer(String name, Tags tags, @Nullable long[] bucketRanges, @Nullable double[] quantiles) {
     return metric(
-      Metric.ID.of(name, tags),
+      name,
+      tags,
       TIMER_UNIT,
       timerFactory(bucketRanges),
       Timer.class,
-      bucketRanges);
+      bucketRanges,
+      quantiles);
   }
 
-  private Timer tracedTimer(String name, Tags tags, @Nullable int[] bucketRanges) {
-    return tracedTimer(name, tags, bucketRanges, SpanMode.CHILD);
+  private Timer tracedTimer(String name, Tags tags, @Nullable long[] bucketRanges, @Nullable double[] quantiles, long spanThresholdNanos) {
+    return tracedTimer(name, tags, bucketRanges, quantiles, SpanMode.CHILD, spanThresholdNanos);
   }
 
-  private Timer rootTracedTimer(String name, Tags tags, @Nullable int[] bucketRanges) {
-    return tracedTimer(name, tags, bucketRanges, SpanMode.ROOT);
+  private Timer rootTracedTimer(String name, Tags tags, @Nullable long[] bucketRanges, @Nullable double[] quantiles, long spanThresholdNanos) {
+    return tracedTimer(name, tags, bucketRanges, quantiles, SpanMode.ROOT, spanThresholdNanos);
   }
 
-  private Timer tracedTimer(String name, Tags tags, @Nullable int[] bucketRanges, SpanMode spanMode) {
+  private Timer tracedTimer(String name, Tags tags, @Nullable long[] bucketRanges, @Nullable double[] quantiles, SpanMode spanMode, long spanThresholdNanos) {
     return tracedMetric(
-      Metric.ID.of(name, tags),
+      name,
+      tags,
       TIMER_UNIT,
       timerFactory(bucketRanges),
       bucketRanges,
-      spanMode);
+      quantiles,
+      spanMode,
+      spanThresholdNanos);
   }
 
   private <T extends Metric> T metric(
-    Metric.ID id,
+    String name,
+    Tags tags,
     String unit,
     SpiMetricBuilder.Factory<?> factory,
     Class<T> type,
-    @Nullable int[] bucketRanges) {
+    @Nullable long[] bucketRanges,
+    @Nullable double[] quantiles) {
 
+    if (disabled) {
+      return DDisabled.of(Metric.ID.of(name, tags), type);
+    }
     var normalizedUnit = BaseReportName.normalizeUnit(unit);
-    // try lock free get first
-    Metric metric = metricsCache.get(id);
+    // try lock free get first without creating an ID, computeIfAbsent locks only the hash bin
+    Metric metric = lookup(name, tags);
     if (metric == null) {
-      synchronized (monitor) {
-        // use synchronized block
-        metric = metricsCache.get(id);
-        if (metric == null) {
-          metric = factory.createMetric(id, normalizedUnit, bucketRanges);
-          metricsCache.put(id, metric);
-        }
+      metric = create(name, tags, type, id -> createMetric(factory, id, normalizedUnit, bucketRanges, quantiles));
+      if (totalOverflow(name, metric)) {
+        return validateType(name, metric, type);
       }
     }
-    return validateMetric(id, metric, type, normalizedUnit);
+    return validateMetric(name, metric, type, normalizedUnit);
   }
 
   private Timer tracedMetric(
-      Metric.ID id,
+      String name,
+      Tags tags,
       String unit,
       SpiMetricBuilder.Factory<?> factory,
-      @Nullable int[] bucketRanges,
-      SpanMode spanMode) {
+      @Nullable long[] bucketRanges,
+      @Nullable double[] quantiles,
+      SpanMode spanMode,
+      long spanThresholdNanos) {
+    if (disabled) {
+      return DDisabled.of(Metric.ID.of(name, tags), Timer.class);
+    }
     var normalizedUnit = BaseReportName.normalizeUnit(unit);
-    Metric metric = metricsCache.get(id);
+    Metric metric = lookup(name, tags);
     if (metric == null) {
-      synchronized (monitor) {
-        metric = metricsCache.get(id);
-        if (metric == null) {
-          metric = factory.createMetric(id, normalizedUnit, bucketRanges);
-          if (metric instanceof TraceableTimer) {
-            metric = ((TraceableTimer) metric).withTracing(timedSpanFactory, spanMode);
-          }
-          metricsCache.put(id, metric);
-        }
+      metric = create(name, tags, Timer.class, id -> {
+        Metric created = createMetric(factory, id, normalizedUnit, bucketRanges, quantiles);
+        return created instanceof TraceableTimer
+          ? ((TraceableTimer) created).withTracing(timedSpanFactory, spanMode, spanThresholdNanos)
+          : created;
+      });
+      if (totalOverflow(name, metric)) {
+        return validateType(name, metric, Timer.class);
       }
     }
-    return validateMetric(id, metric, Timer.class, normalizedUnit);
+    return validateMetric(name, metric, Timer.class, normalizedUnit);
   }
 
-  private SpiMetricBuilder.Factory<Timer> timerFactory(@Nullable int[] bucketRanges) {
+  /**
+   * Create the metric unless a series limit has been reached in which case return the overflow
+   * series (with tags of OVERFLOW_TAGS) and count the dropped series.
+   */
+  private Metric create(String name, Tags tags, Class<?> type, Function<Metric.ID, Metric> factory) {
+    ConcurrentHashMap<Tags, Metric> byTags = metricsCache.get(name);
+    final boolean overTotal = seriesCount.get() >= maxSeries;
+    if (byTags == null) {
+      if (overTotal) {
+        final String overflowName = OVERFLOW_NAME + type.getSimpleName().toLowerCase();
+        return overflow(name, tags, overflowName, factory);
+      }
+      byTags = byTags(name);
+    } else if (overTotal || byTags.size() >= maxSeriesPerName) {
+      final Metric existing = byTags.get(tags);
+      return existing != null ? existing : overflow(name, tags, name, factory);
+    }
+    return byTags.computeIfAbsent(tags, key -> {
+      seriesCount.incrementAndGet();
+      final Metric metric = withMaxWindow(factory.apply(Metric.ID.of(name, key)), maxWindows, maxWindowNanos);
+      final DSeriesExpiry expiry = this.expiry;
+      if (expiry != null && metric instanceof TouchTracked) {
+        expiry.track(metric);
+      }
+      added(metric, false);
+      return metric;
+    });
+  }
+
+  /**
+   * Return true if the metric is the overflow series of the total series limit which is shared
+   * by all the names of the type (with any unit).
+   */
+  private static boolean totalOverflow(String name, Metric metric) {
+    return metric.id().tags() == OVERFLOW_TAGS && !metric.id().name().equals(name);
+  }
+
+  /**
+   * Return the overflow series for the rejected series counting each distinct rejected series
+   * once. The rejected series are remembered up to the total series limit beyond which each
+   * request of a series not remembered is counted.
+   */
+  private Metric overflow(String name, Tags tags, String overflowName, Function<Metric.ID, Metric> factory) {
+    final Metric.ID requested = Metric.ID.of(name, tags);
+    final Metric cached = rejected.get(requested);
+    if (cached != null && cached.id().name().equals(overflowName)) {
+      return cached;
+    }
+    if (!droppedRegistered) {
+      byTags(DROPPED_NAME).computeIfAbsent(Tags.EMPTY, key -> {
+        added(droppedSeries, false);
+        return droppedSeries;
+      });
+      droppedRegistered = true;
+    }
+    final Metric metric = byTags(overflowName).computeIfAbsent(OVERFLOW_TAGS, key -> {
+      final Metric created = withMaxWindow(factory.apply(Metric.ID.of(overflowName, key)), maxWindows, maxWindowNanos);
+      added(created, false);
+      return created;
+    });
+    if (rejected.size() >= maxSeries || rejected.putIfAbsent(requested, metric) == null) {
+      droppedSeries.inc();
+    }
+    return metric;
+  }
+
+  private static Metric createMetric(
+    SpiMetricBuilder.Factory<?> factory,
+    Metric.ID id,
+    String unit,
+    @Nullable long[] bucketRanges,
+    @Nullable double[] quantiles) {
+
+    if (quantiles != null) {
+      return factory.createHistogram(id, unit, quantiles);
+    }
+    return bucketRanges == null
+      ? factory.createMetric(id, unit, NO_BUCKET_RANGES)
+      : factory.createBucketMetric(id, unit, bucketRanges);
+  }
+
+  private SpiMetricBuilder.Factory<Timer> timerFactory(@Nullable long[] bucketRanges) {
     return bucketRanges == null ? timerFactory : bucketTimerFactory;
   }
 
-  private static @Nullable int[] copyBucketRanges(@Nullable int[] bucketRanges) {
-    return bucketRanges == null || bucketRanges.length == 0 ? null : Arrays.copyOf(bucketRanges, bucketRanges.length);
+  /**
+   * Return the bucket ranges in nanos validating they are positive and ascending.
+   */
+  private static @Nullable long[] bucketRangesNanos(TimeUnit unit, long[] bucketRanges) {
+    if (bucketRanges.length == 0) {
+      return null;
+    }
+    long[] nanos = new long[bucketRanges.length];
+    for (int i = 0; i < bucketRanges.length; i++) {
+      nanos[i] = unit.toNanos(bucketRanges[i]);
+      if (nanos[i] <= 0 || (i > 0 && nanos[i] <= nanos[i - 1])) {
+        throw new IllegalArgumentException("Bucket ranges must be positive and ascending " + Arrays.toString(bucketRanges));
+      }
+    }
+    return nanos;
   }
 
   @Override
   public void register(Metric metric) {
-    synchronized (monitor) {
-      var existing = metricsCache.get(metric.id());
+    if (disabled) {
+      return;
+    }
+    final Metric.ID id = metric.id();
+    byTags(id.name()).compute(id.tags(), (tags, existing) -> {
       if (existing != null) {
-        validateUnit(metric.id(), existing, metric.unit());
+        validateUnit(id.name(), existing, metric.unit());
+        untracked.remove(existing);
+      } else {
+        seriesCount.incrementAndGet();
       }
-      metricsCache.put(metric.id(), metric);
-    }
+      added(metric, true);
+      return metric;
+    });
   }
 
-  private static void validateUnit(Metric.ID id, Metric existing, String unit) {
+  private static void validateUnit(String name, Metric existing, String unit) {
     var normalizedUnit = BaseReportName.normalizeUnit(unit);
     if (!existing.unit().equals(normalizedUnit)) {
       throw new IllegalStateException(
-        "Metric " + id.name() + " already registered with unit '" + existing.unit() + "' not '" + normalizedUnit + "'");
+        "Metric " + name + " already registered with unit '" + existing.unit() + "' not '" + normalizedUnit + "'");
     }
   }
 
   @Nullable
   private <T extends Metric> T get(String name, Tags tags, Class<T> type) {
-    Metric.ID id = Metric.ID.of(requireNonNull(name), requireNonNull(tags));
-    Metric metric = metricsCache.get(id);
-    return metric != null ? validateType(id, metric, type) : null;
+    Metric metric = lookup(requireNonNull(name), requireNonNull(tags));
+    return metric != null ? validateType(name, metric, type) : null;
   }
 
-  private static <T extends Metric> T validateType(Metric.ID id, Metric metric, Class<T> type) {
+  private static <T extends Metric> T validateType(String name, Metric metric, Class<T> type) {
     if (!type.isInstance(metric)) {
       throw new IllegalStateException(
-        "Metric " + id.name() + " already registered as " + metric.getClass().getSimpleName()
+        "Metric " + name + " already registered as " + metric.getClass().getSimpleName()
           + " not " + type.getSimpleName());
     }
     return type.cast(metric);
   }
 
-  private static <T extends Metric> T validateMetric(Metric.ID id, Metric metric, Class<T> type, String unit) {
+  private static <T extends Metric> T validateMetric(String name, Metric metric, Class<T> type, String unit) {
     if (!type.isInstance(metric)) {
       throw new IllegalStateException(
-        "Metric " + id.name() + " already registered as " + metric.getClass().getSimpleName()
+        "Metric " + name + " already registered as " + metric.getClass().getSimpleName()
           + " not " + type.getSimpleName());
     }
-    validateUnit(id, metric, unit);
+    validateUnit(name, metric, unit);
     return type.cast(metric);
   }
 
@@ -441,6 +768,8 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     private final String name;
     private Tags tags = Tags.EMPTY;
     private String unit = DEFAULT_UNIT;
+    private long ttlNanos;
+    private long timeoutNanos;
 
     private DGaugeBuilder(String name) {
       this.name = requireNonNull(name, "name");
@@ -458,14 +787,52 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
       return this;
     }
 
+    @Override
+    public GaugeBuilder async(long ttl, long timeout, TimeUnit timeUnit) {
+      requireNonNull(timeUnit, "timeUnit");
+      if (ttl < 1 || timeout < 1) {
+        throw new IllegalArgumentException("Gauge ttl and timeout must be positive");
+      }
+      this.ttlNanos = timeUnit.toNanos(ttl);
+      this.timeoutNanos = timeUnit.toNanos(timeout);
+      return this;
+    }
+
     @Override
     public GaugeLong ofLongs(LongSupplier supplier) {
-      return gaugeLong(name, tags, unit, supplier);
+      requireNonNull(supplier, "supplier");
+      if (ttlNanos == 0 || disabled) {
+        return gaugeLong(name, tags, unit, supplier);
+      }
+      var cached = DCachedGauge.ofLongs(name, supplier, ttlNanos, timeoutNanos, refreshFailed(), refreshTimeout());
+      return gaugeLong(name, tags, unit, cached(cached));
     }
 
     @Override
     public GaugeDouble ofDoubles(DoubleSupplier supplier) {
-      return gaugeDouble(name, tags, unit, supplier);
+      requireNonNull(supplier, "supplier");
+      if (ttlNanos == 0 || disabled) {
+        return gaugeDouble(name, tags, unit, supplier);
+      }
+      var cached = DCachedGauge.ofDoubles(name, supplier, ttlNanos, timeoutNanos, refreshFailed(), refreshTimeout());
+      return gaugeDouble(name, tags, unit, cached(cached));
+    }
+
+    private Counter refreshFailed() {
+      return counter(name + ".refresh.failed", tags, COUNT_UNIT);
+    }
+
+    private Counter refreshTimeout() {
+      return counter(name + ".refresh.timeout", tags, COUNT_UNIT);
+    }
+
+    /**
+     * Register the age gauge and start the first refresh.
+     */
+    private <T extends DCachedGauge> T cached(T cached) {
+      gaugeLong(name + ".age", tags, "ms", cached::ageMillis);
+      cached.refreshIfDue();
+      return cached;
     }
   }
 
@@ -495,6 +862,15 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     public Counter build() {
       return counter(name, tags, unit);
     }
+
+    @Override
+    public MetricFamily<Counter> family(String... labelNames) {
+      if (disabled) {
+        return DDisabled.family(name, tags, labelNames, Counter.class);
+      }
+      final String familyUnit = unit;
+      return new DMetricFamily<>(name, labelNames, tags, DefaultMetricProvider.this, childTags -> counter(name, childTags, familyUnit));
+    }
   }
 
   private final class DMeterBuilder implements MeterBuilder {
@@ -502,6 +878,9 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     private final String name;
     private Tags tags = Tags.EMPTY;
     private String unit = DEFAULT_UNIT;
+    private @Nullable double[] quantiles;
+    private boolean rates;
+    private boolean rateGauges;
 
     private DMeterBuilder(String name) {
       this.name = requireNonNull(name, "name");
@@ -519,9 +898,40 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
       return this;
     }
 
+    @Override
+    public MeterBuilder percentiles(double... quantiles) {
+      this.quantiles = ValueHistogram.quantiles(requireNonNull(quantiles, "quantiles"));
+      return this;
+    }
+
+    @Override
+    public MeterBuilder rates() {
+      this.rates = true;
+      return this;
+    }
+
+    @Override
+    public MeterBuilder rateGauges() {
+      this.rateGauges = true;
+      return this;
+    }
+
     @Override
     public Meter build() {
-      return meter(name, tags, unit);
+      return withRates(meter(name, tags, unit, quantiles), rates, rateGauges);
+    }
+
+    @Override
+    public MetricFamily<Meter> family(String... labelNames) {
+      if (disabled) {
+        return DDisabled.family(name, tags, labelNames, Meter.class);
+      }
+      final String familyUnit = unit;
+      final @Nullable double[] familyQuantiles = quantiles;
+      final boolean familyRates = rates;
+      final boolean familyRateGauges = rateGauges;
+      return new DMetricFamily<>(name, labelNames, tags, DefaultMetricProvider.this, childTags ->
+        withRates(meter(name, childTags, familyUnit, familyQuantiles), familyRates, familyRateGauges));
     }
   }
 
@@ -529,7 +939,13 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
 
     private final String name;
     private Tags tags = Tags.EMPTY;
-    private @Nullable int[] bucketRanges;
+    private @Nullable long[] bucketRanges;
+    private @Nullable double[] quantiles;
+    private int maxWindows;
+    private long maxWindowNanos;
+    private boolean rates;
+    private boolean rateGauges;
+    private long spanThresholdNanos;
 
     private DTimerBuilder(String name) {
       this.name = requireNonNull(name, "name");
@@ -543,23 +959,130 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
 
     @Override
     public TimerBuilder bucketRanges(int... bucketRangesMillis) {
-      this.bucketRanges = copyBucketRanges(requireNonNull(bucketRangesMillis, "bucketRangesMillis"));
+      return bucketRanges(TimeUnit.MILLISECONDS, Arrays.stream(requireNonNull(bucketRangesMillis, "bucketRangesMillis")).asLongStream().toArray());
+    }
+
+    @Override
+    public TimerBuilder bucketRanges(TimeUnit unit, long... bucketRanges) {
+      this.bucketRanges = bucketRangesNanos(requireNonNull(unit, "unit"), requireNonNull(bucketRanges, "bucketRanges"));
       return this;
     }
 
+    @Override
+    public TimerBuilder percentiles(double... quantiles) {
+      this.quantiles = ValueHistogram.quantiles(requireNonNull(quantiles, "quantiles"));
+      return this;
+    }
+
+    @Override
+    public TimerBuilder maxWindow(int windows, long window, TimeUnit timeUnit) {
+      this.maxWindowNanos = maxWindowNanos(windows, window, timeUnit);
+      this.maxWindows = windows;
+      return this;
+    }
+
+    @Override
+    public TimerBuilder rates() {
+      this.rates = true;
+      return this;
+    }
+
+    @Override
+    public TimerBuilder rateGauges() {
+      this.rateGauges = true;
+      return this;
+    }
+
+    @Override
+    public TimerBuilder spanThreshold(long threshold, TimeUnit timeUnit) {
+      if (threshold < 1) {
+        throw new IllegalArgumentException("Span threshold must be positive");
+      }
+      this.spanThresholdNanos = requireNonNull(timeUnit, "timeUnit").toNanos(threshold);
+      return this;
+    }
+
+    private Timer configure(Timer timer) {
+      return withRates(withMaxWindow(timer, maxWindows, maxWindowNanos), rates, rateGauges);
+    }
+
+    private void validate() {
+      if (bucketRanges != null && quantiles != null) {
+        throw new IllegalStateException("Timer " + name + " can not have both bucketRanges and percentiles");
+      }
+    }
+
     @Override
     public Timer build() {
-      return timer(name, tags, bucketRanges);
+      validate();
+      return configure(timer(name, tags, bucketRanges, quantiles));
     }
 
     @Override
     public Timer buildTraced() {
-      return tracedTimer(name, tags, bucketRanges);
+      validate();
+      return configure(tracedTimer(name, tags, bucketRanges, quantiles, spanThresholdNanos));
     }
 
     @Override
     public Timer buildRootTraced() {
-      return rootTracedTimer(name, tags, bucketRanges);
+      validate();
+      return configure(rootTracedTimer(name, tags, bucketRanges, quantiles, spanThresholdNanos));
+    }
+
+    @Override
+    public MetricFamily<Timer> family(String... labelNames) {
+      validate();
+      if (disabled) {
+        return DDisabled.family(name, tags, labelNames, Timer.class);
+      }
+      final @Nullable long[] familyBucketRanges = bucketRanges;
+      final @Nullable double[] familyQuantiles = quantiles;
+      final int familyMaxWindows = maxWindows;
+      final long familyMaxWindowNanos = maxWindowNanos;
+      final boolean familyRates = rates;
+      final boolean familyRateGauges = rateGauges;
+      return new DMetricFamily<>(name, labelNames, tags, DefaultMetricProvider.this, childTags -> withRates(
+        withMaxWindow(timer(name, childTags, familyBucketRanges, familyQuantiles), familyMaxWindows, familyMaxWindowNanos),
+        familyRates,
+        familyRateGauges));
+    }
+  }
+
+  @Override
+  public MetricReader reader(String name) {
+    requireNonNull(name, "name");
+    return readers.computeIfAbsent(name, key -> new DReader(this, key, acquireReader()));
+  }
+
+  /**
+   * Return the lowest free reader number, reusing the numbers of closed readers such that the
+   * per reader state of the metrics stays bounded.
+   */
+  private int acquireReader() {
+    synchronized (readerNumbers) {
+      final int reader = readerNumbers.nextClearBit(1);
+      readerNumbers.set(reader);
+      return reader;
+    }
+  }
+
+  private void release(DReader reader) {
+    if (readers.remove(reader.name, reader)) {
+      final DSeriesExpiry expiry = this.expiry;
+      if (expiry != null) {
+        expiry.release(reader.reader);
+      }
+      for (ConcurrentHashMap<Tags, Metric> byTags : metricsCache.values()) {
+        for (Metric metric : byTags.values()) {
+          if (metric instanceof ReaderTracked) {
+            ((ReaderTracked) metric).release(reader.reader);
+          }
+        }
+      }
+      synchronized (readerNumbers) {
+        readerNumbers.clear(reader.reader);
+      }
     }
   }
 
@@ -570,10 +1093,28 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
 
   @Override
   public List<Metric.Statistics> collectMetrics(CollectionMode mode) {
-    synchronized (monitor) {
-      final DStatsCollector collector = new DStatsCollector(namingConvention, mode);
-      collectAppMetrics(collector);
-      return collector.list();
+    return collectMetrics(mode, 0);
+  }
+
+  @Override
+  public void collectMetrics(Metric.Sink sink) {
+    collectMetrics(sink, 0);
+  }
+
+  private List<Metric.Statistics> collectMetrics(CollectionMode mode, int reader) {
+    final DStatsCollector statsCollector = new DStatsCollector(namingConvention, mode);
+    collectAppMetrics(new DCollector(new DVisitorSink(statsCollector), namingConvention, reader));
+    for (MetricSupplier supplier : suppliers) {
+      statsCollector.addAll(supplier.collectMetrics(mode));
+    }
+    return statsCollector.list();
+  }
+
+  private void collectMetrics(Metric.Sink sink, int reader) {
+    final DCollector collector = new DCollector(requireNonNull(sink, "sink"), namingConvention, reader);
+    collectAppMetrics(collector);
+    for (MetricSupplier supplier : suppliers) {
+      collector.addAll(supplier.collectMetrics(collector.collectionMode()));
     }
   }
 
@@ -587,12 +1128,193 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
     return new DJson(this, mode);
   }
 
-  private void collectAppMetrics(DStatsCollector collector) {
-    for (Metric metric : metricsCache.values()) {
+  /**
+   * Collect without a registry wide lock. Iteration of the cache is weakly consistent such that
+   * a metric registered concurrently is collected either by this or the next collection and
+   * each metric synchronises its own DELTA reads so concurrent collections do not double count.
+   */
+  private void collectAppMetrics(DCollector collector) {
+    final DSeriesExpiry expiry = this.expiry;
+    final int collection = expiry == null ? 0 : expiry.nextCollection(collector.reader());
+    if (expiry != null) {
+      expiry.drain(collector.reader(), metric -> metric.collect(collector));
+    }
+    final DTouchedQueue touched = this.touched;
+    if (touched != null && collector.collectionMode() == CollectionMode.DELTA && collector.reader() == 0) {
+      collectTouched(touched, expiry, collection, collector);
+    } else {
+      for (ConcurrentHashMap<Tags, Metric> byTags : metricsCache.values()) {
+        for (Metric metric : byTags.values()) {
+          collect(metric, expiry, collection, collector);
+        }
+      }
+    }
+  }
+
+  /**
+   * Incremental DELTA collection of the metrics touched since the prior collection and the
+   * metrics that do not track updates (gauges).
+   */
+  private void collectTouched(DTouchedQueue touched, @Nullable DSeriesExpiry expiry, int collection, DCollector collector) {
+    for (Metric metric : untracked) {
       metric.collect(collector);
     }
-    for (MetricSupplier supplier : suppliers) {
-      collector.addAll(supplier.collectMetrics(collector.collectionMode()));
+    touched.drain(metric -> collect(metric, expiry, collection, collector));
+    if (expiry != null) {
+      expiry.sweep(collection, metric -> expire(metric, expiry, collector));
+    }
+  }
+
+  private void collect(Metric metric, @Nullable DSeriesExpiry expiry, int collection, DCollector collector) {
+    collector.start();
+    metric.collect(collector);
+    if (expiry != null && expiry.expired(metric, collector.reader(), collection, collector.collectionMode(), collector.collected(), collector.count())) {
+      expire(metric, expiry, collector);
+    }
+  }
+
+  /**
+   * Remove the metric idle for every reader unless it has been replaced, collect it to report
+   * any values recorded since it was last collected and retire it such that the other readers
+   * collect it once more on their next collection.
+   * <p>
+   * The removed metric registers again on its next update such that updates via references
+   * held elsewhere (fields of timed classes, cached gauges etc) continue to be collected.
+   */
+  private void expire(Metric metric, DSeriesExpiry expiry, DCollector collector) {
+    final Expired expired = new Expired(metric, rateGaugesByOwner.get(metric));
+    ((TouchTracked) metric).touchedBy(expired);
+    if (unregister(metric)) {
+      metric.collect(collector);
+      expiry.retire(metric, collector.reader());
+      expired.removed();
+    } else {
+      ((TouchTracked) metric).touchedBy(null);
+    }
+  }
+
+  /**
+   * Register the expired metric again along with its rate gauges unless the series has since
+   * been created again. This does not apply the series limits.
+   */
+  private void revive(Metric metric, @Nullable List<Metric> rateGauges) {
+    final Metric.ID id = metric.id();
+    final Metric registered = byTags(id.name()).computeIfAbsent(id.tags(), key -> {
+      seriesCount.incrementAndGet();
+      final DSeriesExpiry expiry = this.expiry;
+      if (expiry != null) {
+        expiry.track(metric);
+      }
+      ((TouchTracked) metric).touchedBy(null);
+      added(metric, true);
+      return metric;
+    });
+    if (registered != metric) {
+      ((TouchTracked) metric).touchedBy(null);
+    } else if (rateGauges != null) {
+      for (Metric gauge : rateGauges) {
+        register(gauge);
+      }
+      rateGaugesByOwner.put(metric, rateGauges);
+    }
+  }
+
+  /**
+   * Touch of an expiring metric that registers it again on the first update after removal.
+   * <p>
+   * The touch is set prior to removal such that an update concurrent with the removal is seen
+   * by either the update or the removal.
+   */
+  private final class Expired implements TouchTracked.Touch {
+
+    private final Metric metric;
+    private final @Nullable List<Metric> rateGauges;
+    private final AtomicBoolean revived = new AtomicBoolean();
+    private volatile boolean updated;
+    private volatile boolean removed;
+
+    private Expired(Metric metric, @Nullable List<Metric> rateGauges) {
+      this.metric = metric;
+      this.rateGauges = rateGauges;
+    }
+
+    @Override
+    public void mark() {
+      if (!updated) {
+        updated = true;
+      }
+      if (removed) {
+        revive();
+      }
+    }
+
+    void removed() {
+      removed = true;
+      if (updated) {
+        revive();
+      }
+    }
+
+    private void revive() {
+      if (revived.compareAndSet(false, true)) {
+        DefaultMetricProvider.this.revive(metric, rateGauges);
+      }
+    }
+  }
+
+  /**
+   * Named reader with its own DELTA cursors, identified to the metrics by its reader number.
+   */
+  private static final class DReader implements MetricReader {
+
+    private final DefaultMetricProvider provider;
+    private final String name;
+    private final int reader;
+    private volatile boolean closed;
+
+    DReader(DefaultMetricProvider provider, String name, int reader) {
+      this.provider = provider;
+      this.name = name;
+      this.reader = reader;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public List<Metric.Statistics> collectMetrics() {
+      return collectMetrics(CollectionMode.DELTA);
+    }
+
+    @Override
+    public List<Metric.Statistics> collectMetrics(CollectionMode mode) {
+      checkOpen();
+      return provider.collectMetrics(mode, reader);
+    }
+
+    @Override
+    public void collectMetrics(Metric.Sink sink) {
+      checkOpen();
+      provider.collectMetrics(sink, reader);
+    }
+
+    private void checkOpen() {
+      if (closed) {
+        throw new IllegalStateException("MetricReader " + name + " is closed");
+      }
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      provider.release(this);
+    }
+
+    @Override
+    public String toString() {
+      return "MetricReader[" + name + "]";
     }
   }
 
@@ -608,12 +1330,12 @@ public final class DefaultMetricProvider implements SpiMetricProvider {
 
     @Override
     public void write(Appendable appendable) {
-      JsonWriter.writeTo(appendable, provider.collectMetrics(mode));
+      provider.collectMetrics(JsonWriter.sink(appendable, mode, false));
     }
 
     @Override
     public void writeV2(Appendable appendable) {
-      JsonWriter.writeToV2(appendable, provider.collectMetrics(mode));
+      provider.collectMetrics(JsonWriter.sink(appendable, mode, true));
     }
 
     @Override
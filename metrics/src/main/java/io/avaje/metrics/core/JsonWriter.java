@@ -1,67 +1,83 @@
 package io.avaje.metrics.core;
 
 import io.avaje.metrics.*;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Writes the metric information as JSON to a buffer for sending.
+ * <p>
+ * As a {@link Metric.Sink} the metrics are written as they are collected without creating
+ * statistics objects.
  */
-public final class JsonWriter implements Metric.Visitor {
+public final class JsonWriter implements Metric.Visitor, Metric.Sink {
 
   private static final DecimalFormat formatDecimal = new DecimalFormat("0.0#");
 
   private final Appendable buffer;
-  private final List<Metric.Statistics> metrics;
+  private final CollectionMode collectionMode;
   private final boolean v2;
+  private final char[] digits = new char[20];
+  private boolean first = true;
 
   public static void writeTo(Appendable writer, List<Metric.Statistics> metrics) {
-    new JsonWriter(writer, metrics, false).write();
+    new JsonWriter(writer, CollectionMode.DELTA, false).write(metrics);
   }
 
   public static void writeToV2(Appendable writer, List<Metric.Statistics> metrics) {
-    new JsonWriter(writer, metrics, true).write();
+    new JsonWriter(writer, CollectionMode.DELTA, true).write(metrics);
   }
 
-  private JsonWriter(Appendable writer, List<Metric.Statistics> metrics, boolean v2) {
+  /**
+   * Return a sink that writes the collected metrics as JSON.
+   */
+  static JsonWriter sink(Appendable writer, CollectionMode mode, boolean v2) {
+    return new JsonWriter(writer, mode, v2);
+  }
+
+  private JsonWriter(Appendable writer, CollectionMode collectionMode, boolean v2) {
     this.buffer = writer;
-    this.metrics = metrics;
+    this.collectionMode = collectionMode;
     this.v2 = v2;
   }
 
-  private void write() {
-    try {
-      for (int i = 0; i < metrics.size(); i++) {
-        if (i == 0) {
-          buffer.append("  ");
-        } else {
-          buffer.append(" ,");
-        }
-        metrics.get(i).visit(this);
-        buffer.append('\n');
-      }
-    } catch (IOException e) {
-      throw new UncheckedIOException("Error writing JSON", e);
+  private void write(List<Metric.Statistics> metrics) {
+    for (Metric.Statistics metric : metrics) {
+      metric.visit(this);
     }
   }
 
-  private void writeMetricStart(Metric.Statistics metric) throws IOException {
-    writeMetricStart(metric.id().name());
+  @Override
+  public Function<String, String> namingConvention() {
+    return NamingMatch.INSTANCE;
+  }
+
+  @Override
+  public CollectionMode collectionMode() {
+    return collectionMode;
   }
 
-  private void writeMetricStart(String name) throws IOException {
+  private void writeMetricStart(Metric.ID id) throws IOException {
+    if (first) {
+      first = false;
+      buffer.append("  ");
+    } else {
+      buffer.append(" ,");
+    }
     buffer.append('{');
     writeKey("name");
-    writeValue(name);
+    writeValue(id.name());
     buffer.append(',');
   }
 
-  private void writeMetricEnd(Metric.Statistics metric) throws IOException {
-    Tags tags = metric.id().tags();
+  private void writeMetricEnd(Metric.ID id) throws IOException {
+    Tags tags = id.tags();
     if (!tags.isEmpty()) {
       buffer.append(',');
       writeKey("tags");
@@ -79,7 +95,7 @@ public final class JsonWriter implements Metric.Visitor {
         buffer.append(']');
       }
     }
-    buffer.append('}');
+    buffer.append('}').append('\n');
   }
 
   /**
@@ -94,70 +110,99 @@ public final class JsonWriter implements Metric.Visitor {
 
   @Override
   public void visit(Timer.Stats metric) {
-    try {
-      writeMetricStart(metric.name());
-      writeSummary(metric);
-      writeMetricEnd(metric);
-    } catch (IOException e) {
-      throw new UncheckedIOException(e);
-    }
+    timer(metric.id(), metric.bucketRange(), metric.count(), metric.total(), metric.max(), metric.histogram());
   }
 
   @Override
   public void visit(Meter.Stats metric) {
+    meter(metric.id(), metric.unit(), metric.count(), metric.total(), metric.max(), metric.histogram());
+  }
+
+  @Override
+  public void visit(Counter.Stats metric) {
+    counter(metric.id(), metric.unit(), metric.count());
+  }
+
+  @Override
+  public void visit(GaugeDouble.Stats metric) {
+    gauge(metric.id(), metric.unit(), metric.value());
+  }
+
+  @Override
+  public void visit(GaugeLong.Stats metric) {
+    gauge(metric.id(), metric.unit(), metric.value());
+  }
+
+  @Override
+  public void timer(Metric.ID id, @Nullable String bucketRange, long count, long total, long max, Meter.@Nullable Histogram histogram) {
+    meter(id, "", count, total, max, histogram);
+  }
+
+  @Override
+  public void meter(Metric.ID id, String unit, long count, long total, long max, Meter.@Nullable Histogram histogram) {
     try {
-      writeMetricStart(metric);
-      writeSummary(metric);
-      writeMetricEnd(metric);
+      writeMetricStart(id);
+      writeSummary(count, total, max, histogram);
+      writeMetricEnd(id);
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
   @Override
-  public void visit(Counter.Stats metric) {
+  public void counter(Metric.ID id, String unit, long count) {
     try {
-      writeMetricStart(metric);
-      writeKeyNumber("value", metric.count());
-      writeMetricEnd(metric);
+      writeMetricStart(id);
+      writeKeyNumber("value", count);
+      writeMetricEnd(id);
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
   @Override
-  public void visit(GaugeDouble.Stats metric) {
+  public void gauge(Metric.ID id, String unit, double value) {
     try {
-      writeMetricStart(metric);
-      writeKeyNumber("value", format(metric.value()));
-      writeMetricEnd(metric);
+      writeMetricStart(id);
+      writeKeyNumber("value", format(value));
+      writeMetricEnd(id);
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
   @Override
-  public void visit(GaugeLong.Stats metric) {
+  public void gauge(Metric.ID id, String unit, long value) {
     try {
-      writeMetricStart(metric);
-      writeKeyNumber("value", metric.value());
-      writeMetricEnd(metric);
+      writeMetricStart(id);
+      writeKeyNumber("value", value);
+      writeMetricEnd(id);
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
-  private void writeSummary(Meter.Stats valueStats) throws IOException {
-    // valueStats == null when BucketTimedMetric and the bucket is empty
-    long count = valueStats.count();
+  private void writeSummary(long count, long total, long max, Meter.@Nullable Histogram histogram) throws IOException {
     writeKeyNumber("count", count);
     if (count != 0) {
       buffer.append(",");
-      writeKeyNumber("mean", valueStats.mean());
+      writeKeyNumber("mean", Math.round((double) (total / count)));
       buffer.append(",");
-      writeKeyNumber("max", valueStats.max());
+      writeKeyNumber("max", max);
       buffer.append(",");
-      writeKeyNumber("total", valueStats.total());
+      writeKeyNumber("total", total);
+      writePercentiles(histogram);
+    }
+  }
+
+  private void writePercentiles(Meter.@Nullable Histogram histogram) throws IOException {
+    if (histogram != null) {
+      String[] names = histogram.percentileNames();
+      long[] values = histogram.percentiles();
+      for (int i = 0; i < names.length; i++) {
+        buffer.append(",");
+        writeKeyNumber(names[i], values[i]);
+      }
     }
   }
 
@@ -166,7 +211,8 @@ public final class JsonWriter implements Metric.Visitor {
   }
 
   private void writeKeyNumber(String key, long numberValue) throws IOException {
-    writeKeyNumber(key, String.valueOf(numberValue));
+    writeKey(key);
+    writeNumberValue(numberValue);
   }
 
   private void writeKeyNumber(String key, String numberValue) throws IOException {
@@ -186,4 +232,26 @@ public final class JsonWriter implements Metric.Visitor {
     buffer.append(val);
   }
 
+  /**
+   * Append the digits of the value without creating a String.
+   */
+  private void writeNumberValue(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      buffer.append(Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      buffer.append('-');
+      value = -value;
+    }
+    int pos = digits.length;
+    do {
+      digits[--pos] = (char) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    for (int i = pos; i < digits.length; i++) {
+      buffer.append(digits[i]);
+    }
+  }
+
 }
@@ -0,0 +1,9 @@
+package io.avaje.metrics.core;
+
+interface MaxWindowed {
+
+  /**
+   * Set the number and duration of the sub-windows over which the max is reported.
+   */
+  void maxWindow(int windows, long windowNanos);
+}
@@ -11,4 +11,8 @@ final class MeterFactory implements SpiMetricBuilder.Factory<Meter> {
     return new DMeter(id, unit);
   }
 
+  @Override
+  public Meter createHistogram(Metric.ID id, String unit, double[] quantiles) {
+    return new DMeter(id, unit, quantiles);
+  }
 }
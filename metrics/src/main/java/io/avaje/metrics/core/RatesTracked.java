@@ -0,0 +1,11 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Meter;
+
+interface RatesTracked {
+
+  /**
+   * Start tracking the moving rates of events (if not already) returning the rates.
+   */
+  Meter.Rates trackRates();
+}
@@ -0,0 +1,9 @@
+package io.avaje.metrics.core;
+
+interface ReaderTracked {
+
+  /**
+   * Clear the state held for the closed reader such that its reader number can be reused.
+   */
+  void release(int reader);
+}
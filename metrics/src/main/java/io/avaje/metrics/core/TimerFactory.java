@@ -11,4 +11,8 @@ final class TimerFactory implements SpiMetricBuilder.Factory<Timer> {
     return new DTimer(id);
   }
 
+  @Override
+  public Timer createHistogram(Metric.ID id, String unitIgnore, double[] quantiles) {
+    return new DTimer(id, quantiles);
+  }
 }
@@ -0,0 +1,22 @@
+package io.avaje.metrics.core;
+
+import org.jspecify.annotations.Nullable;
+
+interface TouchTracked {
+
+  /**
+   * Set the touch to mark after each update of this metric, null to not mark updates.
+   */
+  void touchedBy(@Nullable Touch touch);
+
+  /**
+   * Marked after each update of the metric.
+   */
+  interface Touch {
+
+    /**
+     * Mark that the metric has been updated.
+     */
+    void mark();
+  }
+}
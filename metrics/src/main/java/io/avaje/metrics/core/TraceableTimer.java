@@ -10,5 +10,20 @@ interface TraceableTimer {
   /**
    * Return this timer with tracing enabled if supported.
    */
-  Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode);
+  default Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode) {
+    return withTracing(timedSpanFactory, spanMode, 0);
+  }
+
+  /**
+   * Return this timer with tracing enabled if supported.
+   * <p>
+   * With a positive span threshold no span is started with the event and a span is created
+   * when the event ends only if its duration exceeds the threshold.
+   */
+  Timer withTracing(@Nullable SpiTimedSpanFactory timedSpanFactory, SpanMode spanMode, long spanThresholdNanos);
+
+  /**
+   * Add the event duration with the error the event ended with.
+   */
+  void addEventDuration(boolean success, long durationNanos, @Nullable Throwable error);
 }
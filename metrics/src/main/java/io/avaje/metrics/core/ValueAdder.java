@@ -2,34 +2,49 @@ package io.avaje.metrics.core;
 
 import io.avaje.metrics.CollectionMode;
 
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Accumulates a value while supporting cumulative and delta reads.
+ * <p>
+ * There is a single accumulator with the delta derived at read time from the value as at the
+ * previous delta read of the reader. The value can be decremented so a delta can be negative.
  */
 final class ValueAdder {
 
   private final LongAdder value = new LongAdder();
-  private final AtomicLong previousValue = new AtomicLong();
+  private final ValueCursors previousValue = new ValueCursors();
 
   void add(long amount) {
     value.add(amount);
   }
 
-  long get(CollectionMode mode) {
+  void increment() {
+    value.increment();
+  }
+
+  void decrement() {
+    value.decrement();
+  }
+
+  /**
+   * Return the value or for DELTA the change since the prior DELTA read of the reader.
+   */
+  synchronized long get(CollectionMode mode, int reader) {
     long currentValue = value.sum();
     if (mode == CollectionMode.CUMULATIVE) {
       return currentValue;
     }
+    return currentValue - previousValue.getAndSet(reader, currentValue);
+  }
 
-    long previous = previousValue.getAndSet(currentValue);
-    return currentValue >= previous ? currentValue - previous : currentValue;
+  synchronized void release(int reader) {
+    previousValue.clear(reader);
   }
 
-  void reset() {
+  synchronized void reset() {
     value.reset();
-    previousValue.set(0);
+    previousValue.reset();
   }
 
   long currentValue() {
@@ -37,9 +52,7 @@ final class ValueAdder {
   }
 
   long deltaValue() {
-    long currentValue = value.sum();
-    long previous = previousValue.get();
-    return currentValue >= previous ? currentValue - previous : currentValue;
+    return value.sum() - previousValue.get(0);
   }
 
   @Override
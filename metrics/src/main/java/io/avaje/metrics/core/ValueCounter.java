@@ -3,109 +3,177 @@ package io.avaje.metrics.core;
 import io.avaje.metrics.CollectionMode;
 import io.avaje.metrics.Meter;
 import io.avaje.metrics.Metric;
-import io.avaje.metrics.Timer;
-import io.avaje.metrics.stats.MeterStats;
-import io.avaje.metrics.stats.TimerStats;
 import org.jspecify.annotations.Nullable;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Used to collect long value statistics for meter and timer metrics.
  * <p>
  * It is intended for high concurrent updates to the statistics and relatively infrequent reads.
+ * The count, total and max are recorded together in {@link ValueStripes} where each collection
+ * takes a consistent snapshot of the values added since the prior collection. DELTA reads are
+ * derived from the count and total previously collected by the same reader. Optionally values are also recorded
+ * into a {@link ValueHistogram} to report percentiles.
  * </p>
  */
 final class ValueCounter extends BaseReportName {
 
   private final @Nullable String bucketRange;
-  private final ValueAdder count = new ValueAdder();
-  private final ValueAdder total = new ValueAdder();
+  private final ValueStripes values = new ValueStripes();
+  private final ValueCursors previousCount = new ValueCursors();
+  private final ValueCursors previousTotal = new ValueCursors();
   private final ValueMax max;
+  private final @Nullable ValueHistogram histogram;
 
   ValueCounter(Metric.ID id) {
-    this(id, null, new ValueMax());
+    this(id, null, new ValueMax(), null);
   }
 
   ValueCounter(Metric.ID id, String bucketRange) {
-    this(id, bucketRange, new ValueMax());
+    this(id, bucketRange, new ValueMax(), null);
   }
 
   ValueCounter(Metric.ID id, ValueMax max) {
-    this(id, null, max);
+    this(id, null, max, null);
+  }
+
+  ValueCounter(Metric.ID id, ValueHistogram histogram) {
+    this(id, null, new ValueMax(), histogram);
   }
 
-  private ValueCounter(Metric.ID id, @Nullable String bucketRange, ValueMax max) {
+  private ValueCounter(Metric.ID id, @Nullable String bucketRange, ValueMax max, @Nullable ValueHistogram histogram) {
     super(id);
     this.bucketRange = bucketRange;
     this.max = max;
+    this.histogram = histogram;
   }
 
   @Override
   public String toString() {
-    return "{" +
-      "count=" + count +
-      ", total=" + total +
-      ", max=" + max +
-      '}';
+    return values.toString();
   }
 
   /**
    * Add a value. Usually the value is Time or Bytes etc.
    */
   void add(long value) {
-    count.add(1);
-    total.add(value);
-    max.add(value);
+    values.add(value);
+    if (histogram != null) {
+      histogram.add(value, values.stripeCount());
+    }
   }
 
-  Meter.@Nullable Stats collect(Metric.Visitor collector, String unit) {
-    var snapshot = collectSnapshot(collector);
-    return snapshot == null ? null : new MeterStats(snapshot.reportId(), unit, snapshot.count(), snapshot.total(), snapshot.max());
+  /**
+   * Collect the values into the sink as meter values returning false if there were none.
+   */
+  boolean collect(Metric.Sink sink, String unit) {
+    return collect(sink, unit, false);
   }
 
-  Timer.@Nullable Stats collectTimed(Metric.Visitor collector) {
-    var snapshot = collectSnapshot(collector);
-    return snapshot == null ? null : new TimerStats(snapshot.reportId(), bucketRange, snapshot.count(), snapshot.total(), snapshot.max());
+  /**
+   * Collect the values into the sink as timer values returning false if there were none.
+   */
+  boolean collectTimed(Metric.Sink sink) {
+    return collect(sink, null, true);
   }
 
-  private @Nullable Snapshot collectSnapshot(Metric.Visitor collector) {
-    final long count = this.count.get(collector.collectionMode());
+  /**
+   * Synchronized as a single thread at a time collects the values and such that concurrent
+   * DELTA collections each read a consistent count, total and histogram (recording does not
+   * take this lock).
+   */
+  private synchronized boolean collect(Metric.Sink sink, @Nullable String unit, boolean timed) {
+    final long collectedMax = values.collect();
+    final CollectionMode mode = sink.collectionMode();
+    final int reader = DCollector.reader(sink);
+    final long count = read(values.collectedCount(), previousCount, mode, reader);
     if (count == 0) {
-      return null;
+      return false;
+    }
+    final long totalVal = read(values.collectedTotal(), previousTotal, mode, reader);
+    final long maxVal = max.collect(reader, collectedMax);
+    final Meter.@Nullable Histogram histogramVal = histogram == null ? null : histogram.collect(mode, reader);
+    final Metric.ID reportId = reportId(sink.namingConvention());
+    if (timed) {
+      sink.timer(reportId, bucketRange, count, totalVal, maxVal, histogramVal);
+    } else {
+      sink.meter(reportId, requireNonNull(unit), count, totalVal, maxVal, histogramVal);
+    }
+    return true;
+  }
+
+  private static long read(long currentValue, ValueCursors previousValue, CollectionMode mode, int reader) {
+    if (mode == CollectionMode.CUMULATIVE) {
+      return currentValue;
+    }
+    long previous = previousValue.getAndSet(reader, currentValue);
+    return currentValue >= previous ? currentValue - previous : currentValue;
+  }
+
+  private static long delta(long currentValue, ValueCursors previousValue) {
+    long previous = previousValue.get(0);
+    return currentValue >= previous ? currentValue - previous : currentValue;
+  }
+
+  /**
+   * Clear the cursors of the closed reader.
+   */
+  synchronized void release(int reader) {
+    previousCount.clear(reader);
+    previousTotal.clear(reader);
+    max.release(reader);
+    if (histogram != null) {
+      histogram.release(reader);
     }
-    final long totalVal = total.get(collector.collectionMode());
-    final long maxVal = max.collect();
-    final Metric.ID reportId = reportId(collector);
-    return new Snapshot(reportId, count, totalVal, maxVal);
   }
 
   /**
    * Reset all the internal counters and start time.
    */
-  void reset() {
+  synchronized void reset() {
     max.reset();
-    count.reset();
-    total.reset();
+    values.reset();
+    if (histogram != null) {
+      histogram.reset();
+    }
+    previousCount.reset();
+    previousTotal.reset();
   }
 
   /**
    * Return the count of values.
    */
   long count() {
-    return count.deltaValue();
+    return delta(values.count(), previousCount);
+  }
+
+  /**
+   * Return the count of values since reset including those collected.
+   */
+  long countSinceReset() {
+    return values.count();
   }
 
   /**
    * Return the total of values.
    */
   long total() {
-    return total.deltaValue();
+    return delta(values.total(), previousTotal);
   }
 
   /**
-   * Return the max value.
+   * Return the max value (over the max window and since the last collection).
    */
   long max() {
-    return max.current();
+    return Math.max(max.max(), values.max());
+  }
+
+  /**
+   * Set the number and duration of the sub-windows of the max.
+   */
+  void maxWindow(int windows, long windowNanos) {
+    max.window(windows, windowNanos);
   }
 
   long mean() {
@@ -114,35 +182,4 @@ final class ValueCounter extends BaseReportName {
     return (count < 1) ? 0L : Math.round((double) (total / count));
   }
 
-  private static final class Snapshot {
-
-    private final Metric.ID reportId;
-    private final long count;
-    private final long total;
-    private final long max;
-
-    private Snapshot(Metric.ID reportId, long count, long total, long max) {
-      this.reportId = reportId;
-      this.count = count;
-      this.total = total;
-      this.max = max;
-    }
-
-    private Metric.ID reportId() {
-      return reportId;
-    }
-
-    private long count() {
-      return count;
-    }
-
-    private long total() {
-      return total;
-    }
-
-    private long max() {
-      return max;
-    }
-  }
-
 }
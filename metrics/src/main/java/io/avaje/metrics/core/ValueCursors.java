@@ -0,0 +1,70 @@
+package io.avaje.metrics.core;
+
+import java.util.Arrays;
+
+/**
+ * A long value per collection reader, typically the value as at the prior DELTA collection.
+ * <p>
+ * Reader 0 is the default reader of the registry and the array grows as other readers first
+ * collect. Updates are made by the synchronized collection of the owning metric while reads
+ * outside of collection are racy peeks.
+ */
+final class ValueCursors {
+
+  private volatile long[] values = new long[1];
+
+  /**
+   * Return the value of the reader (0 if the reader has not collected).
+   */
+  long get(int reader) {
+    final long[] current = values;
+    return reader < current.length ? current[reader] : 0;
+  }
+
+  /**
+   * Set the value of the reader.
+   */
+  void set(int reader, long value) {
+    final long[] current = values;
+    if (reader < current.length) {
+      current[reader] = value;
+    } else {
+      final long[] expanded = Arrays.copyOf(current, reader + 1);
+      expanded[reader] = value;
+      values = expanded;
+    }
+  }
+
+  /**
+   * Set the value of the reader returning the prior value.
+   */
+  long getAndSet(int reader, long value) {
+    final long previous = get(reader);
+    set(reader, value);
+    return previous;
+  }
+
+  /**
+   * Clear the value of the closed reader trimming trailing readers that have no value.
+   */
+  void clear(int reader) {
+    final long[] current = values;
+    if (reader < current.length) {
+      current[reader] = 0;
+      int length = current.length;
+      while (length > 1 && current[length - 1] == 0) {
+        length--;
+      }
+      if (length < current.length) {
+        values = Arrays.copyOf(current, length);
+      }
+    }
+  }
+
+  /**
+   * Reset the values of all readers to 0.
+   */
+  void reset() {
+    values = new long[values.length];
+  }
+}
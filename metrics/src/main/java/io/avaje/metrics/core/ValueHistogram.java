@@ -0,0 +1,278 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.stats.HistogramStats;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock free log-linear histogram of values used to report percentiles.
+ * <p>
+ * Values 0 to 15 have their own bucket and larger values are split into 16 linear sub-buckets
+ * per power of 2 such that the bucket upper bound is within 6.25% of any value in the bucket.
+ * Values above {@link #MAX_VALUE} (2^36, which is about 19 hours in microseconds) are counted
+ * in the last bucket.
+ * </p>
+ * <p>
+ * Each stripe is an array of {@link #BUCKETS} (528) counts, about 4.2KB. A histogram starts with
+ * a single stripe and adds stripes (up to 8) as the matching {@link ValueStripes} grows due to
+ * contention, so memory per series is bounded to about 34KB.
+ * </p>
+ * <p>
+ * Each reader that collects DELTA keeps the counts of the non-empty buckets at its last
+ * collection (16 bytes per non-empty bucket) to derive the bucket counts since then.
+ * </p>
+ */
+final class ValueHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_BITS = 36;
+
+  /**
+   * The maximum value that is bucketed accurately.
+   */
+  static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+  /**
+   * The number of buckets per stripe.
+   */
+  static final int BUCKETS = index(MAX_VALUE) + 1;
+
+  /**
+   * The maximum number of stripes.
+   */
+  static final int MAX_STRIPES = Math.min(8, ValueStripes.MAX_STRIPES);
+
+  private final double[] quantiles;
+  private final String[] percentileNames;
+  private final AtomicLongArray base = new AtomicLongArray(BUCKETS);
+  private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(MAX_STRIPES);
+  private Previous[] previous = {Previous.EMPTY};
+
+  ValueHistogram(double[] quantiles) {
+    this.quantiles = quantiles(quantiles);
+    this.percentileNames = percentileNames(this.quantiles);
+    this.stripes.set(0, base);
+  }
+
+  /**
+   * Return validated and sorted quantiles.
+   */
+  static double[] quantiles(double[] quantiles) {
+    if (quantiles.length == 0) {
+      throw new IllegalArgumentException("At least one quantile is required");
+    }
+    final double[] sorted = quantiles.clone();
+    Arrays.sort(sorted);
+    for (double quantile : sorted) {
+      if (!(quantile > 0 && quantile <= 1)) {
+        throw new IllegalArgumentException("Quantile must be greater than 0 and at most 1: " + quantile);
+      }
+    }
+    return sorted;
+  }
+
+  /**
+   * Return the percentile names like p50, p99 and p999 for the quantiles.
+   */
+  static String[] percentileNames(double[] quantiles) {
+    final String[] names = new String[quantiles.length];
+    for (int i = 0; i < quantiles.length; i++) {
+      names[i] = percentileName(quantiles[i]);
+    }
+    return names;
+  }
+
+  private static String percentileName(double quantile) {
+    final String percent = BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+    return "p" + percent.replace(".", "");
+  }
+
+  /**
+   * Return the bucket index for the given value.
+   */
+  static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return value < 0 ? 0 : (int) value;
+    }
+    final long bounded = Math.min(value, MAX_VALUE);
+    final int shift = 63 - Long.numberOfLeadingZeros(bounded) - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((bounded >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /**
+   * Return the inclusive upper bound of the bucket.
+   */
+  static long upperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    final long lower = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  /**
+   * Add a value using up to the given number of stripes (a power of 2).
+   */
+  void add(long value, int stripeCount) {
+    counts(stripeCount).getAndIncrement(index(value));
+  }
+
+  private AtomicLongArray counts(int stripeCount) {
+    if (stripeCount == 1) {
+      return base;
+    }
+    final int i = ValueStripes.probe() & (Math.min(stripeCount, MAX_STRIPES) - 1);
+    final AtomicLongArray counts = stripes.get(i);
+    if (counts != null) {
+      return counts;
+    }
+    stripes.compareAndSet(i, null, new AtomicLongArray(BUCKETS));
+    return stripes.get(i);
+  }
+
+  private long[] sum() {
+    final long[] sum = new long[BUCKETS];
+    for (int s = 0; s < MAX_STRIPES; s++) {
+      final AtomicLongArray counts = stripes.get(s);
+      if (counts != null) {
+        for (int i = 0; i < BUCKETS; i++) {
+          sum[i] += counts.get(i);
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Return the percentiles and bucket counts (since the last DELTA collection of the reader).
+   */
+  synchronized Meter.Histogram collect(CollectionMode mode, int reader) {
+    final long[] counts = sum();
+    if (mode == CollectionMode.DELTA) {
+      if (reader >= previous.length) {
+        final int length = previous.length;
+        previous = Arrays.copyOf(previous, reader + 1);
+        Arrays.fill(previous, length, previous.length, Previous.EMPTY);
+      }
+      final Previous prior = previous[reader];
+      previous[reader] = Previous.of(counts);
+      prior.subtractFrom(counts);
+    }
+    return snapshot(counts);
+  }
+
+  /**
+   * Clear the counts of the closed reader trimming trailing readers that have not collected.
+   */
+  synchronized void release(int reader) {
+    if (reader < previous.length) {
+      previous[reader] = Previous.EMPTY;
+      int length = previous.length;
+      while (length > 1 && previous[length - 1] == Previous.EMPTY) {
+        length--;
+      }
+      if (length < previous.length) {
+        previous = Arrays.copyOf(previous, length);
+      }
+    }
+  }
+
+  /**
+   * The counts of the non-empty buckets at the last DELTA collection of a reader.
+   */
+  private static final class Previous {
+
+    static final Previous EMPTY = new Previous(new int[0], new long[0]);
+
+    private final int[] buckets;
+    private final long[] counts;
+
+    private Previous(int[] buckets, long[] counts) {
+      this.buckets = buckets;
+      this.counts = counts;
+    }
+
+    static Previous of(long[] counts) {
+      int size = 0;
+      for (long count : counts) {
+        if (count != 0) {
+          size++;
+        }
+      }
+      final int[] buckets = new int[size];
+      final long[] values = new long[size];
+      for (int i = 0, b = 0; i < counts.length; i++) {
+        if (counts[i] != 0) {
+          buckets[b] = i;
+          values[b++] = counts[i];
+        }
+      }
+      return new Previous(buckets, values);
+    }
+
+    void subtractFrom(long[] current) {
+      for (int b = 0; b < buckets.length; b++) {
+        current[buckets[b]] -= counts[b];
+      }
+    }
+  }
+
+  private Meter.Histogram snapshot(long[] counts) {
+    int buckets = 0;
+    long total = 0;
+    for (long count : counts) {
+      if (count > 0) {
+        buckets++;
+        total += count;
+      }
+    }
+    final long[] bucketBounds = new long[buckets];
+    final long[] bucketCounts = new long[buckets];
+    for (int i = 0, b = 0; i < BUCKETS; i++) {
+      if (counts[i] > 0) {
+        bucketBounds[b] = upperBound(i);
+        bucketCounts[b++] = counts[i];
+      }
+    }
+    return new HistogramStats(quantiles, percentileNames, percentiles(total, bucketBounds, bucketCounts), bucketBounds, bucketCounts);
+  }
+
+  private long[] percentiles(long total, long[] bucketBounds, long[] bucketCounts) {
+    final long[] percentiles = new long[quantiles.length];
+    if (total == 0) {
+      return percentiles;
+    }
+    int bucket = 0;
+    long cumulative = bucketCounts[0];
+    for (int q = 0; q < quantiles.length; q++) {
+      final long rank = Math.max(1, (long) Math.ceil(quantiles[q] * total));
+      while (cumulative < rank && bucket < bucketCounts.length - 1) {
+        cumulative += bucketCounts[++bucket];
+      }
+      percentiles[q] = bucketBounds[bucket];
+    }
+    return percentiles;
+  }
+
+  /**
+   * Reset the counts of all the stripes.
+   */
+  synchronized void reset() {
+    for (int s = 0; s < MAX_STRIPES; s++) {
+      final AtomicLongArray counts = stripes.get(s);
+      if (counts != null) {
+        for (int i = 0; i < BUCKETS; i++) {
+          counts.set(i, 0);
+        }
+      }
+    }
+    Arrays.fill(previous, Previous.EMPTY);
+  }
+}
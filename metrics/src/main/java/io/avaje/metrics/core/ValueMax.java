@@ -1,20 +1,30 @@
 package io.avaje.metrics.core;
 
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.LongSupplier;
 
 /**
- * Accumulates a maximum value and publishes it in rolling 59-second windows.
+ * The maximum value collected from {@link ValueStripes} over a rolling window made up of a ring
+ * of sub-windows, by default 6 sub-windows of 10 seconds.
+ * <p>
+ * Each collection records its max into the sub-window of the current time. The sub-windows are
+ * shared by all readers and each reader has a cursor of the sub-window of its prior collection,
+ * such that the max returned to a reader is the max of the sub-windows since its prior collection
+ * (at most the whole window). The max then covers the report interval of each reader to the
+ * granularity of a sub-window. Recording is lock free with each sub-window an immutable slot and
+ * max replaced via CAS, while the cursors are updated by the synchronized collection of the
+ * owning metric.
  */
 final class ValueMax {
 
-  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(59);
+  static final int DEFAULT_WINDOWS = 6;
+  static final long DEFAULT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
 
   private final LongSupplier nanoTime;
-  private final LongAccumulator value = new LongAccumulator(Math::max, 0);
-  private long lastResetNanos;
-  private volatile long published;
+  private final long origin;
+  private final ValueCursors lastRead = new ValueCursors();
+  private volatile Ring ring;
 
   ValueMax() {
     this(System::nanoTime);
@@ -22,29 +32,119 @@ final class ValueMax {
 
   ValueMax(LongSupplier nanoTime) {
     this.nanoTime = nanoTime;
-    this.lastResetNanos = nanoTime.getAsLong() - 2 * WINDOW_NANOS;
+    this.origin = nanoTime.getAsLong();
+    this.ring = new Ring(DEFAULT_WINDOWS, DEFAULT_WINDOW_NANOS);
   }
 
-  void add(long amount) {
-    value.accumulate(amount);
+  /**
+   * Use the given number of sub-windows each of the given duration.
+   */
+  void window(int windows, long windowNanos) {
+    if (!ring.matches(windows, windowNanos)) {
+      ring = new Ring(windows, windowNanos);
+      lastRead.reset();
+    }
   }
 
-  synchronized long collect() {
-    long now = nanoTime.getAsLong();
-    if (now - lastResetNanos >= WINDOW_NANOS) {
-      published = value.getThenReset();
-      lastResetNanos = now;
+  /**
+   * Include the max of a collection by the reader returning the max of the sub-windows since
+   * the prior collection of the reader.
+   */
+  long collect(int reader, long collectedMax) {
+    final Ring current = ring;
+    final long slot = current.slot(nanoTime.getAsLong() - origin);
+    if (collectedMax > 0) {
+      current.record(slot, collectedMax);
     }
-    return published;
+    // the cursor holds the slot + 1 of the prior collection, 0 when the reader has not collected
+    final long since = lastRead.getAndSet(reader, slot + 1) - 1;
+    return current.max(since, slot);
+  }
+
+  /**
+   * Return the max of the collections within the window.
+   */
+  long max() {
+    final Ring current = ring;
+    return current.max(-1, current.slot(nanoTime.getAsLong() - origin));
+  }
+
+  /**
+   * Clear the cursor of the closed reader, called by the synchronized owning metric.
+   */
+  void release(int reader) {
+    lastRead.clear(reader);
+  }
+
+  void reset() {
+    ring.clear();
+    lastRead.reset();
   }
 
-  long current() {
-    return value.get();
+  private static final class Ring {
+
+    private static final Slot EMPTY = new Slot(Long.MIN_VALUE, 0);
+
+    private final long windowNanos;
+    private final AtomicReferenceArray<Slot> slots;
+
+    private Ring(int windows, long windowNanos) {
+      this.windowNanos = windowNanos;
+      this.slots = new AtomicReferenceArray<>(windows);
+      clear();
+    }
+
+    private boolean matches(int windows, long windowNanos) {
+      return slots.length() == windows && this.windowNanos == windowNanos;
+    }
+
+    private long slot(long now) {
+      return Math.floorDiv(now, windowNanos);
+    }
+
+    private void record(long slot, long value) {
+      final int index = (int) Math.floorMod(slot, (long) slots.length());
+      while (true) {
+        final Slot current = slots.get(index);
+        if (current.slot > slot || (current.slot == slot && current.max >= value)) {
+          return;
+        }
+        if (slots.compareAndSet(index, current, new Slot(slot, value))) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Return the max of the sub-windows from the since slot to the slot within the window.
+     */
+    private long max(long since, long slot) {
+      final long oldest = Math.max(slot - slots.length(), since - 1);
+      long max = 0;
+      for (int i = 0; i < slots.length(); i++) {
+        final Slot window = slots.get(i);
+        if (window.slot > oldest && window.slot <= slot && window.max > max) {
+          max = window.max;
+        }
+      }
+      return max;
+    }
+
+    private void clear() {
+      for (int i = 0; i < slots.length(); i++) {
+        slots.set(i, EMPTY);
+      }
+    }
   }
 
-  synchronized void reset() {
-    value.reset();
-    published = 0;
-    lastResetNanos = nanoTime.getAsLong() - 2 * WINDOW_NANOS;
+  private static final class Slot {
+
+    private final long slot;
+    private final long max;
+
+    private Slot(long slot, long max) {
+      this.slot = slot;
+      this.max = max;
+    }
   }
 }
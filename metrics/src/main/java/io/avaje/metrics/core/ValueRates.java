@@ -0,0 +1,77 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Meter;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Exponentially weighted moving rates over 1, 5 and 15 minutes derived from a count of events.
+ * <p>
+ * Rather than updating on each event, {@link #tick()} reads the count every 5 seconds (via
+ * {@link DRateTicker}) and moves the rates towards the rate of that interval.
+ */
+final class ValueRates implements Meter.Rates {
+
+  static final int TICK_SECONDS = 5;
+
+  private static final double M1_ALPHA = alpha(1);
+  private static final double M5_ALPHA = alpha(5);
+  private static final double M15_ALPHA = alpha(15);
+
+  private final LongSupplier count;
+  private long lastCount;
+  private boolean initialised;
+  private volatile double m1Rate;
+  private volatile double m5Rate;
+  private volatile double m15Rate;
+
+  ValueRates(LongSupplier count) {
+    this.count = count;
+    this.lastCount = count.getAsLong();
+  }
+
+  private static double alpha(int minutes) {
+    return 1 - Math.exp(-TICK_SECONDS / 60.0 / minutes);
+  }
+
+  /**
+   * Update the rates with the events counted since the prior tick.
+   */
+  synchronized void tick() {
+    final long current = count.getAsLong();
+    // the count goes back to zero on reset
+    final long events = current >= lastCount ? current - lastCount : current;
+    lastCount = current;
+    final double rate = events / (double) TICK_SECONDS;
+    if (initialised) {
+      m1Rate += M1_ALPHA * (rate - m1Rate);
+      m5Rate += M5_ALPHA * (rate - m5Rate);
+      m15Rate += M15_ALPHA * (rate - m15Rate);
+    } else {
+      m1Rate = rate;
+      m5Rate = rate;
+      m15Rate = rate;
+      initialised = true;
+    }
+  }
+
+  @Override
+  public double oneMinuteRate() {
+    return m1Rate;
+  }
+
+  @Override
+  public double fiveMinuteRate() {
+    return m5Rate;
+  }
+
+  @Override
+  public double fifteenMinuteRate() {
+    return m15Rate;
+  }
+
+  @Override
+  public String toString() {
+    return "m1:" + m1Rate + " m5:" + m5Rate + " m15:" + m15Rate;
+  }
+}
@@ -0,0 +1,455 @@
+package io.avaje.metrics.core;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Striped, double buffered recorder of the count, total and max of added values.
+ * <p>
+ * Each stripe holds two phases of total and max together with the phase epochs in one padded
+ * cell so an add updates a single cache line. There is a single stripe until concurrent adds contend on it, at
+ * which point the number of stripes doubles up to {@link #MAX_STRIPES}. Threads are mapped to a
+ * stripe by a per thread probe seeded from their identity hash. Like LongAdder the probe is
+ * advanced when an add contends on the stripe, so threads that collide move to other stripes.
+ * </p>
+ * <p>
+ * Adds go to the active phase of the stripe. An uncontended add owns the stripe via a CAS of its
+ * owner epoch, records the value with plain writes and releases the stripe advancing the epoch, so
+ * it costs a single atomic update. An add that finds the stripe owned does not wait but records
+ * into separate fields in the manner of HdrHistogram's WriterReaderPhaser: it increments the start
+ * epoch of the stripe (whose sign is the phase and which also counts the adds), records the value
+ * into that phase and then increments the end epoch of the phase.
+ * </p>
+ * <p>
+ * {@link #collect()} flips the phase of each stripe, waiting for an owning add to release it and
+ * for contended adds in flight to the prior phase, before reading and zeroing the prior phase.
+ * Adds are wait-free (the max update of a contended add only retries while other adds to the
+ * stripe raise the max) and each collection reads a consistent count, total and max of the values
+ * added since the prior collection.
+ * </p>
+ * <p>
+ * A single thread at a time may {@link #collect()} or {@link #reset()}.
+ * </p>
+ */
+final class ValueStripes {
+
+  /**
+   * Maximum number of stripes, the number of available processors rounded up to a power of 2
+   * (capped at 64).
+   */
+  static final int MAX_STRIPES = maxStripes(Runtime.getRuntime().availableProcessors());
+
+  private static final VarHandle GROWING;
+  private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{seed()});
+
+  static {
+    try {
+      GROWING = MethodHandles.lookup().findVarHandle(ValueStripes.class, "growing", int.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Stripe base = new Stripe();
+  private final Stripe[] baseOnly = {base};
+  private volatile Stripe @Nullable [] stripes;
+  private volatile int growing;
+  private volatile long collectedCount;
+  private volatile long collectedTotal;
+
+  static int maxStripes(int processors) {
+    int max = 1;
+    while (max < processors && max < 64) {
+      max <<= 1;
+    }
+    return max;
+  }
+
+  /**
+   * Add a value incrementing the count and total and updating the max.
+   */
+  void add(long value) {
+    final Stripe[] current = stripes;
+    if (current == null) {
+      if (!base.tryAdd(value)) {
+        contended(null, base, value);
+      }
+    } else {
+      final int[] probe = PROBE.get();
+      final Stripe stripe = current[probe[0] & (current.length - 1)];
+      if (!stripe.tryAdd(value)) {
+        probe[0] = advance(probe[0]);
+        contended(current, stripe, value);
+      }
+    }
+  }
+
+  private void contended(Stripe @Nullable [] current, Stripe stripe, long value) {
+    stripe.add(value);
+    final int length = current == null ? 1 : current.length;
+    if (length < MAX_STRIPES && GROWING.compareAndSet(this, 0, 1)) {
+      try {
+        if (stripes == current) {
+          final Stripe[] expanded = new Stripe[length << 1];
+          if (current == null) {
+            expanded[0] = base;
+          } else {
+            System.arraycopy(current, 0, expanded, 0, length);
+          }
+          for (int i = length; i < expanded.length; i++) {
+            expanded[i] = new Stripe();
+          }
+          stripes = expanded;
+        }
+      } finally {
+        growing = 0;
+      }
+    }
+  }
+
+  /**
+   * Return the probe of the current thread, the low bits of which select its stripe.
+   */
+  static int probe() {
+    return PROBE.get()[0];
+  }
+
+  /**
+   * Return the initial (non-zero) probe for the current thread.
+   */
+  private static int seed() {
+    int hash = System.identityHashCode(Thread.currentThread());
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    return hash == 0 ? 1 : hash;
+  }
+
+  /**
+   * Return the next probe (xorshift) moving the thread to another stripe after contention.
+   */
+  static int advance(int probe) {
+    probe ^= probe << 13;
+    probe ^= probe >>> 17;
+    probe ^= probe << 5;
+    return probe;
+  }
+
+  private Stripe[] stripes() {
+    final Stripe[] current = stripes;
+    return current == null ? baseOnly : current;
+  }
+
+  /**
+   * Return the number of stripes currently in use.
+   */
+  int stripeCount() {
+    final Stripe[] current = stripes;
+    return current == null ? 1 : current.length;
+  }
+
+  /**
+   * Flip the phase of the stripes adding the values of the prior phase to the collected count
+   * and total, returning the max value added since the prior collection.
+   */
+  long collect() {
+    long count = 0;
+    long total = 0;
+    long max = 0;
+    for (Stripe stripe : stripes()) {
+      final boolean odd = stripe.flip();
+      count += stripe.count(odd);
+      total += stripe.total(odd);
+      max = Math.max(max, stripe.max(odd));
+      stripe.clear(odd);
+    }
+    collectedCount += count;
+    collectedTotal += total;
+    return max;
+  }
+
+  /**
+   * Return the count of values added up to the last collection (since the last reset).
+   */
+  long collectedCount() {
+    return collectedCount;
+  }
+
+  /**
+   * Return the total of values added up to the last collection (since the last reset).
+   */
+  long collectedTotal() {
+    return collectedTotal;
+  }
+
+  /**
+   * Return the count of values added (since the last reset) without collecting.
+   */
+  long count() {
+    long sum = collectedCount;
+    for (Stripe stripe : stripes()) {
+      sum += stripe.activeCount();
+    }
+    return sum;
+  }
+
+  /**
+   * Return the total of the values added (since the last reset) without collecting.
+   */
+  long total() {
+    long sum = collectedTotal;
+    for (Stripe stripe : stripes()) {
+      sum += stripe.total(stripe.odd());
+    }
+    return sum;
+  }
+
+  /**
+   * Return the max value added since the last collection.
+   */
+  long max() {
+    long max = 0;
+    for (Stripe stripe : stripes()) {
+      max = Math.max(max, stripe.max(stripe.odd()));
+    }
+    return max;
+  }
+
+  /**
+   * Discard the values added.
+   */
+  void reset() {
+    for (Stripe stripe : stripes()) {
+      stripe.clear(stripe.flip());
+    }
+    collectedCount = 0;
+    collectedTotal = 0;
+  }
+
+  @Override
+  public String toString() {
+    return "{count=" + count() + ", total=" + total() + ", max=" + max() + '}';
+  }
+
+  @SuppressWarnings("unused")
+  static class StripeLeftPad {
+    long p01, p02, p03, p04, p05, p06, p07;
+  }
+
+  static class StripeValues extends StripeLeftPad {
+
+    private static final VarHandle OWNER;
+    private static final VarHandle START;
+    private static final VarHandle EVEN_END;
+    private static final VarHandle ODD_END;
+    private static final VarHandle EVEN_TOTAL;
+    private static final VarHandle EVEN_MAX;
+    private static final VarHandle ODD_TOTAL;
+    private static final VarHandle ODD_MAX;
+
+    static {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        OWNER = lookup.findVarHandle(StripeValues.class, "owner", long.class);
+        START = lookup.findVarHandle(StripeValues.class, "start", long.class);
+        EVEN_END = lookup.findVarHandle(StripeValues.class, "evenEnd", long.class);
+        ODD_END = lookup.findVarHandle(StripeValues.class, "oddEnd", long.class);
+        EVEN_TOTAL = lookup.findVarHandle(StripeValues.class, "evenTotal", long.class);
+        EVEN_MAX = lookup.findVarHandle(StripeValues.class, "evenMax", long.class);
+        ODD_TOTAL = lookup.findVarHandle(StripeValues.class, "oddTotal", long.class);
+        ODD_MAX = lookup.findVarHandle(StripeValues.class, "oddMax", long.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    /**
+     * Owner epoch of uncontended adds, counting adds up by 2 from 0 in the even phase and from
+     * Long.MIN_VALUE in the odd phase with the low bit set while an add owns the stripe.
+     */
+    volatile long owner;
+    long evenOwnedTotal;
+    long evenOwnedMax;
+    long oddOwnedTotal;
+    long oddOwnedMax;
+
+    /**
+     * Start epoch of contended adds, counting adds up from 0 in the even phase and from
+     * Long.MIN_VALUE in the odd phase such that it is also the count of the active phase.
+     */
+    volatile long start;
+    volatile long evenEnd;
+    volatile long oddEnd = Long.MIN_VALUE;
+    volatile long evenTotal;
+    volatile long evenMax;
+    volatile long oddTotal;
+    volatile long oddMax;
+    long evenCount;
+    long oddCount;
+
+    /**
+     * Add the value as the owner of the stripe returning false without adding if another thread
+     * owns it.
+     * <p>
+     * The owner records the value with plain writes and releases the stripe advancing the
+     * owner epoch, such that an uncontended add is a single CAS.
+     */
+    final boolean tryAdd(long value) {
+      final long epoch = owner;
+      if ((epoch & 1) != 0 || !OWNER.compareAndSet(this, epoch, epoch + 1)) {
+        return false;
+      }
+      if (epoch < 0) {
+        oddOwnedTotal += value;
+        if (value > oddOwnedMax) {
+          oddOwnedMax = value;
+        }
+      } else {
+        evenOwnedTotal += value;
+        if (value > evenOwnedMax) {
+          evenOwnedMax = value;
+        }
+      }
+      OWNER.setRelease(this, epoch + 2);
+      return true;
+    }
+
+    /**
+     * Add the value while another thread owns the stripe.
+     */
+    final void add(long value) {
+      final long epoch = (long) START.getAndAdd(this, 1L);
+      if (epoch < 0) {
+        ODD_TOTAL.getAndAdd(this, value);
+        updateMax(ODD_MAX, value);
+        ODD_END.getAndAdd(this, 1L);
+      } else {
+        EVEN_TOTAL.getAndAdd(this, value);
+        updateMax(EVEN_MAX, value);
+        EVEN_END.getAndAdd(this, 1L);
+      }
+    }
+
+    private void updateMax(VarHandle max, long value) {
+      long current;
+      while (value > (current = (long) max.getVolatile(this))) {
+        if (max.weakCompareAndSet(this, current, value)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Return true if the odd phase is active.
+     */
+    final boolean odd() {
+      return start < 0;
+    }
+
+    /**
+     * Flip the active phase and wait for adds in flight to the prior phase to complete,
+     * returning true if the prior phase is the odd phase.
+     */
+    final boolean flip() {
+      final boolean nextEven = start < 0;
+      final long initial = nextEven ? 0 : Long.MIN_VALUE;
+      if (nextEven) {
+        evenEnd = initial;
+      } else {
+        oddEnd = initial;
+      }
+      final long ownerAtFlip = flipOwner(initial);
+      final long startAtFlip = (long) START.getAndSet(this, initial);
+      int spins = 0;
+      while ((nextEven ? oddEnd : evenEnd) != startAtFlip) {
+        spins = spin(spins);
+      }
+      final long prior = nextEven ? Long.MIN_VALUE : 0;
+      final long count = (startAtFlip - prior) + ((ownerAtFlip - prior) >>> 1);
+      if (nextEven) {
+        oddCount = count;
+      } else {
+        evenCount = count;
+      }
+      return nextEven;
+    }
+
+    /**
+     * Flip the owner epoch once no add owns the stripe returning the owner epoch at the flip.
+     */
+    private long flipOwner(long initial) {
+      int spins = 0;
+      while (true) {
+        final long epoch = owner;
+        if ((epoch & 1) == 0 && OWNER.compareAndSet(this, epoch, initial)) {
+          return epoch;
+        }
+        spins = spin(spins);
+      }
+    }
+
+    private static int spin(int spins) {
+      if (spins < 100) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+      return spins + 1;
+    }
+
+    /**
+     * Return the count of the prior phase after a flip.
+     */
+    final long count(boolean odd) {
+      return odd ? oddCount : evenCount;
+    }
+
+    /**
+     * Return the count of adds started in the active phase.
+     */
+    final long activeCount() {
+      final long epoch = start;
+      final long owned = owner;
+      return epoch < 0
+        ? (epoch - Long.MIN_VALUE) + ((owned - Long.MIN_VALUE) >>> 1)
+        : epoch + (owned >>> 1);
+    }
+
+    final long total(boolean odd) {
+      return odd ? oddTotal + oddOwnedTotal : evenTotal + evenOwnedTotal;
+    }
+
+    final long max(boolean odd) {
+      return odd ? Math.max(oddMax, oddOwnedMax) : Math.max(evenMax, evenOwnedMax);
+    }
+
+    /**
+     * Zero the values of the inactive phase.
+     */
+    final void clear(boolean odd) {
+      if (odd) {
+        oddCount = 0;
+        oddTotal = 0;
+        oddMax = 0;
+        oddOwnedTotal = 0;
+        oddOwnedMax = 0;
+      } else {
+        evenCount = 0;
+        evenTotal = 0;
+        evenMax = 0;
+        evenOwnedTotal = 0;
+        evenOwnedMax = 0;
+      }
+    }
+  }
+
+  /**
+   * A stripe padded on both sides to avoid false sharing with adjacent stripes.
+   */
+  @SuppressWarnings("unused")
+  static final class Stripe extends StripeValues {
+    long p11, p12, p13, p14, p15, p16, p17;
+  }
+}
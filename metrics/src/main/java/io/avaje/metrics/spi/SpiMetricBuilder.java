@@ -5,6 +5,8 @@ import io.avaje.metrics.Meter;
 import io.avaje.metrics.Metric;
 import io.avaje.metrics.Timer;
 
+import java.util.concurrent.TimeUnit;
+
 public interface SpiMetricBuilder {
 
   Factory<Timer> timer();
@@ -21,5 +23,27 @@ public interface SpiMetricBuilder {
      * Create the metric with the given unit.
      */
     T createMetric(Metric.ID id, String unit, int[] bucketRanges);
+
+    /**
+     * Create the metric with bucket ranges in nanoseconds.
+     * <p>
+     * Factories that only support millisecond ranges are given the ranges rounded down to millis.
+     */
+    default T createBucketMetric(Metric.ID id, String unit, long[] bucketRangesNanos) {
+      final int[] bucketRangesMillis = new int[bucketRangesNanos.length];
+      for (int i = 0; i < bucketRangesNanos.length; i++) {
+        bucketRangesMillis[i] = (int) TimeUnit.NANOSECONDS.toMillis(bucketRangesNanos[i]);
+      }
+      return createMetric(id, unit, bucketRangesMillis);
+    }
+
+    /**
+     * Create the metric recording values into a histogram reporting the given quantiles.
+     * <p>
+     * Factories that do not support histograms create the metric without one.
+     */
+    default T createHistogram(Metric.ID id, String unit, double[] quantiles) {
+      return createMetric(id, unit, new int[0]);
+    }
   }
 }
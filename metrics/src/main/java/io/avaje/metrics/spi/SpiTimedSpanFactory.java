@@ -50,5 +50,19 @@ public interface SpiTimedSpanFactory {
      * Start a new span for an event.
      */
     @Nullable SpiSpan start();
+
+    /**
+     * Create a span for an event that has just ended after the given duration.
+     * <p>
+     * Used by traced timers with a span threshold that only create spans for the slow events.
+     * The span starts the duration before now with the current context as its parent.
+     *
+     * @param durationNanos the duration of the event
+     * @param success true if the event ended successfully
+     * @param error the error the event ended with if known
+     */
+    default void ended(long durationNanos, boolean success, @Nullable Throwable error) {
+      // deferred spans not supported
+    }
   }
 }
@@ -0,0 +1,65 @@
+package io.avaje.metrics.stats;
+
+import io.avaje.metrics.Meter;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Snapshot of the percentiles and bucket counts for a histogram backed Meter or Timer.
+ */
+public final class HistogramStats implements Meter.Histogram {
+
+  final double[] quantiles;
+  final String[] percentileNames;
+  final long[] percentiles;
+  final long[] bucketBounds;
+  final long[] bucketCounts;
+
+  /**
+   * Create with all parameters.
+   */
+  public HistogramStats(double[] quantiles, String[] percentileNames, long[] percentiles, long[] bucketBounds, long[] bucketCounts) {
+    this.quantiles = requireNonNull(quantiles, "quantiles");
+    this.percentileNames = requireNonNull(percentileNames, "percentileNames");
+    this.percentiles = requireNonNull(percentiles, "percentiles");
+    this.bucketBounds = requireNonNull(bucketBounds, "bucketBounds");
+    this.bucketCounts = requireNonNull(bucketCounts, "bucketCounts");
+  }
+
+  @Override
+  public String toString() {
+    var sb = new StringBuilder();
+    for (int i = 0; i < percentileNames.length; i++) {
+      if (i > 0) {
+        sb.append(' ');
+      }
+      sb.append(percentileNames[i]).append(':').append(percentiles[i]);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public double[] quantiles() {
+    return quantiles;
+  }
+
+  @Override
+  public String[] percentileNames() {
+    return percentileNames;
+  }
+
+  @Override
+  public long[] percentiles() {
+    return percentiles;
+  }
+
+  @Override
+  public long[] bucketBounds() {
+    return bucketBounds;
+  }
+
+  @Override
+  public long[] bucketCounts() {
+    return bucketCounts;
+  }
+}
@@ -2,6 +2,7 @@ package io.avaje.metrics.stats;
 
 import io.avaje.metrics.Meter;
 import io.avaje.metrics.Metric;
+import org.jspecify.annotations.Nullable;
 
 import static java.util.Objects.requireNonNull;
 
@@ -15,6 +16,7 @@ public final class MeterStats implements Meter.Stats {
   final long count;
   final long total;
   final long max;
+  final Meter.@Nullable Histogram histogram;
 
   /**
    * Create with all parameters.
@@ -27,18 +29,24 @@ public final class MeterStats implements Meter.Stats {
    * Create with all parameters including unit.
    */
   public MeterStats(Metric.ID id, String unit, long count, long total, long max) {
+    this(id, unit, count, total, max, null);
+  }
+
+  /**
+   * Create with all parameters including unit and histogram.
+   */
+  public MeterStats(Metric.ID id, String unit, long count, long total, long max, Meter.@Nullable Histogram histogram) {
     this.id = id;
     this.unit = normalizeUnit(unit);
     this.count = count;
     this.total = total;
-    // collection is racy so sanitize the max value if it has not been set
-    // this most likely would happen when count = 1 so max = mean
-    this.max = max != Long.MIN_VALUE ? max : (count < 1 ? 0 : Math.round((float) total / count));
+    this.max = max;
+    this.histogram = histogram;
   }
 
   @Override
   public String toString() {
-    return "count:" + count + " total:" + total + " max:" + max;
+    return "count:" + count + " total:" + total + " max:" + max + (histogram == null ? "" : " " + histogram);
   }
 
   @Override
@@ -81,6 +89,11 @@ public final class MeterStats implements Meter.Stats {
     return max;
   }
 
+  @Override
+  public Meter.@Nullable Histogram histogram() {
+    return histogram;
+  }
+
   @Override
   public long mean() {
     return (count < 1) ? 0L : Math.round((double) (total / count));
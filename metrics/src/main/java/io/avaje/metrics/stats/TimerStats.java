@@ -1,5 +1,6 @@
 package io.avaje.metrics.stats;
 
+import io.avaje.metrics.Meter;
 import io.avaje.metrics.Metric;
 import io.avaje.metrics.Timer;
 import org.jspecify.annotations.Nullable;
@@ -14,6 +15,7 @@ public final class TimerStats implements Timer.Stats {
   final long count;
   final long total;
   final long max;
+  final Meter.@Nullable Histogram histogram;
 
   /**
    * Create with no bucketRange.
@@ -26,18 +28,24 @@ public final class TimerStats implements Timer.Stats {
    * Create with all parameters including bucketRange.
    */
   public TimerStats(Metric.ID id, @Nullable String bucketRange, long count, long total, long max) {
+    this(id, bucketRange, count, total, max, null);
+  }
+
+  /**
+   * Create with all parameters including bucketRange and histogram.
+   */
+  public TimerStats(Metric.ID id, @Nullable String bucketRange, long count, long total, long max, Meter.@Nullable Histogram histogram) {
     this.id = id;
     this.bucketRange = bucketRange;
     this.count = count;
     this.total = total;
-    // collection is racy so sanitize the max value if it has not been set
-    // this most likely would happen when count = 1 so max = mean
-    this.max = max != Long.MIN_VALUE ? max : (count < 1 ? 0 : Math.round((float) total / count));
+    this.max = max;
+    this.histogram = histogram;
   }
 
   @Override
   public String toString() {
-    return "count:" + count + " total:" + total + " max:" + max;
+    return "count:" + count + " total:" + total + " max:" + max + (histogram == null ? "" : " " + histogram);
   }
 
   @Override
@@ -94,6 +102,14 @@ public final class TimerStats implements Timer.Stats {
     return max;
   }
 
+  /**
+   * Return the histogram or null when the timer is not histogram backed.
+   */
+  @Override
+  public Meter.@Nullable Histogram histogram() {
+    return histogram;
+  }
+
   /**
    * Return the mean value rounded up.
    */
@@ -26,6 +26,15 @@ class MetricIDTest {
     assertThat(one).isNotEqualTo(Metric.ID.of("two", Tags.of("a", "b")));
   }
 
+  @Test
+  void hashCode_equalIds() {
+    var one = Metric.ID.of("one", Tags.of("a", "b"));
+    var other = Metric.ID.of("one", Tags.of("a", "b"));
+    assertThat(one.hashCode()).isEqualTo(other.hashCode());
+    assertThat(one.tags().hashCode()).isEqualTo(other.tags().hashCode());
+    assertThat(Metric.ID.of("one").hashCode()).isEqualTo(Metric.ID.of("one", Tags.of()).hashCode());
+  }
+
   @Test
   void suffix() {
     var one = Metric.ID.of("one", Tags.of("a:b"));
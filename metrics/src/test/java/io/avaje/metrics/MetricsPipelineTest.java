@@ -0,0 +1,172 @@
+package io.avaje.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsPipelineTest {
+
+  private final MetricRegistry registry = Metrics.createRegistry();
+
+  @Test
+  void collect_expectOneCollectionFannedOutToEachSink() throws InterruptedException {
+    var collections = new AtomicInteger();
+    MetricReader reader = registry.reader("pipeline");
+    registry.counter("pipeline.counter").inc(3);
+
+    var first = new CopyOnWriteArrayList<List<Metric.Statistics>>();
+    var second = new CopyOnWriteArrayList<List<Metric.Statistics>>();
+    var latch = new CountDownLatch(2);
+    try (MetricsPipeline pipeline = MetricsPipeline.builder()
+      .provider(mode -> {
+        collections.incrementAndGet();
+        return reader.collectMetrics(mode);
+      })
+      .sink("first", snapshot -> { first.add(snapshot); latch.countDown(); })
+      .sink("second", snapshot -> { second.add(snapshot); latch.countDown(); })
+      .build()) {
+
+      pipeline.collect();
+      assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(collections.get()).isEqualTo(1);
+      assertThat(first).hasSize(1);
+      assertThat(second).hasSize(1);
+      assertThat(first.get(0)).isSameAs(second.get(0));
+      assertThat(((Counter.Stats) first.get(0).get(0)).count()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void slowSink_expectDroppedAndOtherSinkUnaffected() throws InterruptedException {
+    var delivering = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var fastLatch = new CountDownLatch(4);
+    MetricsPipeline pipeline = MetricsPipeline.builder()
+      .provider(mode -> List.of())
+      .sink("slow", 1, 10, TimeUnit.SECONDS, snapshot -> {
+        delivering.countDown();
+        await(release);
+      })
+      .sink("fast", 4, 10, TimeUnit.SECONDS, snapshot -> fastLatch.countDown())
+      .build();
+    try {
+
+      pipeline.collect();
+      assertThat(delivering.await(5, TimeUnit.SECONDS)).isTrue();
+      for (int i = 0; i < 3; i++) {
+        pipeline.collect();
+      }
+      assertThat(fastLatch.await(5, TimeUnit.SECONDS)).isTrue();
+
+      MetricsPipeline.SinkStats slow = pipeline.sinkStats().get(0);
+      MetricsPipeline.SinkStats fast = pipeline.sinkStats().get(1);
+      assertThat(slow.name()).isEqualTo("slow");
+      assertThat(slow.queued()).isEqualTo(1);
+      assertThat(slow.dropped()).isEqualTo(2);
+      release.countDown();
+      // close waits for the workers such that the delivered counts are complete
+      pipeline.close();
+      assertThat(fast.delivered()).isEqualTo(4);
+      assertThat(fast.dropped()).isZero();
+    } finally {
+      release.countDown();
+      pipeline.close();
+    }
+  }
+
+  @Test
+  void timeout_expectDeliveryInterrupted() throws InterruptedException {
+    var interrupted = new CountDownLatch(1);
+    try (MetricsPipeline pipeline = MetricsPipeline.builder()
+      .provider(mode -> List.of())
+      .sink("stuck", 1, 50, TimeUnit.MILLISECONDS, snapshot -> {
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+          throw new IllegalStateException(e);
+        }
+      })
+      .build()) {
+
+      pipeline.collect();
+      assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      MetricsPipeline.SinkStats stats = pipeline.sinkStats().get(0);
+      assertThat(stats.timedOut()).isEqualTo(1);
+      assertThat(stats.failed()).isZero();
+      assertThat(stats.delivered()).isZero();
+    }
+  }
+
+  @Test
+  void timeout_sinkIgnoresInterrupt_expectTimedOutOnly() throws InterruptedException {
+    var interrupted = new CountDownLatch(1);
+    MetricsPipeline.SinkStats stats;
+    try (MetricsPipeline pipeline = MetricsPipeline.builder()
+      .provider(mode -> List.of())
+      .sink("ignoring", 1, 50, TimeUnit.MILLISECONDS, snapshot -> {
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+      })
+      .build()) {
+
+      pipeline.collect();
+      assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+      stats = pipeline.sinkStats().get(0);
+    }
+    assertThat(stats.timedOut()).isEqualTo(1);
+    assertThat(stats.delivered()).isZero();
+    assertThat(stats.failed()).isZero();
+  }
+
+  @Test
+  void build_withoutProvider_expectOwnReaderPerPipeline() throws InterruptedException {
+    Counter counter = Metrics.registry().counter("pipeline.default");
+    var first = new CopyOnWriteArrayList<List<Metric.Statistics>>();
+    var second = new CopyOnWriteArrayList<List<Metric.Statistics>>();
+    var latch = new CountDownLatch(2);
+    try (MetricsPipeline one = MetricsPipeline.builder().sink("one", snapshot -> { first.add(snapshot); latch.countDown(); }).build();
+         MetricsPipeline two = MetricsPipeline.builder().sink("two", snapshot -> { second.add(snapshot); latch.countDown(); }).build()) {
+
+      counter.inc(2);
+      one.collect();
+      two.collect();
+      assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(count(first.get(0), "pipeline.default")).isEqualTo(2);
+      assertThat(count(second.get(0), "pipeline.default")).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void build_expectSinkRequired() {
+    assertThatThrownBy(() -> MetricsPipeline.builder().build())
+      .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static long count(List<Metric.Statistics> snapshot, String name) {
+    return snapshot.stream()
+      .filter(stats -> stats.id().name().equals(name))
+      .mapToLong(stats -> ((Counter.Stats) stats).count())
+      .sum();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -2,6 +2,7 @@ package io.avaje.metrics;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -40,11 +41,11 @@ class ScheduledTaskTest {
     assertThat(counter.get()).isEqualTo(0);
     System.out.println("start...");
     task.start();
-    Thread.sleep(5);
+    awaitCount(1);
     assertThat(counter.get()).isGreaterThan(0);
 
     task.waitIfRunning(10, TimeUnit.SECONDS);
-    Thread.sleep(30);
+    awaitCount(2);
 
     System.out.println("cancel...");
     task.cancel(false);
@@ -69,8 +70,104 @@ class ScheduledTaskTest {
     assertThat(ScheduledTask.noop()).isSameAs(ScheduledTask.noop());
   }
 
+  @Test
+  void alignedInitialDelay() {
+    assertThat(DScheduledTask.alignedInitialDelay(60_000, 60_000, 0)).isEqualTo(60_000);
+    assertThat(DScheduledTask.alignedInitialDelay(61_000, 60_000, 0)).isEqualTo(59_000);
+    assertThat(DScheduledTask.alignedInitialDelay(61_000, 60_000, 5_000)).isEqualTo(4_000);
+    assertThat(DScheduledTask.alignedInitialDelay(66_000, 60_000, 5_000)).isEqualTo(59_000);
+  }
+
+  @Test
+  void description_expectClassNameWithoutLambdaSuffix() {
+    Runnable lambda = () -> { };
+    assertThat(DScheduledTask.description(lambda)).isEqualTo(ScheduledTaskTest.class.getName());
+    assertThat(DScheduledTask.description(new Thread())).isEqualTo(Thread.class.getName());
+  }
+
+  @Test
+  void aligned_runsOnWallClockBoundary() throws InterruptedException {
+    // the later runs are not delayed by starting the runner thread
+    var latch = new CountDownLatch(3);
+    var ranAt = new AtomicLong();
+    ScheduledTask task = ScheduledTask.builder()
+      .schedule(0, 50, TimeUnit.MILLISECONDS)
+      .alignToWallClock()
+      .task(() -> {
+        ranAt.set(System.currentTimeMillis());
+        latch.countDown();
+      })
+      .build();
+
+    task.start();
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    task.cancel(true);
+    assertThat(ranAt.get() % 50).isLessThan(25);
+  }
+
+  @Test
+  void notAligned_expectFixedDelayAfterCompletion() throws InterruptedException {
+    var latch = new CountDownLatch(3);
+    var lastEnd = new AtomicLong();
+    var minGap = new AtomicLong(Long.MAX_VALUE);
+    ScheduledTask task = ScheduledTask.builder()
+      .schedule(1, 20, TimeUnit.MILLISECONDS)
+      .task(() -> {
+        long start = System.nanoTime();
+        if (lastEnd.get() != 0) {
+          minGap.accumulateAndGet(start - lastEnd.get(), Math::min);
+        }
+        try {
+          Thread.sleep(30);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        lastEnd.set(System.nanoTime());
+        latch.countDown();
+      })
+      .build();
+
+    task.start();
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(task.cancel(false)).isTrue();
+    assertThat(task.overruns()).isZero();
+    assertThat(minGap.get()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(19));
+  }
+
+  @Test
+  void overrun_expectTickSkipped() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    var runs = new AtomicLong();
+    ScheduledTask task = ScheduledTask.builder()
+      .schedule(1, 1, TimeUnit.MILLISECONDS)
+      .alignToWallClock()
+      .task(() -> {
+        runs.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      })
+      .build();
+
+    task.start();
+    Thread.sleep(50);
+    assertThat(runs.get()).isEqualTo(1);
+    assertThat(task.overruns()).isGreaterThan(0);
+    release.countDown();
+    task.cancel(false);
+  }
+
   private static final AtomicLong counter = new AtomicLong();
 
+  private static void awaitCount(long count) throws InterruptedException {
+    long until = System.currentTimeMillis() + 5_000;
+    while (counter.get() < count && System.currentTimeMillis() < until) {
+      Thread.sleep(1);
+    }
+  }
+
   private static void hello() {
     System.out.println("hi " + counter.incrementAndGet());
   }
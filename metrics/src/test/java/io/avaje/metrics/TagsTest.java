@@ -40,4 +40,36 @@ class TagsTest {
   void append() {
     assertThat(Tags.of("a:1", "b:2").append("x:y")).isEqualTo(new String[]{"a:1", "b:2", "x:y"});
   }
+
+  @Test
+  void parsed_sortedByKey() {
+    Tags tags = Tags.of("env:dev", "app:foo:bar", "noKey", ":empty", "b:");
+    assertThat(tags.size()).isEqualTo(3);
+    assertThat(tags.key(0)).isEqualTo("app");
+    assertThat(tags.value(0)).isEqualTo("foo:bar");
+    assertThat(tags.key(1)).isEqualTo("b");
+    assertThat(tags.value(1)).isEqualTo("");
+    assertThat(tags.key(2)).isEqualTo("env");
+    assertThat(tags.value(2)).isEqualTo("dev");
+    assertThat(tags.array()).containsExactly("env:dev", "app:foo:bar", "noKey", ":empty", "b:");
+    assertThat(Tags.EMPTY.size()).isEqualTo(0);
+  }
+
+  @Test
+  void parsed_duplicateKeys_keepGivenOrder() {
+    Tags tags = Tags.of("k:2", "a:0", "k:1");
+    assertThat(tags.key(1)).isEqualTo("k");
+    assertThat(tags.value(1)).isEqualTo("2");
+    assertThat(tags.value(2)).isEqualTo("1");
+  }
+
+  @Test
+  void fingerprint() {
+    Tags tags = Tags.of("env:dev", "service:foo");
+    assertThat(tags.fingerprint()).isEqualTo(Tags.of("env:dev", "service:foo").fingerprint());
+    assertThat(tags.fingerprint()).isEqualTo(Tags.of("service:foo", "env:dev").fingerprint());
+    assertThat(tags.fingerprint()).isNotEqualTo(Tags.of("env:dev", "service:bar").fingerprint());
+    assertThat(Tags.of("a:x,b:y").fingerprint()).isNotEqualTo(Tags.of("a:x", "b:y").fingerprint());
+    assertThat(Tags.EMPTY.fingerprint()).isNotEqualTo(tags.fingerprint());
+  }
 }
@@ -79,6 +79,17 @@ class CollectAsJsonTest {
     assertThat(v2).doesNotContain("\"tags\":[");
   }
 
+  @Test
+  void collectAsJson_withPercentiles() {
+
+    Meter meter = registry.meterBuilder("my.histogram").percentiles(0.5, 0.99).build();
+    meter.addEvent(10);
+    meter.addEvent(20);
+
+    String json = registry.collectAsJson().asJson();
+    assertThat(json).contains("{\"name\":\"my.histogram\",\"count\":2,\"mean\":15,\"max\":20,\"total\":30,\"p50\":10,\"p99\":20}");
+  }
+
   @Test
   void collectAsJsonCumulative() {
 
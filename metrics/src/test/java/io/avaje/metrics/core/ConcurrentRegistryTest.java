@@ -0,0 +1,132 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentRegistryTest {
+
+  private static final int WRITERS = 4;
+  private static final int COLLECTORS = 2;
+  private static final int EVENTS = 20_000;
+  private static final int SERIES = 500;
+
+  @Test
+  void createAndRecord_whileCollecting_expectNoLostOrDoubleCountedEvents() throws Exception {
+    createAndRecord(new DefaultMetricProvider());
+  }
+
+  @Test
+  void createAndRecord_whileCollectingIncremental_expectNoLostOrDoubleCountedEvents() throws Exception {
+    DefaultMetricProvider registry = new DefaultMetricProvider();
+    registry.incrementalCollection();
+    createAndRecord(registry);
+  }
+
+  private static void createAndRecord(DefaultMetricProvider registry) throws Exception {
+    AtomicBoolean writing = new AtomicBoolean(true);
+    AtomicLong collectedCounts = new AtomicLong();
+    AtomicLong collectedTimes = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS + COLLECTORS);
+    try {
+      List<Future<?>> writers = IntStream.range(0, WRITERS)
+        .mapToObj(w -> executor.submit(() -> {
+          await(start);
+          for (int i = 0; i < EVENTS; i++) {
+            Tags tags = Tags.of("series", Integer.toString(i % SERIES));
+            registry.counter("stress.counter", tags).inc();
+            registry.timer("stress.timer", tags).addEventDuration(true, 1_000);
+          }
+        }))
+        .collect(Collectors.toList());
+
+      List<Future<?>> collectors = IntStream.range(0, COLLECTORS)
+        .mapToObj(c -> executor.submit(() -> {
+          await(start);
+          while (writing.get()) {
+            collect(registry, collectedCounts, collectedTimes);
+          }
+        }))
+        .collect(Collectors.toList());
+
+      start.countDown();
+      for (Future<?> writer : writers) {
+        writer.get(60, TimeUnit.SECONDS);
+      }
+      writing.set(false);
+      for (Future<?> collector : collectors) {
+        collector.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    collect(registry, collectedCounts, collectedTimes);
+
+    assertThat(collectedCounts.get()).isEqualTo((long) WRITERS * EVENTS);
+    assertThat(collectedTimes.get()).isEqualTo((long) WRITERS * EVENTS);
+    assertThat(registry.metrics()).hasSize(2 * SERIES);
+  }
+
+  @Test
+  void create_concurrently_expectSingleInstancePerId() throws Exception {
+    DefaultMetricProvider registry = new DefaultMetricProvider();
+    Set<Counter> counters = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+    try {
+      List<Future<?>> futures = IntStream.range(0, WRITERS)
+        .mapToObj(w -> executor.submit(() -> {
+          await(start);
+          counters.add(registry.counter("stress.single"));
+        }))
+        .collect(Collectors.toList());
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(counters).hasSize(1);
+  }
+
+  private static void collect(DefaultMetricProvider registry, AtomicLong counts, AtomicLong times) {
+    for (Metric.Statistics stats : registry.collectMetrics(CollectionMode.DELTA)) {
+      if (stats instanceof Counter.Stats) {
+        counts.addAndGet(((Counter.Stats) stats).count());
+      } else if (stats instanceof Timer.Stats) {
+        times.addAndGet(((Timer.Stats) stats).count());
+      }
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
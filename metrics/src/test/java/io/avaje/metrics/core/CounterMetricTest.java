@@ -147,6 +147,19 @@ class CounterMetricTest {
     assertThat(counterMetric.count()).isEqualTo(0);
   }
 
+  @Test
+  void collectDelta_afterDecrement() {
+    DCounter counterMetric = new DCounter(Metric.ID.of("org.test.mycountermetric.delta"), "{event}");
+    counterMetric.inc(10);
+    assertThat(((Counter.Stats) collect(counterMetric).get(0)).count()).isEqualTo(10);
+
+    counterMetric.dec(4);
+    assertThat(counterMetric.count()).isEqualTo(-4);
+    assertThat(((Counter.Stats) collect(counterMetric, CollectionMode.CUMULATIVE).get(0)).count()).isEqualTo(6);
+    assertThat(((Counter.Stats) collect(counterMetric).get(0)).count()).isEqualTo(-4);
+    assertThat(collect(counterMetric)).isEmpty();
+  }
+
   private List<Metric.Statistics> collect(Metric metric) {
     DStatsCollector collector = new DStatsCollector(NamingMatch.INSTANCE);
     metric.collect(collector);
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class DBucketTimerTest {
@@ -24,11 +25,11 @@ class DBucketTimerTest {
   void test() {
     DBucketTimer bucketTimedMetric = create();
 
-    int[] bucketRanges = bucketTimedMetric.bucketRanges;
+    long[] bucketRanges = bucketTimedMetric.bucketRanges;
     assertEquals(3, bucketRanges.length);
-    assertEquals(100, bucketRanges[0]);
-    assertEquals(200, bucketRanges[1]);
-    assertEquals(300, bucketRanges[2]);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucketRanges[0]);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucketRanges[1]);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(300), bucketRanges[2]);
 
     Timer[] buckets = bucketTimedMetric.buckets;
     assertEquals(4, buckets.length);
@@ -68,6 +69,75 @@ class DBucketTimerTest {
 
     bucketTimedMetric.addEventDuration(false, threeFiftyMillisAsNanos);
     assertThat(collect(buckets[2])).isEmpty();
+    assertThat(collect(buckets[0])).isEmpty();
+
+    List<Metric.Statistics> all = collect(bucketTimedMetric);
+    assertThat(all).hasSize(1);
+    Timer.Stats errorStats = (Timer.Stats) all.get(0);
+    assertEquals("foo.bar.error", errorStats.name());
+    assertThat(errorStats.bucketRange()).isNull();
+    assertEquals(350_000, errorStats.total());
+  }
+
+  @Test
+  void subMillisRanges() {
+    DBucketTimer timer = (DBucketTimer) mgr.timerBuilder("foo.micros")
+      .bucketRanges(TimeUnit.MICROSECONDS, 250, 500, 1500)
+      .build();
+
+    assertEquals("0-0.25", timer.buckets[0].bucketRange());
+    assertEquals("0.25-0.5", timer.buckets[1].bucketRange());
+    assertEquals("0.5-1.5", timer.buckets[2].bucketRange());
+    assertEquals("1.5", timer.buckets[3].bucketRange());
+
+    timer.addEventDuration(true, TimeUnit.MICROSECONDS.toNanos(300));
+    assertEquals(1, collectTimer(timer.buckets[1]).count());
+  }
+
+  @Test
+  void bucketIndex_matchesLinearScan() {
+    long[][] rangeSets = {
+      {1},
+      {100, 200, 300},
+      {1_000, 1_100, 1_200, 1_300, 1_400, 1_500, 4_096, 4_097, 1L << 40},
+      ranges(64, 7_919),
+    };
+    for (long[] ranges : rangeSets) {
+      DBucketTimer timer = (DBucketTimer) new BucketTimerFactory().createBucketMetric(Metric.ID.of("foo.index"), "us", ranges);
+      for (long range : ranges) {
+        for (long duration : new long[]{range - 1, range, range + 1, range * 2 - 1, range * 2}) {
+          assertEquals(linearIndex(ranges, duration), timer.bucketIndex(duration), "duration " + duration);
+        }
+      }
+      assertEquals(0, timer.bucketIndex(0));
+      assertEquals(0, timer.bucketIndex(-5));
+      assertEquals(ranges.length, timer.bucketIndex(Long.MAX_VALUE));
+    }
+  }
+
+  @Test
+  void bucketRanges_whenNotAscending_expectIllegalArgumentException() {
+    assertThatThrownBy(() -> mgr.timerBuilder("foo.invalid").bucketRanges(200, 100))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> mgr.timerBuilder("foo.invalid").bucketRanges(TimeUnit.MICROSECONDS, 0, 10))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static long[] ranges(int count, long step) {
+    long[] ranges = new long[count];
+    for (int i = 0; i < count; i++) {
+      ranges[i] = (i + 1) * step;
+    }
+    return ranges;
+  }
+
+  private static int linearIndex(long[] ranges, long duration) {
+    for (int i = 0; i < ranges.length; i++) {
+      if (duration < ranges[i]) {
+        return i;
+      }
+    }
+    return ranges.length;
   }
 
   @Test
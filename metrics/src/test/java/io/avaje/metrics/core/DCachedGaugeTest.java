@@ -0,0 +1,110 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.GaugeLong;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DCachedGaugeTest {
+
+  private final MetricRegistry registry = Metrics.createRegistry();
+  private final Counter failures = registry.counter("test.failed");
+  private final Counter timeouts = registry.counter("test.timeout");
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final long ttl = TimeUnit.SECONDS.toNanos(10);
+  private final long timeout = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void getAsLong_expectCachedUntilTtl() throws InterruptedException {
+    var calls = new AtomicInteger();
+    var gauge = new DCachedGauge.Longs("test", calls::incrementAndGet, ttl, timeout, failures, timeouts, nanoTime::get);
+
+    gauge.refreshIfDue();
+    awaitValue(gauge, 1);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    assertThat(gauge.getAsLong()).isEqualTo(1);
+    assertThat(gauge.ageMillis()).isEqualTo(5_000);
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    awaitValue(gauge, 2);
+    assertThat(calls.get()).isEqualTo(2);
+  }
+
+  @Test
+  void failure_expectCountedAndLastValueKept() throws InterruptedException {
+    var fail = new AtomicInteger();
+    var gauge = new DCachedGauge.Longs("test", () -> {
+      if (fail.get() > 0) {
+        throw new IllegalStateException("fail");
+      }
+      return 7;
+    }, ttl, timeout, failures, timeouts, nanoTime::get);
+
+    awaitValue(gauge, 7);
+    fail.set(1);
+    nanoTime.addAndGet(ttl);
+    for (int i = 0; i < 100 && failures.count() == 0; i++) {
+      // the prior refresh may still be completing
+      gauge.refreshIfDue();
+      Thread.sleep(10);
+    }
+    assertThat(failures.count()).isEqualTo(1);
+    assertThat(gauge.getAsLong()).isEqualTo(7);
+  }
+
+  @Test
+  void hangingSupplier_expectTimeoutCountedAndInterrupted() throws InterruptedException {
+    var timeout = TimeUnit.MILLISECONDS.toNanos(50);
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+    var gauge = new DCachedGauge.Doubles("test", () -> {
+      started.countDown();
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+        throw new IllegalStateException(e);
+      }
+      return 1.0;
+    }, ttl, timeout, failures, timeouts, nanoTime::get);
+
+    assertThat(gauge.getAsDouble()).isEqualTo(0.0);
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(gauge.getAsDouble()).isEqualTo(0.0);
+    assertThat(timeouts.count()).isEqualTo(1);
+    Thread.sleep(20);
+    assertThat(failures.count()).isEqualTo(0);
+  }
+
+  @Test
+  void builder_async_expectAgeGaugeAndCounters() throws InterruptedException {
+    GaugeLong gauge = registry.gauge("test.async")
+      .async(1, 1, TimeUnit.MINUTES)
+      .ofLongs(() -> 42);
+    for (int i = 0; i < 100 && gauge.value() != 42; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(gauge.value()).isEqualTo(42);
+
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(stats).extracting(Metric.Statistics::name).contains("test.async", "test.async.age");
+  }
+
+  private static void awaitValue(DCachedGauge.Longs gauge, long expected) throws InterruptedException {
+    for (int i = 0; i < 100 && gauge.getAsLong() != expected; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(gauge.getAsLong()).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,123 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DMetricFamilyTest {
+
+  private final MetricRegistry registry = Metrics.createRegistry();
+
+  @Test
+  void timerFamily_with() {
+    MetricFamily<Timer> family = registry.timerFamily("http.server", "route", "status");
+    assertThat(family.name()).isEqualTo("http.server");
+    assertThat(family.labelNames()).containsExactly("route", "status");
+
+    Timer timer = family.with("/customers", "200");
+    assertThat(family.with("/customers", "200")).isSameAs(timer);
+    assertThat(family.with(new String[]{"/customers", "200"})).isSameAs(timer);
+    assertThat(family.with("/customers", "500")).isNotSameAs(timer);
+
+    assertThat(timer.id().tags()).isEqualTo(Tags.of("route:/customers", "status:200"));
+    assertThat(registry.timer("http.server", Tags.of("route:/customers", "status:200"))).isSameAs(timer);
+  }
+
+  @Test
+  void timerFamily_childrenCollected() {
+    MetricFamily<Timer> family = registry.timerFamily("http.client", "host");
+    family.with("a").addEventDuration(true, 1_000_000);
+    family.with("a").addEventDuration(true, 1_000_000);
+    family.with("b").addEventDuration(true, 1_000_000);
+
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(stats).extracting(s -> s.id().tags().value(0) + ":" + ((Timer.Stats) s).count())
+      .containsExactlyInAnyOrder("a:2", "b:1");
+  }
+
+  @Test
+  void timerFamily_builderSettings() {
+    MetricFamily<Timer> family = registry.timerBuilder("http.db")
+      .tags(Tags.of("env:test"))
+      .percentiles(0.5)
+      .family("table", "op", "tenant");
+
+    Timer timer = family.with("customer", "select", "t1");
+    assertThat(family.with("customer", "select", "t1")).isSameAs(timer);
+    assertThat(timer.id().tags()).isEqualTo(Tags.of("env:test", "table:customer", "op:select", "tenant:t1"));
+
+    timer.addEventDuration(true, 1_000_000);
+    Timer.Stats stats = (Timer.Stats) registry.collectMetrics().get(0);
+    assertThat(stats.histogram()).isNotNull();
+  }
+
+  @Test
+  void counterAndMeterFamily() {
+    MetricFamily<Counter> counters = registry.counterBuilder("app.rows").unit("row").family("table");
+    MetricFamily<Meter> meters = registry.meterFamily("app.bytes", "direction", "peer", "proto", "zone");
+
+    counters.with("customer").inc();
+    assertThat(counters.with("customer").count()).isEqualTo(1);
+    assertThat(counters.with("customer").unit()).isEqualTo("row");
+
+    Meter meter = meters.with("in", "p1", "http", "z1");
+    assertThat(meters.with("in", "p1", "http", "z1")).isSameAs(meter);
+  }
+
+  @Test
+  void remove_expectOnlyRemovedChildResolvedAgain() {
+    MetricFamily<Timer> family = registry.timerFamily("http.removed", "route", "status");
+    Timer kept = family.with("/a", "200");
+    Timer removed = family.with("/b", "200");
+
+    assertThat(registry.remove(removed.id())).isSameAs(removed);
+
+    assertThat(family.with("/a", "200")).isSameAs(kept);
+    Timer again = family.with("/b", "200");
+    assertThat(again).isNotSameAs(removed);
+    assertThat(family.with("/b", "200")).isSameAs(again);
+    assertThat(registry.timer("http.removed", again.id().tags())).isSameAs(again);
+  }
+
+  @Test
+  void seriesLimit_expectOverflowReusedUntilRemoval() {
+    registry.seriesLimits(2, 1000);
+    MetricFamily<Counter> family = registry.counterFamily("app.overflow", "user");
+    Counter first = family.with("a");
+    Counter second = family.with("b");
+    Counter overflow = family.with("c");
+
+    assertThat(overflow.id().tags()).isNotEqualTo(Tags.of("user:c"));
+    assertThat(family.with("d")).isSameAs(overflow);
+    assertThat(family.with("a")).isSameAs(first);
+
+    registry.remove(first.id());
+    registry.remove(second.id());
+    assertThat(family.with("d").id().tags()).isEqualTo(Tags.of("user:d"));
+    assertThat(family.with("e")).isSameAs(overflow);
+  }
+
+  @Test
+  void with_wrongNumberOfValues_expectIllegalArgumentException() {
+    MetricFamily<Timer> family = registry.timerFamily("http.wrong", "route", "status");
+    family.with("/a", "200");
+
+    assertThatThrownBy(() -> family.with("/a"))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> family.with("/a", "200", "x"))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> registry.timerFamily("http.none"))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+}
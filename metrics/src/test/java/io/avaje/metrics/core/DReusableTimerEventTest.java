@@ -0,0 +1,95 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Metrics;
+import io.avaje.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DReusableTimerEventTest {
+
+  private final MetricRegistry registry = Metrics.createRegistry();
+
+  @Test
+  void close_recordsSuccessAndReusesInstance() {
+    Timer timer = registry.timer("reuse.close");
+
+    Timer.Event first = timer.startReusableEvent();
+    first.close();
+    try (Timer.Event second = timer.startReusableEvent()) {
+      assertThat(second).isSameAs(first);
+    }
+    assertThat(counts()).containsExactly("reuse.close:2");
+  }
+
+  @Test
+  void endWithError_thenClose_recordsErrorOnly() {
+    Timer timer = registry.timer("reuse.error");
+
+    try (Timer.Event event = timer.startReusableEvent()) {
+      event.endWithError();
+    }
+    assertThat(counts()).containsExactly("reuse.error.error:1");
+  }
+
+  @Test
+  void nested_useDistinctInstances() {
+    Timer outer = registry.timer("reuse.outer");
+    Timer inner = registry.timer("reuse.inner");
+
+    try (Timer.Event outerEvent = outer.startReusableEvent()) {
+      try (Timer.Event innerEvent = inner.startReusableEvent()) {
+        assertThat(innerEvent).isNotSameAs(outerEvent);
+      }
+    }
+    assertThat(counts()).containsExactlyInAnyOrder("reuse.outer:1", "reuse.inner:1");
+  }
+
+  @Test
+  void bucketTimer_close() {
+    Timer timer = registry.timerBuilder("reuse.bucket").bucketRanges(100, 200).build();
+
+    try (Timer.Event event = timer.startReusableEvent()) {
+      assertThat(event).isNotNull();
+    }
+    assertThat(counts()).containsExactly("reuse.bucket:1");
+  }
+
+  @Test
+  void startEvent_endThenClose_recordsOnce() {
+    Timer timer = registry.timer("event.close");
+
+    try (Timer.Event event = timer.startEvent()) {
+      event.end(false);
+    }
+    assertThat(counts()).containsExactly("event.close.error:1");
+  }
+
+  @Test
+  void time_withContext() {
+    Timer timer = registry.timer("context.time");
+    Timer bucketTimer = registry.timerBuilder("context.bucket").bucketRanges(100).build();
+
+    StringBuilder sb = new StringBuilder();
+    timer.timeAccept(sb, b -> b.append("a"));
+    assertThat(timer.timeApply(sb, StringBuilder::length)).isEqualTo(1);
+    bucketTimer.timeAccept(sb, b -> b.append("b"));
+    assertThatThrownBy(() -> timer.timeAccept(sb, b -> {
+      throw new IllegalStateException();
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(sb).hasToString("ab");
+    assertThat(counts()).containsExactlyInAnyOrder("context.time:2", "context.time.error:1", "context.bucket:1");
+  }
+
+  private List<String> counts() {
+    return registry.collectMetrics().stream()
+      .map(stats -> stats.name() + ":" + ((Timer.Stats) stats).count())
+      .collect(Collectors.toList());
+  }
+}
@@ -1,55 +1,90 @@
 package io.avaje.metrics.core;
 
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.MetricRegistry;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 class DisableCollectionTest {
 
+  private final DefaultMetricProvider registry = new DefaultMetricProvider(true);
+
+  @Test
+  void metrics_expectRequestedIds() {
+    Timer timer = registry.timer("disabled.timer");
+    assertThat(timer).isInstanceOf(DDisabled.DisabledTimer.class);
+    assertThat(timer.name()).isEqualTo("disabled.timer");
+    assertThat(registry.timer("disabled.other", Tags.of("a:b")).id()).isEqualTo(Metric.ID.of("disabled.other", Tags.of("a:b")));
+    assertThat(registry.timerBuilder("disabled.bucket").bucketRanges(10, 20).build().name()).isEqualTo("disabled.bucket");
+    assertThat(registry.timerBuilder("disabled.traced").buildTraced())
+      .isInstanceOf(DDisabled.DisabledTimer.class)
+      .extracting(Metric::name).isEqualTo("disabled.traced");
+    assertThat(registry.timerGroup("disabled.group").timer("a").name()).startsWith("disabled.group");
+
+    Counter counter = registry.counterBuilder("disabled.bytes").unit("bytes").build();
+    assertThat(counter).isInstanceOf(DDisabled.DisabledCounter.class);
+    assertThat(counter.name()).isEqualTo("disabled.bytes");
+    assertThat(registry.counter("disabled.counter").name()).isEqualTo("disabled.counter");
+    assertThat(registry.meter("disabled.meter"))
+      .isInstanceOf(DDisabled.DisabledMeter.class)
+      .extracting(Metric::name).isEqualTo("disabled.meter");
+  }
+
   @Test
-  void test() {
-
-//    boolean useContext = false;
-//
-//    System.clearProperty(DefaultMetricManager.METRICS_COLLECTION_DISABLE);
-//    DefaultMetricManager mgr = new DefaultMetricManager();
-//    Assert.assertFalse(mgr.disable);
-//
-//
-//    System.setProperty(DefaultMetricManager.METRICS_COLLECTION_DISABLE, "true");
-//    mgr = new DefaultMetricManager();
-//    Assert.assertTrue(mgr.disable);
-//
-//
-//    TimedMetric timedMetric = mgr.getTimedMetric(mgr.name("check.disabled.timed1"));
-//    assertEquals(0, timedMetric.getSuccessStatistics(false).getCount());
-//    assertEquals(0, timedMetric.getErrorStatistics(false).getCount());
-//
-//    timedMetric.addEventDuration(false, 1000000);
-//    timedMetric.addEventDuration(true, 1000000);
-//    timedMetric.addEventSince(true, 1000000);
-//    timedMetric.operationEnd(1000000, 100, useContext);
-//    timedMetric.operationEnd(1000000, 191, useContext);
-//
-//    assertEquals(0, timedMetric.getSuccessStatistics(false).getCount());
-//    assertEquals(0, timedMetric.getErrorStatistics(false).getCount());
-//
-//    System.clearProperty(DefaultMetricManager.METRICS_COLLECTION_DISABLE);
+  void family_expectOneMetricWithFamilyId() {
+    MetricFamily<Timer> family = registry.timerFamily("disabled.timers", "route", "status");
+    assertThat(family).isInstanceOf(DDisabled.DisabledFamily.class);
+    assertThat(family.name()).isEqualTo("disabled.timers");
+    Timer child = family.with("/a", "200");
+    assertThat(child.name()).isEqualTo("disabled.timers");
+    assertThat(family.with("/b", "500")).isSameAs(child);
+    assertThat(registry.counterFamily("disabled.family", "method").with("GET").name()).isEqualTo("disabled.family");
+    assertThat(registry.meterFamily("disabled.meters", "peer").with("p1")).isInstanceOf(DDisabled.DisabledMeter.class);
+    assertThatThrownBy(() -> family.with("/a"))
+      .isInstanceOf(IllegalArgumentException.class);
   }
 
-  public static void main(String[] args) {
-
-//    System.setProperty("metrics.collection.disable", "true");
-//
-//    DefaultMetricManager mgr = new DefaultMetricManager();
-//    Assert.assertTrue(mgr.disable);
-//
-//    TimedMetric timedMetric = mgr.getTimedMetric(mgr.name("check.disabled.timed1"));
-//    assertEquals(0, timedMetric.getSuccessStatistics(false).getCount());
-//    assertEquals(0, timedMetric.getErrorStatistics(false).getCount());
-//
-//    timedMetric.addEventDuration(true, 1000000);
-//    timedMetric.addEventDuration(false, 1000000);
-//    assertEquals(0, timedMetric.getSuccessStatistics(false).getCount());
-//    assertEquals(0, timedMetric.getErrorStatistics(false).getCount());
+  @Test
+  void record_expectNothingCollected() {
+    Timer timer = registry.timerBuilder("disabled.timer").rates().build();
+    long start = timer.startNanos();
+    assertThat(start).isZero();
+    timer.add(start);
+    timer.addEventDuration(false, 1000);
+    try (Timer.Event event = timer.startEvent()) {
+      event.endWithError();
+    }
+    assertThat(timer.time(() -> "result")).isEqualTo("result");
+    assertThat(timer.rates()).isNull();
+
+    Counter counter = registry.counter("disabled.counter");
+    counter.inc(10);
+    assertThat(counter.count()).isZero();
+
+    Meter meter = registry.meter("disabled.meter");
+    meter.addEvent(100);
+    assertThat(meter.count()).isZero();
+
+    registry.gauge("disabled.gauge", () -> 42L);
+    registry.gauge("disabled.async").async(1, 1, TimeUnit.SECONDS).ofLongs(() -> 42L);
+    registry.registerJvmMetrics();
 
+    assertThat(registry.collectMetrics()).isEmpty();
+  }
+
+  @Test
+  void createRegistry_expectDisabledInherited() {
+    MetricRegistry child = registry.createRegistry();
+    assertThat(child.timer("disabled.child")).isInstanceOf(DDisabled.DisabledTimer.class);
+    assertThat(child.collectMetrics()).isEmpty();
   }
 }
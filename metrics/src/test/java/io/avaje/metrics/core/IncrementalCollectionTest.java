@@ -0,0 +1,101 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalCollectionTest {
+
+  private final DefaultMetricProvider registry = new DefaultMetricProvider();
+
+  @Test
+  void delta_expectOnlyTouchedAndGauges() {
+    registry.incrementalCollection();
+    Counter counter = registry.counter("inc.counter");
+    Meter meter = registry.meter("inc.meter");
+    Timer timer = registry.timer("inc.timer", Tags.of("id:1"));
+    Timer bucketTimer = registry.timerBuilder("inc.bucket").bucketRanges(100).build();
+    registry.gauge("inc.gauge", () -> 42L);
+
+    assertThat(names(registry.collectMetrics())).containsExactly("inc.gauge");
+
+    counter.inc();
+    counter.inc();
+    meter.addEvent(10);
+    timer.addEventDuration(true, 1_000);
+    bucketTimer.addEventDuration(true, 1_000);
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(names(stats)).containsExactlyInAnyOrder("inc.gauge", "inc.counter", "inc.meter", "inc.timer", "inc.bucket");
+    assertThat(stats).filteredOn(s -> s instanceof Counter.Stats)
+      .extracting(s -> ((Counter.Stats) s).count())
+      .containsExactly(2L);
+
+    counter.dec();
+    assertThat(names(registry.collectMetrics())).containsExactlyInAnyOrder("inc.gauge", "inc.counter");
+    assertThat(names(registry.collectMetrics())).containsExactly("inc.gauge");
+  }
+
+  @Test
+  void cumulative_expectAllMetrics() {
+    registry.incrementalCollection();
+    registry.counter("inc.a").inc();
+    registry.counter("inc.b").inc();
+    registry.collectMetrics();
+
+    assertThat(names(registry.collectMetrics(CollectionMode.CUMULATIVE))).containsExactlyInAnyOrder("inc.a", "inc.b");
+  }
+
+  @Test
+  void enabledAfterUpdates_expectPendingCollected() {
+    Counter counter = registry.counter("inc.before");
+    counter.inc();
+    registry.incrementalCollection();
+
+    assertThat(names(registry.collectMetrics())).containsExactly("inc.before");
+    counter.inc();
+    assertThat(names(registry.collectMetrics())).containsExactly("inc.before");
+  }
+
+  @Test
+  void expire_expectIdleSeriesSwept() {
+    registry.incrementalCollection().expireAfter(2);
+    Counter idle = registry.counter("inc.idle");
+    Counter active = registry.counter("inc.active");
+
+    for (int i = 0; i < 4; i++) {
+      active.inc();
+      registry.collectMetrics();
+    }
+    assertThat(registry.metrics()).containsExactly(active);
+    assertThat(registry.counter("inc.idle")).isNotSameAs(idle);
+  }
+
+  @Test
+  void seriesLimits_expectOverflowAndDroppedCollected() {
+    registry.seriesLimits(2, 1000).incrementalCollection();
+    for (int i = 0; i < 5; i++) {
+      registry.counter("inc.limited", Tags.of("id:" + i)).inc();
+    }
+
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(stats).hasSize(4);
+    assertThat(stats).extracting(s -> String.join(",", s.id().tags().array()) + "=" + ((Counter.Stats) s).count())
+      .containsExactlyInAnyOrder("id:0=1", "id:1=1", "overflow:true=3", "=3");
+
+    registry.counter("inc.limited", Tags.of("id:9")).inc();
+    assertThat(names(registry.collectMetrics())).containsExactlyInAnyOrder("inc.limited", "metrics.series.dropped");
+  }
+
+  private static List<String> names(List<Metric.Statistics> stats) {
+    return stats.stream().map(s -> s.id().name()).collect(Collectors.toList());
+  }
+}
@@ -105,6 +105,66 @@ class MeterTest {
     assertThat(collect(metric)).isEmpty();
   }
 
+  @Test
+  void percentiles() {
+    var registry = Metrics.createRegistry();
+    Meter meter = registry.meterBuilder("org.test.histogram.meter").unit("By").percentiles(0.5, 0.99).build();
+    for (int i = 1; i <= 100; i++) {
+      meter.addEvent(i);
+    }
+
+    Meter.Stats stats = (Meter.Stats) registry.collectMetrics().get(0);
+    assertEquals(100, stats.count());
+    assertThat(stats.histogram()).isNotNull();
+    assertThat(stats.histogram().percentileNames()).containsExactly("p50", "p99");
+    assertThat(stats.histogram().percentiles()).containsExactly(51, 99);
+  }
+
+  @Test
+  void rates_expectTrackedFromCount() {
+    var registry = Metrics.createRegistry();
+    Meter plain = registry.meter("org.test.meter.plain");
+    Meter meter = registry.meterBuilder("org.test.meter.rates").rates().build();
+    assertThat(plain.rates()).isNull();
+    assertThat(meter.rates()).isSameAs(registry.meterBuilder("org.test.meter.rates").rates().build().rates());
+
+    for (int i = 0; i < 10; i++) {
+      meter.addEvent(i);
+    }
+    registry.collectMetrics();
+    var rates = (ValueRates) meter.rates();
+    rates.tick();
+    assertEquals(2.0, rates.oneMinuteRate());
+  }
+
+  @Test
+  void rateGauges_expectRegisteredAsGauges() {
+    var registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("org.test.timer.rates").bucketRanges(10, 20).rateGauges().build();
+    timer.addEventDuration(true, 5_000_000);
+    timer.addEventDuration(true, 15_000_000);
+    timer.addEventDuration(false, 1_000_000);
+    ((ValueRates) timer.rates()).tick();
+
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(stats).filteredOn(s -> s instanceof GaugeDouble.Stats)
+      .extracting(Metric.Statistics::name)
+      .containsExactlyInAnyOrder("org.test.timer.rates.rate1m", "org.test.timer.rates.rate5m", "org.test.timer.rates.rate15m");
+    assertThat(stats).filteredOn(s -> s.name().equals("org.test.timer.rates.rate1m"))
+      .extracting(s -> ((GaugeDouble.Stats) s).value())
+      .containsExactly(0.6);
+  }
+
+  @Test
+  void rateGauges_whenOwnerRemoved_expectGaugesRemoved() {
+    var registry = new DefaultMetricProvider();
+    Meter meter = registry.meterBuilder("org.test.meter.rates").rateGauges().build();
+    assertThat(registry.metrics()).hasSize(4);
+
+    registry.remove(meter.id());
+    assertThat(registry.metrics()).isEmpty();
+  }
+
   private List<Metric.Statistics> collect(Metric metric) {
     DStatsCollector collector = new DStatsCollector(NamingMatch.INSTANCE);
     metric.collect(collector);
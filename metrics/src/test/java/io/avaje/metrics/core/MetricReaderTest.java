@@ -0,0 +1,127 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Meter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricReader;
+import io.avaje.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricReaderTest {
+
+  private final DefaultMetricProvider registry = new DefaultMetricProvider();
+
+  @Test
+  void reader_expectSameInstanceForName() {
+    MetricReader statsd = registry.reader("statsd");
+    assertThat(registry.reader("statsd")).isSameAs(statsd);
+    assertThat(registry.reader("graphite")).isNotSameAs(statsd);
+    assertThat(statsd.name()).isEqualTo("statsd");
+  }
+
+  @Test
+  void delta_expectIndependentCursorsPerReader() {
+    MetricReader statsd = registry.reader("statsd");
+    MetricReader graphite = registry.reader("graphite");
+    Counter counter = registry.counter("reader.counter");
+    Meter meter = registry.meter("reader.meter");
+
+    counter.inc(5);
+    meter.addEvent(100);
+    assertThat(counterCount(statsd.collectMetrics())).isEqualTo(5);
+
+    counter.inc(2);
+    meter.addEvent(300);
+    assertThat(counterCount(graphite.collectMetrics())).isEqualTo(7);
+    assertThat(counterCount(statsd.collectMetrics())).isEqualTo(2);
+    assertThat(counterCount(registry.collectMetrics())).isEqualTo(7);
+
+    assertThat(statsd.collectMetrics()).isEmpty();
+    assertThat(graphite.collectMetrics()).isEmpty();
+  }
+
+  @Test
+  void delta_expectMaxPerReader() {
+    MetricReader first = registry.reader("first");
+    MetricReader second = registry.reader("second");
+    Timer timer = registry.timer("reader.timer");
+
+    timer.addEventDuration(true, 500_000);
+    Timer.Stats firstStats = (Timer.Stats) first.collectMetrics().get(0);
+    assertThat(firstStats.count()).isEqualTo(1);
+    assertThat(firstStats.max()).isEqualTo(500);
+
+    timer.addEventDuration(true, 200_000);
+    Timer.Stats secondStats = (Timer.Stats) second.collectMetrics().get(0);
+    assertThat(secondStats.count()).isEqualTo(2);
+    assertThat(secondStats.max()).isEqualTo(500);
+  }
+
+  @Test
+  void cumulative_expectDeltaReaderUnaffected() {
+    MetricReader prometheus = registry.reader("prometheus");
+    Counter counter = registry.counter("reader.cumulative");
+
+    counter.inc(3);
+    assertThat(counterCount(prometheus.collectMetrics(CollectionMode.CUMULATIVE))).isEqualTo(3);
+    counter.inc(1);
+    assertThat(counterCount(prometheus.collectMetrics(CollectionMode.CUMULATIVE))).isEqualTo(4);
+    assertThat(counterCount(registry.collectMetrics())).isEqualTo(4);
+  }
+
+  @Test
+  void gaugeChangesOnly_expectReportedToEachReader() {
+    MetricReader first = registry.reader("first");
+    MetricReader second = registry.reader("second");
+    registry.register(DGaugeLong.of(Metric.ID.of("reader.gauge"), () -> 42, true));
+
+    assertThat(first.collectMetrics()).hasSize(1);
+    assertThat(first.collectMetrics()).isEmpty();
+    assertThat(second.collectMetrics()).hasSize(1);
+  }
+
+  @Test
+  void close_expectReaderNumberReusedWithClearedCursors() {
+    Counter counter = registry.counter("reader.reuse");
+    counter.inc(2);
+    MetricReader first = registry.reader("first");
+    assertThat(counterCount(first.collectMetrics())).isEqualTo(2);
+    first.close();
+    assertThatThrownBy(first::collectMetrics).isInstanceOf(IllegalStateException.class);
+
+    counter.inc();
+    MetricReader second = registry.reader("second");
+    assertThat(counterCount(second.collectMetrics())).isEqualTo(3);
+  }
+
+  @Test
+  void close_expectReleasedForExpiry() {
+    registry.expireAfter(1);
+    MetricReader other = registry.reader("other");
+    other.collectMetrics();
+    Counter counter = registry.counter("reader.expire");
+    counter.inc();
+
+    registry.collectMetrics();
+    registry.collectMetrics();
+    assertThat(registry.metrics()).contains(counter);
+
+    other.close();
+    assertThat(registry.reader("other")).isNotSameAs(other);
+    registry.collectMetrics();
+    assertThat(registry.metrics()).doesNotContain(counter);
+  }
+
+  private static long counterCount(List<Metric.Statistics> stats) {
+    return stats.stream()
+      .filter(s -> s instanceof Counter.Stats)
+      .mapToLong(s -> ((Counter.Stats) s).count())
+      .sum();
+  }
+}
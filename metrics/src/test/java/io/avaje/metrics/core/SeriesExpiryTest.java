@@ -0,0 +1,175 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.GaugeLong;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.MetricReader;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import io.avaje.metrics.TimerGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeriesExpiryTest {
+
+  private final DefaultMetricProvider registry = new DefaultMetricProvider();
+
+  @Test
+  void remove() {
+    Counter counter = registry.counter("remove.counter", Tags.of("id:1"));
+    counter.inc();
+
+    Metric removed = registry.remove(counter.id());
+    assertThat(removed).isSameAs(counter);
+    assertThat(registry.remove(counter.id())).isNull();
+    assertThat(registry.metrics()).isEmpty();
+    assertThat(registry.collectMetrics()).isEmpty();
+
+    Counter recreated = registry.counter("remove.counter", Tags.of("id:1"));
+    assertThat(recreated).isNotSameAs(counter);
+  }
+
+  @Test
+  void expire_delta_whenIdle_expectRemovedAfterPendingCollected() {
+    registry.expireAfter(2);
+    Timer timer = registry.timer("expire.timer", Tags.of("id:1"));
+    Counter active = registry.counter("expire.active");
+    GaugeLong gauge = registry.gauge("expire.gauge", () -> 42);
+    timer.addEventDuration(true, 1_000);
+
+    assertThat(names(registry.collectMetrics())).contains("expire.timer");
+    active.inc();
+    registry.collectMetrics();
+    assertThat(registry.metrics()).contains(timer);
+    active.inc();
+    registry.collectMetrics();
+    assertThat(registry.metrics()).doesNotContain(timer).contains(active, gauge);
+
+    assertThat(registry.timer("expire.timer", Tags.of("id:1"))).isNotSameAs(timer);
+  }
+
+  @Test
+  void expire_cumulative_whenCountUnchanged_expectRemoved() {
+    registry.expireAfter(1);
+    Counter counter = registry.counter("expire.cumulative");
+    counter.inc();
+
+    assertThat(names(registry.collectMetrics(CollectionMode.CUMULATIVE))).contains("expire.cumulative");
+    assertThat(registry.metrics()).contains(counter);
+    assertThat(names(registry.collectMetrics(CollectionMode.CUMULATIVE))).contains("expire.cumulative");
+    assertThat(registry.metrics()).doesNotContain(counter);
+  }
+
+  @Test
+  void expire_whenRecreated_expectNewInstanceRetained() {
+    registry.expireAfter(1);
+    Counter counter = registry.counter("expire.recreate");
+    registry.remove(counter.id());
+    Counter recreated = registry.counter("expire.recreate");
+    recreated.inc();
+
+    registry.collectMetrics();
+    assertThat(registry.metrics()).containsExactly(recreated);
+  }
+
+  @Test
+  void expire_heldMetric_expectRegisteredAgainOnUpdate() {
+    registry.expireAfter(1);
+    Counter held = registry.counter("expire.held");
+    Timer heldTimer = registry.timerBuilder("expire.heldTimer").rateGauges().build();
+    registry.collectMetrics();
+    assertThat(registry.metrics()).extracting(Metric::name).doesNotContain("expire.held", "expire.heldTimer", "expire.heldTimer.rate1m");
+
+    held.inc(3);
+    heldTimer.addEventDuration(true, 1_000);
+    assertThat(registry.metrics()).contains(held, heldTimer);
+    assertThat(registry.metrics()).extracting(Metric::name).contains("expire.heldTimer.rate1m");
+    assertThat(registry.counter("expire.held")).isSameAs(held);
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(stats.stream().filter(stat -> stat.name().equals("expire.held")))
+      .singleElement()
+      .satisfies(stat -> assertThat(((Counter.Stats) stat).count()).isEqualTo(3));
+
+    registry.collectMetrics();
+    assertThat(registry.metrics()).doesNotContain(held, heldTimer);
+    held.inc();
+    assertThat(registry.metrics()).contains(held);
+  }
+
+  @Test
+  void expire_timerGroupAndFamily_expectResolvedAgain() {
+    registry.expireAfter(1);
+    TimerGroup group = registry.timerGroup("expire.group");
+    MetricFamily<Timer> family = registry.timerFamily("expire.family", "route");
+    Timer groupTimer = group.timer("a");
+    Timer familyTimer = family.with("a");
+
+    registry.collectMetrics();
+    assertThat(registry.metrics()).isEmpty();
+
+    Timer groupAgain = group.timer("a");
+    Timer familyAgain = family.with("a");
+    assertThat(groupAgain).isNotSameAs(groupTimer);
+    assertThat(familyAgain).isNotSameAs(familyTimer);
+    groupAgain.addEventDuration(true, 1_000);
+    familyAgain.addEventDuration(true, 1_000);
+    assertThat(names(registry.collectMetrics())).containsExactlyInAnyOrder("expire.group.a", "expire.family");
+  }
+
+  @Test
+  void expire_readers_expectRemovedWhenIdleForEveryReader() {
+    registry.expireAfter(1);
+    MetricReader other = registry.reader("other");
+    other.collectMetrics();
+    Counter counter = registry.counter("expire.readers");
+    counter.inc();
+
+    assertThat(names(registry.collectMetrics())).contains("expire.readers");
+    registry.collectMetrics();
+    assertThat(registry.metrics()).contains(counter);
+
+    List<Metric.Statistics> stats = other.collectMetrics();
+    assertThat(names(stats)).containsExactly("expire.readers");
+    assertThat(((Counter.Stats) stats.get(0)).count()).isEqualTo(1);
+    registry.collectMetrics();
+    assertThat(registry.metrics()).contains(counter);
+    other.collectMetrics();
+    assertThat(registry.metrics()).doesNotContain(counter);
+  }
+
+  @Test
+  void retire_expectCollectedOnceByOtherReaders() {
+    DSeriesExpiry expiry = new DSeriesExpiry(1);
+    expiry.nextCollection(0);
+    expiry.nextCollection(1);
+    expiry.nextCollection(2);
+    Counter counter = registry.counter("expire.retire");
+    expiry.retire(counter, 0);
+
+    List<Metric> drained = new ArrayList<>();
+    expiry.drain(0, drained::add);
+    assertThat(drained).isEmpty();
+    expiry.drain(1, drained::add);
+    expiry.drain(1, drained::add);
+    expiry.drain(2, drained::add);
+    assertThat(drained).containsExactly(counter, counter);
+  }
+
+  @Test
+  void expireAfter_whenNegative_expectIllegalArgumentException() {
+    assertThatThrownBy(() -> registry.expireAfter(-1))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<String> names(List<Metric.Statistics> stats) {
+    return stats.stream().map(s -> s.id().name()).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,120 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.Counter;
+import io.avaje.metrics.Metric;
+import io.avaje.metrics.MetricFamily;
+import io.avaje.metrics.Tags;
+import io.avaje.metrics.Timer;
+import io.avaje.metrics.TimerGroup;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeriesLimitTest {
+
+  private static final Tags OVERFLOW = Tags.of("overflow:true");
+
+  private final DefaultMetricProvider registry = new DefaultMetricProvider();
+
+  @Test
+  void perName_whenLimitReached_expectOverflowSeries() {
+    registry.seriesLimits(3, 100);
+    Timer t0 = registry.timer("limit.timer", Tags.of("id:0"));
+    registry.timer("limit.timer", Tags.of("id:1"));
+    registry.timer("limit.timer", Tags.of("id:2"));
+
+    Timer over3 = registry.timer("limit.timer", Tags.of("id:3"));
+    Timer over4 = registry.timer("limit.timer", Tags.of("id:4"));
+    assertThat(over3).isSameAs(over4);
+    assertThat(over3.id()).isEqualTo(Metric.ID.of("limit.timer", OVERFLOW));
+
+    // existing series keep resolving to themselves
+    assertThat(registry.timer("limit.timer", Tags.of("id:0"))).isSameAs(t0);
+    // other names are not affected by the per name limit
+    assertThat(registry.timer("limit.other", Tags.of("id:3")).id().tags()).isEqualTo(Tags.of("id:3"));
+
+    assertThat(registry.counter("metrics.series.dropped").count()).isEqualTo(2);
+  }
+
+  @Test
+  void overLimit_sameTagsRepeated_expectDroppedOnce() {
+    registry.seriesLimits(1, 100);
+    registry.counter("limit.repeat", Tags.of("id:0"));
+
+    Counter first = registry.counter("limit.repeat", Tags.of("id:1"));
+    Counter second = registry.counter("limit.repeat", Tags.of("id:1"));
+    assertThat(second).isSameAs(first);
+    assertThat(registry.counter("metrics.series.dropped").count()).isEqualTo(1);
+
+    registry.counter("limit.repeat", Tags.of("id:2"));
+    assertThat(registry.counter("metrics.series.dropped").count()).isEqualTo(2);
+  }
+
+  @Test
+  void total_whenLimitReached_expectOverflowSeries() {
+    registry.seriesLimits(100, 2);
+    registry.counter("limit.a", Tags.of("id:0"));
+    registry.counter("limit.b", Tags.of("id:0"));
+
+    Counter overA = registry.counter("limit.a", Tags.of("id:1"));
+    assertThat(overA.id()).isEqualTo(Metric.ID.of("limit.a", OVERFLOW));
+
+    // new names share a single overflow series per type
+    Counter overC = registry.counter("limit.c", Tags.of("id:0"));
+    Counter overD = registry.counter("limit.d");
+    assertThat(overC).isSameAs(overD);
+    assertThat(overC.id()).isEqualTo(Metric.ID.of("metrics.overflow.counter", OVERFLOW));
+    assertThat(registry.timer("limit.e").id().name()).isEqualTo("metrics.overflow.timer");
+
+    assertThat(registry.counter("metrics.series.dropped").count()).isEqualTo(4);
+    assertThat(registry.metrics()).hasSize(6);
+  }
+
+  @Test
+  void perName_overflowOfOtherType_expectIllegalStateException() {
+    registry.seriesLimits(1, 1000);
+    registry.timer("limit.mixed", Tags.of("a:1"));
+    assertThat(registry.timer("limit.mixed", Tags.of("a:2")).id().tags()).isEqualTo(OVERFLOW);
+
+    assertThatThrownBy(() -> registry.counter("limit.mixed", Tags.of("a:3")))
+      .isInstanceOf(IllegalStateException.class);
+    assertThat(registry.timerBuilder("limit.mixed").tags(Tags.of("a:4")).buildTraced().id().tags()).isEqualTo(OVERFLOW);
+
+    registry.meterBuilder("limit.unit").unit("By").tags(Tags.of("a:1")).build();
+    registry.meterBuilder("limit.unit").unit("By").tags(Tags.of("a:2")).build();
+    assertThatThrownBy(() -> registry.meterBuilder("limit.unit").unit("ms").tags(Tags.of("a:3")).build())
+      .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void timerGroup_whenLimitReached_expectOverflowSeries() {
+    registry.seriesLimits(100, 2);
+    TimerGroup group = registry.timerGroup("web.api");
+    group.timer("one");
+    group.timer("two");
+
+    Timer overflow = group.timer("three");
+    assertThat(overflow.id().tags()).isEqualTo(OVERFLOW);
+    assertThat(group.timer("four")).isSameAs(overflow);
+  }
+
+  @Test
+  void family_whenLimitReached_expectOverflowChild() {
+    registry.seriesLimits(2, 100);
+    MetricFamily<Timer> family = registry.timerFamily("limit.family", "route");
+    Timer a = family.with("a");
+    family.with("b");
+
+    Timer over = family.with("c");
+    assertThat(over.id().tags()).isEqualTo(OVERFLOW);
+    assertThat(family.with("a")).isSameAs(a);
+    assertThat(family.with("d")).isSameAs(over);
+  }
+
+  @Test
+  void seriesLimits_whenNotPositive_expectIllegalArgumentException() {
+    assertThatThrownBy(() -> registry.seriesLimits(0, 10))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -1,5 +1,6 @@
 package io.avaje.metrics.core;
 
+import io.avaje.metrics.MetricRegistry;
 import io.avaje.metrics.Metrics;
 import io.avaje.metrics.Timer;
 import io.avaje.metrics.TimerGroup;
@@ -38,4 +39,68 @@ class TimedGroupTest {
     assertNotSame(timedMetric, two);
     assertEquals("java.lang.Object.two", two.name());
   }
+
+  enum Operation {
+    FIND, INSERT, DELETE
+  }
+
+  @Test
+  void indexed_expectSameTimerByIndexEnumAndName() {
+    TimerGroup group = Metrics.timerGroup("org.test.Ops", Operation.class);
+
+    Timer insert = group.timer(Operation.INSERT);
+    assertEquals("org.test.Ops.INSERT", insert.name());
+    assertSame(insert, group.timer(1));
+    assertSame(insert, group.timer("INSERT"));
+
+    MetricRegistry registry = Metrics.createRegistry();
+    TimerGroup rpc = registry.timerGroup("org.test.Rpc", Operation.class);
+    rpc.addEventDuration(2, true, 1000);
+    assertEquals("org.test.Rpc.DELETE", registry.collectMetrics().get(0).name());
+    assertThrows(IndexOutOfBoundsException.class, () -> group.timer(3));
+  }
+
+  @Test
+  void indexed_expectResolvedAgainAfterRemoval() {
+    MetricRegistry registry = Metrics.createRegistry();
+    TimerGroup group = registry.timerGroup("org.test.Rpc", "get", "put");
+
+    Timer get = group.timer(0);
+    Timer put = group.timer(1);
+    assertSame(get, registry.timer("org.test.Rpc.get"));
+    registry.remove(get.id());
+
+    assertSame(put, group.timer(1));
+    assertSame(put, group.timer("put"));
+    Timer resolved = group.timer(0);
+    assertNotSame(get, resolved);
+    assertSame(resolved, registry.timer("org.test.Rpc.get"));
+    assertSame(resolved, group.timer("get"));
+  }
+
+  @Test
+  void removal_expectOnlyRemovedTimerRegisteredAgainOnUse() {
+    var registry = new DefaultMetricProvider();
+    TimerGroup group = registry.timerGroup("org.test.Rpc", "get", "put");
+    Timer get = group.timer(0);
+    Timer put = group.timer(1);
+
+    registry.remove(get.id());
+    assertFalse(registry.registered(get));
+    assertSame(put, group.timer(1));
+    assertFalse(registry.registered(get), "removed timer not registered again until used");
+    assertTrue(registry.registered(put));
+  }
+
+  @Test
+  void dynamicNames_expectBoundedCache() {
+    MetricRegistry registry = Metrics.createRegistry();
+    TimerGroup group = registry.timerGroup("org.test.Dynamic");
+    for (int i = 0; i < DTimerGroup.MAX_CACHED; i++) {
+      group.timer("n" + i);
+    }
+    Timer beyond = group.timer("beyond");
+    assertEquals("org.test.Dynamic.beyond", beyond.name());
+    assertSame(beyond, group.timer("beyond"));
+  }
 }
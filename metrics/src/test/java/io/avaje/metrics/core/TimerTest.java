@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -93,6 +94,20 @@ class TimerTest {
     assertThat(registry.timer("api.fastPath.timer.builder", tags)).isSameAs(timer);
   }
 
+  @Test
+  void withTags_whenEqualTags_expectSameMetricAndId() {
+    var registry = Metrics.createRegistry();
+
+    var timer = registry.timer("api.fastPath.timer.equal", Tags.of("scope:timer"));
+    var other = registry.timer("api.fastPath.timer.equal", Tags.of("scope:timer"));
+
+    assertThat(other).isSameAs(timer);
+    assertThat(other.id()).isSameAs(timer.id());
+    assertThat(registry.timer("api.fastPath.timer.equal")).isNotSameAs(timer);
+    assertThatThrownBy(() -> registry.counter("api.fastPath.timer.equal", Tags.of("scope:timer")))
+      .isInstanceOf(IllegalStateException.class);
+  }
+
   private void resetStatistics() {
     Metrics.collectMetrics();
   }
@@ -226,7 +241,7 @@ class TimerTest {
     assertEquals(5_000, ((Timer.Stats) stats3.get(0)).max());
     assertEquals(2, ((Timer.Stats) stats3.get(1)).count());
     assertEquals(9_000, ((Timer.Stats) stats3.get(1)).total());
-    assertEquals(2_000, ((Timer.Stats) stats3.get(1)).max());
+    assertEquals(7_000, ((Timer.Stats) stats3.get(1)).max());
 
     List<Metric.Statistics> stats4 = registry.collectMetrics();
     assertThat(stats4).hasSize(2);
@@ -235,11 +250,56 @@ class TimerTest {
     assertEquals(5_000, ((Timer.Stats) stats4.get(0)).max());
     assertEquals(2, ((Timer.Stats) stats4.get(1)).count());
     assertEquals(9_000, ((Timer.Stats) stats4.get(1)).total());
-    assertEquals(2_000, ((Timer.Stats) stats4.get(1)).max());
+    assertEquals(7_000, ((Timer.Stats) stats4.get(1)).max());
     assertThat(registry.collectMetrics()).isEmpty();
   }
 
+  @Test
+  void maxWindow_expectMaxOfInterval() {
+    MetricRegistry registry = Metrics.createRegistry();
+    Timer metric = registry.timerBuilder("test.timer.maxWindow")
+      .maxWindow(1, 1, TimeUnit.NANOSECONDS)
+      .build();
+
+    metric.addEventDuration(true, TimeUnit.MILLISECONDS.toNanos(5));
+    assertEquals(5_000, ((Timer.Stats) registry.collectMetrics().get(0)).max());
+    metric.addEventDuration(true, TimeUnit.MILLISECONDS.toNanos(2));
+    assertEquals(2_000, ((Timer.Stats) registry.collectMetrics().get(0)).max());
+  }
+
 //
+  @Test
+  void percentiles() {
+    MetricRegistry registry = Metrics.createRegistry();
+    Timer timer = registry.timerBuilder("org.test.histogram.timer").percentiles(0.99, 0.5).build();
+    for (int i = 1; i <= 100; i++) {
+      timer.addEventDuration(true, TimeUnit.MILLISECONDS.toNanos(i));
+    }
+    timer.addEventDuration(false, TimeUnit.MILLISECONDS.toNanos(1));
+
+    List<Metric.Statistics> stats = registry.collectMetrics();
+    assertThat(stats).hasSize(2);
+    Timer.Stats success = (Timer.Stats) stats.get(0);
+    assertEquals(100, success.count());
+    Meter.Histogram histogram = success.histogram();
+    assertThat(histogram).isNotNull();
+    assertThat(histogram.quantiles()).containsExactly(0.5, 0.99);
+    assertThat(histogram.percentiles()[0]).isBetween(50_000L, 53_125L);
+    assertThat(histogram.percentiles()[1]).isBetween(99_000L, 105_188L);
+    assertThat(((Timer.Stats) stats.get(1)).histogram()).isNull();
+
+    assertThat(registry.collectMetrics()).isEmpty();
+  }
+
+  @Test
+  void percentiles_withBucketRanges_expectIllegalStateException() {
+    var builder = Metrics.createRegistry().timerBuilder("org.test.histogram.invalid")
+      .bucketRanges(100)
+      .percentiles(0.5);
+
+    assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+  }
+
 //  @Test
 //  public void addEventSince() {
 //
@@ -9,6 +9,9 @@ import io.avaje.metrics.spi.SpiTimedSpanFactory;
 import io.avaje.metrics.spi.SpiTimedSpanFactory.SpanMode;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 import static io.avaje.metrics.spi.SpiTimedSpanFactory.SpanMode.CHILD;
 import static io.avaje.metrics.spi.SpiTimedSpanFactory.SpanMode.ROOT;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -109,10 +112,86 @@ class TracedTimerTest {
     assertThat(testTimedSpanFactory.lastSpanMode).isEqualTo(ROOT);
   }
 
+  @Test
+  void withTracing_spanThreshold_onlyEndsSlowEvents() {
+    TestTimedSpanFactory testTimedSpanFactory = new TestTimedSpanFactory();
+    long threshold = TimeUnit.MILLISECONDS.toNanos(10);
+    Timer tracedTimer = ((TraceableTimer) new DTimer(Metric.ID.of("app.service.method"))).withTracing(testTimedSpanFactory, CHILD, threshold);
+    var error = new IllegalStateException("boom");
+
+    tracedTimer.time(() -> "ok");
+    tracedTimer.addEventDuration(true, threshold);
+    tracedTimer.addEventDuration(false, threshold + 1);
+    tracedTimer.startEvent().endWithError(error);
+    assertThat(testTimedSpanFactory.endedCount).isEqualTo(1);
+
+    tracedTimer.addErr(System.nanoTime() - 2 * threshold);
+
+    assertThat(testTimedSpanFactory.startCount).isEqualTo(0);
+    assertThat(testTimedSpanFactory.endedCount).isEqualTo(2);
+    assertThat(testTimedSpanFactory.lastError).isNull();
+  }
+
+  @Test
+  void withTracing_spanThreshold_bucketTimerPassesError() {
+    TestTimedSpanFactory testTimedSpanFactory = new TestTimedSpanFactory();
+    Timer bucketTimer = new BucketTimerFactory().createMetric(Metric.ID.of("app.service.bucketed"), "", new int[]{100, 200});
+    Timer tracedBucketTimer = ((TraceableTimer) bucketTimer).withTracing(testTimedSpanFactory, CHILD, 1);
+    var error = new IllegalArgumentException("bad");
+
+    Timer.Event event = tracedBucketTimer.startEvent();
+    event.endWithError(error);
+
+    assertThat(testTimedSpanFactory.startCount).isEqualTo(0);
+    assertThat(testTimedSpanFactory.endedCount).isEqualTo(1);
+    assertThat(testTimedSpanFactory.lastError).isSameAs(error);
+  }
+
+  @Test
+  void withTracing_spanThreshold_bucketTimerErrorPathsPassError() {
+    TestTimedSpanFactory testTimedSpanFactory = new TestTimedSpanFactory();
+    long threshold = TimeUnit.MILLISECONDS.toNanos(10);
+    Timer bucketTimer = new BucketTimerFactory().createMetric(Metric.ID.of("app.service.bucketed"), "", new int[]{100, 200});
+    Timer tracedBucketTimer = ((TraceableTimer) bucketTimer).withTracing(testTimedSpanFactory, CHILD, threshold);
+    var error = new IllegalStateException("boom");
+    var thrown = new IllegalArgumentException("bad");
+
+    tracedBucketTimer.addErr(System.nanoTime() - 2 * threshold, error);
+    assertThat(testTimedSpanFactory.endedCount).isEqualTo(1);
+    assertThat(testTimedSpanFactory.lastError).isSameAs(error);
+
+    assertThatThrownBy(() -> tracedBucketTimer.time(() -> {
+      long until = System.nanoTime() + 2 * threshold;
+      while (System.nanoTime() < until) {
+        LockSupport.parkNanos(threshold);
+      }
+      throw thrown;
+    })).isSameAs(thrown);
+
+    assertThat(testTimedSpanFactory.startCount).isEqualTo(0);
+    assertThat(testTimedSpanFactory.endedCount).isEqualTo(2);
+    assertThat(testTimedSpanFactory.lastError).isSameAs(thrown);
+  }
+
+  @Test
+  void withTracing_spanThreshold_timerAddErrPassesError() {
+    TestTimedSpanFactory testTimedSpanFactory = new TestTimedSpanFactory();
+    long threshold = TimeUnit.MILLISECONDS.toNanos(10);
+    Timer tracedTimer = ((TraceableTimer) new DTimer(Metric.ID.of("app.service.method"))).withTracing(testTimedSpanFactory, CHILD, threshold);
+    var error = new IllegalStateException("boom");
+
+    tracedTimer.addErr(System.nanoTime() - 2 * threshold, error);
+
+    assertThat(testTimedSpanFactory.endedCount).isEqualTo(1);
+    assertThat(testTimedSpanFactory.lastError).isSameAs(error);
+  }
+
   private static final class TestTimedSpanFactory implements SpiTimedSpanFactory {
 
     private int prepareCount;
     private int startCount;
+    private int endedCount;
+    private Throwable lastError;
     private TestTimedSpan lastSpan;
     private SpanMode lastSpanMode;
 
@@ -125,10 +204,19 @@ class TracedTimerTest {
     public Prepared prepare(Metric.ID id, String bucketRange, SpanMode spanMode) {
       prepareCount++;
       lastSpanMode = spanMode;
-      return () -> {
-        startCount++;
-        lastSpan = new TestTimedSpan();
-        return lastSpan;
+      return new Prepared() {
+        @Override
+        public SpiSpan start() {
+          startCount++;
+          lastSpan = new TestTimedSpan();
+          return lastSpan;
+        }
+
+        @Override
+        public void ended(long durationNanos, boolean success, Throwable error) {
+          endedCount++;
+          lastError = error;
+        }
       };
     }
   }
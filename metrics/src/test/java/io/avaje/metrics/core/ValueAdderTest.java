@@ -13,26 +13,54 @@ class ValueAdderTest {
     adder.add(100);
     adder.add(50);
 
-    assertEquals(150, adder.get(CollectionMode.CUMULATIVE));
-    assertEquals(150, adder.get(CollectionMode.DELTA));
-    assertEquals(150, adder.get(CollectionMode.CUMULATIVE));
-    assertEquals(0, adder.get(CollectionMode.DELTA));
+    assertEquals(150, adder.get(CollectionMode.CUMULATIVE, 0));
+    assertEquals(150, adder.get(CollectionMode.DELTA, 0));
+    assertEquals(150, adder.get(CollectionMode.CUMULATIVE, 0));
+    assertEquals(0, adder.get(CollectionMode.DELTA, 0));
 
     adder.add(25);
 
-    assertEquals(175, adder.get(CollectionMode.CUMULATIVE));
-    assertEquals(25, adder.get(CollectionMode.DELTA));
+    assertEquals(175, adder.get(CollectionMode.CUMULATIVE, 0));
+    assertEquals(25, adder.get(CollectionMode.DELTA, 0));
   }
 
   @Test
   void resetClearsCumulativeAndDeltaState() {
     var adder = new ValueAdder();
     adder.add(100);
-    adder.get(CollectionMode.DELTA);
+    adder.get(CollectionMode.DELTA, 0);
 
     adder.reset();
 
-    assertEquals(0, adder.get(CollectionMode.CUMULATIVE));
-    assertEquals(0, adder.get(CollectionMode.DELTA));
+    assertEquals(0, adder.get(CollectionMode.CUMULATIVE, 0));
+    assertEquals(0, adder.get(CollectionMode.DELTA, 0));
+  }
+
+  @Test
+  void deltaAfterDecrementIsNegative() {
+    var adder = new ValueAdder();
+    adder.add(100);
+    assertEquals(100, adder.get(CollectionMode.DELTA, 0));
+
+    adder.add(-30);
+    adder.decrement();
+
+    assertEquals(-31, adder.deltaValue());
+    assertEquals(-31, adder.get(CollectionMode.DELTA, 0));
+    assertEquals(69, adder.get(CollectionMode.CUMULATIVE, 0));
+    assertEquals(0, adder.get(CollectionMode.DELTA, 0));
+  }
+
+  @Test
+  void deltaReadersHaveIndependentCursors() {
+    var adder = new ValueAdder();
+    adder.add(100);
+    assertEquals(100, adder.get(CollectionMode.DELTA, 0));
+
+    adder.add(20);
+    assertEquals(120, adder.get(CollectionMode.DELTA, 2));
+    assertEquals(20, adder.get(CollectionMode.DELTA, 0));
+    assertEquals(0, adder.get(CollectionMode.DELTA, 2));
+    assertEquals(0, adder.deltaValue());
   }
 }
@@ -79,17 +79,20 @@ class ValueCounterTest {
 
     counter.add(200);
     Meter.Stats delta = collect(counter, DELTA);
-    assertEquals(100, delta.max());
+    assertEquals(200, delta.max());
 
-    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(59));
-    Meter.Stats next = collect(counter, CUMULATIVE);
-    assertEquals(200, next.max());
-    counter.add(300);
-    assertEquals(200, collect(counter, DELTA).max());
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(50));
+    counter.add(150);
+    assertEquals(200, collect(counter, CUMULATIVE).max());
+
+    // the collection of 200 is no longer within the 60 second window
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    counter.add(120);
+    assertEquals(150, collect(counter, DELTA).max());
   }
 
   private Meter.Stats collect(ValueCounter counter, io.avaje.metrics.CollectionMode mode) {
     var collector = new DStatsCollector(NamingMatch.INSTANCE, mode);
-    return (Meter.Stats) counter.collect(collector, "units");
+    return counter.collect(new DVisitorSink(collector), "units") ? (Meter.Stats) collector.list().get(0) : null;
   }
 }
@@ -0,0 +1,100 @@
+package io.avaje.metrics.core;
+
+import io.avaje.metrics.CollectionMode;
+import io.avaje.metrics.Meter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ValueHistogramTest {
+
+  @Test
+  void index_withinRelativeError() {
+    assertThat(ValueHistogram.BUCKETS).isEqualTo(528);
+    for (long value = 0; value < 100_000; value++) {
+      assertBucket(value);
+    }
+    for (long value = 100_000; value < ValueHistogram.MAX_VALUE; value = value * 3 / 2 + 7) {
+      assertBucket(value);
+    }
+    assertThat(ValueHistogram.index(-1)).isEqualTo(0);
+    assertThat(ValueHistogram.index(Long.MAX_VALUE)).isEqualTo(ValueHistogram.BUCKETS - 1);
+  }
+
+  private static void assertBucket(long value) {
+    int index = ValueHistogram.index(value);
+    long upper = ValueHistogram.upperBound(index);
+    assertThat(upper).isGreaterThanOrEqualTo(value);
+    assertThat(upper - value).isLessThanOrEqualTo(value / 16);
+    if (index > 0) {
+      assertThat(ValueHistogram.upperBound(index - 1)).isLessThan(value);
+    }
+  }
+
+  @Test
+  void percentileNames() {
+    assertThat(ValueHistogram.percentileNames(new double[]{0.5, 0.95, 0.99, 0.999, 1}))
+      .containsExactly("p50", "p95", "p99", "p999", "p100");
+  }
+
+  @Test
+  void quantiles_sortedAndValidated() {
+    assertThat(ValueHistogram.quantiles(new double[]{0.99, 0.5})).containsExactly(0.5, 0.99);
+    assertThatThrownBy(() -> ValueHistogram.quantiles(new double[0]))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ValueHistogram.quantiles(new double[]{0}))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ValueHistogram.quantiles(new double[]{1.5}))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void collect_percentiles() {
+    var histogram = new ValueHistogram(new double[]{0.5, 0.9, 0.99, 1});
+    for (int i = 1; i <= 1000; i++) {
+      histogram.add(i, 1);
+    }
+    Meter.Histogram snapshot = histogram.collect(CollectionMode.DELTA, 0);
+    assertThat(snapshot.percentileNames()).containsExactly("p50", "p90", "p99", "p100");
+    assertThat(snapshot.percentiles()).containsExactly(511, 927, 991, 1023);
+    assertThat(snapshot.bucketCounts()).hasSameSizeAs(snapshot.bucketBounds());
+    long count = 0;
+    for (long bucketCount : snapshot.bucketCounts()) {
+      count += bucketCount;
+    }
+    assertThat(count).isEqualTo(1000);
+  }
+
+  @Test
+  void collect_deltaAndCumulative() {
+    var histogram = new ValueHistogram(new double[]{0.5});
+    histogram.add(10, 1);
+    histogram.add(10, 4);
+    assertThat(histogram.collect(CollectionMode.DELTA, 0).bucketCounts()).containsExactly(2);
+
+    histogram.add(100, 2);
+    assertThat(histogram.collect(CollectionMode.CUMULATIVE, 0).bucketCounts()).containsExactly(2, 1);
+    Meter.Histogram delta = histogram.collect(CollectionMode.DELTA, 0);
+    assertThat(delta.bucketBounds()).containsExactly(103);
+    assertThat(delta.percentiles()).containsExactly(103);
+    assertThat(histogram.collect(CollectionMode.DELTA, 0).bucketCounts()).isEmpty();
+
+    histogram.reset();
+    assertThat(histogram.collect(CollectionMode.CUMULATIVE, 0).bucketCounts()).isEmpty();
+  }
+
+  @Test
+  void collect_deltaPerReader() {
+    var histogram = new ValueHistogram(new double[]{0.5});
+    histogram.add(10, 1);
+    assertThat(histogram.collect(CollectionMode.DELTA, 0).bucketCounts()).containsExactly(1);
+
+    histogram.add(10, 1);
+    histogram.add(100, 1);
+    assertThat(histogram.collect(CollectionMode.DELTA, 0).bucketCounts()).containsExactly(1, 1);
+    assertThat(histogram.collect(CollectionMode.DELTA, 2).bucketCounts()).containsExactly(2, 1);
+    assertThat(histogram.collect(CollectionMode.DELTA, 2).bucketCounts()).isEmpty();
+    assertThat(histogram.collect(CollectionMode.DELTA, 1).bucketCounts()).containsExactly(2, 1);
+  }
+}
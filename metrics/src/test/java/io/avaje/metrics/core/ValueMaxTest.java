@@ -0,0 +1,85 @@
+package io.avaje.metrics.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueMaxTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final ValueMax max = new ValueMax(nanoTime::get);
+
+  @Test
+  void collect_expectMaxSincePriorCollection() {
+    assertThat(max.collect(0, 100)).isEqualTo(100);
+    advanceSeconds(10);
+    // includes the sub-window of the prior collection
+    assertThat(max.collect(0, 50)).isEqualTo(100);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 20)).isEqualTo(50);
+    advanceSeconds(30);
+    assertThat(max.collect(0, 0)).isEqualTo(20);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 0)).isEqualTo(0);
+  }
+
+  @Test
+  void collect_readerFirstCollection_expectMaxOverWindow() {
+    max.collect(0, 100);
+    advanceSeconds(50);
+    assertThat(max.max()).isEqualTo(100);
+    assertThat(max.collect(1, 0)).isEqualTo(100);
+
+    // the sub-window of 100 has left the 6 x 10 second window
+    advanceSeconds(10);
+    assertThat(max.collect(2, 0)).isEqualTo(0);
+  }
+
+  @Test
+  void collect_readersWithDifferentIntervals_expectMaxOfEachInterval() {
+    max.collect(0, 0);
+    max.collect(1, 0);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 300)).isEqualTo(300);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 40)).isEqualTo(300);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 30)).isEqualTo(40);
+    advanceSeconds(10);
+    // the slow reader covers its whole 40 second interval
+    assertThat(max.collect(1, 20)).isEqualTo(300);
+    assertThat(max.collect(0, 0)).isEqualTo(30);
+  }
+
+  @Test
+  void window_expectConfiguredSubWindows() {
+    max.window(1, TimeUnit.SECONDS.toNanos(10));
+    assertThat(max.collect(0, 100)).isEqualTo(100);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 40)).isEqualTo(40);
+    advanceSeconds(10);
+    assertThat(max.collect(0, 0)).isEqualTo(0);
+  }
+
+  @Test
+  void window_sameWindow_expectMaxRetained() {
+    max.collect(0, 100);
+    max.window(ValueMax.DEFAULT_WINDOWS, ValueMax.DEFAULT_WINDOW_NANOS);
+    assertThat(max.max()).isEqualTo(100);
+  }
+
+  @Test
+  void reset() {
+    max.collect(0, 100);
+    max.reset();
+    assertThat(max.max()).isEqualTo(0);
+    assertThat(max.collect(0, 20)).isEqualTo(20);
+  }
+
+  private void advanceSeconds(long seconds) {
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+  }
+}
@@ -0,0 +1,55 @@
+package io.avaje.metrics.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ValueRatesTest {
+
+  private final AtomicLong count = new AtomicLong();
+  private final ValueRates rates = new ValueRates(count::get);
+
+  @Test
+  void tick_expectFirstIntervalRate() {
+    count.addAndGet(50);
+    rates.tick();
+    assertThat(rates.oneMinuteRate()).isEqualTo(10.0);
+    assertThat(rates.fiveMinuteRate()).isEqualTo(10.0);
+    assertThat(rates.fifteenMinuteRate()).isEqualTo(10.0);
+  }
+
+  @Test
+  void tick_expectDecayWhenIdle() {
+    count.addAndGet(50);
+    rates.tick();
+    // one minute of no events
+    for (int i = 0; i < 12; i++) {
+      rates.tick();
+    }
+    assertThat(rates.oneMinuteRate()).isCloseTo(10.0 / Math.E, within(0.01));
+    assertThat(rates.fiveMinuteRate()).isCloseTo(10.0 * Math.exp(-1 / 5.0), within(0.01));
+    assertThat(rates.fifteenMinuteRate()).isCloseTo(10.0 * Math.exp(-1 / 15.0), within(0.01));
+  }
+
+  @Test
+  void tick_expectConvergeToSteadyRate() {
+    for (int i = 0; i < 200; i++) {
+      count.addAndGet(100);
+      rates.tick();
+    }
+    assertThat(rates.oneMinuteRate()).isCloseTo(20.0, within(0.001));
+    assertThat(rates.fiveMinuteRate()).isCloseTo(20.0, within(0.1));
+  }
+
+  @Test
+  void tick_afterReset_expectCountFromZero() {
+    count.set(100);
+    rates.tick();
+    count.set(25);
+    rates.tick();
+    assertThat(rates.oneMinuteRate()).isGreaterThan(5.0).isLessThan(20.0);
+  }
+}
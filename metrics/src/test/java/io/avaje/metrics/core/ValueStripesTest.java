@@ -0,0 +1,132 @@
+package io.avaje.metrics.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueStripesTest {
+
+  @Test
+  void addAndRead() {
+    var values = new ValueStripes();
+    values.add(100);
+    values.add(50);
+    values.add(200);
+
+    assertThat(values.count()).isEqualTo(3);
+    assertThat(values.total()).isEqualTo(350);
+    assertThat(values.max()).isEqualTo(200);
+
+    assertThat(values.collect()).isEqualTo(200);
+    assertThat(values.collectedCount()).isEqualTo(3);
+    assertThat(values.collectedTotal()).isEqualTo(350);
+    assertThat(values.max()).isEqualTo(0);
+    assertThat(values.count()).isEqualTo(3);
+
+    values.add(20);
+    assertThat(values.count()).isEqualTo(4);
+    assertThat(values.collectedCount()).isEqualTo(3);
+    assertThat(values.collect()).isEqualTo(20);
+    assertThat(values.collectedCount()).isEqualTo(4);
+    assertThat(values.collectedTotal()).isEqualTo(370);
+
+    values.reset();
+    assertThat(values.count()).isEqualTo(0);
+    assertThat(values.total()).isEqualTo(0);
+  }
+
+  @Test
+  void maxStripes() {
+    assertThat(ValueStripes.maxStripes(1)).isEqualTo(1);
+    assertThat(ValueStripes.maxStripes(3)).isEqualTo(4);
+    assertThat(ValueStripes.maxStripes(64)).isEqualTo(64);
+    assertThat(ValueStripes.maxStripes(200)).isEqualTo(64);
+  }
+
+  @Test
+  void advance_movesProbeAcrossStripes() {
+    int probe = 42;
+    boolean[] seen = new boolean[4];
+    for (int i = 0; i < 32; i++) {
+      probe = ValueStripes.advance(probe);
+      assertThat(probe).isNotZero();
+      seen[probe & 3] = true;
+    }
+    assertThat(seen).containsOnly(true);
+  }
+
+  @Test
+  void concurrentAdds() throws InterruptedException {
+    var values = new ValueStripes();
+    int threadCount = 8;
+    int perThread = 100_000;
+    var start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadCount; t++) {
+      final long value = t + 1;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < perThread; i++) {
+          values.add(value);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(values.count()).isEqualTo((long) threadCount * perThread);
+    assertThat(values.total()).isEqualTo(36L * perThread);
+    assertThat(values.max()).isEqualTo(threadCount);
+    assertThat(values.stripeCount()).isLessThanOrEqualTo(ValueStripes.MAX_STRIPES);
+  }
+
+  @Test
+  void collectWhileAdding_expectConsistentIntervals() throws InterruptedException {
+    var values = new ValueStripes();
+    int threadCount = 4;
+    int perThread = 200_000;
+    var start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadCount; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < perThread; i++) {
+          values.add(10);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    long count = 0;
+    while (count < (long) threadCount * perThread) {
+      long max = values.collect();
+      long intervalCount = values.collectedCount() - count;
+      count = values.collectedCount();
+      // every value is 10 so each interval total is exactly 10 x count
+      assertThat(values.collectedTotal()).isEqualTo(count * 10);
+      assertThat(max).isEqualTo(intervalCount == 0 ? 0 : 10);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(values.collect()).isEqualTo(0);
+    assertThat(values.collectedCount()).isEqualTo((long) threadCount * perThread);
+  }
+}